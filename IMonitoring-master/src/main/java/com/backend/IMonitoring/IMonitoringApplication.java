@@ -2,12 +2,24 @@ package com.backend.IMonitoring;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.Map;
 
 @SpringBootApplication
+@EnableScheduling
 public class IMonitoringApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(IMonitoringApplication.class, args);
+		SpringApplication application = new SpringApplication(IMonitoringApplication.class);
+		// Sin open-in-view: las respuestas se construyen dentro de los servicios y no cargan relaciones perezosas.
+		// Métricas de actuator (p. ej. cache.gets de userPrincipals) expuestas solo a administradores, ver SecurityConfig.
+		// Varios hilos para @Scheduled: el tick de la rueda de ocupación no debe esperar a los jobs que consultan la BD.
+		application.setDefaultProperties(Map.of(
+				"spring.jpa.open-in-view", "false",
+				"management.endpoints.web.exposure.include", "health,metrics",
+				"spring.task.scheduling.pool.size", "4"));
+		application.run(args);
 	}
 
 }
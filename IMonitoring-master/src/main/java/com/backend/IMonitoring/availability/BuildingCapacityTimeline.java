@@ -0,0 +1,323 @@
+package com.backend.IMonitoring.availability;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Capacidad libre de cada edificio a lo largo del día. Por edificio y día materializado guarda un
+ * árbol de segmentos sobre franjas de {@code slotMinutes} minutos; cada nodo conoce las aulas
+ * libres durante todo su intervalo y el mínimo/máximo de asientos y aulas libres, de modo que
+ * cualquier rango se responde combinando O(log n) nodos. Igual que {@link OccupancyGrid}, un aula
+ * cuenta como ocupada en toda la franja si alguna reserva confirmada la toca.
+ */
+@Component
+public class BuildingCapacityTimeline {
+    public static final int LISTENER_ORDER = ClassroomAvailabilityIndex.LISTENER_ORDER + 30;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final ClassroomAvailabilityIndex availabilityIndex;
+    private final ClassroomCatalog catalog;
+    private final int slotMinutes;
+    private final int slotsPerDay;
+    private final Map<String, Map<LocalDate, DayTree>> buildings = new ConcurrentHashMap<>();
+
+    public BuildingCapacityTimeline(
+            ClassroomAvailabilityIndex availabilityIndex,
+            ClassroomCatalog catalog,
+            @Value("${availability.capacity-timeline.slot-minutes:15}") int slotMinutes
+    ) {
+        if (slotMinutes <= 0 || MINUTES_PER_DAY % slotMinutes != 0) {
+            throw new IllegalArgumentException("availability.capacity-timeline.slot-minutes debe dividir exactamente 1440 minutos.");
+        }
+        this.availabilityIndex = availabilityIndex;
+        this.catalog = catalog;
+        this.slotMinutes = slotMinutes;
+        this.slotsPerDay = MINUTES_PER_DAY / slotMinutes;
+    }
+
+    public int getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    /**
+     * Agrega las franjas que toca [start, end). {@code start} debe ser anterior a {@code end}.
+     */
+    public CapacityWindow query(String buildingId, LocalDateTime start, LocalDateTime end) {
+        CapacityWindow result = null;
+        LocalDate date = start.toLocalDate();
+        while (date.atStartOfDay().isBefore(end)) {
+            LocalDateTime dayStart = date.atStartOfDay();
+            LocalDateTime dayEnd = dayStart.plusDays(1);
+            int first = start.isAfter(dayStart) ? slotOf(start.toLocalTime()) : 0;
+            int last = end.isBefore(dayEnd) ? slotOf(end.minusNanos(1).toLocalTime()) : slotsPerDay - 1;
+            CapacityWindow window = day(buildingId, date).query(first, last + 1);
+            result = result == null ? window : result.combine(window);
+            date = date.plusDays(1);
+        }
+        return result;
+    }
+
+    /**
+     * Aulas del edificio con capacidad mínima {@code minCapacity} libres durante todo [start, end).
+     * Las franjas de los extremos que el rango solo cubre en parte se confirman contra el índice.
+     */
+    public BitSet freeThroughout(String buildingId, LocalDateTime start, LocalDateTime end, int minCapacity) {
+        BitSet candidates = catalog.inBuilding(buildingId);
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            ClassroomEntry entry = catalog.get(i);
+            if (entry == null || entry.getCapacity() < minCapacity) {
+                candidates.clear(i);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        BitSet free = query(buildingId, start, end).getFree();
+        free.and(candidates);
+
+        LocalDateTime innerStart = slotStart(start).equals(start) ? start : slotStart(start).plusMinutes(slotMinutes);
+        LocalDateTime innerEnd = slotStart(end);
+        BitSet edge = (BitSet) candidates.clone();
+        if (innerStart.isBefore(innerEnd)) {
+            edge.and(query(buildingId, innerStart, innerEnd).getFree());
+        }
+        edge.andNot(free);
+        for (int i = edge.nextSetBit(0); i >= 0; i = edge.nextSetBit(i + 1)) {
+            ClassroomEntry entry = catalog.get(i);
+            if (entry != null && availabilityIndex.isAvailable(entry.getId(), start, end)) {
+                free.set(i);
+            }
+        }
+        return free;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(LISTENER_ORDER)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        refresh(event.getBefore());
+        refresh(event.getAfter());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(LISTENER_ORDER)
+    public void onClassroomChanged(ClassroomChangedEvent event) {
+        buildings.clear();
+    }
+
+    @Scheduled(cron = "${availability.capacity-timeline.prune-cron:0 5 0 * * *}")
+    public void prunePastDays() {
+        LocalDate today = LocalDate.now();
+        buildings.values().forEach(days -> days.keySet().removeIf(day -> day.isBefore(today)));
+    }
+
+    private void refresh(ReservationSlot slot) {
+        if (slot == null || !slot.isConfirmed() || slot.getClassroomId() == null) {
+            return;
+        }
+        ClassroomEntry entry = catalog.get(slot.getClassroomId());
+        if (entry == null || entry.getBuildingId() == null) {
+            return;
+        }
+        Map<LocalDate, DayTree> days = buildings.get(entry.getBuildingId());
+        if (days == null) {
+            return;
+        }
+        LocalDate date = slot.getStartTime().toLocalDate();
+        while (date.atStartOfDay().isBefore(slot.getEndTime())) {
+            days.computeIfPresent(date, (d, tree) -> {
+                LocalDateTime from = slot.getStartTime().isAfter(d.atStartOfDay()) ? slotStart(slot.getStartTime()) : d.atStartOfDay();
+                LocalDateTime to = slot.getEndTime().isBefore(d.plusDays(1).atStartOfDay()) ? slot.getEndTime() : d.plusDays(1).atStartOfDay();
+                for (LocalDateTime cursor = from; cursor.isBefore(to); cursor = cursor.plusMinutes(slotMinutes)) {
+                    boolean free = availabilityIndex.isAvailable(entry.getId(), cursor, cursor.plusMinutes(slotMinutes));
+                    tree.set(slotOf(cursor.toLocalTime()), entry.getIndex(), entry.getCapacity(), free);
+                }
+                return tree;
+            });
+            date = date.plusDays(1);
+        }
+    }
+
+    private DayTree day(String buildingId, LocalDate date) {
+        return buildings.computeIfAbsent(buildingId, b -> new ConcurrentHashMap<>())
+                .computeIfAbsent(date, d -> build(buildingId, d));
+    }
+
+    private DayTree build(String buildingId, LocalDate date) {
+        BitSet rooms = catalog.inBuilding(buildingId);
+        int seats = 0;
+        for (int i = rooms.nextSetBit(0); i >= 0; i = rooms.nextSetBit(i + 1)) {
+            ClassroomEntry entry = catalog.get(i);
+            seats += entry != null ? entry.getCapacity() : 0;
+        }
+        DayTree tree = new DayTree(slotsPerDay, rooms, seats);
+        LocalDateTime dayStart = date.atStartOfDay();
+        LocalDateTime dayEnd = dayStart.plusDays(1);
+        for (int i = rooms.nextSetBit(0); i >= 0; i = rooms.nextSetBit(i + 1)) {
+            ClassroomEntry entry = catalog.get(i);
+            if (entry == null) {
+                continue;
+            }
+            for (ReservationSlot reservation : availabilityIndex.findOverlapping(entry.getId(), dayStart, dayEnd)) {
+                LocalDateTime from = reservation.getStartTime().isBefore(dayStart) ? dayStart : reservation.getStartTime();
+                LocalDateTime to = reservation.getEndTime().isAfter(dayEnd) ? dayEnd : reservation.getEndTime();
+                int first = slotOf(from.toLocalTime());
+                int last = to.equals(dayEnd) ? slotsPerDay - 1 : slotOf(to.minusNanos(1).toLocalTime());
+                for (int slot = first; slot <= last; slot++) {
+                    tree.set(slot, i, entry.getCapacity(), false);
+                }
+            }
+        }
+        return tree;
+    }
+
+    private int slotOf(LocalTime time) {
+        return (time.getHour() * 60 + time.getMinute()) / slotMinutes;
+    }
+
+    private LocalDateTime slotStart(LocalDateTime time) {
+        return time.toLocalDate().atStartOfDay().plusMinutes((long) slotOf(time.toLocalTime()) * slotMinutes);
+    }
+
+    /**
+     * Resultado de una consulta: aulas libres durante todo el rango y asientos/aulas libres en el
+     * peor y el mejor momento.
+     */
+    public static final class CapacityWindow {
+        private final BitSet free;
+        private final int minFreeSeats;
+        private final int maxFreeSeats;
+        private final int minFreeClassrooms;
+
+        private CapacityWindow(BitSet free, int minFreeSeats, int maxFreeSeats, int minFreeClassrooms) {
+            this.free = free;
+            this.minFreeSeats = minFreeSeats;
+            this.maxFreeSeats = maxFreeSeats;
+            this.minFreeClassrooms = minFreeClassrooms;
+        }
+
+        public BitSet getFree() {
+            return (BitSet) free.clone();
+        }
+
+        public int getMinFreeSeats() {
+            return minFreeSeats;
+        }
+
+        public int getMaxFreeSeats() {
+            return maxFreeSeats;
+        }
+
+        public int getMinFreeClassrooms() {
+            return minFreeClassrooms;
+        }
+
+        private CapacityWindow combine(CapacityWindow other) {
+            BitSet merged = (BitSet) free.clone();
+            merged.and(other.free);
+            return new CapacityWindow(
+                    merged,
+                    Math.min(minFreeSeats, other.minFreeSeats),
+                    Math.max(maxFreeSeats, other.maxFreeSeats),
+                    Math.min(minFreeClassrooms, other.minFreeClassrooms));
+        }
+    }
+
+    /**
+     * Árbol de segmentos iterativo: las hojas empiezan en {@code size} y el nodo {@code n} combina
+     * {@code 2n} y {@code 2n + 1}. Las hojas de relleno (hasta la potencia de dos) nunca se consultan.
+     */
+    private static final class DayTree {
+        private final int size;
+        private final BitSet[] free;
+        private final int[] minSeats;
+        private final int[] maxSeats;
+        private final int[] minRooms;
+
+        private DayTree(int slots, BitSet rooms, int seats) {
+            int n = 1;
+            while (n < slots) {
+                n <<= 1;
+            }
+            this.size = n;
+            this.free = new BitSet[2 * n];
+            this.minSeats = new int[2 * n];
+            this.maxSeats = new int[2 * n];
+            this.minRooms = new int[2 * n];
+            for (int leaf = n; leaf < 2 * n; leaf++) {
+                free[leaf] = (BitSet) rooms.clone();
+                minSeats[leaf] = seats;
+                maxSeats[leaf] = seats;
+                minRooms[leaf] = rooms.cardinality();
+            }
+            for (int node = n - 1; node >= 1; node--) {
+                pull(node);
+            }
+        }
+
+        private synchronized CapacityWindow query(int from, int to) {
+            BitSet mask = null;
+            int lowSeats = Integer.MAX_VALUE;
+            int highSeats = 0;
+            int lowRooms = Integer.MAX_VALUE;
+            for (int l = from + size, r = to + size; l < r; l >>= 1, r >>= 1) {
+                if ((l & 1) == 1) {
+                    mask = and(mask, free[l]);
+                    lowSeats = Math.min(lowSeats, minSeats[l]);
+                    highSeats = Math.max(highSeats, maxSeats[l]);
+                    lowRooms = Math.min(lowRooms, minRooms[l]);
+                    l++;
+                }
+                if ((r & 1) == 1) {
+                    r--;
+                    mask = and(mask, free[r]);
+                    lowSeats = Math.min(lowSeats, minSeats[r]);
+                    highSeats = Math.max(highSeats, maxSeats[r]);
+                    lowRooms = Math.min(lowRooms, minRooms[r]);
+                }
+            }
+            return new CapacityWindow(mask != null ? mask : new BitSet(), lowSeats, highSeats, lowRooms);
+        }
+
+        private synchronized void set(int slot, int classroomIndex, int capacity, boolean isFree) {
+            int leaf = slot + size;
+            if (free[leaf].get(classroomIndex) == isFree) {
+                return;
+            }
+            free[leaf].set(classroomIndex, isFree);
+            int delta = isFree ? 1 : -1;
+            minSeats[leaf] += delta * capacity;
+            maxSeats[leaf] = minSeats[leaf];
+            minRooms[leaf] += delta;
+            for (int node = leaf >> 1; node >= 1; node >>= 1) {
+                pull(node);
+            }
+        }
+
+        private void pull(int node) {
+            BitSet merged = (BitSet) free[2 * node].clone();
+            merged.and(free[2 * node + 1]);
+            free[node] = merged;
+            minSeats[node] = Math.min(minSeats[2 * node], minSeats[2 * node + 1]);
+            maxSeats[node] = Math.max(maxSeats[2 * node], maxSeats[2 * node + 1]);
+            minRooms[node] = Math.min(minRooms[2 * node], minRooms[2 * node + 1]);
+        }
+
+        private static BitSet and(BitSet mask, BitSet node) {
+            if (mask == null) {
+                return (BitSet) node.clone();
+            }
+            mask.and(node);
+            return mask;
+        }
+    }
+}
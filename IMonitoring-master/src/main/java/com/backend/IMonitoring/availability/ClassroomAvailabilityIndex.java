@@ -0,0 +1,141 @@
+package com.backend.IMonitoring.availability;
+
+import com.backend.IMonitoring.model.ReservationStatus;
+import com.backend.IMonitoring.repository.ClassroomRepository;
+import com.backend.IMonitoring.repository.ReservationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+public class ClassroomAvailabilityIndex {
+    public static final int LISTENER_ORDER = 0;
+
+    private final ReservationRepository reservationRepository;
+    private final ClassroomRepository classroomRepository;
+
+    private final Map<String, ClassroomTimeline> timelines = new ConcurrentHashMap<>();
+    private final AtomicLong mutations = new AtomicLong();
+    private volatile boolean loaded = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(LISTENER_ORDER)
+    public void load() {
+        replaceWith(loadConfirmedFromDatabase());
+        loaded = true;
+        System.out.println("ClassroomAvailabilityIndex: índice cargado con " + size() + " reservas confirmadas.");
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public boolean isAvailable(String classroomId, LocalDateTime startTime, LocalDateTime endTime) {
+        return isAvailable(classroomId, startTime, endTime, null);
+    }
+
+    public boolean isAvailable(String classroomId, LocalDateTime startTime, LocalDateTime endTime, String excludeReservationId) {
+        if (!loaded) {
+            return excludeReservationId == null
+                    ? classroomRepository.isAvailable(classroomId, startTime, endTime)
+                    : classroomRepository.isAvailable(classroomId, startTime, endTime, excludeReservationId);
+        }
+        ClassroomTimeline timeline = timelines.get(classroomId);
+        return timeline == null || !timeline.hasOverlap(startTime, endTime, excludeReservationId);
+    }
+
+    public boolean isOccupiedAt(String classroomId, LocalDateTime instant) {
+        ClassroomTimeline timeline = timelines.get(classroomId);
+        return timeline != null && timeline.isOccupiedAt(instant);
+    }
+
+    public List<ReservationSlot> findOverlapping(String classroomId, LocalDateTime startTime, LocalDateTime endTime) {
+        if (!loaded) {
+            return reservationRepository.findByClassroomIdAndDateTimeRange(classroomId, startTime, endTime).stream()
+                    .map(ReservationSlot::of)
+                    .collect(Collectors.toList());
+        }
+        ClassroomTimeline timeline = timelines.get(classroomId);
+        if (timeline == null) {
+            return Collections.emptyList();
+        }
+        return timeline.overlapping(startTime, endTime, null);
+    }
+
+    public int size() {
+        return timelines.values().stream().mapToInt(ClassroomTimeline::size).sum();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(LISTENER_ORDER)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        mutations.incrementAndGet();
+        ReservationSlot before = event.getBefore();
+        ReservationSlot after = event.getAfter();
+        if (before != null && before.getClassroomId() != null) {
+            ClassroomTimeline timeline = timelines.get(before.getClassroomId());
+            if (timeline != null) {
+                timeline.remove(before.getId());
+            }
+        }
+        if (after != null && after.isConfirmed() && after.getClassroomId() != null) {
+            timelines.computeIfAbsent(after.getClassroomId(), id -> new ClassroomTimeline()).put(after);
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${availability.index.verify-interval-ms:300000}",
+            fixedDelayString = "${availability.index.verify-interval-ms:300000}"
+    )
+    public void verifyAgainstDatabase() {
+        if (!loaded) {
+            return;
+        }
+        long mutationsBefore = mutations.get();
+        Map<String, ReservationSlot> expected = loadConfirmedFromDatabase();
+        Map<String, ReservationSlot> actual = new HashMap<>();
+        timelines.values().forEach(timeline -> actual.putAll(timeline.snapshot()));
+
+        if (expected.equals(actual)) {
+            return;
+        }
+        if (mutations.get() != mutationsBefore) {
+            // Hubo escrituras durante la comparación; se vuelve a comprobar en la siguiente pasada.
+            return;
+        }
+        System.err.println("ClassroomAvailabilityIndex: el índice difiere de la base de datos (" +
+                actual.size() + " en memoria, " + expected.size() + " en BD). Reconstruyendo.");
+        replaceWith(expected);
+    }
+
+    private Map<String, ReservationSlot> loadConfirmedFromDatabase() {
+        Map<String, ReservationSlot> slots = new HashMap<>();
+        for (ReservationSlot slot : reservationRepository.findSlotsByStatus(ReservationStatus.CONFIRMADA)) {
+            slots.put(slot.getId(), slot);
+        }
+        return slots;
+    }
+
+    private synchronized void replaceWith(Map<String, ReservationSlot> slots) {
+        Map<String, ClassroomTimeline> rebuilt = new HashMap<>();
+        for (ReservationSlot slot : slots.values()) {
+            rebuilt.computeIfAbsent(slot.getClassroomId(), id -> new ClassroomTimeline()).put(slot);
+        }
+        timelines.keySet().retainAll(rebuilt.keySet());
+        timelines.putAll(rebuilt);
+    }
+}
@@ -0,0 +1,87 @@
+package com.backend.IMonitoring.availability;
+
+import com.backend.IMonitoring.exceptions.ClassroomBusyException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cerrojos por aula repartidos en un número fijo de franjas (lock striping). Solo se serializan
+ * las escrituras sobre la misma aula (o sobre aulas que caen en la misma franja); el resto de
+ * reservas avanza en paralelo. El cerrojo se libera al terminar la transacción, después de que
+ * los listeners AFTER_COMMIT hayan actualizado el índice de disponibilidad.
+ * <p>
+ * Los cerrojos viven en memoria y solo serializan dentro de esta JVM. Con varias instancias la
+ * garantía de no solape la da la restricción de exclusión de la base de datos
+ * ({@code reservation_no_overlap}); estos cerrojos solo evitan que las solicitudes de una misma
+ * instancia choquen contra ella. Si no se obtiene el cerrojo a tiempo se lanza
+ * {@link ClassroomBusyException} (503, se puede reintentar).
+ */
+@Component
+public class ClassroomBookingLocks {
+    private final ReentrantLock[] stripes;
+    private final long timeoutMillis;
+
+    public ClassroomBookingLocks(
+            @Value("${reservation.lock.stripes:1024}") int stripeCount,
+            @Value("${reservation.lock.timeout-ms:5000}") long timeoutMillis
+    ) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("reservation.lock.stripes debe ser mayor que cero.");
+        }
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public void lockUntilTransactionEnds(String... classroomIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Los cerrojos de aula solo pueden tomarse dentro de una transacción.");
+        }
+        int[] indices = Arrays.stream(classroomIds)
+                .filter(Objects::nonNull)
+                .mapToInt(this::stripeOf)
+                .distinct()
+                .sorted()
+                .toArray();
+        for (int i = 0; i < indices.length; i++) {
+            ReentrantLock lock = stripes[indices[i]];
+            if (!tryLock(lock)) {
+                for (int j = i - 1; j >= 0; j--) {
+                    stripes[indices[j]].unlock();
+                }
+                throw new ClassroomBusyException("El aula está siendo reservada por otra solicitud. Inténtalo de nuevo.");
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                for (int i = indices.length - 1; i >= 0; i--) {
+                    stripes[indices[i]].unlock();
+                }
+            }
+        });
+    }
+
+    private int stripeOf(String classroomId) {
+        int h = classroomId.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), stripes.length);
+    }
+
+    private boolean tryLock(ReentrantLock lock) {
+        try {
+            return lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
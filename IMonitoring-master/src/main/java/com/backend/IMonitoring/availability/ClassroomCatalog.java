@@ -0,0 +1,176 @@
+package com.backend.IMonitoring.availability;
+
+import com.backend.IMonitoring.model.Classroom;
+import com.backend.IMonitoring.model.ClassroomType;
+import com.backend.IMonitoring.repository.ClassroomRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Copia en memoria de los datos de las aulas. Cada aula recibe un índice denso que no se
+ * reutiliza mientras la aplicación está en marcha; las estructuras por aula (bitsets,
+ * contadores) se indexan por él. Además mantiene un BitSet por tipo, edificio y recurso para
+ * filtrar aulas con operaciones sobre palabras de 64 bits.
+ */
+@Component
+@RequiredArgsConstructor
+public class ClassroomCatalog {
+    private final ClassroomRepository classroomRepository;
+
+    private final Map<String, ClassroomEntry> byId = new ConcurrentHashMap<>();
+    private final List<ClassroomEntry> byIndex = new ArrayList<>();
+    private final BitSet live = new BitSet();
+    private final Map<ClassroomType, BitSet> byType = new EnumMap<>(ClassroomType.class);
+    private final Map<String, BitSet> byBuilding = new HashMap<>();
+    private final Map<String, BitSet> byResource = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Integer.MIN_VALUE)
+    public void load() {
+        classroomRepository.findAll().forEach(this::put);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(Integer.MIN_VALUE)
+    public void onClassroomChanged(ClassroomChangedEvent event) {
+        if (event.getClassroom() == null) {
+            remove(event.getClassroomId());
+        } else {
+            put(event.getClassroom());
+        }
+    }
+
+    public ClassroomEntry get(String classroomId) {
+        return byId.get(classroomId);
+    }
+
+    public synchronized ClassroomEntry get(int index) {
+        return index < byIndex.size() ? byIndex.get(index) : null;
+    }
+
+    public boolean contains(String classroomId) {
+        return byId.containsKey(classroomId);
+    }
+
+    public Collection<ClassroomEntry> all() {
+        return Collections.unmodifiableCollection(byId.values());
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public synchronized BitSet liveMask() {
+        return (BitSet) live.clone();
+    }
+
+    /**
+     * Aulas vivas que cumplen todos los filtros indicados; un filtro nulo o vacío no restringe.
+     */
+    public synchronized BitSet matching(ClassroomType type, String buildingId, Collection<String> resources) {
+        BitSet mask = (BitSet) live.clone();
+        if (type != null) {
+            mask.and(byType.getOrDefault(type, new BitSet()));
+        }
+        if (buildingId != null && !buildingId.isBlank()) {
+            mask.and(byBuilding.getOrDefault(buildingId, new BitSet()));
+        }
+        if (resources != null) {
+            for (String resource : resources) {
+                String token = ClassroomEntry.normalizeResource(resource);
+                if (!token.isEmpty()) {
+                    mask.and(byResource.getOrDefault(token, new BitSet()));
+                }
+            }
+        }
+        return mask;
+    }
+
+    public synchronized BitSet inBuilding(String buildingId) {
+        BitSet mask = byBuilding.get(buildingId);
+        return mask != null ? (BitSet) mask.clone() : new BitSet();
+    }
+
+    public List<String> idsOf(BitSet mask) {
+        List<String> ids = new ArrayList<>(mask.cardinality());
+        for (int i = mask.nextSetBit(0); i >= 0; i = mask.nextSetBit(i + 1)) {
+            ClassroomEntry entry = get(i);
+            if (entry != null) {
+                ids.add(entry.getId());
+            }
+        }
+        return ids;
+    }
+
+    private synchronized void put(Classroom classroom) {
+        ClassroomEntry existing = byId.get(classroom.getId());
+        int index = existing != null ? existing.getIndex() : byIndex.size();
+        ClassroomEntry entry = ClassroomEntry.of(index, classroom);
+        if (existing == null) {
+            byIndex.add(entry);
+        } else {
+            byIndex.set(index, entry);
+            unmark(existing);
+        }
+        byId.put(entry.getId(), entry);
+        live.set(index);
+        mark(entry);
+    }
+
+    private synchronized void remove(String classroomId) {
+        ClassroomEntry existing = byId.remove(classroomId);
+        if (existing != null) {
+            byIndex.set(existing.getIndex(), null);
+            live.clear(existing.getIndex());
+            unmark(existing);
+        }
+    }
+
+    private void mark(ClassroomEntry entry) {
+        if (entry.getType() != null) {
+            byType.computeIfAbsent(entry.getType(), t -> new BitSet()).set(entry.getIndex());
+        }
+        if (entry.getBuildingId() != null) {
+            byBuilding.computeIfAbsent(entry.getBuildingId(), b -> new BitSet()).set(entry.getIndex());
+        }
+        for (String resource : entry.resourceTokens()) {
+            byResource.computeIfAbsent(resource, r -> new BitSet()).set(entry.getIndex());
+        }
+    }
+
+    private void unmark(ClassroomEntry entry) {
+        if (entry.getType() != null) {
+            clearBit(byType.get(entry.getType()), entry.getIndex());
+        }
+        if (entry.getBuildingId() != null && clearBit(byBuilding.get(entry.getBuildingId()), entry.getIndex())) {
+            byBuilding.remove(entry.getBuildingId());
+        }
+        for (String resource : entry.resourceTokens()) {
+            if (clearBit(byResource.get(resource), entry.getIndex())) {
+                byResource.remove(resource);
+            }
+        }
+    }
+
+    private static boolean clearBit(BitSet mask, int index) {
+        if (mask == null) {
+            return false;
+        }
+        mask.clear(index);
+        return mask.isEmpty();
+    }
+}
@@ -0,0 +1,13 @@
+package com.backend.IMonitoring.availability;
+
+import com.backend.IMonitoring.model.Classroom;
+import lombok.Value;
+
+/**
+ * Se publica al crear, editar o eliminar un aula. {@code classroom} es nulo en los borrados.
+ */
+@Value
+public class ClassroomChangedEvent {
+    String classroomId;
+    Classroom classroom;
+}
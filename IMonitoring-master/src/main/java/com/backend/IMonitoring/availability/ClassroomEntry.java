@@ -0,0 +1,47 @@
+package com.backend.IMonitoring.availability;
+
+import com.backend.IMonitoring.model.Classroom;
+import com.backend.IMonitoring.model.ClassroomType;
+import lombok.Value;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Value
+public class ClassroomEntry {
+    int index;
+    String id;
+    String name;
+    int capacity;
+    ClassroomType type;
+    String buildingId;
+    String resources;
+
+    public Set<String> resourceTokens() {
+        if (resources == null) {
+            return Set.of();
+        }
+        return Arrays.stream(resources.split("[,;]"))
+                .map(ClassroomEntry::normalizeResource)
+                .filter(token -> !token.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    static String normalizeResource(String resource) {
+        return resource == null ? "" : resource.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static ClassroomEntry of(int index, Classroom classroom) {
+        return new ClassroomEntry(
+                index,
+                classroom.getId(),
+                classroom.getName(),
+                classroom.getCapacity() != null ? classroom.getCapacity() : 0,
+                classroom.getType(),
+                classroom.getBuildingId(),
+                classroom.getResources()
+        );
+    }
+}
@@ -0,0 +1,10 @@
+package com.backend.IMonitoring.availability;
+
+import lombok.Value;
+
+@Value
+public class ClassroomOccupancyChangedEvent {
+    String classroomId;
+    String buildingId;
+    boolean occupied;
+}
@@ -0,0 +1,99 @@
+package com.backend.IMonitoring.availability;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Reservas confirmadas de un aula ordenadas por (inicio, id). La restricción de exclusión
+ * {@code reservation_no_overlap} garantiza que no se solapan entre sí, así que de las que empiezan
+ * antes de {@code start} solo la inmediatamente anterior puede llegar a [start, end); el resto de
+ * candidatas empiezan dentro de [start, end). Cada consulta cuesta O(log n) más las reservas que
+ * empiezan dentro del intervalo, independientemente de lo largas que sean.
+ */
+class ClassroomTimeline {
+    private static final Comparator<ReservationSlot> BY_START =
+            Comparator.comparing(ReservationSlot::getStartTime).thenComparing(ReservationSlot::getId);
+
+    private final NavigableSet<ReservationSlot> slots = new TreeSet<>(BY_START);
+    private final Map<String, ReservationSlot> byId = new HashMap<>();
+
+    synchronized void put(ReservationSlot slot) {
+        remove(slot.getId());
+        slots.add(slot);
+        byId.put(slot.getId(), slot);
+    }
+
+    synchronized boolean remove(String reservationId) {
+        ReservationSlot previous = byId.remove(reservationId);
+        if (previous == null) {
+            return false;
+        }
+        slots.remove(previous);
+        return true;
+    }
+
+    synchronized boolean isEmpty() {
+        return byId.isEmpty();
+    }
+
+    synchronized int size() {
+        return byId.size();
+    }
+
+    synchronized List<ReservationSlot> overlapping(LocalDateTime start, LocalDateTime end, String excludeReservationId) {
+        List<ReservationSlot> result = new ArrayList<>();
+        if (slots.isEmpty() || !start.isBefore(end)) {
+            return result;
+        }
+        ReservationSlot previous = slots.lower(probe(start));
+        if (previous != null && previous.overlaps(start, end) && !Objects.equals(previous.getId(), excludeReservationId)) {
+            result.add(previous);
+        }
+        for (ReservationSlot slot : slots.subSet(probe(start), true, probe(end), false)) {
+            if (slot.overlaps(start, end) && !Objects.equals(slot.getId(), excludeReservationId)) {
+                result.add(slot);
+            }
+        }
+        return result;
+    }
+
+    synchronized boolean hasOverlap(LocalDateTime start, LocalDateTime end, String excludeReservationId) {
+        if (slots.isEmpty() || !start.isBefore(end)) {
+            return false;
+        }
+        ReservationSlot previous = slots.lower(probe(start));
+        if (previous != null && previous.overlaps(start, end) && !Objects.equals(previous.getId(), excludeReservationId)) {
+            return true;
+        }
+        for (ReservationSlot slot : slots.subSet(probe(start), true, probe(end), false)) {
+            if (slot.overlaps(start, end) && !Objects.equals(slot.getId(), excludeReservationId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    synchronized boolean isOccupiedAt(LocalDateTime instant) {
+        ReservationSlot previous = slots.lower(probe(instant));
+        if (previous != null && previous.getEndTime().isAfter(instant)) {
+            return true;
+        }
+        ReservationSlot startingNow = slots.ceiling(probe(instant));
+        return startingNow != null && startingNow.getStartTime().equals(instant) && startingNow.getEndTime().isAfter(instant);
+    }
+
+    synchronized Map<String, ReservationSlot> snapshot() {
+        return new HashMap<>(byId);
+    }
+
+    private static ReservationSlot probe(LocalDateTime time) {
+        return new ReservationSlot("", null, null, time, time, null, null);
+    }
+}
@@ -0,0 +1,199 @@
+package com.backend.IMonitoring.availability;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rejilla de ocupación: para cada día materializado y cada franja de {@code slotMinutes}
+ * minutos guarda un BitSet con un bit por aula (índice de {@link ClassroomCatalog}). Un bit
+ * encendido significa que alguna reserva confirmada toca la franja, de modo que las preguntas
+ * sobre todas las aulas se resuelven con OR/ANDNOT de palabras de 64 bits. Las aulas marcadas
+ * en franjas parcialmente ocupadas se confirman contra {@link ClassroomAvailabilityIndex}.
+ * Solo se guardan los días entre hoy y {@code maxDaysAhead}; los demás se construyen para la
+ * consulta y se descartan, para que pedir fechas lejanas no llene la memoria.
+ */
+@Component
+public class OccupancyGrid {
+    public static final int LISTENER_ORDER = ClassroomAvailabilityIndex.LISTENER_ORDER + 10;
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final ClassroomAvailabilityIndex availabilityIndex;
+    private final ClassroomCatalog catalog;
+    private final int slotMinutes;
+    private final int slotsPerDay;
+    private final long maxDaysAhead;
+    private final Map<LocalDate, DayGrid> days = new ConcurrentHashMap<>();
+
+    public OccupancyGrid(
+            ClassroomAvailabilityIndex availabilityIndex,
+            ClassroomCatalog catalog,
+            @Value("${availability.grid.slot-minutes:15}") int slotMinutes,
+            @Value("${availability.grid.max-days-ahead:62}") long maxDaysAhead
+    ) {
+        if (slotMinutes <= 0 || MINUTES_PER_DAY % slotMinutes != 0) {
+            throw new IllegalArgumentException("availability.grid.slot-minutes debe dividir exactamente 1440 minutos.");
+        }
+        this.availabilityIndex = availabilityIndex;
+        this.catalog = catalog;
+        this.slotMinutes = slotMinutes;
+        this.slotsPerDay = MINUTES_PER_DAY / slotMinutes;
+        this.maxDaysAhead = maxDaysAhead;
+    }
+
+    public int getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    public BitSet occupiedAt(LocalDateTime instant) {
+        BitSet candidates = day(instant.toLocalDate()).slot(slotOf(instant.toLocalTime()));
+        candidates.and(catalog.liveMask());
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            ClassroomEntry entry = catalog.get(i);
+            if (entry == null || !availabilityIndex.isOccupiedAt(entry.getId(), instant)) {
+                candidates.clear(i);
+            }
+        }
+        return candidates;
+    }
+
+    public BitSet freeAt(LocalDateTime instant) {
+        BitSet free = catalog.liveMask();
+        free.andNot(occupiedAt(instant));
+        return free;
+    }
+
+    public BitSet freeThroughout(LocalDateTime start, LocalDateTime end) {
+        BitSet free = catalog.liveMask();
+        if (!start.isBefore(end)) {
+            return free;
+        }
+        BitSet touched = new BitSet();
+        LocalDateTime cursor = slotStart(start);
+        LocalDate gridDate = null;
+        DayGrid grid = null;
+        while (cursor.isBefore(end)) {
+            if (!cursor.toLocalDate().equals(gridDate)) {
+                gridDate = cursor.toLocalDate();
+                grid = day(gridDate);
+            }
+            touched.or(grid.slot(slotOf(cursor.toLocalTime())));
+            cursor = cursor.plusMinutes(slotMinutes);
+        }
+        touched.and(free);
+        for (int i = touched.nextSetBit(0); i >= 0; i = touched.nextSetBit(i + 1)) {
+            ClassroomEntry entry = catalog.get(i);
+            if (entry == null || !availabilityIndex.isAvailable(entry.getId(), start, end)) {
+                free.clear(i);
+            }
+        }
+        return free;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(LISTENER_ORDER)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        refresh(event.getBefore());
+        refresh(event.getAfter());
+    }
+
+    @Scheduled(cron = "${availability.grid.prune-cron:0 5 0 * * *}")
+    public void prunePastDays() {
+        LocalDate today = LocalDate.now();
+        days.keySet().removeIf(day -> day.isBefore(today));
+    }
+
+    private void refresh(ReservationSlot slot) {
+        if (slot == null || !slot.isConfirmed() || slot.getClassroomId() == null) {
+            return;
+        }
+        ClassroomEntry entry = catalog.get(slot.getClassroomId());
+        if (entry == null) {
+            return;
+        }
+        LocalDate date = slot.getStartTime().toLocalDate();
+        while (date.atStartOfDay().isBefore(slot.getEndTime())) {
+            LocalDate day = date;
+            days.computeIfPresent(day, (d, grid) -> {
+                LocalDateTime from = slot.getStartTime().isAfter(d.atStartOfDay()) ? slotStart(slot.getStartTime()) : d.atStartOfDay();
+                LocalDateTime to = slot.getEndTime().isBefore(d.plusDays(1).atStartOfDay()) ? slot.getEndTime() : d.plusDays(1).atStartOfDay();
+                for (LocalDateTime cursor = from; cursor.isBefore(to); cursor = cursor.plusMinutes(slotMinutes)) {
+                    boolean busy = !availabilityIndex.isAvailable(entry.getId(), cursor, cursor.plusMinutes(slotMinutes));
+                    grid.set(slotOf(cursor.toLocalTime()), entry.getIndex(), busy);
+                }
+                return grid;
+            });
+            date = date.plusDays(1);
+        }
+    }
+
+    private DayGrid day(LocalDate date) {
+        DayGrid cached = days.get(date);
+        if (cached != null) {
+            return cached;
+        }
+        LocalDate today = LocalDate.now();
+        if (date.isBefore(today) || date.isAfter(today.plusDays(maxDaysAhead))) {
+            return build(date);
+        }
+        return days.computeIfAbsent(date, this::build);
+    }
+
+    int cachedDays() {
+        return days.size();
+    }
+
+    private DayGrid build(LocalDate date) {
+        DayGrid grid = new DayGrid(slotsPerDay);
+        LocalDateTime dayStart = date.atStartOfDay();
+        LocalDateTime dayEnd = dayStart.plusDays(1);
+        for (ClassroomEntry entry : catalog.all()) {
+            for (ReservationSlot reservation : availabilityIndex.findOverlapping(entry.getId(), dayStart, dayEnd)) {
+                LocalDateTime from = reservation.getStartTime().isBefore(dayStart) ? dayStart : reservation.getStartTime();
+                LocalDateTime to = reservation.getEndTime().isAfter(dayEnd) ? dayEnd : reservation.getEndTime();
+                int first = slotOf(from.toLocalTime());
+                int last = to.equals(dayEnd) ? slotsPerDay - 1 : slotOf(to.minusNanos(1).toLocalTime());
+                for (int slot = first; slot <= last; slot++) {
+                    grid.set(slot, entry.getIndex(), true);
+                }
+            }
+        }
+        return grid;
+    }
+
+    private int slotOf(LocalTime time) {
+        return (time.getHour() * 60 + time.getMinute()) / slotMinutes;
+    }
+
+    private LocalDateTime slotStart(LocalDateTime time) {
+        return time.toLocalDate().atStartOfDay().plusMinutes((long) slotOf(time.toLocalTime()) * slotMinutes);
+    }
+
+    private static final class DayGrid {
+        private final BitSet[] slots;
+
+        private DayGrid(int slotsPerDay) {
+            this.slots = new BitSet[slotsPerDay];
+            for (int i = 0; i < slotsPerDay; i++) {
+                slots[i] = new BitSet();
+            }
+        }
+
+        private synchronized BitSet slot(int slot) {
+            return (BitSet) slots[slot].clone();
+        }
+
+        private synchronized void set(int slot, int classroomIndex, boolean occupied) {
+            slots[slot].set(classroomIndex, occupied);
+        }
+    }
+}
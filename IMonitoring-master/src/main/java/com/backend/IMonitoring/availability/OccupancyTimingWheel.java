@@ -0,0 +1,325 @@
+package com.backend.IMonitoring.availability;
+
+import com.backend.IMonitoring.model.Reservation;
+import com.backend.IMonitoring.repository.ReservationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rueda de temporización (hashed timing wheel) que dispara en el inicio y el fin de cada reserva
+ * confirmada y mantiene en atómicos el número de aulas ocupadas, global y por edificio. Solo se
+ * programan las reservas que empiezan dentro del horizonte; el resto se añade al refrescarlo.
+ * Cada vez que un aula pasa a estar ocupada o libre publica {@link ClassroomOccupancyChangedEvent}.
+ */
+@Component
+public class OccupancyTimingWheel {
+    public static final int LISTENER_ORDER = ClassroomAvailabilityIndex.LISTENER_ORDER + 20;
+
+    private final ClassroomAvailabilityIndex availabilityIndex;
+    private final ClassroomCatalog catalog;
+    private final ReservationRepository reservationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long tickMillis;
+    private final Duration horizon;
+    private final List<ArrayDeque<Timer>> buckets;
+
+    private final Map<String, Registration> registrations = new HashMap<>();
+    private final Map<String, Integer> activeByClassroom = new HashMap<>();
+    private final Map<String, AtomicInteger> occupiedByBuilding = new ConcurrentHashMap<>();
+    private final AtomicInteger occupied = new AtomicInteger();
+    private long currentTick;
+    private boolean rebuilding;
+    private volatile boolean loaded = false;
+
+    public OccupancyTimingWheel(
+            ClassroomAvailabilityIndex availabilityIndex,
+            ClassroomCatalog catalog,
+            ReservationRepository reservationRepository,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${availability.wheel.tick-ms:1000}") long tickMillis,
+            @Value("${availability.wheel.size:512}") int wheelSize,
+            @Value("${availability.wheel.horizon-hours:24}") long horizonHours
+    ) {
+        if (tickMillis <= 0 || wheelSize <= 0 || horizonHours <= 0) {
+            throw new IllegalArgumentException("availability.wheel.* debe ser positivo.");
+        }
+        this.availabilityIndex = availabilityIndex;
+        this.catalog = catalog;
+        this.reservationRepository = reservationRepository;
+        this.eventPublisher = eventPublisher;
+        this.tickMillis = tickMillis;
+        this.horizon = Duration.ofHours(horizonHours);
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayDeque<>());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public synchronized void load() {
+        rebuild();
+        loaded = true;
+        System.out.println("OccupancyTimingWheel: " + occupied.get() + " aulas ocupadas, " + registrations.size() + " reservas programadas.");
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int occupiedNow() {
+        return occupied.get();
+    }
+
+    public int occupiedNow(String buildingId) {
+        AtomicInteger counter = occupiedByBuilding.get(buildingId);
+        return counter != null ? counter.get() : 0;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(LISTENER_ORDER)
+    public synchronized void onReservationChanged(ReservationChangedEvent event) {
+        if (!loaded) {
+            return;
+        }
+        if (event.getBefore() != null) {
+            unregister(event.getBefore().getId());
+        }
+        if (event.getAfter() != null) {
+            register(event.getAfter(), LocalDateTime.now());
+        }
+    }
+
+    @Scheduled(fixedRateString = "${availability.wheel.tick-ms:1000}")
+    public synchronized void tick() {
+        if (!loaded) {
+            return;
+        }
+        long target = tickOf(LocalDateTime.now());
+        while (currentTick < target) {
+            currentTick++;
+            Iterator<Timer> it = buckets.get((int) (currentTick % buckets.size())).iterator();
+            while (it.hasNext()) {
+                Timer timer = it.next();
+                if (timer.cancelled) {
+                    it.remove();
+                } else if (timer.rounds > 0) {
+                    timer.rounds--;
+                } else {
+                    it.remove();
+                    fire(timer);
+                }
+            }
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${availability.wheel.refill-interval-ms:900000}",
+            fixedDelayString = "${availability.wheel.refill-interval-ms:900000}"
+    )
+    public void scheduleUpcoming() {
+        if (!loaded) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (ClassroomEntry entry : catalog.all()) {
+            for (ReservationSlot slot : availabilityIndex.findOverlapping(entry.getId(), now, now.plus(horizon))) {
+                synchronized (this) {
+                    if (!registrations.containsKey(slot.getId())) {
+                        register(slot, now);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Compara los contadores con las reservas en curso según la base de datos y reconstruye la
+     * rueda si difieren (por ejemplo, si un aula cambió de edificio).
+     */
+    @Scheduled(
+            initialDelayString = "${availability.wheel.reconcile-interval-ms:60000}",
+            fixedDelayString = "${availability.wheel.reconcile-interval-ms:60000}"
+    )
+    public void reconcile() {
+        if (!loaded) {
+            return;
+        }
+        Map<String, Set<String>> expected = new HashMap<>();
+        for (Reservation reservation : reservationRepository.findCurrentReservations(LocalDateTime.now())) {
+            ClassroomEntry entry = catalog.get(reservation.getClassroom().getId());
+            if (entry != null && entry.getBuildingId() != null) {
+                expected.computeIfAbsent(entry.getBuildingId(), b -> new HashSet<>()).add(entry.getId());
+            }
+        }
+        int expectedTotal = expected.values().stream().mapToInt(Set::size).sum();
+        boolean matches = expectedTotal == occupied.get()
+                && expected.entrySet().stream().allMatch(e -> e.getValue().size() == occupiedNow(e.getKey()))
+                && occupiedByBuilding.values().stream().mapToInt(AtomicInteger::get).sum() == expectedTotal;
+        if (!matches) {
+            System.err.println("OccupancyTimingWheel: contadores desincronizados (" + occupied.get() +
+                    " en memoria, " + expectedTotal + " en BD). Reconstruyendo.");
+            rebuild();
+        }
+    }
+
+    private synchronized void rebuild() {
+        for (ArrayDeque<Timer> bucket : buckets) {
+            bucket.clear();
+        }
+        registrations.clear();
+        activeByClassroom.clear();
+        occupiedByBuilding.clear();
+        occupied.set(0);
+        LocalDateTime now = LocalDateTime.now();
+        currentTick = tickOf(now);
+        rebuilding = true;
+        try {
+            for (ClassroomEntry entry : catalog.all()) {
+                for (ReservationSlot slot : availabilityIndex.findOverlapping(entry.getId(), now, now.plus(horizon))) {
+                    register(slot, now);
+                }
+            }
+        } finally {
+            rebuilding = false;
+        }
+    }
+
+    private void register(ReservationSlot slot, LocalDateTime now) {
+        if (!slot.isConfirmed() || slot.getClassroomId() == null || !slot.getEndTime().isAfter(now)
+                || slot.getStartTime().isAfter(now.plus(horizon))) {
+            return;
+        }
+        Registration registration = new Registration(slot);
+        registrations.put(slot.getId(), registration);
+        if (slot.getStartTime().isAfter(now)) {
+            registration.startTimer = schedule(slot.getId(), true, slot.getStartTime());
+        } else {
+            activate(registration);
+        }
+        registration.endTimer = schedule(slot.getId(), false, slot.getEndTime());
+    }
+
+    private void unregister(String reservationId) {
+        Registration registration = registrations.remove(reservationId);
+        if (registration == null) {
+            return;
+        }
+        if (registration.startTimer != null) {
+            registration.startTimer.cancelled = true;
+        }
+        if (registration.endTimer != null) {
+            registration.endTimer.cancelled = true;
+        }
+        if (registration.active) {
+            deactivate(registration);
+        }
+    }
+
+    private Timer schedule(String reservationId, boolean start, LocalDateTime deadline) {
+        long ticks = Math.max(1, tickOf(deadline) - currentTick);
+        Timer timer = new Timer(reservationId, start, (ticks - 1) / buckets.size());
+        buckets.get((int) ((currentTick + ticks) % buckets.size())).add(timer);
+        return timer;
+    }
+
+    private void fire(Timer timer) {
+        Registration registration = registrations.get(timer.reservationId);
+        if (registration == null) {
+            return;
+        }
+        if (timer.start) {
+            registration.startTimer = null;
+            activate(registration);
+        } else {
+            registrations.remove(timer.reservationId);
+            if (registration.active) {
+                deactivate(registration);
+            }
+        }
+    }
+
+    private void activate(Registration registration) {
+        registration.active = true;
+        String classroomId = registration.slot.getClassroomId();
+        registration.buildingId = buildingOf(classroomId);
+        if (activeByClassroom.merge(classroomId, 1, Integer::sum) == 1) {
+            adjust(classroomId, registration.buildingId, 1);
+        }
+    }
+
+    private void deactivate(Registration registration) {
+        registration.active = false;
+        String classroomId = registration.slot.getClassroomId();
+        Integer remaining = activeByClassroom.computeIfPresent(classroomId, (id, count) -> count > 1 ? count - 1 : null);
+        if (remaining == null) {
+            adjust(classroomId, registration.buildingId, -1);
+        }
+    }
+
+    private void adjust(String classroomId, String buildingId, int delta) {
+        occupied.addAndGet(delta);
+        if (buildingId != null) {
+            occupiedByBuilding.computeIfAbsent(buildingId, b -> new AtomicInteger()).addAndGet(delta);
+        }
+        if (!rebuilding) {
+            eventPublisher.publishEvent(new ClassroomOccupancyChangedEvent(classroomId, buildingId, delta > 0));
+        }
+    }
+
+    private String buildingOf(String classroomId) {
+        ClassroomEntry entry = catalog.get(classroomId);
+        return entry != null ? entry.getBuildingId() : null;
+    }
+
+    private long tickOf(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() / tickMillis;
+    }
+
+    private static final class Registration {
+        private final ReservationSlot slot;
+        private Timer startTimer;
+        private Timer endTimer;
+        private boolean active;
+        private String buildingId;
+
+        private Registration(ReservationSlot slot) {
+            this.slot = slot;
+        }
+    }
+
+    private static final class Timer {
+        private final String reservationId;
+        private final boolean start;
+        private long rounds;
+        private boolean cancelled;
+
+        private Timer(String reservationId, boolean start, long rounds) {
+            this.reservationId = Objects.requireNonNull(reservationId);
+            this.start = start;
+            this.rounds = rounds;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.backend.IMonitoring.availability;
+
+import lombok.Value;
+
+/**
+ * Se publica tras cada alta, edición, cambio de estado o borrado de una reserva.
+ * {@code before} es nulo en las altas y {@code after} es nulo en los borrados.
+ */
+@Value
+public class ReservationChangedEvent {
+    ReservationSlot before;
+    ReservationSlot after;
+
+    public String getReservationId() {
+        return after != null ? after.getId() : before.getId();
+    }
+}
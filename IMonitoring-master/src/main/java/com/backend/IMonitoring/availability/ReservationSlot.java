@@ -0,0 +1,43 @@
+package com.backend.IMonitoring.availability;
+
+import com.backend.IMonitoring.model.Reservation;
+import com.backend.IMonitoring.model.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+@AllArgsConstructor
+public class ReservationSlot {
+    String id;
+    String classroomId;
+    String userId;
+    LocalDateTime startTime;
+    LocalDateTime endTime;
+    ReservationStatus status;
+    String purpose;
+
+    public static ReservationSlot of(Reservation reservation) {
+        if (reservation == null) {
+            return null;
+        }
+        return new ReservationSlot(
+                reservation.getId(),
+                reservation.getClassroom() != null ? reservation.getClassroom().getId() : null,
+                reservation.getUser() != null ? reservation.getUser().getId() : null,
+                reservation.getStartTime(),
+                reservation.getEndTime(),
+                reservation.getStatus(),
+                reservation.getPurpose()
+        );
+    }
+
+    public boolean isConfirmed() {
+        return status == ReservationStatus.CONFIRMADA;
+    }
+
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        return startTime.isBefore(end) && endTime.isAfter(start);
+    }
+}
@@ -0,0 +1,95 @@
+package com.backend.IMonitoring.availability;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Value
+public class TimeWindow {
+    public static final Comparator<TimeWindow> BY_START =
+            Comparator.comparing(TimeWindow::getStart).thenComparing(TimeWindow::getEnd);
+
+    LocalDateTime start;
+    LocalDateTime end;
+
+    public static TimeWindow of(ReservationSlot slot) {
+        return new TimeWindow(slot.getStartTime(), slot.getEndTime());
+    }
+
+    public boolean overlaps(TimeWindow other) {
+        return start.isBefore(other.end) && end.isAfter(other.start);
+    }
+
+    /**
+     * Une en una lista ordenada y disjunta las ventanas que se solapan o se tocan.
+     */
+    public static List<TimeWindow> merge(List<TimeWindow> windows) {
+        List<TimeWindow> sorted = new ArrayList<>(windows);
+        sorted.sort(BY_START);
+        List<TimeWindow> merged = new ArrayList<>();
+        TimeWindow current = null;
+        for (TimeWindow window : sorted) {
+            if (current == null) {
+                current = window;
+            } else if (!window.start.isAfter(current.end)) {
+                if (window.end.isAfter(current.end)) {
+                    current = new TimeWindow(current.start, window.end);
+                }
+            } else {
+                merged.add(current);
+                current = window;
+            }
+        }
+        if (current != null) {
+            merged.add(current);
+        }
+        return merged;
+    }
+
+    /**
+     * Entrega a {@code sink} los huecos de [from, to) que no cubre ninguna ventana de {@code busy}
+     * (ordenada por inicio, puede contener solapes) en una sola pasada.
+     */
+    public static void gaps(List<TimeWindow> busy, LocalDateTime from, LocalDateTime to, Consumer<TimeWindow> sink) {
+        LocalDateTime cursor = from;
+        for (TimeWindow window : busy) {
+            if (!cursor.isBefore(to)) {
+                return;
+            }
+            if (!window.start.isBefore(to)) {
+                break;
+            }
+            if (window.start.isAfter(cursor)) {
+                sink.accept(new TimeWindow(cursor, window.start));
+            }
+            if (window.end.isAfter(cursor)) {
+                cursor = window.end;
+            }
+        }
+        if (cursor.isBefore(to)) {
+            sink.accept(new TimeWindow(cursor, to));
+        }
+    }
+
+    /**
+     * Devuelve las ventanas de {@code candidates} (ordenadas por inicio) que solapan alguna de
+     * {@code busy} (ordenada y disjunta) en una sola pasada de barrido.
+     */
+    public static List<TimeWindow> conflicts(List<TimeWindow> candidates, List<TimeWindow> busy) {
+        List<TimeWindow> conflicts = new ArrayList<>();
+        int b = 0;
+        for (TimeWindow candidate : candidates) {
+            while (b < busy.size() && !busy.get(b).end.isAfter(candidate.start)) {
+                b++;
+            }
+            if (b < busy.size() && busy.get(b).start.isBefore(candidate.end)) {
+                conflicts.add(candidate);
+            }
+        }
+        return conflicts;
+    }
+}
@@ -1,5 +1,9 @@
 package com.backend.IMonitoring.config;
 
+import com.backend.IMonitoring.security.JwtClaims;
+import com.backend.IMonitoring.security.TokenRevocationList;
+import com.backend.IMonitoring.security.TokenVersionRegistry;
+import com.backend.IMonitoring.security.UserDetailsImpl;
 import com.backend.IMonitoring.service.JwtService;
 
 import com.backend.IMonitoring.service.UserDetailsServiceImpl;
@@ -8,10 +12,12 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -23,6 +29,11 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final UserDetailsServiceImpl userDetailsService;
+    private final TokenVersionRegistry tokenVersions;
+    private final TokenRevocationList revocationList;
+
+    @Value("${security.jwt.stateless:true}")
+    private boolean statelessAuthentication;
 
     @Override
     protected void doFilterInternal(
@@ -32,7 +43,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String userEmail;
+        final JwtClaims claims;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -40,11 +51,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt);
+        claims = jwtService.verify(jwt);
 
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+        if (claims != null && SecurityContextHolder.getContext().getAuthentication() == null
+                && !revocationList.isRevoked(claims.getTokenId())) {
+            UserDetails userDetails = resolvePrincipal(claims);
+            if (userDetails != null && userDetails.isEnabled()) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -58,4 +70,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * En modo sin estado el principal sale de los claims y solo se comprueba la versión del token;
+     * los tokens antiguos sin {@code userId}/{@code role}/{@code ver} siguen cargando el usuario.
+     */
+    private UserDetails resolvePrincipal(JwtClaims claims) {
+        if (statelessAuthentication && claims.isSelfContained()) {
+            return tokenVersions.isCurrent(claims.getUserId(), claims.getTokenVersion())
+                    ? userDetailsService.loadUserFromClaims(claims)
+                    : null;
+        }
+        try {
+            UserDetailsImpl userDetails = (UserDetailsImpl) userDetailsService.loadUserByUsername(claims.getSubject());
+            if (claims.getTokenVersion() != null
+                    && !claims.getTokenVersion().equals(userDetails.getUserEntity().getTokenVersion())) {
+                return null;
+            }
+            return userDetails;
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+    }
 }
\ No newline at end of file
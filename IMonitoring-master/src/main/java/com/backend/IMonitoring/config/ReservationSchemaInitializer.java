@@ -0,0 +1,68 @@
+package com.backend.IMonitoring.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Añade a la tabla reservation lo que Hibernate no sabe generar: la columna calculada
+ * {@code period} (tsrange [start_time, end_time)), la restricción de exclusión que impide dos
+ * reservas CONFIRMADA solapadas en la misma aula y un índice GiST para las consultas por
+ * instante. Todas las sentencias son idempotentes y se ejecutan en cada arranque; si alguna falla
+ * el arranque se aborta, porque las consultas nativas sobre {@code r.period} y la garantía de no
+ * solape dependen de ellas.
+ */
+@Component
+@Order(0)
+@RequiredArgsConstructor
+public class ReservationSchemaInitializer implements ApplicationRunner {
+    public static final String NO_OVERLAP_CONSTRAINT = "reservation_no_overlap";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        execute("CREATE EXTENSION IF NOT EXISTS btree_gist");
+        execute("ALTER TABLE reservation ADD COLUMN IF NOT EXISTS period tsrange " +
+                "GENERATED ALWAYS AS (tsrange(start_time, end_time, '[)')) STORED");
+        Boolean constraintExists = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ?)", Boolean.class, NO_OVERLAP_CONSTRAINT);
+        if (!Boolean.TRUE.equals(constraintExists)) {
+            assertNoConfirmedOverlaps();
+            execute("ALTER TABLE reservation ADD CONSTRAINT " + NO_OVERLAP_CONSTRAINT + " " +
+                    "EXCLUDE USING gist (classroom_id WITH =, period WITH &&) WHERE (status = 'CONFIRMADA')");
+        }
+        execute("CREATE INDEX IF NOT EXISTS idx_reservation_confirmed_period " +
+                "ON reservation USING gist (period) WHERE status = 'CONFIRMADA'");
+    }
+
+    /**
+     * La restricción no se puede crear si ya hay reservas confirmadas solapadas; se informa de
+     * cuántas hay en lugar de dejar que Postgres falle con un mensaje genérico.
+     */
+    private void assertNoConfirmedOverlaps() {
+        Integer overlapping = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM reservation a JOIN reservation b " +
+                "ON a.classroom_id = b.classroom_id AND a.id < b.id AND a.period && b.period " +
+                "WHERE a.status = 'CONFIRMADA' AND b.status = 'CONFIRMADA'",
+                Integer.class);
+        if (overlapping != null && overlapping > 0) {
+            throw new IllegalStateException("ReservationSchemaInitializer: hay " + overlapping +
+                    " pares de reservas CONFIRMADA solapadas en la misma aula; corrígelos antes de arrancar para poder crear " +
+                    NO_OVERLAP_CONSTRAINT + ".");
+        }
+    }
+
+    private void execute(String sql) {
+        try {
+            jdbcTemplate.execute(sql);
+        } catch (DataAccessException e) {
+            throw new IllegalStateException("ReservationSchemaInitializer: no se pudo aplicar [" + sql + "]: " +
+                    e.getMostSpecificCause().getMessage(), e);
+        }
+    }
+}
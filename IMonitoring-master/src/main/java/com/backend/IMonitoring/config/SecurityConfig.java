@@ -37,6 +37,8 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                 .requestMatchers("/api/auth/**").permitAll()
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasAuthority("ROLE_" + Rol.ADMIN.name())
 
                 .requestMatchers(HttpMethod.GET, "/api/buildings", "/api/buildings/**").authenticated()
                 .requestMatchers(HttpMethod.POST, "/api/buildings").hasAuthority("ROLE_" + Rol.ADMIN.name())
@@ -48,7 +50,9 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.PUT, "/api/classrooms/**").hasAuthority("ROLE_" + Rol.ADMIN.name())
                 .requestMatchers(HttpMethod.DELETE, "/api/classrooms/**").hasAuthority("ROLE_" + Rol.ADMIN.name())
 
+                .requestMatchers(HttpMethod.POST, "/api/reservations/batch").hasAuthority("ROLE_" + Rol.ADMIN.name())
                 .requestMatchers(HttpMethod.POST, "/api/reservations").authenticated()
+                .requestMatchers(HttpMethod.GET, "/api/reservations/export").hasAuthority("ROLE_" + Rol.ADMIN.name())
                 .requestMatchers(HttpMethod.GET, "/api/reservations", "/api/reservations/**").authenticated()
                 .requestMatchers(HttpMethod.PUT, "/api/reservations/{id}/status").hasAuthority("ROLE_" + Rol.ADMIN.name())
                 .requestMatchers(HttpMethod.PATCH, "/api/reservations/{id}/status").hasAuthority("ROLE_" + Rol.ADMIN.name())
@@ -56,6 +60,12 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.DELETE, "/api/reservations/{id}").authenticated()
                 .requestMatchers(HttpMethod.PATCH, "/api/reservations/{id}/cancel").authenticated()
 
+                .requestMatchers(HttpMethod.POST, "/api/reservation-series").authenticated()
+                .requestMatchers(HttpMethod.GET, "/api/reservation-series/**").authenticated()
+                .requestMatchers(HttpMethod.PATCH, "/api/reservation-series/{id}/status").hasAuthority("ROLE_" + Rol.ADMIN.name())
+
+                .requestMatchers("/api/analytics/**").hasAuthority("ROLE_" + Rol.ADMIN.name())
+
                 .requestMatchers(HttpMethod.GET, "/api/users/me/reservations").authenticated()
                 .requestMatchers(HttpMethod.PUT, "/api/users/{id}").authenticated()
                 .requestMatchers(HttpMethod.PATCH, "/api/users/{id}/password").authenticated()
@@ -63,6 +73,7 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.GET, "/api/users", "/api/users/{id}").hasAuthority("ROLE_" + Rol.ADMIN.name())
                 .requestMatchers(HttpMethod.GET, "/api/users/role/{role}").hasAuthority("ROLE_" + Rol.ADMIN.name())
                 .requestMatchers(HttpMethod.POST, "/api/users").hasAuthority("ROLE_" + Rol.ADMIN.name())
+                .requestMatchers(HttpMethod.POST, "/api/users/{id}/revoke-tokens").hasAuthority("ROLE_" + Rol.ADMIN.name())
                 .requestMatchers(HttpMethod.DELETE, "/api/users/{id}").hasAuthority("ROLE_" + Rol.ADMIN.name())
                 .requestMatchers(HttpMethod.GET, "/api/users/{userId}/reservations").hasAuthority("ROLE_" + Rol.ADMIN.name())
 
@@ -83,6 +94,7 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:8100"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"));
         configuration.setAllowedHeaders(List.of("*"));
+        configuration.setExposedHeaders(List.of("X-Next-Cursor"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
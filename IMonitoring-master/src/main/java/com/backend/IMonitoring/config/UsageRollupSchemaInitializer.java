@@ -0,0 +1,40 @@
+package com.backend.IMonitoring.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Crea la tabla de agregados {@code reservation_hourly_usage} que mantiene
+ * {@link com.backend.IMonitoring.repository.UsageRollupRepository}. No es una entidad JPA, así
+ * que Hibernate no la genera. Las sentencias son idempotentes y se ejecutan antes del backfill.
+ */
+@Component
+@Order(1)
+@RequiredArgsConstructor
+public class UsageRollupSchemaInitializer implements ApplicationRunner {
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        execute("CREATE TABLE IF NOT EXISTS reservation_hourly_usage (" +
+                "classroom_id varchar(255) NOT NULL, " +
+                "hour_start timestamp(6) NOT NULL, " +
+                "booked_seconds integer NOT NULL, " +
+                "PRIMARY KEY (classroom_id, hour_start))");
+        execute("CREATE INDEX IF NOT EXISTS idx_hourly_usage_hour ON reservation_hourly_usage (hour_start)");
+    }
+
+    private void execute(String sql) {
+        try {
+            jdbcTemplate.execute(sql);
+        } catch (DataAccessException e) {
+            throw new IllegalStateException("UsageRollupSchemaInitializer: no se pudo aplicar [" + sql + "]: " +
+                    e.getMostSpecificCause().getMessage(), e);
+        }
+    }
+}
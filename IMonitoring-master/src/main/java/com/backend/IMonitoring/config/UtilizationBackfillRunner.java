@@ -0,0 +1,44 @@
+package com.backend.IMonitoring.config;
+
+import com.backend.IMonitoring.service.UtilizationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Backfill de los agregados de uso al arrancar con {@code --rollup-backfill}. Opcionalmente
+ * {@code --rollup-backfill-from=2024-01-01}, {@code --rollup-backfill-to=2025-01-01},
+ * {@code --rollup-backfill-chunk-days=30} y {@code --rollup-backfill-parallelism=4}.
+ */
+@Component
+@Order(10)
+@RequiredArgsConstructor
+public class UtilizationBackfillRunner implements ApplicationRunner {
+    private final UtilizationService utilizationService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!args.containsOption("rollup-backfill")) {
+            return;
+        }
+        String from = option(args, "rollup-backfill-from");
+        String to = option(args, "rollup-backfill-to");
+        String chunkDays = option(args, "rollup-backfill-chunk-days");
+        String parallelism = option(args, "rollup-backfill-parallelism");
+        utilizationService.backfill(
+                from != null ? LocalDate.parse(from).atStartOfDay() : null,
+                to != null ? LocalDate.parse(to).atStartOfDay() : null,
+                chunkDays != null ? Integer.parseInt(chunkDays) : 30,
+                parallelism != null ? Integer.parseInt(parallelism) : Runtime.getRuntime().availableProcessors());
+    }
+
+    private static String option(ApplicationArguments args, String name) {
+        List<String> values = args.getOptionValues(name);
+        return values != null && !values.isEmpty() ? values.get(0) : null;
+    }
+}
@@ -0,0 +1,72 @@
+package com.backend.IMonitoring.controller;
+
+import com.backend.IMonitoring.dto.HeatmapCellDTO;
+import com.backend.IMonitoring.dto.UtilizationDTO;
+import com.backend.IMonitoring.model.ClassroomType;
+import com.backend.IMonitoring.service.UtilizationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AnalyticsController {
+    private final UtilizationService utilizationService;
+
+    @GetMapping("/utilization")
+    public ResponseEntity<List<UtilizationDTO>> getUtilization(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "classroom") String groupBy,
+            @RequestParam(required = false) String buildingId,
+            @RequestParam(required = false) ClassroomType type) {
+        return ResponseEntity.ok(utilizationService.getUtilization(from, to, groupBy, buildingId, type));
+    }
+
+    @GetMapping("/heatmap")
+    public ResponseEntity<List<HeatmapCellDTO>> getHeatmap(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String buildingId,
+            @RequestParam(required = false) ClassroomType type) {
+        return ResponseEntity.ok(utilizationService.getHeatmap(from, to, buildingId, type));
+    }
+
+    @GetMapping("/classrooms/top")
+    public ResponseEntity<List<UtilizationDTO>> getTopClassrooms(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String buildingId,
+            @RequestParam(required = false) ClassroomType type,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(utilizationService.getClassroomRanking(from, to, buildingId, type, false, limit));
+    }
+
+    @GetMapping("/classrooms/bottom")
+    public ResponseEntity<List<UtilizationDTO>> getBottomClassrooms(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String buildingId,
+            @RequestParam(required = false) ClassroomType type,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(utilizationService.getClassroomRanking(from, to, buildingId, type, true, limit));
+    }
+
+    @PostMapping("/backfill")
+    public ResponseEntity<Map<String, Integer>> backfill(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "30") int chunkDays,
+            @RequestParam(defaultValue = "4") int parallelism) {
+        int rows = utilizationService.backfill(from, to, chunkDays, parallelism);
+        return ResponseEntity.ok(Map.of("rows", rows));
+    }
+}
@@ -2,12 +2,15 @@ package com.backend.IMonitoring.controller;
 
 import com.backend.IMonitoring.dto.AuthRequest;
 import com.backend.IMonitoring.dto.AuthResponse;
+import com.backend.IMonitoring.dto.RefreshTokenRequest;
 import com.backend.IMonitoring.dto.RegisterRequest;
 import com.backend.IMonitoring.service.AuthService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -26,4 +29,18 @@ public class AuthController {
     public ResponseEntity<AuthResponse> authenticate(@RequestBody AuthRequest request) {
         return ResponseEntity.ok(authService.authenticate(request));
     }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(authService.refresh(request.getRefreshToken()));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestBody(required = false) RefreshTokenRequest request
+    ) {
+        authService.logout(authHeader, request != null ? request.getRefreshToken() : null);
+        return ResponseEntity.noContent().build();
+    }
 }
\ No newline at end of file
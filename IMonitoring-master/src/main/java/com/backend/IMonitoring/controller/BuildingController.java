@@ -1,16 +1,21 @@
 package com.backend.IMonitoring.controller;
 
+import com.backend.IMonitoring.dto.BuildingDTO;
 import com.backend.IMonitoring.dto.BuildingRequestDTO;
+import com.backend.IMonitoring.dto.CapacityPointDTO;
+import com.backend.IMonitoring.dto.ClassroomDTO;
 import com.backend.IMonitoring.model.Building;
 import com.backend.IMonitoring.service.BuildingService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -21,13 +26,31 @@ public class BuildingController {
     private final BuildingService buildingService;
 
     @GetMapping
-    public ResponseEntity<List<Building>> getAllBuildings() {
-        return ResponseEntity.ok(buildingService.getAllBuildings());
+    public ResponseEntity<List<BuildingDTO>> getAllBuildings(@RequestParam(required = false) List<String> expand) {
+        return ResponseEntity.ok(buildingService.getAllBuildings(expandsClassrooms(expand)));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Building> getBuildingById(@PathVariable String id) {
-        return ResponseEntity.ok(buildingService.getBuildingById(id));
+    public ResponseEntity<BuildingDTO> getBuildingById(@PathVariable String id, @RequestParam(required = false) List<String> expand) {
+        return ResponseEntity.ok(buildingService.getBuildingSummary(id, expandsClassrooms(expand)));
+    }
+
+    @GetMapping("/{id}/capacity-timeline")
+    public ResponseEntity<List<CapacityPointDTO>> getCapacityTimeline(
+            @PathVariable String id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(required = false) Integer stepMinutes) {
+        return ResponseEntity.ok(buildingService.getCapacityTimeline(id, startTime, endTime, stepMinutes));
+    }
+
+    @GetMapping("/{id}/free-classrooms")
+    public ResponseEntity<List<ClassroomDTO>> getFreeClassrooms(
+            @PathVariable String id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(required = false) Integer minCapacity) {
+        return ResponseEntity.ok(buildingService.getFreeClassrooms(id, startTime, endTime, minCapacity));
     }
 
     @PostMapping
@@ -55,4 +78,8 @@ public class BuildingController {
         buildingService.deleteBuilding(id);
         return ResponseEntity.noContent().build();
     }
+
+    private static boolean expandsClassrooms(List<String> expand) {
+        return expand != null && expand.stream().anyMatch(e -> e.trim().equalsIgnoreCase("classrooms"));
+    }
 }
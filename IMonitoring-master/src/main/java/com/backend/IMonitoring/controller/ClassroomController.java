@@ -1,33 +1,47 @@
 package com.backend.IMonitoring.controller;
 
+import com.backend.IMonitoring.dto.AvailabilityBatchRequestDTO;
 import com.backend.IMonitoring.dto.AvailabilityRequest;
 import com.backend.IMonitoring.dto.ClassroomAvailabilitySummaryDTO;
+import com.backend.IMonitoring.dto.ClassroomDTO;
 import com.backend.IMonitoring.dto.ClassroomRequestDTO;
+import com.backend.IMonitoring.dto.FreeSlotDTO;
+import com.backend.IMonitoring.dto.ReservationSummaryDTO;
 import com.backend.IMonitoring.model.Classroom;
 import com.backend.IMonitoring.model.ClassroomType;
-import com.backend.IMonitoring.model.Reservation;
 import com.backend.IMonitoring.service.ClassroomService;
+import com.backend.IMonitoring.service.OccupancyStreamService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/classrooms")
 @RequiredArgsConstructor
 public class ClassroomController {
     private final ClassroomService classroomService;
+    private final OccupancyStreamService occupancyStreamService;
+    private final ObjectMapper objectMapper;
 
  
     @GetMapping
-    public ResponseEntity<List<Classroom>> getAllClassrooms() {
+    public ResponseEntity<List<ClassroomDTO>> getAllClassrooms() {
         return ResponseEntity.ok(classroomService.getAllClassrooms());
     }
 
@@ -60,28 +74,67 @@ public class ClassroomController {
     }
     
     @GetMapping("/type/{type}")
-    public ResponseEntity<List<Classroom>> getClassroomsByType(@PathVariable ClassroomType type) {
+    public ResponseEntity<List<ClassroomDTO>> getClassroomsByType(@PathVariable ClassroomType type) {
         return ResponseEntity.ok(classroomService.getClassroomsByType(type));
     }
 
     @GetMapping("/capacity/{minCapacity}")
-    public ResponseEntity<List<Classroom>> getClassroomsByMinCapacity(@PathVariable Integer minCapacity) {
+    public ResponseEntity<List<ClassroomDTO>> getClassroomsByMinCapacity(@PathVariable Integer minCapacity) {
         return ResponseEntity.ok(classroomService.getClassroomsByMinCapacity(minCapacity));
     }
 
     @GetMapping("/available-now")
-    public ResponseEntity<List<Classroom>> getAvailableClassroomsNow() {
+    public ResponseEntity<List<ClassroomDTO>> getAvailableClassroomsNow() {
         return ResponseEntity.ok(classroomService.getAvailableNow());
     }
 
     @GetMapping("/unavailable-now")
-    public ResponseEntity<List<Classroom>> getUnavailableClassroomsNow() {
+    public ResponseEntity<List<ClassroomDTO>> getUnavailableClassroomsNow() {
         return ResponseEntity.ok(classroomService.getUnavailableNow());
     }
 
     @GetMapping("/stats/availability")
-    public ResponseEntity<ClassroomAvailabilitySummaryDTO> getAvailabilitySummary() {
-        return ResponseEntity.ok(classroomService.getAvailabilitySummary());
+    public ResponseEntity<ClassroomAvailabilitySummaryDTO> getAvailabilitySummary(
+            @RequestParam(required = false) String buildingId) {
+        return ResponseEntity.ok(classroomService.getAvailabilitySummary(buildingId));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<ClassroomDTO>> searchAvailableClassrooms(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(required = false) Integer minCapacity,
+            @RequestParam(required = false) ClassroomType type,
+            @RequestParam(required = false) String buildingId,
+            @RequestParam(required = false) List<String> resources) {
+        return ResponseEntity.ok(classroomService.searchAvailable(startTime, endTime, minCapacity, type, buildingId, resources));
+    }
+
+    @GetMapping(value = "/free-slots", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> getFreeSlots(
+            @RequestParam List<String> classroomIds,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(defaultValue = "0") long minMinutes,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime opensAt,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime closesAt) {
+        Stream<FreeSlotDTO> slots = classroomService.findFreeSlots(
+                classroomIds, startTime, endTime, Duration.ofMinutes(minMinutes), opensAt, closesAt);
+        StreamingResponseBody body = out -> {
+            try (slots) {
+                Iterator<FreeSlotDTO> iterator = slots.iterator();
+                while (iterator.hasNext()) {
+                    out.write(objectMapper.writeValueAsBytes(iterator.next()));
+                    out.write('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOccupancy(@RequestParam(required = false) String buildingId) {
+        return occupancyStreamService.subscribe(buildingId);
     }
 
     @PostMapping("/check-availability")
@@ -90,12 +143,17 @@ public class ClassroomController {
         return ResponseEntity.ok(Map.of("isAvailable", isAvailable));
     }
 
+    @PostMapping("/check-availability/batch")
+    public ResponseEntity<Map<String, boolean[]>> checkClassroomAvailabilityBatch(@Valid @RequestBody AvailabilityBatchRequestDTO request) {
+        return ResponseEntity.ok(Map.of("available", classroomService.checkAvailabilityBatch(request.getChecks())));
+    }
+
     @GetMapping("/{classroomId}/reservations-by-date")
-    public ResponseEntity<List<Reservation>> getClassroomReservationsForDateRange(
+    public ResponseEntity<List<ReservationSummaryDTO>> getClassroomReservationsForDateRange(
             @PathVariable String classroomId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate, // Espera formato ISO
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        List<Reservation> reservations = classroomService.getClassroomReservationsForDateRange(classroomId, startDate, endDate);
+        List<ReservationSummaryDTO> reservations = classroomService.getClassroomReservationsForDateRange(classroomId, startDate, endDate);
         return ResponseEntity.ok(reservations);
     }
 }
@@ -1,21 +1,32 @@
 package com.backend.IMonitoring.controller;
 
+import com.backend.IMonitoring.dto.ReservationBatchItemResultDTO;
+import com.backend.IMonitoring.dto.ReservationBatchRequestDTO;
+import com.backend.IMonitoring.dto.ReservationFilterDTO;
+import com.backend.IMonitoring.dto.ReservationPageDTO;
 import com.backend.IMonitoring.dto.ReservationRequestDTO;
+import com.backend.IMonitoring.dto.ReservationSummaryDTO;
 import com.backend.IMonitoring.model.Classroom;
 import com.backend.IMonitoring.model.Reservation;
 import com.backend.IMonitoring.model.ReservationStatus;
 import com.backend.IMonitoring.model.User;
 import com.backend.IMonitoring.security.UserDetailsImpl;
 import com.backend.IMonitoring.service.ClassroomService;
+import com.backend.IMonitoring.service.ReservationBatchService;
+import com.backend.IMonitoring.service.ReservationExportService;
 import com.backend.IMonitoring.service.ReservationService;
 import com.backend.IMonitoring.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
@@ -26,25 +37,44 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ReservationController {
     private final ReservationService reservationService;
+    private final ReservationBatchService reservationBatchService;
+    private final ReservationExportService reservationExportService;
     private final ClassroomService classroomService; 
     private final UserService userService;  
 
     @GetMapping
-    public ResponseEntity<List<Reservation>> getAllReservations(
-            @RequestParam(required = false) String classroomId,
-            @RequestParam(required = false) String userId,
-            @RequestParam(required = false) ReservationStatus status,
+    public ResponseEntity<List<ReservationSummaryDTO>> getAllReservations(
+            ReservationFilterDTO filter,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int limit,
             @AuthenticationPrincipal UserDetails currentUserDetails 
     ) {
         UserDetailsImpl userDetailsImpl = (UserDetailsImpl) currentUserDetails;
+        ReservationPageDTO page;
         if (userDetailsImpl.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
-
-            return ResponseEntity.ok(reservationService.getAdminFilteredReservations(classroomId, userId, status));
+            page = reservationService.getAdminFilteredReservations(filter, sort, cursor, limit);
         } else {
-            
             String currentAuthUserId = userDetailsImpl.getId();
-            return ResponseEntity.ok(reservationService.getFilteredUserReservations(currentAuthUserId, status, "asc", "startTime", 0, 100, false));
+            page = reservationService.getFilteredUserReservations(currentAuthUserId, filter, sort, cursor, limit);
         }
+        return ReservationPages.toResponse(page);
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportReservations(
+            ReservationFilterDTO filter,
+            @RequestParam(defaultValue = "csv") String format
+    ) {
+        ReservationExportService.Format exportFormat = ReservationExportService.Format.parse(format);
+        reservationExportService.validate(filter);
+        StreamingResponseBody body = out -> reservationExportService.export(filter, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"reservations." + exportFormat.name().toLowerCase() + "\"")
+                .body(body);
     }
 
     @GetMapping("/{id}")
@@ -61,27 +91,7 @@ public class ReservationController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        Classroom classroom = classroomService.getClassroomById(reservationRequestDTO.getClassroomId());
-        User userToReserveFor;
-
-        UserDetailsImpl userDetailsImpl = (UserDetailsImpl) currentUserDetails;
-        if (userDetailsImpl.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN")) &&
-            reservationRequestDTO.getUserId() != null &&
-            !reservationRequestDTO.getUserId().isEmpty()) {
-            userToReserveFor = userService.getUserById(reservationRequestDTO.getUserId());
-        } else {
-            userToReserveFor = userDetailsImpl.getUserEntity();
-        }
-
-        Reservation newReservation = Reservation.builder()
-                .classroom(classroom)
-                .user(userToReserveFor)
-                .startTime(reservationRequestDTO.getStartTime())
-                .endTime(reservationRequestDTO.getEndTime())
-                .purpose(reservationRequestDTO.getPurpose())
-                .build();
-
-        Reservation createdReservation = reservationService.createReservation(newReservation, currentUserDetails);
+        Reservation createdReservation = reservationService.createReservation(reservationRequestDTO, currentUserDetails);
         URI location = ServletUriComponentsBuilder
                 .fromCurrentRequest()
                 .path("/{id}")
@@ -91,6 +101,15 @@ public class ReservationController {
     }
 
 
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<ReservationBatchItemResultDTO>> createReservationBatch(
+            @Valid @RequestBody ReservationBatchRequestDTO batchRequestDTO,
+            @AuthenticationPrincipal UserDetails adminUserDetails
+    ) {
+        return ResponseEntity.ok(reservationBatchService.createBatch(batchRequestDTO, adminUserDetails));
+    }
+
     @PutMapping("/{id}/status")
     public ResponseEntity<Reservation> updateReservationStatus(
             @PathVariable String id,
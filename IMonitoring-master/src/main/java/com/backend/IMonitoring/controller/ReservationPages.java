@@ -0,0 +1,22 @@
+package com.backend.IMonitoring.controller;
+
+import com.backend.IMonitoring.dto.ReservationPageDTO;
+import com.backend.IMonitoring.dto.ReservationSummaryDTO;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+final class ReservationPages {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private ReservationPages() {
+    }
+
+    static ResponseEntity<List<ReservationSummaryDTO>> toResponse(ReservationPageDTO page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+}
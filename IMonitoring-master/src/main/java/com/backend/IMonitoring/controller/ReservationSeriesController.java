@@ -0,0 +1,68 @@
+package com.backend.IMonitoring.controller;
+
+import com.backend.IMonitoring.dto.ReservationSeriesRequestDTO;
+import com.backend.IMonitoring.dto.SeriesOccurrenceDTO;
+import com.backend.IMonitoring.model.ReservationSeries;
+import com.backend.IMonitoring.model.ReservationStatus;
+import com.backend.IMonitoring.service.ReservationSeriesService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reservation-series")
+@RequiredArgsConstructor
+public class ReservationSeriesController {
+    private final ReservationSeriesService reservationSeriesService;
+
+    @PostMapping
+    public ResponseEntity<ReservationSeries> createSeries(
+            @Valid @RequestBody ReservationSeriesRequestDTO request,
+            @AuthenticationPrincipal UserDetails currentUserDetails
+    ) {
+        ReservationSeries createdSeries = reservationSeriesService.createSeries(request, currentUserDetails);
+        URI location = ServletUriComponentsBuilder
+                .fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(createdSeries.getId())
+                .toUri();
+        return ResponseEntity.created(location).body(createdSeries);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ReservationSeries> getSeriesById(
+            @PathVariable String id,
+            @AuthenticationPrincipal UserDetails currentUserDetails
+    ) {
+        return ResponseEntity.ok(reservationSeriesService.getSeriesById(id, currentUserDetails));
+    }
+
+    @GetMapping("/{id}/occurrences")
+    public ResponseEntity<List<SeriesOccurrenceDTO>> getOccurrences(
+            @PathVariable String id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @AuthenticationPrincipal UserDetails currentUserDetails) {
+        return ResponseEntity.ok(reservationSeriesService.getOccurrences(id, from, to, currentUserDetails));
+    }
+
+    @PatchMapping("/{id}/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ReservationSeries> updateSeriesStatus(
+            @PathVariable String id,
+            @RequestParam ReservationStatus status,
+            @AuthenticationPrincipal UserDetails adminUserDetails
+    ) {
+        return ResponseEntity.ok(reservationSeriesService.updateSeriesStatus(id, status, adminUserDetails));
+    }
+}
@@ -1,9 +1,10 @@
 package com.backend.IMonitoring.controller;
 
-import com.backend.IMonitoring.model.Reservation;
+import com.backend.IMonitoring.dto.ReservationFilterDTO;
+import com.backend.IMonitoring.dto.ReservationSummaryDTO;
+import com.backend.IMonitoring.dto.UserSummaryDTO;
 import com.backend.IMonitoring.model.User;
 import com.backend.IMonitoring.model.Rol;
-import com.backend.IMonitoring.model.ReservationStatus;
 import com.backend.IMonitoring.security.UserDetailsImpl;
 import com.backend.IMonitoring.service.ReservationService;
 import com.backend.IMonitoring.service.UserService;
@@ -17,7 +18,6 @@ import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/users")
@@ -27,7 +27,7 @@ public class UserController {
     private final ReservationService reservationService;
 
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
+    public ResponseEntity<List<UserSummaryDTO>> getAllUsers() {
         return ResponseEntity.ok(userService.getAllUsers());
     }
 
@@ -37,7 +37,7 @@ public class UserController {
     }
 
     @GetMapping("/role/{role}")
-    public ResponseEntity<List<User>> getUsersByRole(@PathVariable Rol role) {
+    public ResponseEntity<List<UserSummaryDTO>> getUsersByRole(@PathVariable Rol role) {
         return ResponseEntity.ok(userService.getUsersByRole(role));
     }
 
@@ -63,17 +63,28 @@ public class UserController {
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/{id}/revoke-tokens")
+    public ResponseEntity<Void> revokeTokens(@PathVariable String id) {
+        userService.revokeTokens(id);
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/{userId}/reservations")
-    public ResponseEntity<List<Reservation>> getUserReservations(@PathVariable String userId) {
-        return ResponseEntity.ok(reservationService.getReservationsByUser(userId));
+    public ResponseEntity<List<ReservationSummaryDTO>> getUserReservations(
+            @PathVariable String userId,
+            @RequestParam(name = "sort", required = false, defaultValue = "startTime,desc") String sort,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false, defaultValue = "100") int limit
+    ) {
+        return ReservationPages.toResponse(reservationService.getReservationsByUser(userId, sort, cursor, limit));
     }
 
     @GetMapping("/me/reservations")
-    public ResponseEntity<List<Reservation>> getCurrentUserReservations(
-            @RequestParam(name = "status", required = false) ReservationStatus status,
+    public ResponseEntity<List<ReservationSummaryDTO>> getCurrentUserReservations(
+            ReservationFilterDTO filter,
             @RequestParam(name = "sort", required = false, defaultValue = "startTime,asc") String sort,
-            @RequestParam(name = "limit", required = false, defaultValue = "10") int limit,
-            @RequestParam(name = "futureOnly", required = false, defaultValue = "false") boolean futureOnly
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false, defaultValue = "10") int limit
     ) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated() || !(authentication.getPrincipal() instanceof UserDetailsImpl)) {
@@ -83,32 +94,7 @@ public class UserController {
         UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
         String currentUserId = userDetails.getId();
 
-       
-        String sortField = "startTime";
-        String sortDirection = "asc";   
-        if (sort != null && sort.contains(",")) {
-            String[] sortParams = sort.split(",");
-            sortField = sortParams[0];
-            if (sortParams.length > 1) {
-                sortDirection = sortParams[1];
-            }
-        }
-        
-       
-        List<Reservation> userReservations = reservationService.getFilteredUserReservations(
-            currentUserId,
-            status,
-            sortDirection,
-            sortField,
-            0, 
-            limit, 
-            futureOnly
-        );
-        
-       
-        List<Reservation> result = userReservations.stream().limit(limit).collect(Collectors.toList());
-
-
-        return ResponseEntity.ok(result);
+        return ReservationPages.toResponse(
+                reservationService.getFilteredUserReservations(currentUserId, filter, sort, cursor, limit));
     }
 }
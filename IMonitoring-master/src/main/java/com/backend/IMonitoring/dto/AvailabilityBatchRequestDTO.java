@@ -0,0 +1,20 @@
+package com.backend.IMonitoring.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityBatchRequestDTO {
+
+    @NotEmpty(message = "Debe indicar al menos una consulta de disponibilidad")
+    @Size(max = 5000, message = "El lote no puede superar las 5000 consultas")
+    private List<@Valid AvailabilityRequest> checks;
+}
@@ -0,0 +1,23 @@
+package com.backend.IMonitoring.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BuildingDTO {
+    private String id;
+    private String name;
+    private String location;
+    private int classroomCount;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<ClassroomDTO> classrooms;
+}
@@ -0,0 +1,22 @@
+package com.backend.IMonitoring.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CapacityPointDTO {
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private int freeClassrooms;
+    private int minFreeClassrooms;
+    private int minFreeSeats;
+    private int maxFreeSeats;
+    private int largestFreeCapacity;
+}
@@ -0,0 +1,15 @@
+package com.backend.IMonitoring.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeatmapCellDTO {
+    private int dayOfWeek;
+    private int hour;
+    private double bookedHours;
+    private double utilization;
+}
@@ -0,0 +1,22 @@
+package com.backend.IMonitoring.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OccupancyDeltaDTO {
+    private String type;
+    private String classroomId;
+    private String buildingId;
+    private Boolean occupied;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,17 @@
+package com.backend.IMonitoring.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationBatchItemResultDTO {
+    public enum Outcome { CREADA, CONFLICTO, INVALIDA }
+
+    private int index;
+    private Outcome outcome;
+    private String reservationId;
+    private String message;
+}
@@ -0,0 +1,25 @@
+package com.backend.IMonitoring.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationBatchRequestDTO {
+
+    @NotEmpty(message = "El lote debe contener al menos una reserva")
+    @Size(max = 20000, message = "El lote no puede superar las 20000 reservas")
+    // Sin @Valid por elemento: cada reserva se valida en el servicio y las inválidas se informan
+    // una a una (INVALIDA) sin rechazar el lote entero.
+    private List<ReservationRequestDTO> reservations;
+
+    private boolean confirm;
+}
@@ -0,0 +1,21 @@
+package com.backend.IMonitoring.dto;
+
+import com.backend.IMonitoring.availability.TimeWindow;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationConflictDTO {
+    private String classroomId;
+    private LocalDateTime requestedStart;
+    private LocalDateTime requestedEnd;
+    private List<TimeWindow> conflicts;
+    private List<TimeWindow> suggestedSlots;
+    private List<ClassroomDTO> alternativeClassrooms;
+}
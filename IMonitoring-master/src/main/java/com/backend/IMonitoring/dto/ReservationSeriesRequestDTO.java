@@ -0,0 +1,49 @@
+package com.backend.IMonitoring.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.Set;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationSeriesRequestDTO {
+
+    @NotBlank(message = "El ID del aula (classroomId) es obligatorio")
+    private String classroomId;
+
+    private String userId;
+
+    @NotNull(message = "La fecha de la primera sesión es obligatoria")
+    private LocalDate firstDate;
+
+    @NotNull(message = "La fecha final de la serie es obligatoria")
+    private LocalDate untilDate;
+
+    @NotNull(message = "La hora de inicio es obligatoria")
+    private LocalTime startTime;
+
+    @NotNull(message = "La hora de fin es obligatoria")
+    private LocalTime endTime;
+
+    @Min(value = 1, message = "El intervalo debe ser de al menos 1 semana")
+    @Max(value = 52, message = "El intervalo no puede superar las 52 semanas")
+    @Builder.Default
+    private Integer intervalWeeks = 1;
+
+    @Builder.Default
+    private Set<LocalDate> exceptionDates = new HashSet<>();
+
+    private String purpose;
+}
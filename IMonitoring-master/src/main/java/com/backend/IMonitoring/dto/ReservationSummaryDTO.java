@@ -0,0 +1,25 @@
+package com.backend.IMonitoring.dto;
+
+import com.backend.IMonitoring.model.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationSummaryDTO {
+    private String id;
+    private String classroomId;
+    private String classroomName;
+    private String buildingId;
+    private String userId;
+    private String userName;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private ReservationStatus status;
+    private String purpose;
+    private String seriesId;
+}
@@ -0,0 +1,18 @@
+package com.backend.IMonitoring.dto;
+
+import com.backend.IMonitoring.model.ReservationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeriesOccurrenceDTO {
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private String reservationId;
+    private ReservationStatus status;
+}
@@ -0,0 +1,21 @@
+package com.backend.IMonitoring.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UtilizationDTO {
+    private String key;
+    private String name;
+    private String buildingId;
+    private String type;
+    private int classrooms;
+    private double bookedHours;
+    private double availableHours;
+    private double utilization;
+}
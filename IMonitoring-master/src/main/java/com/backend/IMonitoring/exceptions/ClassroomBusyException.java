@@ -0,0 +1,7 @@
+package com.backend.IMonitoring.exceptions;
+
+public class ClassroomBusyException extends RuntimeException {
+    public ClassroomBusyException(String message) {
+        super(message);
+    }
+}
@@ -1,19 +1,26 @@
 
 package com.backend.IMonitoring.exceptions;
 
+import com.backend.IMonitoring.config.ReservationSchemaInitializer;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.authentication.BadCredentialsException;
 
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
@@ -45,6 +52,72 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<Object> handleMethodArgumentNotValidException(
+            MethodArgumentNotValidException ex, WebRequest request) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("message", ex.getBindingResult().getAllErrors().stream()
+                .map(error -> error.getDefaultMessage())
+                .collect(Collectors.joining("; ")));
+        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(ReservationConflictException.class)
+    public ResponseEntity<Object> handleReservationConflictException(
+            ReservationConflictException ex, WebRequest request) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("message", ex.getMessage());
+        if (ex.getDetails() != null) {
+            body.put("conflicts", ex.getDetails().getConflicts());
+            body.put("suggestedSlots", ex.getDetails().getSuggestedSlots());
+            body.put("alternativeClassrooms", ex.getDetails().getAlternativeClassrooms());
+        }
+        return new ResponseEntity<>(body, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(ClassroomBusyException.class)
+    public ResponseEntity<Object> handleClassroomBusyException(
+            ClassroomBusyException ex, WebRequest request) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("message", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(body);
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Object> handleDataIntegrityViolationException(
+            DataIntegrityViolationException ex, WebRequest request) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        if (isOverlapViolation(ex)) {
+            body.put("message", "La sala ya tiene una reserva confirmada que se solapa con el horario solicitado.");
+            return new ResponseEntity<>(body, HttpStatus.CONFLICT);
+        }
+        System.err.println("GlobalExceptionHandler: violación de integridad: " + ex.getMostSpecificCause().getMessage());
+        body.put("message", "La operación no cumple las restricciones de integridad de los datos.");
+        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Solo la restricción de exclusión de reservas es un solape; NOT NULL, claves foráneas y demás
+     * violaciones se tratan como datos inválidos.
+     */
+    private static boolean isOverlapViolation(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof ConstraintViolationException && ((ConstraintViolationException) t).getConstraintName() != null) {
+                return ReservationSchemaInitializer.NO_OVERLAP_CONSTRAINT.equals(((ConstraintViolationException) t).getConstraintName());
+            }
+            if (t instanceof SQLException && "23P01".equals(((SQLException) t).getSQLState())) {
+                return t.getMessage() != null && t.getMessage().contains(ReservationSchemaInitializer.NO_OVERLAP_CONSTRAINT);
+            }
+        }
+        return false;
+    }
+
 
     @ExceptionHandler({AuthenticationException.class}) 
     public ResponseEntity<Object> handleAuthenticationException(AuthenticationException ex, WebRequest request) {
@@ -0,0 +1,20 @@
+package com.backend.IMonitoring.exceptions;
+
+import com.backend.IMonitoring.dto.ReservationConflictDTO;
+
+public class ReservationConflictException extends RuntimeException {
+    private final ReservationConflictDTO details;
+
+    public ReservationConflictException(String message) {
+        this(message, null);
+    }
+
+    public ReservationConflictException(String message, ReservationConflictDTO details) {
+        super(message);
+        this.details = details;
+    }
+
+    public ReservationConflictDTO getDetails() {
+        return details;
+    }
+}
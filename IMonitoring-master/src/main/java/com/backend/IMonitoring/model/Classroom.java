@@ -1,7 +1,6 @@
 package com.backend.IMonitoring.model;
 
-import com.fasterxml.jackson.annotation.JsonBackReference;
-import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -17,7 +16,9 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "classroom")
+@Table(name = "classroom", indexes = {
+        @Index(name = "idx_classroom_building", columnList = "building_id")
+})
 public class Classroom {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -37,7 +38,7 @@ public class Classroom {
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "building_id", nullable = false)
-    @JsonBackReference("building-classrooms")
+    @JsonIgnore
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     private Building building;
@@ -45,7 +46,7 @@ public class Classroom {
     @OneToMany(mappedBy = "classroom", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @ToString.Exclude 
     @EqualsAndHashCode.Exclude
-    @JsonManagedReference("classroom-reservations")
+    @JsonIgnore
     private List<Reservation> reservations;
 
     @Transient
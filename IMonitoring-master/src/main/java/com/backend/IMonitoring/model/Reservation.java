@@ -1,5 +1,5 @@
 package com.backend.IMonitoring.model;
-import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -15,24 +15,29 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "reservation")
+@Table(name = "reservation", indexes = {
+        @Index(name = "idx_reservation_user_status_start", columnList = "user_id, status, start_time"),
+        @Index(name = "idx_reservation_classroom_status_start", columnList = "classroom_id, status, start_time"),
+        @Index(name = "idx_reservation_status_start", columnList = "status, start_time"),
+        @Index(name = "idx_reservation_start_id", columnList = "start_time, id")
+})
 public class Reservation {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private String id;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "classroom_id", nullable = false)
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
-    @JsonBackReference("classroom-reservations")
+    @JsonIgnore
     private Classroom classroom;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
-    @JsonBackReference("user-reservations")
+    @JsonIgnore
     private User user;
 
     @Column(nullable = false)
@@ -46,4 +51,17 @@ public class Reservation {
     private ReservationStatus status;
 
     private String purpose;
+
+    @Column(name = "series_id")
+    private String seriesId;
+
+    @Transient
+    public String getClassroomId() {
+        return (this.classroom != null) ? this.classroom.getId() : null;
+    }
+
+    @Transient
+    public String getUserId() {
+        return (this.user != null) ? this.user.getId() : null;
+    }
 }
@@ -0,0 +1,100 @@
+package com.backend.IMonitoring.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "reservation_series")
+public class ReservationSeries {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "classroom_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @JsonIgnore
+    private Classroom classroom;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @JsonIgnore
+    private User user;
+
+    @Column(nullable = false)
+    private LocalDate firstDate;
+
+    @Column(nullable = false)
+    private LocalDate untilDate;
+
+    @Column(nullable = false)
+    private LocalTime startTime;
+
+    @Column(nullable = false)
+    private LocalTime endTime;
+
+    @Column(nullable = false)
+    private Integer intervalWeeks;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "reservation_series_exception", joinColumns = @JoinColumn(name = "series_id"))
+    @Column(name = "exception_date")
+    @Builder.Default
+    private Set<LocalDate> exceptionDates = new HashSet<>();
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReservationStatus status;
+
+    private String purpose;
+
+    private LocalDate materializedUntil;
+
+    @Transient
+    public String getClassroomId() {
+        return (this.classroom != null) ? this.classroom.getId() : null;
+    }
+
+    @Transient
+    public String getUserId() {
+        return (this.user != null) ? this.user.getId() : null;
+    }
+
+    public List<LocalDate> occurrenceDates(LocalDate from, LocalDate to) {
+        List<LocalDate> dates = new ArrayList<>();
+        LocalDate last = to.isBefore(untilDate) ? to : untilDate;
+        long step = Math.max(1, intervalWeeks);
+        long skip = 0;
+        if (from.isAfter(firstDate)) {
+            long weeks = ChronoUnit.WEEKS.between(firstDate, from);
+            skip = weeks / step;
+        }
+        for (LocalDate date = firstDate.plusWeeks(skip * step); !date.isAfter(last); date = date.plusWeeks(step)) {
+            if (!date.isBefore(from) && !exceptionDates.contains(date)) {
+                dates.add(date);
+            }
+        }
+        return dates;
+    }
+}
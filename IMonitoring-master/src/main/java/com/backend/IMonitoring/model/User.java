@@ -1,6 +1,7 @@
 package com.backend.IMonitoring.model;
 
-import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -29,6 +30,7 @@ public class User {
     private String email;
 
     @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
 
     @Enumerated(EnumType.STRING)
@@ -37,9 +39,14 @@ public class User {
     
     private String avatarUrl;
 
+    @Column(name = "token_version", nullable = false, columnDefinition = "integer default 0 not null")
+    @JsonIgnore
+    @Builder.Default
+    private Integer tokenVersion = 0;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @ToString.Exclude 
     @EqualsAndHashCode.Exclude
-    @JsonManagedReference("user-reservations")
+    @JsonIgnore
     private List<Reservation> reservations;
 }
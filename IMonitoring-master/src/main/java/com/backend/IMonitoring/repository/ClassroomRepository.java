@@ -1,4 +1,5 @@
 package com.backend.IMonitoring.repository;
+import com.backend.IMonitoring.dto.ClassroomDTO;
 import com.backend.IMonitoring.model.Classroom;
 import com.backend.IMonitoring.model.ClassroomType;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -18,36 +19,32 @@ public interface ClassroomRepository extends JpaRepository<Classroom, String> {
 
     List<Classroom> findByBuilding_Id(String buildingId);
 
-    @Query("SELECT c FROM Classroom c WHERE c.id NOT IN " +
-           "(SELECT r.classroom.id FROM Reservation r WHERE " +
-           "r.status = com.backend.IMonitoring.model.ReservationStatus.CONFIRMADA AND " +
-           "(r.startTime < :now AND r.endTime > :now))")
-    List<Classroom> findAvailableNow(@Param("now") LocalDateTime now);
-
-    @Query("SELECT c FROM Classroom c WHERE c.id IN " +
-           "(SELECT r.classroom.id FROM Reservation r WHERE " +
-           "r.status = com.backend.IMonitoring.model.ReservationStatus.CONFIRMADA AND " +
-           "(r.startTime < :now AND r.endTime > :now))")
-    List<Classroom> findUnavailableNow(@Param("now") LocalDateTime now);
-
-    @Query("SELECT CASE WHEN COUNT(r) = 0 THEN true ELSE false END " +
-           "FROM Reservation r WHERE " +
-           "r.classroom.id = :classroomId AND " +
-           "r.status = com.backend.IMonitoring.model.ReservationStatus.CONFIRMADA AND " +
-           "(r.startTime < :endTime AND r.endTime > :startTime)")
+    @Query("SELECT new com.backend.IMonitoring.dto.ClassroomDTO(c.id, c.name, c.capacity, c.type, c.resources, c.building.id) " +
+           "FROM Classroom c ORDER BY c.name")
+    List<ClassroomDTO> findAllSummaries();
+
+    @Query("SELECT new com.backend.IMonitoring.dto.ClassroomDTO(c.id, c.name, c.capacity, c.type, c.resources, c.building.id) " +
+           "FROM Classroom c WHERE c.type = :type ORDER BY c.name")
+    List<ClassroomDTO> findSummariesByType(@Param("type") ClassroomType type);
+
+    @Query("SELECT new com.backend.IMonitoring.dto.ClassroomDTO(c.id, c.name, c.capacity, c.type, c.resources, c.building.id) " +
+           "FROM Classroom c WHERE c.capacity >= :minCapacity ORDER BY c.capacity, c.name")
+    List<ClassroomDTO> findSummariesByMinCapacity(@Param("minCapacity") Integer minCapacity);
+
+    @Query(value = "SELECT NOT EXISTS (SELECT 1 FROM reservation r WHERE " +
+           "r.classroom_id = :classroomId AND r.status = 'CONFIRMADA' AND " +
+           "r.period && tsrange(CAST(:startTime AS timestamp), CAST(:endTime AS timestamp), '[)'))",
+           nativeQuery = true)
     boolean isAvailable(
             @Param("classroomId") String classroomId,
             @Param("startTime") LocalDateTime startTime,
             @Param("endTime") LocalDateTime endTime
     );
 
-   
-    @Query("SELECT CASE WHEN COUNT(r) = 0 THEN true ELSE false END " +
-           "FROM Reservation r WHERE " +
-           "r.classroom.id = :classroomId AND " +
-           "r.id <> :excludeReservationId AND " + 
-           "r.status = com.backend.IMonitoring.model.ReservationStatus.CONFIRMADA AND " +
-           "(r.startTime < :endTime AND r.endTime > :startTime)")
+    @Query(value = "SELECT NOT EXISTS (SELECT 1 FROM reservation r WHERE " +
+           "r.classroom_id = :classroomId AND r.id <> :excludeReservationId AND r.status = 'CONFIRMADA' AND " +
+           "r.period && tsrange(CAST(:startTime AS timestamp), CAST(:endTime AS timestamp), '[)'))",
+           nativeQuery = true)
     boolean isAvailable(
             @Param("classroomId") String classroomId,
             @Param("startTime") LocalDateTime startTime,
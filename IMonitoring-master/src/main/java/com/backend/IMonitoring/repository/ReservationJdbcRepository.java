@@ -0,0 +1,71 @@
+package com.backend.IMonitoring.repository;
+
+import com.backend.IMonitoring.model.ReservationStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+@RequiredArgsConstructor
+public class ReservationJdbcRepository {
+    private static final String INSERT_IF_FREE =
+            "WITH c AS (SELECT id FROM classroom WHERE id = :classroomId), " +
+            "u AS (SELECT id FROM users WHERE id = :userId), " +
+            "busy AS (SELECT EXISTS (SELECT 1 FROM reservation r WHERE r.classroom_id = :classroomId " +
+            "AND r.status = 'CONFIRMADA' " +
+            "AND r.period && tsrange(CAST(:startTime AS timestamp), CAST(:endTime AS timestamp), '[)')) AS taken), " +
+            "ins AS (INSERT INTO reservation (id, classroom_id, user_id, start_time, end_time, status, purpose) " +
+            "SELECT :id, c.id, u.id, :startTime, :endTime, :status, :purpose FROM c, u, busy WHERE NOT busy.taken " +
+            "RETURNING id) " +
+            "SELECT EXISTS (SELECT 1 FROM c) AS classroom_found, " +
+            "EXISTS (SELECT 1 FROM u) AS user_found, " +
+            "(SELECT taken FROM busy) AS taken, " +
+            "(SELECT id FROM ins) AS inserted_id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Comprueba aula, usuario y solapes con reservas confirmadas e inserta la reserva en una
+     * única sentencia. Si algo falla no se inserta nada y el resultado indica el motivo.
+     */
+    public InsertOutcome insertIfFree(
+            String id,
+            String classroomId,
+            String userId,
+            LocalDateTime startTime,
+            LocalDateTime endTime,
+            ReservationStatus status,
+            String purpose
+    ) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("classroomId", classroomId)
+                .addValue("userId", userId)
+                .addValue("startTime", startTime)
+                .addValue("endTime", endTime)
+                .addValue("status", status.name())
+                .addValue("purpose", purpose);
+        return jdbcTemplate.queryForObject(INSERT_IF_FREE, params, (rs, rowNum) -> new InsertOutcome(
+                rs.getBoolean("classroom_found"),
+                rs.getBoolean("user_found"),
+                rs.getBoolean("taken"),
+                rs.getString("inserted_id")
+        ));
+    }
+
+    @Value
+    public static class InsertOutcome {
+        boolean classroomFound;
+        boolean userFound;
+        boolean taken;
+        String insertedId;
+
+        public boolean isInserted() {
+            return insertedId != null;
+        }
+    }
+}
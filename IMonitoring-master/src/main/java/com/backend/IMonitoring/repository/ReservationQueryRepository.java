@@ -0,0 +1,84 @@
+package com.backend.IMonitoring.repository;
+
+import com.backend.IMonitoring.dto.ReservationSummaryDTO;
+import com.backend.IMonitoring.model.Classroom;
+import com.backend.IMonitoring.model.Reservation;
+import com.backend.IMonitoring.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Listados de reservas como {@link ReservationSummaryDTO}: una sola sentencia con los joins a aula
+ * y usuario y solo las columnas que se devuelven, sin cargar entidades.
+ */
+@Repository
+public class ReservationQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${reservation.export.fetch-size:1000}")
+    private int exportFetchSize;
+
+    public List<ReservationSummaryDTO> findSummaries(
+            Specification<Reservation> spec,
+            String sortField,
+            Sort.Direction direction,
+            int limit
+    ) {
+        return entityManager.createQuery(summaryQuery(spec, sortField, direction)).setMaxResults(limit).getResultList();
+    }
+
+    /**
+     * Recorre las reservas ordenadas por inicio con un cursor del servidor ({@code fetchSize} filas
+     * por viaje). Debe consumirse dentro de una transacción y cerrarse al terminar.
+     */
+    public Stream<ReservationSummaryDTO> streamSummaries(Specification<Reservation> spec) {
+        return entityManager.createQuery(summaryQuery(spec, "startTime", Sort.Direction.ASC))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, exportFetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private CriteriaQuery<ReservationSummaryDTO> summaryQuery(Specification<Reservation> spec, String sortField, Sort.Direction direction) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ReservationSummaryDTO> query = cb.createQuery(ReservationSummaryDTO.class);
+        Root<Reservation> root = query.from(Reservation.class);
+        Join<Reservation, Classroom> classroom = root.join("classroom");
+        Join<Reservation, User> user = root.join("user");
+
+        query.select(cb.construct(ReservationSummaryDTO.class,
+                root.get("id"),
+                classroom.get("id"),
+                classroom.get("name"),
+                classroom.get("building").get("id"),
+                user.get("id"),
+                user.get("name"),
+                root.get("startTime"),
+                root.get("endTime"),
+                root.get("status"),
+                root.get("purpose"),
+                root.get("seriesId")));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(direction.isAscending()
+                ? List.of(cb.asc(root.get(sortField)), cb.asc(root.get("id")))
+                : List.of(cb.desc(root.get(sortField)), cb.desc(root.get("id"))));
+        return query;
+    }
+}
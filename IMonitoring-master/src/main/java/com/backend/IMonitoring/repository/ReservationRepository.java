@@ -1,8 +1,10 @@
 package com.backend.IMonitoring.repository;
+import com.backend.IMonitoring.availability.ReservationSlot;
 import com.backend.IMonitoring.model.Reservation;
 import com.backend.IMonitoring.model.ReservationStatus;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -11,7 +13,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface ReservationRepository extends JpaRepository<Reservation, String> {
+public interface ReservationRepository extends JpaRepository<Reservation, String>, JpaSpecificationExecutor<Reservation> {
 
     List<Reservation> findByClassroomId(String classroomId);
 
@@ -23,20 +25,29 @@ public interface ReservationRepository extends JpaRepository<Reservation, String
 
     List<Reservation> findByStartTimeAfter(LocalDateTime dateTime, Sort sort);
 
-    @Query("SELECT r FROM Reservation r WHERE " +
-           "r.status = com.backend.IMonitoring.model.ReservationStatus.CONFIRMADA AND " +
-           "r.startTime <= :now AND r.endTime >= :now")
+    List<Reservation> findBySeriesIdAndStartTimeBetween(String seriesId, LocalDateTime from, LocalDateTime to);
+
+    List<Reservation> findBySeriesIdAndStartTimeAfter(String seriesId, LocalDateTime dateTime);
+
+    @Query(value = "SELECT r.* FROM reservation r WHERE r.status = 'CONFIRMADA' " +
+           "AND r.period @> CAST(:now AS timestamp)", nativeQuery = true)
     List<Reservation> findCurrentReservations(@Param("now") LocalDateTime now);
 
     @Query("SELECT r FROM Reservation r WHERE r.user.id = :userId AND r.status = com.backend.IMonitoring.model.ReservationStatus.CONFIRMADA AND r.startTime > :now")
     List<Reservation> findUpcomingConfirmedByUserId(@Param("userId") String userId, @Param("now") LocalDateTime now, Sort sort);
 
-    @Query("SELECT r FROM Reservation r WHERE r.classroom.id = :classroomId " +
-           "AND r.status = com.backend.IMonitoring.model.ReservationStatus.CONFIRMADA " +
-           "AND r.startTime < :endDate AND r.endTime > :startDate")
+    @Query(value = "SELECT r.* FROM reservation r WHERE r.classroom_id = :classroomId " +
+           "AND r.status = 'CONFIRMADA' " +
+           "AND r.period && tsrange(CAST(:startDate AS timestamp), CAST(:endDate AS timestamp), '[)') " +
+           "ORDER BY r.start_time", nativeQuery = true)
     List<Reservation> findByClassroomIdAndDateTimeRange(
             @Param("classroomId") String classroomId,
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate
     );
+
+    @Query("SELECT new com.backend.IMonitoring.availability.ReservationSlot(" +
+           "r.id, r.classroom.id, r.user.id, r.startTime, r.endTime, r.status, r.purpose) " +
+           "FROM Reservation r WHERE r.status = :status")
+    List<ReservationSlot> findSlotsByStatus(@Param("status") ReservationStatus status);
 }
@@ -0,0 +1,41 @@
+package com.backend.IMonitoring.repository;
+
+import com.backend.IMonitoring.model.ReservationSeries;
+import com.backend.IMonitoring.model.ReservationStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ReservationSeriesRepository extends JpaRepository<ReservationSeries, String> {
+
+    @Query("SELECT s FROM ReservationSeries s WHERE s.classroom.id = :classroomId " +
+           "AND s.status IN :statuses AND s.firstDate <= :to AND s.untilDate >= :from")
+    List<ReservationSeries> findActiveInRange(
+            @Param("classroomId") String classroomId,
+            @Param("statuses") Collection<ReservationStatus> statuses,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to
+    );
+
+    /**
+     * Series de todas las aulas con sesiones sin materializar en [from, to].
+     */
+    @Query("SELECT DISTINCT s FROM ReservationSeries s LEFT JOIN FETCH s.exceptionDates WHERE s.status IN :statuses " +
+           "AND s.firstDate <= :to AND s.untilDate >= :from " +
+           "AND (s.materializedUntil IS NULL OR s.materializedUntil < :to)")
+    List<ReservationSeries> findUnmaterializedInRange(
+            @Param("statuses") Collection<ReservationStatus> statuses,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to
+    );
+
+    @Query("SELECT s FROM ReservationSeries s WHERE s.status IN :statuses " +
+           "AND (s.materializedUntil IS NULL OR s.materializedUntil < s.untilDate)")
+    List<ReservationSeries> findPendingMaterialization(@Param("statuses") Collection<ReservationStatus> statuses);
+}
@@ -0,0 +1,84 @@
+package com.backend.IMonitoring.repository;
+
+import com.backend.IMonitoring.dto.ReservationFilterDTO;
+import com.backend.IMonitoring.model.Reservation;
+import com.backend.IMonitoring.model.ReservationStatus;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+public final class ReservationSpecifications {
+
+    private ReservationSpecifications() {
+    }
+
+    public static Specification<Reservation> all() {
+        return (root, query, cb) -> cb.conjunction();
+    }
+
+    public static Specification<Reservation> hasUser(String userId) {
+        return (root, query, cb) -> userId == null ? null : cb.equal(root.get("user").get("id"), userId);
+    }
+
+    public static Specification<Reservation> hasClassroom(String classroomId) {
+        return (root, query, cb) -> classroomId == null ? null : cb.equal(root.get("classroom").get("id"), classroomId);
+    }
+
+    public static Specification<Reservation> hasStatus(ReservationStatus status) {
+        return (root, query, cb) -> status == null ? null : cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Reservation> inBuilding(String buildingId) {
+        return (root, query, cb) -> buildingId == null ? null : cb.equal(root.get("classroom").get("building").get("id"), buildingId);
+    }
+
+    /**
+     * Reservas que solapan [from, to); cualquiera de los dos extremos puede omitirse.
+     */
+    public static Specification<Reservation> overlapping(LocalDateTime from, LocalDateTime to) {
+        return (root, query, cb) -> {
+            if (from == null && to == null) {
+                return null;
+            }
+            if (from == null) {
+                return cb.lessThan(root.get("startTime"), to);
+            }
+            if (to == null) {
+                return cb.greaterThan(root.get("endTime"), from);
+            }
+            return cb.and(cb.lessThan(root.get("startTime"), to), cb.greaterThan(root.get("endTime"), from));
+        };
+    }
+
+    /**
+     * Combina todos los filtros presentes en {@code filter}; los nulos no restringen.
+     */
+    public static Specification<Reservation> matching(ReservationFilterDTO filter, LocalDateTime now) {
+        return all()
+                .and(hasClassroom(filter.getClassroomId()))
+                .and(hasUser(filter.getUserId()))
+                .and(hasStatus(filter.getStatus()))
+                .and(inBuilding(filter.getBuildingId()))
+                .and(overlapping(filter.getFrom(), filter.getTo()))
+                .and(startsAfter(filter.isFutureOnly() ? now : null));
+    }
+
+    public static Specification<Reservation> startsAfter(LocalDateTime instant) {
+        return (root, query, cb) -> instant == null ? null : cb.greaterThan(root.get("startTime"), instant);
+    }
+
+    /**
+     * Predicado de keyset: filas estrictamente posteriores a (value, id) en el orden
+     * {@code field direction, id direction}.
+     */
+    public static Specification<Reservation> after(String field, Sort.Direction direction, LocalDateTime value, String id) {
+        return (root, query, cb) -> direction.isAscending()
+                ? cb.or(
+                        cb.greaterThan(root.get(field), value),
+                        cb.and(cb.equal(root.get(field), value), cb.greaterThan(root.get("id"), id)))
+                : cb.or(
+                        cb.lessThan(root.get(field), value),
+                        cb.and(cb.equal(root.get(field), value), cb.lessThan(root.get("id"), id)));
+    }
+}
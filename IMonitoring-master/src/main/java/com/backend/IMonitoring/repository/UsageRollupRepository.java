@@ -0,0 +1,169 @@
+package com.backend.IMonitoring.repository;
+
+import com.backend.IMonitoring.model.ClassroomType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Tabla de agregados {@code reservation_hourly_usage}: segundos reservados (solo CONFIRMADA) por
+ * aula y hora. Se mantiene con upserts incrementales y se puede recalcular por ventanas. Upserts y
+ * recálculos se coordinan con un bloqueo consultivo por día (compartido para los upserts, exclusivo
+ * para el recálculo de ese día), de modo que ninguna reserva se confirma entre el DELETE y el
+ * INSERT…SELECT de una ventana y los bloques de un backfill pueden recalcularse en paralelo.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UsageRollupRepository {
+    private static final String UPSERT =
+            "INSERT INTO reservation_hourly_usage (classroom_id, hour_start, booked_seconds) " +
+            "VALUES (:classroomId, :hourStart, :seconds) " +
+            "ON CONFLICT (classroom_id, hour_start) " +
+            "DO UPDATE SET booked_seconds = reservation_hourly_usage.booked_seconds + EXCLUDED.booked_seconds";
+
+    private static final String REBUILD =
+            "INSERT INTO reservation_hourly_usage (classroom_id, hour_start, booked_seconds) " +
+            "SELECT r.classroom_id, h.hour_start, " +
+            "CAST(SUM(EXTRACT(EPOCH FROM (LEAST(r.end_time, h.hour_start + INTERVAL '1 hour') " +
+            "- GREATEST(r.start_time, h.hour_start)))) AS integer) " +
+            "FROM reservation r " +
+            "CROSS JOIN LATERAL generate_series(date_trunc('hour', r.start_time), " +
+            "r.end_time - INTERVAL '1 microsecond', INTERVAL '1 hour') AS h(hour_start) " +
+            "WHERE r.status = 'CONFIRMADA' AND r.start_time < :to AND r.end_time > :from " +
+            "AND h.hour_start >= :from AND h.hour_start < :to " +
+            "GROUP BY r.classroom_id, h.hour_start";
+
+    private static final int DAY_LOCK_SPACE = 0x524F4C4C;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Suma los deltas (segundos por aula y hora). Se une a la transacción que cambia la reserva o,
+     * si no la hay, abre una propia para que el bloqueo de los días dure hasta el commit.
+     */
+    @Transactional
+    public void addAll(Map<String, Map<LocalDateTime, Integer>> secondsByClassroomAndHour) {
+        List<SqlParameterSource> batch = new ArrayList<>();
+        SortedSet<LocalDate> days = new TreeSet<>();
+        secondsByClassroomAndHour.forEach((classroomId, secondsByHour) -> secondsByHour.forEach((hour, seconds) -> {
+            days.add(hour.toLocalDate());
+            batch.add(new MapSqlParameterSource()
+                    .addValue("classroomId", classroomId)
+                    .addValue("hourStart", hour)
+                    .addValue("seconds", seconds));
+        }));
+        if (batch.isEmpty()) {
+            return;
+        }
+        days.forEach(day -> lockDay(day, false));
+        jdbcTemplate.batchUpdate(UPSERT, batch.toArray(SqlParameterSource[]::new));
+    }
+
+    /**
+     * Recalcula desde la tabla reservation las horas en [from, to). Con {@code exclusive} bloquea
+     * la tabla de agregados entera; sin él solo los días de la ventana, así que otras ventanas
+     * disjuntas pueden recalcularse a la vez. En ambos casos los upserts concurrentes de esos días
+     * esperan a que termine.
+     */
+    @Transactional
+    public int rebuildWindow(LocalDateTime from, LocalDateTime to, boolean exclusive) {
+        if (exclusive) {
+            jdbcTemplate.getJdbcTemplate().execute("LOCK TABLE reservation_hourly_usage IN EXCLUSIVE MODE");
+        } else {
+            LocalDate last = to.minusNanos(1).toLocalDate();
+            for (LocalDate day = from.toLocalDate(); !day.isAfter(last); day = day.plusDays(1)) {
+                lockDay(day, true);
+            }
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", from)
+                .addValue("to", to);
+        jdbcTemplate.update("DELETE FROM reservation_hourly_usage WHERE hour_start >= :from AND hour_start < :to", params);
+        return jdbcTemplate.update(REBUILD, params);
+    }
+
+    private void lockDay(LocalDate day, boolean exclusive) {
+        jdbcTemplate.getJdbcTemplate().query(
+                exclusive ? "SELECT pg_advisory_xact_lock(?, ?)" : "SELECT pg_advisory_xact_lock_shared(?, ?)",
+                rs -> { },
+                DAY_LOCK_SPACE, (int) day.toEpochDay());
+    }
+
+    public LocalDateTime findEarliestReservationStart() {
+        return jdbcTemplate.getJdbcTemplate().queryForObject(
+                "SELECT MIN(start_time) FROM reservation WHERE status = 'CONFIRMADA'", LocalDateTime.class);
+    }
+
+    public Map<String, Long> bookedSecondsByClassroom(LocalDateTime from, LocalDateTime to) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", from)
+                .addValue("to", to);
+        Map<String, Long> result = new HashMap<>();
+        jdbcTemplate.query(
+                "SELECT classroom_id, SUM(booked_seconds) AS booked FROM reservation_hourly_usage " +
+                "WHERE hour_start >= :from AND hour_start < :to GROUP BY classroom_id",
+                params,
+                rs -> {
+                    result.put(rs.getString("classroom_id"), rs.getLong("booked"));
+                });
+        return result;
+    }
+
+    public List<HourOfWeekUsage> bookedSecondsByHourOfWeek(LocalDateTime from, LocalDateTime to, String buildingId, ClassroomType type) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT CAST(EXTRACT(ISODOW FROM u.hour_start) AS integer) AS dow, " +
+                "CAST(EXTRACT(HOUR FROM u.hour_start) AS integer) AS hour, SUM(u.booked_seconds) AS booked " +
+                "FROM reservation_hourly_usage u JOIN classroom c ON c.id = u.classroom_id " +
+                "WHERE u.hour_start >= :from AND u.hour_start < :to");
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", from)
+                .addValue("to", to);
+        if (buildingId != null) {
+            sql.append(" AND c.building_id = :buildingId");
+            params.addValue("buildingId", buildingId);
+        }
+        if (type != null) {
+            sql.append(" AND c.type = :type");
+            params.addValue("type", type.name());
+        }
+        sql.append(" GROUP BY 1, 2");
+        return jdbcTemplate.query(sql.toString(), params,
+                (rs, rowNum) -> new HourOfWeekUsage(rs.getInt("dow"), rs.getInt("hour"), rs.getLong("booked")));
+    }
+
+    public static class HourOfWeekUsage {
+        private final int dayOfWeek;
+        private final int hour;
+        private final long bookedSeconds;
+
+        public HourOfWeekUsage(int dayOfWeek, int hour, long bookedSeconds) {
+            this.dayOfWeek = dayOfWeek;
+            this.hour = hour;
+            this.bookedSeconds = bookedSeconds;
+        }
+
+        public int getDayOfWeek() {
+            return dayOfWeek;
+        }
+
+        public int getHour() {
+            return hour;
+        }
+
+        public long getBookedSeconds() {
+            return bookedSeconds;
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.backend.IMonitoring.repository;
 
+import com.backend.IMonitoring.dto.UserSummaryDTO;
 import com.backend.IMonitoring.model.User;
 import com.backend.IMonitoring.model.Rol;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -10,4 +13,15 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, String> {
     Optional<User> findByEmail(String email);
     List<User> findByRole(Rol role);
+
+    @Query("SELECT new com.backend.IMonitoring.dto.UserSummaryDTO(u.id, u.name, u.email, u.role, u.avatarUrl) " +
+           "FROM User u ORDER BY u.name")
+    List<UserSummaryDTO> findAllSummaries();
+
+    @Query("SELECT new com.backend.IMonitoring.dto.UserSummaryDTO(u.id, u.name, u.email, u.role, u.avatarUrl) " +
+           "FROM User u WHERE u.role = :role ORDER BY u.name")
+    List<UserSummaryDTO> findSummariesByRole(@Param("role") Rol role);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") String id);
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.backend.IMonitoring.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.Value;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Claims de un token ya verificado (firma y expiración).
+ */
+@Value
+public class JwtClaims {
+    String tokenId;
+    String subject;
+    String userId;
+    String name;
+    String role;
+    List<String> authorities;
+    Integer tokenVersion;
+    Instant issuedAt;
+    Instant expiresAt;
+
+    public static JwtClaims of(Claims claims) {
+        List<?> authorities = claims.get("authorities", List.class);
+        return new JwtClaims(
+                claims.getId(),
+                claims.getSubject(),
+                claims.get("userId", String.class),
+                claims.get("name", String.class),
+                claims.get("role", String.class),
+                authorities != null
+                        ? authorities.stream().map(String::valueOf).collect(Collectors.toList())
+                        : List.of(),
+                claims.get("ver", Integer.class),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+        );
+    }
+
+    /**
+     * Indica si el token lleva lo necesario para construir el principal sin consultar la base de datos.
+     */
+    public boolean isSelfContained() {
+        return userId != null && role != null && tokenVersion != null;
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+}
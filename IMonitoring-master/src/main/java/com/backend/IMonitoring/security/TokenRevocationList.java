@@ -0,0 +1,102 @@
+package com.backend.IMonitoring.security;
+
+import com.backend.IMonitoring.model.RevokedToken;
+import com.backend.IMonitoring.repository.RevokedTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lista de tokens revocados. La tabla revoked_token es la fuente de verdad y un filtro de Bloom en
+ * memoria la precede: si el filtro no contiene el {@code jti} el token no está revocado y no se
+ * consulta la base de datos; solo los aciertos del filtro se confirman con la tabla.
+ * El barrido periódico borra las filas expiradas y reconstruye el filtro, lo que además incorpora
+ * las revocaciones hechas desde otras instancias.
+ */
+@Component
+public class TokenRevocationList {
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+    private final Object lock = new Object();
+
+    private volatile BloomFilter filter;
+    private List<String> revokedDuringRebuild;
+
+    public TokenRevocationList(
+            RevokedTokenRepository revokedTokenRepository,
+            @Value("${security.revocation.bloom.expected-entries:100000}") int expectedEntries,
+            @Value("${security.revocation.bloom.false-positive-rate:0.01}") double falsePositiveRate
+    ) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedEntries, falsePositiveRate);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        int entries = rebuild();
+        System.out.println("TokenRevocationList: " + entries + " tokens revocados vigentes.");
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !filter.mightContain(tokenId)) {
+            return false;
+        }
+        return revokedTokenRepository.existsById(tokenId);
+    }
+
+    public void revoke(String tokenId, String userId, Instant expiresAt) {
+        if (tokenId == null || expiresAt == null || !expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        revokedTokenRepository.save(RevokedToken.builder()
+                .tokenId(tokenId)
+                .userId(userId)
+                .expiresAt(LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()))
+                .revokedAt(LocalDateTime.now())
+                .build());
+        synchronized (lock) {
+            filter.put(tokenId);
+            if (revokedDuringRebuild != null) {
+                revokedDuringRebuild.add(tokenId);
+            }
+        }
+    }
+
+    @Scheduled(
+            initialDelayString = "${security.revocation.sweep-interval-ms:300000}",
+            fixedDelayString = "${security.revocation.sweep-interval-ms:300000}"
+    )
+    public void sweep() {
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        int entries = rebuild();
+        if (deleted > 0) {
+            System.out.println("TokenRevocationList: " + deleted + " revocaciones expiradas eliminadas, " + entries + " vigentes.");
+        }
+    }
+
+    private int rebuild() {
+        synchronized (lock) {
+            revokedDuringRebuild = new ArrayList<>();
+        }
+        List<String> active = revokedTokenRepository.findActiveTokenIds(LocalDateTime.now());
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, active.size() * 2), falsePositiveRate);
+        active.forEach(rebuilt::put);
+        synchronized (lock) {
+            revokedDuringRebuild.forEach(rebuilt::put);
+            revokedDuringRebuild = null;
+            filter = rebuilt;
+        }
+        return active.size();
+    }
+}
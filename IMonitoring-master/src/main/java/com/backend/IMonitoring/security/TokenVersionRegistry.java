@@ -0,0 +1,48 @@
+package com.backend.IMonitoring.security;
+
+import com.backend.IMonitoring.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Comprobación de revocación para la autenticación sin estado: un token solo es válido si su
+ * claim {@code ver} coincide con el {@code tokenVersion} actual del usuario. Las versiones se
+ * cachean durante {@code ttl}; los cambios hechos en esta instancia se aplican al confirmar la
+ * transacción y el TTL acota el retraso con los hechos en otras instancias.
+ */
+@Component
+public class TokenVersionRegistry {
+    private static final int DELETED = -1;
+
+    private final UserRepository userRepository;
+    private final Duration ttl;
+    private final ExpiringLruCache<String, Integer> versions;
+
+    public TokenVersionRegistry(
+            UserRepository userRepository,
+            @Value("${security.token-version.cache-ttl-seconds:60}") long ttlSeconds,
+            @Value("${security.token-version.cache-max-entries:10000}") int maxEntries
+    ) {
+        this.userRepository = userRepository;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.versions = new ExpiringLruCache<>(maxEntries);
+    }
+
+    public boolean isCurrent(String userId, int tokenVersion) {
+        Integer current = versions.get(userId);
+        if (current == null) {
+            current = userRepository.findTokenVersionById(userId).orElse(DELETED);
+            versions.put(userId, current, Instant.now().plus(ttl));
+        }
+        return current != DELETED && current == tokenVersion;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        versions.remove(event.getUserId());
+    }
+}
@@ -0,0 +1,14 @@
+package com.backend.IMonitoring.security;
+
+import lombok.Value;
+
+/**
+ * Se publica al editar o eliminar un usuario. {@code email} es nulo en los borrados y
+ * {@code previousEmail} es el correo anterior al cambio.
+ */
+@Value
+public class UserChangedEvent {
+    String userId;
+    String email;
+    String previousEmail;
+}
@@ -1,5 +1,6 @@
 package com.backend.IMonitoring.security;
 
+import com.backend.IMonitoring.model.Rol;
 import com.backend.IMonitoring.model.User;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -7,31 +8,55 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.function.Supplier;
 
+/**
+ * Principal de la aplicación. Puede construirse con la entidad ya cargada o, en el modo sin
+ * estado, solo con los datos del token; en ese caso la entidad se carga la primera vez que se
+ * pide {@link #getUserEntity()}.
+ */
 public class UserDetailsImpl implements UserDetails {
-    private final User user;
+    private final String id;
+    private final String email;
+    private final String name;
+    private final Rol role;
+    private final Supplier<User> userLoader;
+    private volatile User user;
 
     public UserDetailsImpl(User user) {
+        this.id = user.getId();
+        this.email = user.getEmail();
+        this.name = user.getName();
+        this.role = user.getRole();
+        this.userLoader = null;
         this.user = user;
     }
 
+    public UserDetailsImpl(String id, String email, String name, Rol role, Supplier<User> userLoader) {
+        this.id = id;
+        this.email = email;
+        this.name = name;
+        this.role = role;
+        this.userLoader = userLoader;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        if (user.getRole() == null) { 
+        if (role == null) { 
             return Collections.emptyList();
         }
        
-        return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()));
+        return Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.name()));
     }
 
     @Override
     public String getPassword() {
-        return user.getPassword(); 
+        return user != null ? user.getPassword() : null;
     }
 
     @Override
     public String getUsername() { 
-        return user.getEmail(); 
+        return email; 
     }
 
     @Override
@@ -45,15 +70,32 @@ public class UserDetailsImpl implements UserDetails {
 
 
     public User getUserEntity() {
-        return this.user;
+        User loaded = this.user;
+        if (loaded == null && userLoader != null) {
+            synchronized (this) {
+                if (this.user == null) {
+                    this.user = userLoader.get();
+                }
+                loaded = this.user;
+            }
+        }
+        return loaded;
     }
 
 
     public String getId() {
-        return this.user.getId();
+        return this.id;
     }
 
     public String getName() { 
-        return this.user.getName(); 
+        return this.name; 
+    }
+
+    public Rol getRole() {
+        return this.role;
+    }
+
+    public boolean isAdmin() {
+        return this.role == Rol.ADMIN;
     }
 }
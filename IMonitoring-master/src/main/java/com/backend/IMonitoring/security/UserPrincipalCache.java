@@ -0,0 +1,105 @@
+package com.backend.IMonitoring.security;
+
+import com.backend.IMonitoring.model.User;
+import com.backend.IMonitoring.repository.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Caché de {@link UserDetailsImpl} por correo y por id, con TTL y tamaño máximo. Quien modifica
+ * un usuario la invalida en el momento y otra vez al confirmar la transacción, para no conservar
+ * una copia leída antes del commit. Publica {@code cache.gets}, {@code cache.evictions} y
+ * {@code cache.size} con la etiqueta {@code cache=userPrincipals}.
+ */
+@Component
+public class UserPrincipalCache {
+    private static final String CACHE_NAME = "userPrincipals";
+
+    private final UserRepository userRepository;
+    private final Duration ttl;
+    private final ExpiringLruCache<String, UserDetailsImpl> principals;
+
+    public UserPrincipalCache(
+            UserRepository userRepository,
+            MeterRegistry meterRegistry,
+            @Value("${security.principal-cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${security.principal-cache.max-entries:5000}") int maxEntries
+    ) {
+        this.userRepository = userRepository;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.principals = new ExpiringLruCache<>(maxEntries);
+
+        FunctionCounter.builder("cache.gets", principals, ExpiringLruCache::hitCount)
+                .tag("cache", CACHE_NAME).tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.gets", principals, ExpiringLruCache::missCount)
+                .tag("cache", CACHE_NAME).tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("cache.evictions", principals, ExpiringLruCache::evictionCount)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+        Gauge.builder("cache.size", principals, ExpiringLruCache::size)
+                .tag("cache", CACHE_NAME)
+                .register(meterRegistry);
+    }
+
+    public UserDetailsImpl loadByEmail(String email) {
+        UserDetailsImpl cached = principals.get(emailKey(email));
+        if (cached != null) {
+            return cached;
+        }
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
+        return store(user);
+    }
+
+    public UserDetailsImpl loadById(String id) {
+        UserDetailsImpl cached = principals.get(idKey(id));
+        if (cached != null) {
+            return cached;
+        }
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
+        return store(user);
+    }
+
+    public void invalidate(String userId, String... emails) {
+        if (userId != null) {
+            principals.remove(idKey(userId));
+        }
+        for (String email : emails) {
+            if (email != null) {
+                principals.remove(emailKey(email));
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate(event.getUserId(), event.getEmail(), event.getPreviousEmail());
+    }
+
+    private UserDetailsImpl store(User user) {
+        UserDetailsImpl principal = new UserDetailsImpl(user);
+        Instant expiresAt = Instant.now().plus(ttl);
+        principals.put(idKey(user.getId()), principal, expiresAt);
+        principals.put(emailKey(user.getEmail()), principal, expiresAt);
+        return principal;
+    }
+
+    private static String idKey(String id) {
+        return "id:" + id;
+    }
+
+    private static String emailKey(String email) {
+        return "email:" + email;
+    }
+}
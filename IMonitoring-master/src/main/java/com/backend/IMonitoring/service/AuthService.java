@@ -5,11 +5,14 @@ import com.backend.IMonitoring.dto.AuthResponse;
 import com.backend.IMonitoring.dto.RegisterRequest;
 import com.backend.IMonitoring.model.User;
 import com.backend.IMonitoring.repository.UserRepository;
+import com.backend.IMonitoring.security.JwtClaims;
+import com.backend.IMonitoring.security.TokenRevocationList;
 import com.backend.IMonitoring.security.UserDetailsImpl;
+import com.backend.IMonitoring.security.UserPrincipalCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -20,6 +23,9 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final UserPrincipalCache userPrincipalCache;
+    private final TokenRevocationList revocationList;
+    private final RefreshTokenService refreshTokenService;
 
     public AuthResponse register(RegisterRequest request) {
         /*
@@ -39,29 +45,58 @@ public class AuthService {
                 .role(request.getRole())
                 .build();
         userRepository.save(user);
+        userPrincipalCache.invalidate(user.getId(), user.getEmail());
 
-        UserDetails userDetails = new UserDetailsImpl(user);
-        var jwtToken = jwtService.generateToken(userDetails);
-
-        return AuthResponse.builder()
-                .token(jwtToken)
-                .build();
+        return buildResponse(new UserDetailsImpl(user));
     }
 
+    /**
+     * El principal que devuelve el AuthenticationManager ya trae la entidad (la cargó o la tenía en
+     * caché {@link UserPrincipalCache}), así que no se vuelve a buscar el usuario.
+     */
     public AuthResponse authenticate(AuthRequest request) {
-        authenticationManager.authenticate(
+        Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         request.getEmail(),
                         request.getPassword()
                 )
         );
-        var user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new RuntimeException("Usuario no encontrado después de una autenticación exitosa."));
-        
-        UserDetails userDetails = new UserDetailsImpl(user);
-        var jwtToken = jwtService.generateToken(userDetails);
+        return buildResponse((UserDetailsImpl) authentication.getPrincipal());
+    }
+
+    /**
+     * Canjea un refresh token por un access token nuevo y el siguiente refresh token de la familia.
+     * No vuelve a verificar la contraseña: basta la búsqueda por hash del refresh token.
+     */
+    public AuthResponse refresh(String refreshToken) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        return AuthResponse.builder()
+                .token(jwtService.generateToken(rotation.getPrincipal()))
+                .refreshToken(rotation.getRefreshToken())
+                .expiresIn(jwtService.getExpirationMillis() / 1000)
+                .build();
+    }
+
+    /**
+     * Revoca el token con el que se llama hasta su expiración, y la familia del refresh token si se
+     * envía. Un token ausente o ya inválido no requiere nada más.
+     */
+    public void logout(String authHeader, String refreshToken) {
+        refreshTokenService.revoke(refreshToken);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return;
+        }
+        JwtClaims claims = jwtService.verify(authHeader.substring(7));
+        if (claims != null) {
+            revocationList.revoke(claims.getTokenId(), claims.getUserId(), claims.getExpiresAt());
+        }
+    }
+
+    private AuthResponse buildResponse(UserDetailsImpl principal) {
         return AuthResponse.builder()
-                .token(jwtToken)
+                .token(jwtService.generateToken(principal))
+                .refreshToken(refreshTokenService.issue(principal.getUserEntity()))
+                .expiresIn(jwtService.getExpirationMillis() / 1000)
                 .build();
     }
 }
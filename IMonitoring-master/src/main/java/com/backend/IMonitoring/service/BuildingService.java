@@ -1,22 +1,49 @@
 package com.backend.IMonitoring.service;
+import com.backend.IMonitoring.availability.BuildingCapacityTimeline;
+import com.backend.IMonitoring.availability.BuildingCapacityTimeline.CapacityWindow;
+import com.backend.IMonitoring.availability.ClassroomCatalog;
+import com.backend.IMonitoring.availability.ClassroomEntry;
+import com.backend.IMonitoring.dto.BuildingDTO;
 import com.backend.IMonitoring.dto.BuildingRequestDTO;
+import com.backend.IMonitoring.dto.CapacityPointDTO;
+import com.backend.IMonitoring.dto.ClassroomDTO;
+import com.backend.IMonitoring.exceptions.InvalidReservationException;
 import com.backend.IMonitoring.model.Building;
 import com.backend.IMonitoring.repository.BuildingRepository;
 import com.backend.IMonitoring.repository.ClassroomRepository; 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class BuildingService {
     private final BuildingRepository buildingRepository;
     private final ClassroomRepository classroomRepository;
+    private final ClassroomService classroomService;
+    private final ClassroomCatalog classroomCatalog;
+    private final BuildingCapacityTimeline capacityTimeline;
 
-    public List<Building> getAllBuildings() {
-        return buildingRepository.findAll();
+    @Value("${availability.capacity-timeline.max-days:31}")
+    private long capacityTimelineMaxDays;
+
+    public List<BuildingDTO> getAllBuildings(boolean expandClassrooms) {
+        return buildingRepository.findAll(Sort.by("name")).stream()
+                .map(building -> toDTO(building, expandClassrooms))
+                .collect(Collectors.toList());
+    }
+
+    public BuildingDTO getBuildingSummary(String id, boolean expandClassrooms) {
+        return toDTO(getBuildingById(id), expandClassrooms);
     }
 
     public Building getBuildingById(String id) {
@@ -24,6 +51,50 @@ public class BuildingService {
                 .orElseThrow(() -> new RuntimeException("Edificio no encontrado con ID: " + id));
     }
 
+    /**
+     * Capacidad libre del edificio en pasos de {@code stepMinutes} (múltiplo de la franja del
+     * árbol). {@code freeClassrooms} cuenta las aulas libres durante todo el paso.
+     */
+    public List<CapacityPointDTO> getCapacityTimeline(String id, LocalDateTime startTime, LocalDateTime endTime, Integer stepMinutes) {
+        getBuildingById(id);
+        validateRange(startTime, endTime);
+        int slot = capacityTimeline.getSlotMinutes();
+        int step = stepMinutes != null ? stepMinutes : slot;
+        if (step <= 0 || step % slot != 0) {
+            throw new InvalidReservationException("El paso debe ser un múltiplo positivo de " + slot + " minutos.");
+        }
+        List<CapacityPointDTO> points = new ArrayList<>();
+        for (LocalDateTime cursor = startTime; cursor.isBefore(endTime); cursor = cursor.plusMinutes(step)) {
+            LocalDateTime next = cursor.plusMinutes(step).isBefore(endTime) ? cursor.plusMinutes(step) : endTime;
+            CapacityWindow window = capacityTimeline.query(id, cursor, next);
+            BitSet free = window.getFree();
+            int largest = 0;
+            for (int i = free.nextSetBit(0); i >= 0; i = free.nextSetBit(i + 1)) {
+                ClassroomEntry entry = classroomCatalog.get(i);
+                largest = entry != null ? Math.max(largest, entry.getCapacity()) : largest;
+            }
+            points.add(CapacityPointDTO.builder()
+                    .startTime(cursor)
+                    .endTime(next)
+                    .freeClassrooms(free.cardinality())
+                    .minFreeClassrooms(window.getMinFreeClassrooms())
+                    .minFreeSeats(window.getMinFreeSeats())
+                    .maxFreeSeats(window.getMaxFreeSeats())
+                    .largestFreeCapacity(largest)
+                    .build());
+        }
+        return points;
+    }
+
+    public List<ClassroomDTO> getFreeClassrooms(String id, LocalDateTime startTime, LocalDateTime endTime, Integer minCapacity) {
+        getBuildingById(id);
+        validateRange(startTime, endTime);
+        if (minCapacity != null && minCapacity < 0) {
+            throw new InvalidReservationException("La capacidad mínima debe ser un número positivo.");
+        }
+        return classroomService.findFreeInBuilding(id, startTime, endTime, minCapacity != null ? minCapacity : 0);
+    }
+
     @Transactional
     public Building createBuilding(BuildingRequestDTO buildingRequestDTO) { 
         Building building = Building.builder()
@@ -44,6 +115,25 @@ public class BuildingService {
         return buildingRepository.save(existingBuilding);
     }
 
+    private BuildingDTO toDTO(Building building, boolean expandClassrooms) {
+        return BuildingDTO.builder()
+                .id(building.getId())
+                .name(building.getName())
+                .location(building.getLocation())
+                .classroomCount(classroomCatalog.inBuilding(building.getId()).cardinality())
+                .classrooms(expandClassrooms ? classroomService.getClassroomsInBuilding(building.getId()) : null)
+                .build();
+    }
+
+    private void validateRange(LocalDateTime startTime, LocalDateTime endTime) {
+        if (startTime == null || endTime == null || !endTime.isAfter(startTime)) {
+            throw new InvalidReservationException("La hora de fin debe ser posterior a la hora de inicio.");
+        }
+        if (Duration.between(startTime, endTime).toDays() > capacityTimelineMaxDays) {
+            throw new InvalidReservationException("El rango no puede superar " + capacityTimelineMaxDays + " días.");
+        }
+    }
+
     @Transactional
     public void deleteBuilding(String id) {
         Building building = getBuildingById(id);
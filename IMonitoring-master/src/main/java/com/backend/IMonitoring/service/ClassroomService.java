@@ -1,7 +1,22 @@
 package com.backend.IMonitoring.service;
+import com.backend.IMonitoring.availability.BuildingCapacityTimeline;
+import com.backend.IMonitoring.availability.ClassroomAvailabilityIndex;
+import com.backend.IMonitoring.availability.ClassroomCatalog;
+import com.backend.IMonitoring.availability.ClassroomEntry;
+import com.backend.IMonitoring.availability.ClassroomChangedEvent;
+import com.backend.IMonitoring.availability.OccupancyGrid;
+import com.backend.IMonitoring.availability.OccupancyTimingWheel;
+import com.backend.IMonitoring.availability.ReservationChangedEvent;
+import com.backend.IMonitoring.availability.ReservationSlot;
+import com.backend.IMonitoring.availability.TimeWindow;
 import com.backend.IMonitoring.dto.ClassroomAvailabilitySummaryDTO;
 import com.backend.IMonitoring.dto.AvailabilityRequest;
+import com.backend.IMonitoring.dto.ClassroomDTO;
 import com.backend.IMonitoring.dto.ClassroomRequestDTO;
+import com.backend.IMonitoring.dto.FreeSlotDTO;
+import com.backend.IMonitoring.dto.ReservationSummaryDTO;
+import com.backend.IMonitoring.exceptions.InvalidReservationException;
+import com.backend.IMonitoring.exceptions.ResourceNotFoundException;
 import com.backend.IMonitoring.model.Classroom;
 import com.backend.IMonitoring.model.ClassroomType;
 import com.backend.IMonitoring.model.Building;
@@ -10,11 +25,23 @@ import com.backend.IMonitoring.repository.ClassroomRepository;
 import com.backend.IMonitoring.repository.BuildingRepository;
 import com.backend.IMonitoring.repository.ReservationRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -23,9 +50,22 @@ public class ClassroomService {
     private final ClassroomRepository classroomRepository;
     private final BuildingRepository buildingRepository;
     private final ReservationRepository reservationRepository;
+    private final ClassroomAvailabilityIndex availabilityIndex;
+    private final ClassroomCatalog classroomCatalog;
+    private final OccupancyGrid occupancyGrid;
+    private final OccupancyTimingWheel occupancyWheel;
+    private final BuildingCapacityTimeline capacityTimeline;
+    private final ReservationSeriesService seriesService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public List<Classroom> getAllClassrooms() {
-        return classroomRepository.findAll();
+    @Value("${availability.free-slots.max-days:366}")
+    private long freeSlotsMaxDays;
+
+    @Value("${availability.search.max-days:31}")
+    private long searchMaxDays;
+
+    public List<ClassroomDTO> getAllClassrooms() {
+        return classroomRepository.findAllSummaries();
     }
 
     public Classroom getClassroomById(String id) {
@@ -45,7 +85,7 @@ public class ClassroomService {
                 .resources(dto.getResources())
                 .building(building)
                 .build();
-        return classroomRepository.save(classroom);
+        return saveAndPublish(classroom);
     }
 
     @Transactional
@@ -61,7 +101,7 @@ public class ClassroomService {
         classroomToUpdate.setResources(dto.getResources());
         classroomToUpdate.setBuilding(building); 
 
-        return classroomRepository.save(classroomToUpdate);
+        return saveAndPublish(classroomToUpdate);
     }
 
     @Transactional
@@ -69,51 +109,344 @@ public class ClassroomService {
         if (!classroomRepository.existsById(id)) {
             throw new RuntimeException("Aula no encontrada con ID: " + id + " para eliminar.");
         }
-        reservationRepository.deleteAll(reservationRepository.findByClassroomId(id));
+        List<Reservation> reservations = reservationRepository.findByClassroomId(id);
+        reservationRepository.deleteAll(reservations);
+        reservations.forEach(r -> eventPublisher.publishEvent(new ReservationChangedEvent(ReservationSlot.of(r), null)));
         classroomRepository.deleteById(id);
+        eventPublisher.publishEvent(new ClassroomChangedEvent(id, null));
     }
     
-    public List<Classroom> getClassroomsByType(ClassroomType type) {
-        return classroomRepository.findByType(type);
+    public List<ClassroomDTO> getClassroomsByType(ClassroomType type) {
+        return classroomRepository.findSummariesByType(type);
     }
 
-    public List<Classroom> getClassroomsByMinCapacity(Integer minCapacity) {
+    public List<ClassroomDTO> getClassroomsByMinCapacity(Integer minCapacity) {
         if (minCapacity == null || minCapacity < 0) {
             throw new IllegalArgumentException("La capacidad mínima debe ser un número positivo.");
         }
-        return classroomRepository.findByCapacityGreaterThanEqual(minCapacity);
+        return classroomRepository.findSummariesByMinCapacity(minCapacity);
     }
 
-    public List<Classroom> getAvailableNow() {
-        return classroomRepository.findAvailableNow(LocalDateTime.now());
+    public List<ClassroomDTO> getAvailableNow() {
+        return toDTOs(occupancyGrid.freeAt(LocalDateTime.now()));
     }
 
-    public List<Classroom> getUnavailableNow() {
-        return classroomRepository.findUnavailableNow(LocalDateTime.now());
+    public List<ClassroomDTO> getUnavailableNow() {
+        return toDTOs(occupancyGrid.occupiedAt(LocalDateTime.now()));
     }
     
+    /**
+     * Además del índice se consultan las sesiones de series confirmadas que aún no se han
+     * materializado, para no dar por libre un hueco que la reserva rechazaría con 409.
+     */
     public boolean checkAvailability(AvailabilityRequest request) {
         if (request == null || request.getClassroomId() == null || request.getStartTime() == null || request.getEndTime() == null) {
             throw new IllegalArgumentException("Datos incompletos para verificar disponibilidad.");
         }
-        return classroomRepository.isAvailable(
+        return availabilityIndex.isAvailable(
             request.getClassroomId(),
             request.getStartTime(),
             request.getEndTime()
-        );
+        ) && seriesService.findUnmaterializedWindows(request.getClassroomId(), request.getStartTime(), request.getEndTime()).isEmpty();
+    }
+
+    /**
+     * Disponibilidad de varias consultas (aula, inicio, fin) en el orden recibido. Con el índice
+     * cargado cada consulta es una búsqueda O(log n) en memoria, más rápida que agrupar y ordenar.
+     * Mientras no lo está, se agrupan por aula: cada aula pide una sola vez a la base de datos sus
+     * reservas confirmadas en el rango total y las consultas, ordenadas por inicio, se resuelven
+     * con un barrido. Las aulas inexistentes y los rangos vacíos se responden como no disponibles.
+     * Las sesiones no materializadas de series confirmadas se piden una sola vez para todo el lote.
+     */
+    public boolean[] checkAvailabilityBatch(List<AvailabilityRequest> checks) {
+        boolean[] available = new boolean[checks.size()];
+        List<Integer> valid = new ArrayList<>();
+        LocalDateTime rangeStart = null;
+        LocalDateTime rangeEnd = null;
+        for (int i = 0; i < checks.size(); i++) {
+            AvailabilityRequest check = checks.get(i);
+            if (classroomCatalog.contains(check.getClassroomId()) && check.getEndTime().isAfter(check.getStartTime())) {
+                valid.add(i);
+                rangeStart = rangeStart == null || check.getStartTime().isBefore(rangeStart) ? check.getStartTime() : rangeStart;
+                rangeEnd = rangeEnd == null || check.getEndTime().isAfter(rangeEnd) ? check.getEndTime() : rangeEnd;
+            }
+        }
+        if (valid.isEmpty()) {
+            return available;
+        }
+        Map<String, List<TimeWindow>> seriesWindows = seriesService.findUnmaterializedWindows(rangeStart, rangeEnd);
+
+        boolean indexed = availabilityIndex.isLoaded();
+        Map<String, List<Integer>> byClassroom = new HashMap<>();
+        for (int i : valid) {
+            AvailabilityRequest check = checks.get(i);
+            if (indexed) {
+                available[i] = availabilityIndex.isAvailable(check.getClassroomId(), check.getStartTime(), check.getEndTime())
+                        && !overlapsAny(seriesWindows.get(check.getClassroomId()), check.getStartTime(), check.getEndTime());
+            } else {
+                byClassroom.computeIfAbsent(check.getClassroomId(), id -> new ArrayList<>()).add(i);
+            }
+        }
+        byClassroom.forEach((classroomId, indices) -> {
+            indices.sort(Comparator.comparing((Integer i) -> checks.get(i).getStartTime()));
+            LocalDateTime classroomStart = checks.get(indices.get(0)).getStartTime();
+            LocalDateTime classroomEnd = indices.stream().map(i -> checks.get(i).getEndTime()).max(Comparator.naturalOrder()).orElse(classroomStart);
+            List<TimeWindow> taken = availabilityIndex.findOverlapping(classroomId, classroomStart, classroomEnd).stream()
+                    .map(TimeWindow::of)
+                    .collect(Collectors.toList());
+            taken.addAll(seriesWindows.getOrDefault(classroomId, List.of()));
+            List<TimeWindow> busy = TimeWindow.merge(taken);
+            int b = 0;
+            for (int i : indices) {
+                AvailabilityRequest check = checks.get(i);
+                while (b < busy.size() && !busy.get(b).getEnd().isAfter(check.getStartTime())) {
+                    b++;
+                }
+                available[i] = b >= busy.size() || !busy.get(b).getStart().isBefore(check.getEndTime());
+            }
+        });
+        return available;
+    }
+
+    /**
+     * Aulas libres en todo el intervalo que cumplen tipo, capacidad y recursos, ordenadas por
+     * ajuste: primero las del edificio preferido y, dentro de cada grupo, la menor capacidad suficiente.
+     * El rango se limita a {@code availability.search.max-days} porque la rejilla materializa cada día
+     * que toca.
+     */
+    public List<ClassroomDTO> searchAvailable(
+            LocalDateTime startTime,
+            LocalDateTime endTime,
+            Integer minCapacity,
+            ClassroomType type,
+            String buildingId,
+            List<String> resources
+    ) {
+        if (startTime == null || endTime == null || !endTime.isAfter(startTime)) {
+            throw new InvalidReservationException("La hora de fin debe ser posterior a la hora de inicio.");
+        }
+        if (Duration.between(startTime, endTime).toDays() >= searchMaxDays) {
+            throw new InvalidReservationException("El rango de búsqueda no puede superar " + searchMaxDays + " días.");
+        }
+        if (minCapacity != null && minCapacity < 0) {
+            throw new InvalidReservationException("La capacidad mínima debe ser un número positivo.");
+        }
+        BitSet candidates = classroomCatalog.matching(type, null, resources);
+        candidates.and(occupancyGrid.freeThroughout(startTime, endTime));
+        clearSeriesBusy(candidates, startTime, endTime);
+        int required = minCapacity != null ? minCapacity : 0;
+
+        List<ClassroomEntry> matches = new ArrayList<>(candidates.cardinality());
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            ClassroomEntry entry = classroomCatalog.get(i);
+            if (entry != null && entry.getCapacity() >= required) {
+                matches.add(entry);
+            }
+        }
+        matches.sort(Comparator
+                .comparing((ClassroomEntry e) -> buildingId == null || !buildingId.equals(e.getBuildingId()))
+                .thenComparingInt(ClassroomEntry::getCapacity)
+                .thenComparing(ClassroomEntry::getName, Comparator.nullsLast(Comparator.naturalOrder())));
+        return matches.stream().map(ClassroomService::toDTO).collect(Collectors.toList());
+    }
+
+    /**
+     * Huecos libres de cada aula en [startTime, endTime) de al menos {@code minLength}, recortados al
+     * horario de apertura si se indica. Los parámetros se validan al llamar; los huecos se calculan
+     * aula por aula a medida que se consume el stream.
+     */
+    public Stream<FreeSlotDTO> findFreeSlots(
+            List<String> classroomIds,
+            LocalDateTime startTime,
+            LocalDateTime endTime,
+            Duration minLength,
+            LocalTime opensAt,
+            LocalTime closesAt
+    ) {
+        if (classroomIds == null || classroomIds.isEmpty()) {
+            throw new InvalidReservationException("Debe indicar al menos un aula.");
+        }
+        if (startTime == null || endTime == null || !endTime.isAfter(startTime)) {
+            throw new InvalidReservationException("La hora de fin debe ser posterior a la hora de inicio.");
+        }
+        if (Duration.between(startTime, endTime).toDays() > freeSlotsMaxDays) {
+            throw new InvalidReservationException("El rango no puede superar " + freeSlotsMaxDays + " días.");
+        }
+        if (minLength.isNegative()) {
+            throw new InvalidReservationException("La duración mínima no puede ser negativa.");
+        }
+        if (opensAt != null && closesAt != null && !closesAt.isAfter(opensAt)) {
+            throw new InvalidReservationException("La hora de cierre debe ser posterior a la de apertura.");
+        }
+        for (String classroomId : classroomIds) {
+            if (!classroomCatalog.contains(classroomId)) {
+                throw new ResourceNotFoundException("Aula no encontrada con ID: " + classroomId);
+            }
+        }
+        Map<String, List<TimeWindow>> seriesWindows = seriesService.findUnmaterializedWindows(startTime, endTime);
+        return classroomIds.stream()
+                .distinct()
+                .flatMap(classroomId -> freeSlotsOf(classroomId, startTime, endTime, minLength, opensAt, closesAt,
+                        seriesWindows.getOrDefault(classroomId, List.of())).stream());
+    }
+
+    private List<FreeSlotDTO> freeSlotsOf(
+            String classroomId,
+            LocalDateTime startTime,
+            LocalDateTime endTime,
+            Duration minLength,
+            LocalTime opensAt,
+            LocalTime closesAt,
+            List<TimeWindow> seriesWindows
+    ) {
+        List<TimeWindow> taken = availabilityIndex.findOverlapping(classroomId, startTime, endTime).stream()
+                .filter(ReservationSlot::isConfirmed)
+                .map(TimeWindow::of)
+                .collect(Collectors.toList());
+        taken.addAll(seriesWindows);
+        List<TimeWindow> busy = TimeWindow.merge(taken);
+        List<FreeSlotDTO> slots = new ArrayList<>();
+        boolean restricted = opensAt != null || closesAt != null;
+        TimeWindow.gaps(busy, startTime, endTime, gap -> {
+            if (!restricted) {
+                addIfLongEnough(slots, classroomId, gap.getStart(), gap.getEnd(), minLength);
+                return;
+            }
+            for (LocalDate day = gap.getStart().toLocalDate(); day.atStartOfDay().isBefore(gap.getEnd()); day = day.plusDays(1)) {
+                LocalDateTime open = opensAt != null ? day.atTime(opensAt) : day.atStartOfDay();
+                LocalDateTime close = closesAt != null ? day.atTime(closesAt) : day.plusDays(1).atStartOfDay();
+                addIfLongEnough(slots, classroomId,
+                        gap.getStart().isAfter(open) ? gap.getStart() : open,
+                        gap.getEnd().isBefore(close) ? gap.getEnd() : close,
+                        minLength);
+            }
+        });
+        return slots;
     }
 
-    public ClassroomAvailabilitySummaryDTO getAvailabilitySummary() {
-        LocalDateTime now = LocalDateTime.now();
-        List<Classroom> available = classroomRepository.findAvailableNow(now);
-        List<Classroom> unavailable = classroomRepository.findUnavailableNow(now);
-        long total = classroomRepository.count();
-        return new ClassroomAvailabilitySummaryDTO(available.size(), unavailable.size(), (int) total);
+    private static void addIfLongEnough(List<FreeSlotDTO> slots, String classroomId, LocalDateTime start, LocalDateTime end, Duration minLength) {
+        if (start.isBefore(end) && Duration.between(start, end).compareTo(minLength) >= 0) {
+            slots.add(new FreeSlotDTO(classroomId, start, end));
+        }
+    }
+
+    public ClassroomAvailabilitySummaryDTO getAvailabilitySummary(String buildingId) {
+        if (buildingId == null || buildingId.isBlank()) {
+            int total = classroomCatalog.size();
+            int occupied = occupancyWheel.isLoaded()
+                    ? occupancyWheel.occupiedNow()
+                    : occupancyGrid.occupiedAt(LocalDateTime.now()).cardinality();
+            return new ClassroomAvailabilitySummaryDTO(total - occupied, occupied, total);
+        }
+        BitSet inBuilding = classroomCatalog.inBuilding(buildingId);
+        int total = inBuilding.cardinality();
+        int occupied;
+        if (occupancyWheel.isLoaded()) {
+            occupied = occupancyWheel.occupiedNow(buildingId);
+        } else {
+            inBuilding.and(occupancyGrid.occupiedAt(LocalDateTime.now()));
+            occupied = inBuilding.cardinality();
+        }
+        return new ClassroomAvailabilitySummaryDTO(total - occupied, occupied, total);
+    }
+
+
+    public List<ReservationSummaryDTO> getClassroomReservationsForDateRange(String classroomId, LocalDateTime startDate, LocalDateTime endDate) {
+        ClassroomEntry classroom = classroomCatalog.get(classroomId);
+        if (classroom == null) {
+            throw new ResourceNotFoundException("Aula no encontrada con ID: " + classroomId);
+        }
+        return availabilityIndex.findOverlapping(classroomId, startDate, endDate).stream()
+                .map(slot -> new ReservationSummaryDTO(
+                        slot.getId(),
+                        classroomId,
+                        classroom.getName(),
+                        classroom.getBuildingId(),
+                        slot.getUserId(),
+                        null,
+                        slot.getStartTime(),
+                        slot.getEndTime(),
+                        slot.getStatus(),
+                        slot.getPurpose(),
+                        null))
+                .collect(Collectors.toList());
+    }
+
+    public List<ClassroomDTO> getClassroomsInBuilding(String buildingId) {
+        List<ClassroomDTO> classrooms = toDTOs(classroomCatalog.inBuilding(buildingId));
+        classrooms.sort(Comparator.comparing(ClassroomDTO::getName, Comparator.nullsLast(Comparator.naturalOrder())));
+        return classrooms;
+    }
+
+    /**
+     * Aulas del edificio con al menos {@code minCapacity} plazas libres durante todo el intervalo,
+     * de menor a mayor capacidad.
+     */
+    public List<ClassroomDTO> findFreeInBuilding(String buildingId, LocalDateTime startTime, LocalDateTime endTime, int minCapacity) {
+        BitSet free = capacityTimeline.freeThroughout(buildingId, startTime, endTime, minCapacity);
+        clearSeriesBusy(free, startTime, endTime);
+        List<ClassroomDTO> classrooms = toDTOs(free);
+        classrooms.sort(Comparator.comparing(ClassroomDTO::getCapacity)
+                .thenComparing(ClassroomDTO::getName, Comparator.nullsLast(Comparator.naturalOrder())));
+        return classrooms;
     }
 
+    /**
+     * Quita de {@code classrooms} las aulas con alguna sesión no materializada de una serie
+     * confirmada en el intervalo; la rejilla y el árbol de capacidad solo ven reservas.
+     */
+    private void clearSeriesBusy(BitSet classrooms, LocalDateTime startTime, LocalDateTime endTime) {
+        for (String classroomId : seriesService.findUnmaterializedWindows(startTime, endTime).keySet()) {
+            ClassroomEntry entry = classroomCatalog.get(classroomId);
+            if (entry != null) {
+                classrooms.clear(entry.getIndex());
+            }
+        }
+    }
+
+    /**
+     * {@code windows} ordenada por inicio; puede ser null.
+     */
+    private static boolean overlapsAny(List<TimeWindow> windows, LocalDateTime startTime, LocalDateTime endTime) {
+        if (windows == null) {
+            return false;
+        }
+        for (TimeWindow window : windows) {
+            if (!window.getStart().isBefore(endTime)) {
+                return false;
+            }
+            if (window.getEnd().isAfter(startTime)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<ClassroomDTO> toDTOs(BitSet classrooms) {
+        List<ClassroomDTO> result = new ArrayList<>(classrooms.cardinality());
+        for (int i = classrooms.nextSetBit(0); i >= 0; i = classrooms.nextSetBit(i + 1)) {
+            ClassroomEntry entry = classroomCatalog.get(i);
+            if (entry != null) {
+                result.add(toDTO(entry));
+            }
+        }
+        return result;
+    }
+
+    private static ClassroomDTO toDTO(ClassroomEntry entry) {
+        return ClassroomDTO.builder()
+                .id(entry.getId())
+                .name(entry.getName())
+                .capacity(entry.getCapacity())
+                .type(entry.getType())
+                .resources(entry.getResources())
+                .buildingId(entry.getBuildingId())
+                .build();
+    }
 
-    public List<Reservation> getClassroomReservationsForDateRange(String classroomId, LocalDateTime startDate, LocalDateTime endDate) {
-        getClassroomById(classroomId); 
-        return reservationRepository.findByClassroomIdAndDateTimeRange(classroomId, startDate, endDate);
+    private Classroom saveAndPublish(Classroom classroom) {
+        Classroom saved = classroomRepository.save(classroom);
+        eventPublisher.publishEvent(new ClassroomChangedEvent(saved.getId(), saved));
+        return saved;
     }
 }
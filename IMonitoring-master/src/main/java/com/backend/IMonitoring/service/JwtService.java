@@ -1,53 +1,89 @@
 package com.backend.IMonitoring.service;
 import com.backend.IMonitoring.model.User;
+import com.backend.IMonitoring.security.ExpiringLruCache;
+import com.backend.IMonitoring.security.JwtClaims;
+import com.backend.IMonitoring.security.TokenDigests;
 import com.backend.IMonitoring.security.UserDetailsImpl;
-import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
-import io.jsonwebtoken.security.SignatureException;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
+/**
+ * Emite y verifica los JWT. La clave HMAC y el parser se construyen una sola vez; cada token se
+ * verifica como mucho una vez y sus claims quedan en una caché acotada, indexada por el SHA-256
+ * del token, hasta que el token expira.
+ */
 @Service
 public class JwtService {
+    private final SecretKey signInKey;
+    private final JwtParser parser;
+    private final long jwtExpiration;
+    private final ExpiringLruCache<String, JwtClaims> verifiedTokens;
+
+    public JwtService(
+            @Value("${jwt.secret-key}") String base64EncodedSecretKey,
+            @Value("${jwt.expiration-time:900000}") long jwtExpiration,
+            @Value("${jwt.verified-cache.max-entries:10000}") int verifiedCacheSize
+    ) {
+        this.signInKey = buildSignInKey(base64EncodedSecretKey);
+        this.parser = Jwts.parser().verifyWith(signInKey).build();
+        this.jwtExpiration = jwtExpiration;
+        this.verifiedTokens = new ExpiringLruCache<>(verifiedCacheSize);
+    }
 
-    @Value("${jwt.secret-key}")
-    private String base64EncodedSecretKey;
-
-    @Value("${jwt.expiration-time:86400000}")
-    private long jwtExpiration;
-
-    public String extractUsername(String token) {
-        try {
-            return extractClaim(token, Claims::getSubject);
-        } catch (ExpiredJwtException | SignatureException e) {
-            System.err.println("Error al extraer username del token (expirado o firma inválida): " + e.getMessage());
-            return null;
-        } catch (io.jsonwebtoken.io.DecodingException e) {
-            System.err.println("Error de decodificación JWT: " + e.getMessage());
+    /**
+     * Verifica firma y expiración y devuelve los claims, o {@code null} si el token no es válido.
+     */
+    public JwtClaims verify(String token) {
+        if (token == null || token.isEmpty()) {
             return null;
         }
-        catch (Exception e) {
-            System.err.println("Error inesperado al extraer username del token: " + e.getMessage());
+        String digest = TokenDigests.sha256(token);
+        JwtClaims cached = verifiedTokens.get(digest);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            JwtClaims claims = JwtClaims.of(parser.parseSignedClaims(token).getPayload());
+            if (claims.getSubject() == null || claims.isExpired(Instant.now())) {
+                return null;
+            }
+            if (claims.getExpiresAt() != null) {
+                verifiedTokens.put(digest, claims, claims.getExpiresAt());
+            }
+            return claims;
+        } catch (ExpiredJwtException e) {
+            System.err.println("Token JWT expirado: " + e.getMessage());
+            return null;
+        } catch (JwtException | IllegalArgumentException e) {
+            System.err.println("Token JWT inválido: " + e.getMessage());
             return null;
         }
     }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    public long getExpirationMillis() {
+        return jwtExpiration;
+    }
+
+    public String extractUsername(String token) {
+        JwtClaims claims = verify(token);
+        return claims != null ? claims.getSubject() : null;
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -68,6 +104,7 @@ public class JwtService {
             User appUser = userDetailsImplCasted.getUserEntity();
             if (appUser != null) {
                 extraClaims.put("userId", appUser.getId());
+                extraClaims.put("ver", appUser.getTokenVersion() != null ? appUser.getTokenVersion() : 0);
                 if (appUser.getName() != null) {
                     extraClaims.put("name", appUser.getName());
                 }
@@ -80,55 +117,25 @@ public class JwtService {
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
         return Jwts.builder()
                 .claims(extraClaims)
+                .id(UUID.randomUUID().toString())
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSignInKey())
+                .signWith(signInKey)
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-
-         try {
-            final String username = extractUsername(token);
-            return (username != null && username.equals(userDetails.getUsername())) && !isTokenExpired(token);
-        } catch (Exception e) {
-            System.err.println("Token inválido o error durante la validación: " + e.getMessage());
-            return false;
-        }
-    }
-
-    private boolean isTokenExpired(String token) {
-
-        try {
-            return extractExpiration(token).before(new Date());
-        } catch (ExpiredJwtException e) {
-            return true;
-        } catch (Exception e) {
-            return true;
-        }
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    private Claims extractAllClaims(String token) {
-
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        JwtClaims claims = verify(token);
+        return claims != null && claims.getSubject().equals(userDetails.getUsername());
     }
 
-    private SecretKey getSignInKey() {
+    private static SecretKey buildSignInKey(String base64EncodedSecretKey) {
         byte[] keyBytes;
         try {
-            keyBytes = Decoders.BASE64.decode(this.base64EncodedSecretKey);
+            keyBytes = Decoders.BASE64.decode(base64EncodedSecretKey);
         } catch (IllegalArgumentException e) {
             System.err.println("ERROR CRÍTICO: jwt.secret-key en application.properties NO es una cadena Base64 válida: " + e.getMessage());
-            System.err.println("Valor problemático de base64EncodedSecretKey: [" + this.base64EncodedSecretKey + "]");
             throw new RuntimeException("La clave secreta JWT está malformada. Verifica application.properties.", e);
         }
         if (keyBytes.length < 32) {
@@ -0,0 +1,221 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.availability.ClassroomCatalog;
+import com.backend.IMonitoring.availability.ClassroomEntry;
+import com.backend.IMonitoring.availability.ClassroomOccupancyChangedEvent;
+import com.backend.IMonitoring.availability.OccupancyTimingWheel;
+import com.backend.IMonitoring.availability.ReservationChangedEvent;
+import com.backend.IMonitoring.availability.ReservationSlot;
+import com.backend.IMonitoring.dto.OccupancyDeltaDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Difunde por SSE los cambios de ocupación: el paso de cada aula a ocupada o libre y las ventanas
+ * de horario que cambian al confirmar, mover o cancelar reservas confirmadas. Solo se envía estado
+ * de ocupación (aula, edificio, intervalo), nunca datos de la reserva ni del usuario.
+ * <p>
+ * Cada evento se serializa una sola vez y se deja en la cola acotada de cada suscriptor que lo
+ * filtra (por edificio). Cada suscriptor se vacía en su propio hilo virtual, así que un cliente
+ * lento solo se retrasa a sí mismo; si su cola se llena se cierra su conexión y el cliente debe
+ * reconectar.
+ */
+@Service
+public class OccupancyStreamService {
+    private static final Outbound HEARTBEAT = new Outbound(null, null, null);
+
+    private final ClassroomCatalog classroomCatalog;
+    private final ObjectMapper objectMapper;
+    private final long emitterTimeoutMillis;
+    private final int subscriberBufferSize;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    public OccupancyStreamService(
+            ClassroomCatalog classroomCatalog,
+            ObjectMapper objectMapper,
+            @Value("${availability.stream.timeout-ms:1800000}") long emitterTimeoutMillis,
+            @Value("${availability.stream.buffer-size:256}") int subscriberBufferSize
+    ) {
+        this.classroomCatalog = classroomCatalog;
+        this.objectMapper = objectMapper;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.subscriberBufferSize = subscriberBufferSize;
+    }
+
+    @PreDestroy
+    void stop() {
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    public SseEmitter subscribe(String buildingId) {
+        return register(new SseEmitter(emitterTimeoutMillis), buildingId);
+    }
+
+    SseEmitter register(SseEmitter emitter, String buildingId) {
+        Subscriber subscriber = new Subscriber(emitter, buildingId == null || buildingId.isBlank() ? null : buildingId, subscriberBufferSize);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @EventListener
+    public void onOccupancyChanged(ClassroomOccupancyChangedEvent event) {
+        publish(OccupancyDeltaDTO.builder()
+                .type("OCCUPANCY")
+                .classroomId(event.getClassroomId())
+                .buildingId(event.getBuildingId())
+                .occupied(event.isOccupied())
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(OccupancyTimingWheel.LISTENER_ORDER + 10)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        ReservationSlot before = event.getBefore();
+        ReservationSlot after = event.getAfter();
+        boolean beforeBusy = before != null && before.isConfirmed();
+        boolean afterBusy = after != null && after.isConfirmed();
+        if (beforeBusy && afterBusy && Objects.equals(before.getClassroomId(), after.getClassroomId())
+                && before.getStartTime().equals(after.getStartTime()) && before.getEndTime().equals(after.getEndTime())) {
+            return;
+        }
+        if (beforeBusy) {
+            publishSchedule(before, false);
+        }
+        if (afterBusy) {
+            publishSchedule(after, true);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${availability.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        subscribers.forEach(subscriber -> enqueue(subscriber, HEARTBEAT));
+    }
+
+    private void publishSchedule(ReservationSlot slot, boolean occupied) {
+        ClassroomEntry classroom = classroomCatalog.get(slot.getClassroomId());
+        publish(OccupancyDeltaDTO.builder()
+                .type("SCHEDULE")
+                .classroomId(slot.getClassroomId())
+                .buildingId(classroom != null ? classroom.getBuildingId() : null)
+                .occupied(occupied)
+                .startTime(slot.getStartTime())
+                .endTime(slot.getEndTime())
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
+    private void publish(OccupancyDeltaDTO delta) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Outbound outbound;
+        try {
+            outbound = new Outbound(delta.getType(), delta.getBuildingId(), objectMapper.writeValueAsString(delta));
+        } catch (JsonProcessingException e) {
+            System.err.println("OccupancyStreamService: no se pudo serializar el evento: " + e.getMessage());
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.buildingId == null || Objects.equals(subscriber.buildingId, outbound.buildingId)) {
+                enqueue(subscriber, outbound);
+            }
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, Outbound outbound) {
+        if (!subscriber.queue.offer(outbound)) {
+            System.err.println("OccupancyStreamService: suscriptor demasiado lento (cola llena); se cierra la conexión.");
+            drop(subscriber, null);
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            Outbound outbound;
+            while ((outbound = subscriber.queue.poll()) != null) {
+                try {
+                    if (outbound == HEARTBEAT) {
+                        subscriber.emitter.send(SseEmitter.event().comment("ping"));
+                    } else {
+                        subscriber.emitter.send(SseEmitter.event().name(outbound.type).data(outbound.json, MediaType.APPLICATION_JSON));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    drop(subscriber, e);
+                    return;
+                }
+            }
+            subscriber.draining.set(false);
+        } while (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private void drop(Subscriber subscriber, Exception error) {
+        if (!subscribers.remove(subscriber)) {
+            return;
+        }
+        subscriber.queue.clear();
+        if (error != null) {
+            subscriber.emitter.completeWithError(error);
+        } else {
+            subscriber.emitter.complete();
+        }
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final String buildingId;
+        private final BlockingQueue<Outbound> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, String buildingId, int bufferSize) {
+            this.emitter = emitter;
+            this.buildingId = buildingId;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+
+    private static final class Outbound {
+        private final String type;
+        private final String buildingId;
+        private final String json;
+
+        private Outbound(String type, String buildingId, String json) {
+            this.type = type;
+            this.buildingId = buildingId;
+            this.json = json;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.exceptions.InvalidRefreshTokenException;
+import com.backend.IMonitoring.model.RefreshToken;
+import com.backend.IMonitoring.model.User;
+import com.backend.IMonitoring.repository.RefreshTokenRepository;
+import com.backend.IMonitoring.security.TokenDigests;
+import com.backend.IMonitoring.security.UserDetailsImpl;
+import com.backend.IMonitoring.security.UserPrincipalCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Emisión y rotación de refresh tokens. El token en claro solo viaja al cliente; en la base de
+ * datos se guarda su SHA-256, así que validar uno es una búsqueda por índice único y nunca pasa
+ * por el codificador de contraseñas.
+ */
+@Service
+public class RefreshTokenService {
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final UserPrincipalCache userPrincipalCache;
+    private final Duration ttl;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(
+            RefreshTokenRepository refreshTokenRepository,
+            UserPrincipalCache userPrincipalCache,
+            @Value("${jwt.refresh.expiration-days:14}") long expirationDays
+    ) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userPrincipalCache = userPrincipalCache;
+        this.ttl = Duration.ofDays(expirationDays);
+    }
+
+    @Transactional
+    public String issue(User user) {
+        return issue(user.getId(), user.getTokenVersion(), UUID.randomUUID().toString());
+    }
+
+    /**
+     * Consume el refresh token y devuelve el siguiente de la familia junto con el usuario. Un token
+     * ya usado revoca toda la familia; esa revocación se confirma aunque la llamada falle.
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public Rotation rotate(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            throw new InvalidRefreshTokenException("Refresh token inválido.");
+        }
+        RefreshToken current = refreshTokenRepository.findByTokenHash(TokenDigests.sha256(rawToken))
+                .orElseThrow(() -> new InvalidRefreshTokenException("Refresh token inválido."));
+        LocalDateTime now = LocalDateTime.now();
+        if (current.getRevokedAt() != null) {
+            refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            System.err.println("RefreshTokenService: reutilización de refresh token detectada para el usuario " +
+                    current.getUserId() + ". Familia " + current.getFamilyId() + " revocada.");
+            throw new InvalidRefreshTokenException("Refresh token ya utilizado. Inicia sesión de nuevo.");
+        }
+        if (!current.getExpiresAt().isAfter(now)) {
+            throw new InvalidRefreshTokenException("Refresh token expirado. Inicia sesión de nuevo.");
+        }
+
+        UserDetailsImpl principal;
+        try {
+            principal = userPrincipalCache.loadById(current.getUserId());
+        } catch (UsernameNotFoundException e) {
+            refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            throw new InvalidRefreshTokenException("Usuario no encontrado.");
+        }
+        if (!Objects.equals(principal.getUserEntity().getTokenVersion(), current.getTokenVersion())) {
+            refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            throw new InvalidRefreshTokenException("Refresh token revocado. Inicia sesión de nuevo.");
+        }
+
+        current.setRevokedAt(now);
+        String next = issue(current.getUserId(), current.getTokenVersion(), current.getFamilyId());
+        return new Rotation(principal, next);
+    }
+
+    @Transactional
+    public void revoke(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            return;
+        }
+        refreshTokenRepository.findByTokenHash(TokenDigests.sha256(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(), LocalDateTime.now()));
+    }
+
+    @Scheduled(cron = "${jwt.refresh.purge-cron:0 15 4 * * *}")
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            System.out.println("RefreshTokenService: " + deleted + " refresh tokens expirados eliminados.");
+        }
+    }
+
+    private String issue(String userId, Integer tokenVersion, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        LocalDateTime now = LocalDateTime.now();
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(TokenDigests.sha256(rawToken))
+                .userId(userId)
+                .familyId(familyId)
+                .tokenVersion(tokenVersion != null ? tokenVersion : 0)
+                .expiresAt(now.plus(ttl))
+                .createdAt(now)
+                .build());
+        return rawToken;
+    }
+
+    public static final class Rotation {
+        private final UserDetailsImpl principal;
+        private final String refreshToken;
+
+        private Rotation(UserDetailsImpl principal, String refreshToken) {
+            this.principal = principal;
+            this.refreshToken = refreshToken;
+        }
+
+        public UserDetailsImpl getPrincipal() {
+            return principal;
+        }
+
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.availability.ClassroomAvailabilityIndex;
+import com.backend.IMonitoring.availability.ClassroomBookingLocks;
+import com.backend.IMonitoring.availability.ClassroomCatalog;
+import com.backend.IMonitoring.availability.ReservationChangedEvent;
+import com.backend.IMonitoring.availability.ReservationSlot;
+import com.backend.IMonitoring.availability.TimeWindow;
+import com.backend.IMonitoring.dto.ReservationBatchItemResultDTO;
+import com.backend.IMonitoring.dto.ReservationBatchItemResultDTO.Outcome;
+import com.backend.IMonitoring.dto.ReservationBatchRequestDTO;
+import com.backend.IMonitoring.dto.ReservationRequestDTO;
+import com.backend.IMonitoring.model.Classroom;
+import com.backend.IMonitoring.model.Reservation;
+import com.backend.IMonitoring.model.ReservationStatus;
+import com.backend.IMonitoring.model.User;
+import com.backend.IMonitoring.repository.UserRepository;
+import com.backend.IMonitoring.security.UserDetailsImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class ReservationBatchService {
+    private final UserRepository userRepository;
+    private final ClassroomCatalog classroomCatalog;
+    private final ClassroomAvailabilityIndex availabilityIndex;
+    private final ClassroomBookingLocks bookingLocks;
+    private final ReservationSeriesService seriesService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${reservation.jdbc.batch-size:100}")
+    private int batchSize;
+
+    @Transactional
+    public List<ReservationBatchItemResultDTO> createBatch(ReservationBatchRequestDTO request, UserDetails adminUserDetails) {
+        String defaultUserId = ((UserDetailsImpl) adminUserDetails).getId();
+        List<ReservationRequestDTO> items = request.getReservations();
+        ReservationBatchItemResultDTO[] results = new ReservationBatchItemResultDTO[items.size()];
+
+        Set<String> requestedUserIds = items.stream()
+                .map(item -> userIdOf(item, defaultUserId))
+                .collect(Collectors.toSet());
+        Set<String> existingUserIds = new HashSet<>();
+        userRepository.findAllById(requestedUserIds).forEach(user -> existingUserIds.add(user.getId()));
+
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            ReservationRequestDTO item = items.get(i);
+            String problem = validate(item, userIdOf(item, defaultUserId), existingUserIds);
+            if (problem != null) {
+                results[i] = new ReservationBatchItemResultDTO(i, Outcome.INVALIDA, null, problem);
+            } else {
+                candidates.add(i);
+            }
+        }
+
+        candidates.sort(Comparator
+                .comparing((Integer i) -> items.get(i).getClassroomId())
+                .thenComparing(i -> items.get(i).getStartTime())
+                .thenComparing(i -> items.get(i).getEndTime()));
+        Map<String, List<Integer>> byClassroom = candidates.stream()
+                .collect(Collectors.groupingBy(i -> items.get(i).getClassroomId(), LinkedHashMap::new, Collectors.toList()));
+
+        bookingLocks.lockUntilTransactionEnds(byClassroom.keySet().toArray(new String[0]));
+
+        List<Integer> accepted = new ArrayList<>();
+        for (Map.Entry<String, List<Integer>> entry : byClassroom.entrySet()) {
+            sweep(entry.getKey(), entry.getValue(), items, results, accepted);
+        }
+
+        ReservationStatus status = request.isConfirm() ? ReservationStatus.CONFIRMADA : ReservationStatus.PENDIENTE;
+        List<ReservationSlot> created = new ArrayList<>(accepted.size());
+        int pending = 0;
+        for (int i : accepted) {
+            ReservationRequestDTO item = items.get(i);
+            Reservation reservation = Reservation.builder()
+                    .classroom(entityManager.getReference(Classroom.class, item.getClassroomId()))
+                    .user(entityManager.getReference(User.class, userIdOf(item, defaultUserId)))
+                    .startTime(item.getStartTime())
+                    .endTime(item.getEndTime())
+                    .status(status)
+                    .purpose(item.getPurpose())
+                    .build();
+            entityManager.persist(reservation);
+            results[i] = new ReservationBatchItemResultDTO(i, Outcome.CREADA, reservation.getId(), null);
+            created.add(ReservationSlot.of(reservation));
+            if (++pending == batchSize) {
+                entityManager.flush();
+                entityManager.clear();
+                pending = 0;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        created.forEach(slot -> eventPublisher.publishEvent(new ReservationChangedEvent(null, slot)));
+        return List.of(results);
+    }
+
+    /**
+     * Barrido de las reservas de un aula ordenadas por inicio: se descartan las que solapan una
+     * reserva confirmada (de la base de datos, vía el índice), una sesión aún no materializada de
+     * una serie confirmada o una reserva ya aceptada del lote.
+     */
+    private void sweep(
+            String classroomId,
+            List<Integer> sortedItems,
+            List<ReservationRequestDTO> items,
+            ReservationBatchItemResultDTO[] results,
+            List<Integer> accepted
+    ) {
+        LocalDateTime rangeStart = items.get(sortedItems.get(0)).getStartTime();
+        LocalDateTime rangeEnd = sortedItems.stream().map(i -> items.get(i).getEndTime()).max(Comparator.naturalOrder()).orElse(rangeStart);
+        List<TimeWindow> taken = availabilityIndex.findOverlapping(classroomId, rangeStart, rangeEnd).stream()
+                .map(TimeWindow::of)
+                .collect(Collectors.toList());
+        taken.addAll(seriesService.findUnmaterializedWindows(classroomId, rangeStart, rangeEnd));
+        List<TimeWindow> busy = TimeWindow.merge(taken);
+
+        int b = 0;
+        LocalDateTime acceptedUntil = null;
+        for (int i : sortedItems) {
+            ReservationRequestDTO item = items.get(i);
+            while (b < busy.size() && !busy.get(b).getEnd().isAfter(item.getStartTime())) {
+                b++;
+            }
+            if (b < busy.size() && busy.get(b).getStart().isBefore(item.getEndTime())) {
+                results[i] = new ReservationBatchItemResultDTO(i, Outcome.CONFLICTO, null,
+                        "El aula ya tiene una reserva confirmada entre " + busy.get(b).getStart() + " y " + busy.get(b).getEnd() + ".");
+            } else if (acceptedUntil != null && acceptedUntil.isAfter(item.getStartTime())) {
+                results[i] = new ReservationBatchItemResultDTO(i, Outcome.CONFLICTO, null,
+                        "Se solapa con otra reserva del mismo lote para el aula.");
+            } else {
+                accepted.add(i);
+                acceptedUntil = item.getEndTime();
+            }
+        }
+    }
+
+    private String validate(ReservationRequestDTO item, String userId, Set<String> existingUserIds) {
+        if (item == null) {
+            return "La reserva está vacía.";
+        }
+        if (item.getClassroomId() == null || item.getClassroomId().isBlank()
+                || item.getStartTime() == null || item.getEndTime() == null) {
+            return "Faltan datos obligatorios (aula, inicio o fin).";
+        }
+        if (!item.getEndTime().isAfter(item.getStartTime())) {
+            return "La hora de fin debe ser posterior a la hora de inicio.";
+        }
+        if (!classroomCatalog.contains(item.getClassroomId())) {
+            return "Aula no encontrada con ID: " + item.getClassroomId();
+        }
+        if (!existingUserIds.contains(userId)) {
+            return "Usuario no encontrado con ID: " + userId;
+        }
+        return null;
+    }
+
+    private static String userIdOf(ReservationRequestDTO item, String defaultUserId) {
+        return item != null && item.getUserId() != null && !item.getUserId().isEmpty() ? item.getUserId() : defaultUserId;
+    }
+}
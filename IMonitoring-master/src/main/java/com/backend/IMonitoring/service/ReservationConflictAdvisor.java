@@ -0,0 +1,114 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.availability.ClassroomAvailabilityIndex;
+import com.backend.IMonitoring.availability.ClassroomCatalog;
+import com.backend.IMonitoring.availability.ClassroomEntry;
+import com.backend.IMonitoring.availability.ReservationSlot;
+import com.backend.IMonitoring.availability.TimeWindow;
+import com.backend.IMonitoring.dto.ClassroomDTO;
+import com.backend.IMonitoring.dto.ReservationConflictDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Construye la respuesta de un conflicto de reserva: las reservas confirmadas que chocan, los
+ * huecos más cercanos de la misma duración en la misma aula y aulas equivalentes libres en el
+ * horario pedido. Las reservas salen del índice en memoria; las sesiones de series confirmadas aún
+ * no materializadas se piden al servicio de series y cuentan como ocupadas.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReservationConflictAdvisor {
+    private final ClassroomAvailabilityIndex availabilityIndex;
+    private final ClassroomCatalog classroomCatalog;
+    private final ClassroomService classroomService;
+    private final ReservationSeriesService seriesService;
+
+    @Value("${reservation.conflict.search-hours:24}")
+    private long searchHours;
+
+    @Value("${reservation.conflict.max-suggestions:3}")
+    private int maxSuggestions;
+
+    @Value("${reservation.conflict.max-alternatives:5}")
+    private int maxAlternatives;
+
+    @Value("${availability.search.max-days:31}")
+    private long searchMaxDays;
+
+    public ReservationConflictDTO analyze(String classroomId, LocalDateTime startTime, LocalDateTime endTime, String excludeReservationId) {
+        Duration length = Duration.between(startTime, endTime);
+        LocalDateTime from = startTime.minusHours(searchHours);
+        LocalDateTime to = endTime.plusHours(searchHours);
+
+        List<TimeWindow> busy = new ArrayList<>();
+        List<TimeWindow> conflicts = new ArrayList<>();
+        for (ReservationSlot slot : availabilityIndex.findOverlapping(classroomId, from, to)) {
+            if (!slot.isConfirmed() || Objects.equals(slot.getId(), excludeReservationId)) {
+                continue;
+            }
+            TimeWindow window = TimeWindow.of(slot);
+            busy.add(window);
+            if (slot.overlaps(startTime, endTime)) {
+                conflicts.add(window);
+            }
+        }
+        for (TimeWindow window : seriesService.findUnmaterializedWindows(classroomId, from, to)) {
+            busy.add(window);
+            if (window.getStart().isBefore(endTime) && window.getEnd().isAfter(startTime)) {
+                conflicts.add(window);
+            }
+        }
+        conflicts.sort(TimeWindow.BY_START);
+
+        // Solo se sugieren huecos futuros.
+        LocalDateTime now = LocalDateTime.now();
+        List<TimeWindow> suggestions = new ArrayList<>();
+        TimeWindow.gaps(TimeWindow.merge(busy), from.isBefore(now) ? now : from, to, gap -> {
+            LocalDateTime latestStart = gap.getEnd().minus(length);
+            if (latestStart.isBefore(gap.getStart())) {
+                return;
+            }
+            LocalDateTime candidate = startTime.isBefore(gap.getStart()) ? gap.getStart()
+                    : startTime.isAfter(latestStart) ? latestStart : startTime;
+            suggestions.add(new TimeWindow(candidate, candidate.plus(length)));
+        });
+        suggestions.sort(Comparator.comparing((TimeWindow w) -> Duration.between(startTime, w.getStart()).abs())
+                .thenComparing(TimeWindow::getStart));
+
+        return new ReservationConflictDTO(
+                classroomId,
+                startTime,
+                endTime,
+                conflicts,
+                suggestions.stream().limit(maxSuggestions).collect(Collectors.toList()),
+                alternativesFor(classroomId, startTime, endTime)
+        );
+    }
+
+    /**
+     * Las reservas más largas que el límite de búsqueda no reciben alternativas: la búsqueda las
+     * rechazaría y el conflicto acabaría como 400 en lugar de 409.
+     */
+    private List<ClassroomDTO> alternativesFor(String classroomId, LocalDateTime startTime, LocalDateTime endTime) {
+        ClassroomEntry requested = classroomCatalog.get(classroomId);
+        if (requested == null || Duration.between(startTime, endTime).toDays() >= searchMaxDays) {
+            return Collections.emptyList();
+        }
+        return classroomService.searchAvailable(startTime, endTime, requested.getCapacity(), requested.getType(), requested.getBuildingId(), null)
+                .stream()
+                .filter(c -> !c.getId().equals(classroomId))
+                .limit(maxAlternatives)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,75 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.exceptions.InvalidReservationException;
+import com.backend.IMonitoring.dto.ReservationSummaryDTO;
+import lombok.Value;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Orden y posición de un listado paginado por keyset. El cursor que ve el cliente es opaco
+ * (Base64 de campo, dirección, valor e id de la última fila) y solo vale para el mismo orden.
+ */
+@Value
+class ReservationCursor {
+    static final Set<String> SORT_FIELDS = Set.of("startTime", "endTime");
+
+    String field;
+    Sort.Direction direction;
+    LocalDateTime value;
+    String id;
+
+    static Sort.Direction parseDirection(String direction) {
+        if (direction == null || direction.isBlank()) {
+            return Sort.Direction.ASC;
+        }
+        try {
+            return Sort.Direction.fromString(direction.trim());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidReservationException("Dirección de orden no válida: " + direction);
+        }
+    }
+
+    static String validateField(String field) {
+        if (!SORT_FIELDS.contains(field)) {
+            throw new InvalidReservationException("Campo de orden no permitido: " + field + ". Use uno de " + SORT_FIELDS + ".");
+        }
+        return field;
+    }
+
+    static ReservationCursor after(ReservationSummaryDTO last, String field, Sort.Direction direction) {
+        LocalDateTime value = "endTime".equals(field) ? last.getEndTime() : last.getStartTime();
+        return new ReservationCursor(field, direction, value, last.getId());
+    }
+
+    static ReservationCursor decode(String token, String field, Sort.Direction direction) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", 4);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidReservationException("Cursor de paginación no válido.");
+        }
+        if (parts.length != 4 || !parts[0].equals(field) || !parts[1].equals(direction.name())) {
+            throw new InvalidReservationException("El cursor no corresponde al orden solicitado.");
+        }
+        try {
+            return new ReservationCursor(field, direction, LocalDateTime.parse(parts[2]), parts[3]);
+        } catch (DateTimeParseException e) {
+            throw new InvalidReservationException("Cursor de paginación no válido.");
+        }
+    }
+
+    String encode() {
+        String raw = field + "|" + direction.name() + "|" + value + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String normalizeField(String field) {
+        return field == null || field.isBlank() ? "startTime" : field.trim();
+    }
+}
@@ -0,0 +1,120 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.dto.ReservationFilterDTO;
+import com.backend.IMonitoring.dto.ReservationSummaryDTO;
+import com.backend.IMonitoring.exceptions.InvalidReservationException;
+import com.backend.IMonitoring.repository.ReservationQueryRepository;
+import com.backend.IMonitoring.repository.ReservationSpecifications;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exporta reservas fila a fila desde un cursor de la base de datos directamente al flujo de
+ * salida, de modo que la memoria usada no depende del número de reservas.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReservationExportService {
+    private static final String CSV_HEADER =
+            "id,classroomId,classroomName,buildingId,userId,userName,startTime,endTime,status,purpose,seriesId";
+
+    private final ReservationQueryRepository reservationQueryRepository;
+    private final ObjectMapper objectMapper;
+
+    public enum Format {
+        CSV("text/csv"),
+        NDJSON("application/x-ndjson");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public static Format parse(String value) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new InvalidReservationException("Formato de exportación no soportado: " + value + ". Use csv o ndjson.");
+        }
+    }
+
+    public void validate(ReservationFilterDTO filter) {
+        if (filter.getFrom() != null && filter.getTo() != null && !filter.getTo().isAfter(filter.getFrom())) {
+            throw new InvalidReservationException("El final del rango debe ser posterior al inicio.");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void export(ReservationFilterDTO filter, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (Stream<ReservationSummaryDTO> rows = reservationQueryRepository.streamSummaries(
+                ReservationSpecifications.matching(filter, LocalDateTime.now()))) {
+            if (format == Format.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+            Iterator<ReservationSummaryDTO> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                ReservationSummaryDTO row = iterator.next();
+                if (format == Format.CSV) {
+                    writeCsv(writer, row);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(row));
+                }
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+
+    private static void writeCsv(Writer writer, ReservationSummaryDTO row) throws IOException {
+        Object[] values = {
+                row.getId(), row.getClassroomId(), row.getClassroomName(), row.getBuildingId(),
+                row.getUserId(), row.getUserName(), row.getStartTime(), row.getEndTime(),
+                row.getStatus(), row.getPurpose(), row.getSeriesId()
+        };
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvField(values[i]));
+        }
+    }
+
+    /**
+     * Campo CSV escapado. Los textos que empiezan por {@code = + - @} (o tabulador/retorno) se
+     * prefijan con {@code '} para que una hoja de cálculo no los interprete como fórmula.
+     */
+    static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (!text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,361 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.availability.ClassroomAvailabilityIndex;
+import com.backend.IMonitoring.availability.ClassroomBookingLocks;
+import com.backend.IMonitoring.availability.ReservationChangedEvent;
+import com.backend.IMonitoring.availability.ReservationSlot;
+import com.backend.IMonitoring.availability.TimeWindow;
+import com.backend.IMonitoring.dto.ReservationSeriesRequestDTO;
+import com.backend.IMonitoring.dto.SeriesOccurrenceDTO;
+import com.backend.IMonitoring.exceptions.InvalidReservationException;
+import com.backend.IMonitoring.exceptions.ReservationConflictException;
+import com.backend.IMonitoring.exceptions.ResourceNotFoundException;
+import com.backend.IMonitoring.exceptions.UnauthorizedAccessException;
+import com.backend.IMonitoring.model.Reservation;
+import com.backend.IMonitoring.model.ReservationSeries;
+import com.backend.IMonitoring.model.ReservationStatus;
+import com.backend.IMonitoring.model.Rol;
+import com.backend.IMonitoring.repository.ClassroomRepository;
+import com.backend.IMonitoring.repository.ReservationRepository;
+import com.backend.IMonitoring.repository.ReservationSeriesRepository;
+import com.backend.IMonitoring.repository.UserRepository;
+import com.backend.IMonitoring.security.UserDetailsImpl;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class ReservationSeriesService {
+    private static final EnumSet<ReservationStatus> ACTIVE = EnumSet.of(ReservationStatus.PENDIENTE, ReservationStatus.CONFIRMADA);
+
+    private final ReservationSeriesRepository seriesRepository;
+    private final ReservationRepository reservationRepository;
+    private final ClassroomRepository classroomRepository;
+    private final UserRepository userRepository;
+    private final ClassroomAvailabilityIndex availabilityIndex;
+    private final ClassroomBookingLocks bookingLocks;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${reservation.series.materialize-weeks:4}")
+    private int materializeWeeks;
+
+    @Value("${reservation.series.max-occurrence-days:366}")
+    private long maxOccurrenceDays;
+
+    public ReservationSeries getSeriesById(String id) {
+        return seriesRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Serie de reservas no encontrada con ID: " + id));
+    }
+
+    public ReservationSeries getSeriesById(String id, UserDetails currentUserDetails) {
+        ReservationSeries series = getSeriesById(id);
+        assertCanView(series, currentUserDetails);
+        return series;
+    }
+
+    @Transactional
+    public ReservationSeries createSeries(ReservationSeriesRequestDTO request, UserDetails currentUserDetails) {
+        if (!(currentUserDetails instanceof UserDetailsImpl)) {
+            throw new IllegalStateException("UserDetails no es del tipo esperado UserDetailsImpl");
+        }
+        UserDetailsImpl userDetailsImpl = (UserDetailsImpl) currentUserDetails;
+        String userId = isAdmin(userDetailsImpl) && request.getUserId() != null && !request.getUserId().isEmpty()
+                ? request.getUserId()
+                : userDetailsImpl.getId();
+
+        if (!request.getEndTime().isAfter(request.getStartTime())) {
+            throw new InvalidReservationException("La hora de fin debe ser posterior a la hora de inicio.");
+        }
+        if (request.getUntilDate().isBefore(request.getFirstDate())) {
+            throw new InvalidReservationException("La fecha final de la serie no puede ser anterior a la primera sesión.");
+        }
+        if (!classroomRepository.existsById(request.getClassroomId())) {
+            throw new ResourceNotFoundException("Aula no encontrada con ID: " + request.getClassroomId());
+        }
+        if (!userRepository.existsById(userId)) {
+            throw new ResourceNotFoundException("Usuario no encontrado con ID: " + userId);
+        }
+
+        ReservationSeries series = ReservationSeries.builder()
+                .classroom(classroomRepository.getReferenceById(request.getClassroomId()))
+                .user(userRepository.getReferenceById(userId))
+                .firstDate(request.getFirstDate())
+                .untilDate(request.getUntilDate())
+                .startTime(request.getStartTime())
+                .endTime(request.getEndTime())
+                .intervalWeeks(request.getIntervalWeeks() != null ? request.getIntervalWeeks() : 1)
+                .exceptionDates(request.getExceptionDates() != null ? new HashSet<>(request.getExceptionDates()) : new HashSet<>())
+                .status(ReservationStatus.PENDIENTE)
+                .purpose(request.getPurpose())
+                .build();
+
+        bookingLocks.lockUntilTransactionEnds(request.getClassroomId());
+        assertNoConflicts(series, request.getClassroomId());
+
+        ReservationSeries saved = seriesRepository.save(series);
+        materialize(saved, LocalDate.now().plusWeeks(materializeWeeks));
+        return saved;
+    }
+
+    public List<SeriesOccurrenceDTO> getOccurrences(String seriesId, LocalDate from, LocalDate to, UserDetails currentUserDetails) {
+        if (to.isBefore(from)) {
+            throw new InvalidReservationException("La fecha final del rango no puede ser anterior a la inicial.");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= maxOccurrenceDays) {
+            throw new InvalidReservationException("El rango de sesiones no puede superar " + maxOccurrenceDays + " días.");
+        }
+        ReservationSeries series = getSeriesById(seriesId, currentUserDetails);
+        Map<LocalDateTime, Reservation> materialized = reservationRepository
+                .findBySeriesIdAndStartTimeBetween(seriesId, from.atStartOfDay(), to.plusDays(1).atStartOfDay())
+                .stream()
+                .collect(Collectors.toMap(Reservation::getStartTime, r -> r, (a, b) -> a));
+
+        List<SeriesOccurrenceDTO> occurrences = new ArrayList<>();
+        for (LocalDate date : series.occurrenceDates(from, to)) {
+            LocalDateTime start = date.atTime(series.getStartTime());
+            Reservation reservation = materialized.get(start);
+            occurrences.add(new SeriesOccurrenceDTO(
+                    start,
+                    date.atTime(series.getEndTime()),
+                    reservation != null ? reservation.getId() : null,
+                    reservation != null ? reservation.getStatus() : series.getStatus()
+            ));
+        }
+        return occurrences;
+    }
+
+    @Transactional
+    public ReservationSeries updateSeriesStatus(String seriesId, ReservationStatus newStatus, UserDetails adminUserDetails) {
+        boolean isAdmin = adminUserDetails.getAuthorities().stream()
+                .anyMatch(ga -> ga.getAuthority().equals("ROLE_" + Rol.ADMIN.name()));
+        if (!isAdmin) {
+            throw new SecurityException("Solo los administradores pueden cambiar el estado de una serie de reservas.");
+        }
+
+        ReservationSeries series = getSeriesById(seriesId);
+        ReservationStatus current = series.getStatus();
+        boolean allowed = (current == ReservationStatus.PENDIENTE &&
+                (newStatus == ReservationStatus.CONFIRMADA || newStatus == ReservationStatus.RECHAZADA)) ||
+                (newStatus == ReservationStatus.CANCELADA && ACTIVE.contains(current));
+        if (!allowed) {
+            throw new IllegalStateException("Transición de estado no permitida (" + current + " -> " + newStatus + ") para una serie de reservas.");
+        }
+
+        if (newStatus == ReservationStatus.CONFIRMADA) {
+            bookingLocks.lockUntilTransactionEnds(series.getClassroomId());
+            assertNoConflicts(series, series.getClassroomId());
+        }
+        series.setStatus(newStatus);
+
+        List<Reservation> upcoming = reservationRepository.findBySeriesIdAndStartTimeAfter(seriesId, LocalDateTime.now());
+        List<ReservationSlot> before = new ArrayList<>();
+        for (Reservation reservation : upcoming) {
+            before.add(ReservationSlot.of(reservation));
+            if (ACTIVE.contains(reservation.getStatus())) {
+                reservation.setStatus(newStatus);
+            }
+        }
+        reservationRepository.saveAllAndFlush(upcoming);
+        for (int i = 0; i < upcoming.size(); i++) {
+            eventPublisher.publishEvent(new ReservationChangedEvent(before.get(i), ReservationSlot.of(upcoming.get(i))));
+        }
+        return seriesRepository.save(series);
+    }
+
+    /**
+     * Cada serie se materializa en su propia transacción y con el cerrojo de su aula, para no
+     * bloquear todas las aulas durante el job ni perder el resto si una serie falla.
+     */
+    @Scheduled(cron = "${reservation.series.materialize-cron:0 15 0 * * *}")
+    public void materializeUpcomingOccurrences() {
+        LocalDate horizon = LocalDate.now().plusWeeks(materializeWeeks);
+        List<String> seriesIds = seriesRepository.findPendingMaterialization(ACTIVE).stream()
+                .filter(series -> series.getMaterializedUntil() == null || series.getMaterializedUntil().isBefore(horizon))
+                .map(ReservationSeries::getId)
+                .collect(Collectors.toList());
+        for (String seriesId : seriesIds) {
+            try {
+                transactionTemplate.executeWithoutResult(tx -> {
+                    ReservationSeries series = getSeriesById(seriesId);
+                    bookingLocks.lockUntilTransactionEnds(series.getClassroomId());
+                    materialize(series, horizon);
+                });
+            } catch (RuntimeException e) {
+                System.err.println("ReservationSeriesService: no se pudo materializar la serie " + seriesId + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Sesiones de series confirmadas del aula que todavía no tienen reserva y se solapan con
+     * [startTime, endTime). Las ya materializadas son reservas normales y las cubren el índice y la
+     * restricción de la base de datos; estas solo las ve la aplicación, así que todos los caminos
+     * de reserva deben consultarlas (con el cerrojo del aula tomado cuando confirman).
+     */
+    public List<TimeWindow> findUnmaterializedWindows(String classroomId, LocalDateTime startTime, LocalDateTime endTime) {
+        return findUnmaterializedWindows(classroomId, startTime, endTime, null);
+    }
+
+    /**
+     * Igual que {@link #findUnmaterializedWindows(String, LocalDateTime, LocalDateTime)} para todas
+     * las aulas a la vez, con una sola consulta; solo aparecen las aulas con alguna sesión.
+     */
+    public Map<String, List<TimeWindow>> findUnmaterializedWindows(LocalDateTime startTime, LocalDateTime endTime) {
+        Map<String, List<TimeWindow>> byClassroom = new HashMap<>();
+        for (ReservationSeries series : seriesRepository.findUnmaterializedInRange(
+                EnumSet.of(ReservationStatus.CONFIRMADA), startTime.toLocalDate(), endTime.toLocalDate())) {
+            List<TimeWindow> windows = new ArrayList<>();
+            addUnmaterializedWindows(series, startTime, endTime, windows);
+            if (!windows.isEmpty()) {
+                byClassroom.computeIfAbsent(series.getClassroomId(), id -> new ArrayList<>()).addAll(windows);
+            }
+        }
+        byClassroom.values().forEach(windows -> windows.sort(TimeWindow.BY_START));
+        return byClassroom;
+    }
+
+    private List<TimeWindow> findUnmaterializedWindows(String classroomId, LocalDateTime startTime, LocalDateTime endTime, String excludeSeriesId) {
+        List<TimeWindow> windows = new ArrayList<>();
+        for (ReservationSeries series : seriesRepository.findActiveInRange(
+                classroomId, EnumSet.of(ReservationStatus.CONFIRMADA), startTime.toLocalDate(), endTime.toLocalDate())) {
+            if (!Objects.equals(series.getId(), excludeSeriesId)) {
+                addUnmaterializedWindows(series, startTime, endTime, windows);
+            }
+        }
+        windows.sort(TimeWindow.BY_START);
+        return windows;
+    }
+
+    private static void addUnmaterializedWindows(ReservationSeries series, LocalDateTime startTime, LocalDateTime endTime, List<TimeWindow> windows) {
+        LocalDate fromDate = startTime.toLocalDate();
+        LocalDate from = series.getMaterializedUntil() != null && !series.getMaterializedUntil().isBefore(fromDate)
+                ? series.getMaterializedUntil().plusDays(1)
+                : fromDate;
+        for (TimeWindow window : windowsOf(series, from, endTime.toLocalDate())) {
+            if (window.getStart().isBefore(endTime) && window.getEnd().isAfter(startTime)) {
+                windows.add(window);
+            }
+        }
+    }
+
+    /**
+     * Las sesiones pasadas no se materializan. Si una sesión de una serie confirmada choca con otra
+     * reserva (solo posible si se saltó el cerrojo, p. ej. desde otra instancia) se crea como
+     * PENDIENTE: queda visible para el usuario y un administrador debe resolverla.
+     */
+    private void materialize(ReservationSeries series, LocalDate horizon) {
+        LocalDate today = LocalDate.now();
+        LocalDate from = series.getMaterializedUntil() != null ? series.getMaterializedUntil().plusDays(1) : series.getFirstDate();
+        if (from.isBefore(today)) {
+            from = today;
+        }
+        LocalDate to = horizon.isBefore(series.getUntilDate()) ? horizon : series.getUntilDate();
+        if (from.isAfter(to)) {
+            return;
+        }
+
+        List<Reservation> occurrences = new ArrayList<>();
+        for (LocalDate date : series.occurrenceDates(from, to)) {
+            LocalDateTime start = date.atTime(series.getStartTime());
+            LocalDateTime end = date.atTime(series.getEndTime());
+            ReservationStatus status = series.getStatus();
+            if (status == ReservationStatus.CONFIRMADA &&
+                (!availabilityIndex.isAvailable(series.getClassroomId(), start, end) ||
+                 !findUnmaterializedWindows(series.getClassroomId(), start, end, series.getId()).isEmpty())) {
+                System.err.println("ReservationSeriesService: la sesión del " + date + " de la serie " + series.getId() +
+                        " choca con otra reserva confirmada; se crea como PENDIENTE para que se revise.");
+                status = ReservationStatus.PENDIENTE;
+            }
+            occurrences.add(Reservation.builder()
+                    .classroom(series.getClassroom())
+                    .user(series.getUser())
+                    .startTime(start)
+                    .endTime(end)
+                    .status(status)
+                    .purpose(series.getPurpose())
+                    .seriesId(series.getId())
+                    .build());
+        }
+
+        List<Reservation> saved = reservationRepository.saveAllAndFlush(occurrences);
+        saved.forEach(r -> eventPublisher.publishEvent(new ReservationChangedEvent(null, ReservationSlot.of(r))));
+        series.setMaterializedUntil(to);
+        seriesRepository.save(series);
+    }
+
+    /**
+     * Comprueba todas las sesiones de la serie (no solo las materializadas) en una pasada:
+     * se ordenan las sesiones, se fusionan en una lista disjunta las reservas confirmadas del
+     * aula y las sesiones de otras series confirmadas, y se barren ambas listas a la vez.
+     * Las sesiones propias ya materializadas nunca están confirmadas en este punto, así que
+     * no aparecen en el índice.
+     */
+    private void assertNoConflicts(ReservationSeries series, String classroomId) {
+        LocalDate today = LocalDate.now();
+        LocalDate from = series.getFirstDate().isBefore(today) ? today : series.getFirstDate();
+        List<TimeWindow> candidates = windowsOf(series, from, series.getUntilDate());
+        if (candidates.isEmpty()) {
+            throw new InvalidReservationException("La serie no genera ninguna sesión con las fechas indicadas.");
+        }
+        LocalDateTime rangeStart = candidates.get(0).getStart();
+        LocalDateTime rangeEnd = candidates.get(candidates.size() - 1).getEnd();
+
+        List<TimeWindow> busy = new ArrayList<>();
+        availabilityIndex.findOverlapping(classroomId, rangeStart, rangeEnd).stream()
+                .map(TimeWindow::of)
+                .forEach(busy::add);
+        for (ReservationSeries other : seriesRepository.findActiveInRange(
+                classroomId, EnumSet.of(ReservationStatus.CONFIRMADA), from, series.getUntilDate())) {
+            if (!Objects.equals(other.getId(), series.getId())) {
+                busy.addAll(windowsOf(other, from, series.getUntilDate()));
+            }
+        }
+
+        List<TimeWindow> conflicts = TimeWindow.conflicts(candidates, TimeWindow.merge(busy));
+        if (!conflicts.isEmpty()) {
+            String dates = conflicts.stream()
+                    .limit(10)
+                    .map(w -> w.getStart().toLocalDate().toString())
+                    .collect(Collectors.joining(", "));
+            throw new ReservationConflictException("La serie choca con reservas confirmadas en " + conflicts.size() +
+                    " sesiones: " + dates + (conflicts.size() > 10 ? ", ..." : ""));
+        }
+    }
+
+    private static List<TimeWindow> windowsOf(ReservationSeries series, LocalDate from, LocalDate to) {
+        return series.occurrenceDates(from, to).stream()
+                .map(date -> new TimeWindow(date.atTime(series.getStartTime()), date.atTime(series.getEndTime())))
+                .collect(Collectors.toList());
+    }
+
+    private static void assertCanView(ReservationSeries series, UserDetails currentUserDetails) {
+        UserDetailsImpl userDetailsImpl = (UserDetailsImpl) currentUserDetails;
+        if (!userDetailsImpl.isAdmin() && !Objects.equals(series.getUserId(), userDetailsImpl.getId())) {
+            throw new UnauthorizedAccessException("No tienes permiso para ver esta serie de reservas.");
+        }
+    }
+
+    private static boolean isAdmin(UserDetailsImpl userDetails) {
+        return userDetails.getAuthorities().stream()
+                .anyMatch(ga -> ga.getAuthority().equals("ROLE_" + Rol.ADMIN.name()));
+    }
+}
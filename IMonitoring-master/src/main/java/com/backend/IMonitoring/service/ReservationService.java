@@ -1,15 +1,34 @@
 package com.backend.IMonitoring.service;
 
+import com.backend.IMonitoring.availability.ClassroomAvailabilityIndex;
+import com.backend.IMonitoring.availability.ClassroomBookingLocks;
+import com.backend.IMonitoring.availability.ReservationChangedEvent;
+import com.backend.IMonitoring.availability.ReservationSlot;
+import com.backend.IMonitoring.availability.TimeWindow;
+import com.backend.IMonitoring.dto.ReservationFilterDTO;
+import com.backend.IMonitoring.dto.ReservationPageDTO;
+import com.backend.IMonitoring.dto.ReservationRequestDTO;
+import com.backend.IMonitoring.dto.ReservationSummaryDTO;
+import com.backend.IMonitoring.exceptions.InvalidReservationException;
+import com.backend.IMonitoring.exceptions.ReservationConflictException;
+import com.backend.IMonitoring.exceptions.ResourceNotFoundException;
 import com.backend.IMonitoring.model.Reservation;
 import com.backend.IMonitoring.model.ReservationStatus;
 import com.backend.IMonitoring.model.Rol;
 import com.backend.IMonitoring.model.User;
 import com.backend.IMonitoring.model.Classroom;
 import com.backend.IMonitoring.repository.ClassroomRepository;
+import com.backend.IMonitoring.repository.ReservationJdbcRepository;
+import com.backend.IMonitoring.repository.ReservationQueryRepository;
 import com.backend.IMonitoring.repository.ReservationRepository;
+import com.backend.IMonitoring.repository.ReservationSpecifications;
+import com.backend.IMonitoring.repository.UserRepository;
 import com.backend.IMonitoring.security.UserDetailsImpl;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,31 +36,33 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class ReservationService {
     private final ReservationRepository reservationRepository;
+    private final ReservationJdbcRepository reservationJdbcRepository;
+    private final ReservationQueryRepository reservationQueryRepository;
     private final ClassroomRepository classroomRepository;
+    private final UserRepository userRepository;
     private final UserService userService;
+    private final ClassroomAvailabilityIndex availabilityIndex;
+    private final ClassroomBookingLocks bookingLocks;
+    private final ReservationConflictAdvisor conflictAdvisor;
+    private final ReservationSeriesService seriesService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${reservation.page.max-size:500}")
+    private int maxPageSize;
 
     public List<Reservation> getAllReservations() {
         return reservationRepository.findAll(Sort.by(Sort.Direction.DESC, "startTime"));
     }
 
-    public List<Reservation> getAdminFilteredReservations(String classroomId, String userId, ReservationStatus status) {
-        if (status != null) {
-            return reservationRepository.findByStatus(status);
-        }
-        if (userId != null) {
-            return reservationRepository.findByUserId(userId, Sort.by(Sort.Direction.DESC, "startTime"));
-        }
-        if (classroomId != null) {
-            return reservationRepository.findByClassroomId(classroomId);
-        }
-        return getAllReservations();
+    public ReservationPageDTO getAdminFilteredReservations(ReservationFilterDTO filter, String sort, String cursor, int limit) {
+        validateFilter(filter);
+        return findPage(ReservationSpecifications.matching(filter, LocalDateTime.now()), sort, Sort.Direction.DESC, cursor, limit);
     }
 
     public Reservation getReservationById(String id) {
@@ -53,51 +74,38 @@ public class ReservationService {
         return reservationRepository.findByClassroomId(classroomId);
     }
 
-    public List<Reservation> getReservationsByUser(String userId) {
-        return reservationRepository.findByUserId(userId, Sort.by(Sort.Direction.DESC, "startTime"));
+    public ReservationPageDTO getReservationsByUser(String userId, String sort, String cursor, int limit) {
+        return findPage(ReservationSpecifications.hasUser(userId), sort, Sort.Direction.DESC, cursor, limit);
     }
 
-    public List<Reservation> getFilteredUserReservations(
+    public ReservationPageDTO getFilteredUserReservations(
             String userId,
-            ReservationStatus status,
-            String sortDirection,
-            String sortField,
-            int page,
-            int size,
-            boolean futureOnly
+            ReservationFilterDTO filter,
+            String sort,
+            String cursor,
+            int limit
     ) {
-        Sort sortObj = Sort.by(sortDirection.equalsIgnoreCase("asc") ? Sort.Direction.ASC : Sort.Direction.DESC, sortField);
-        List<Reservation> userReservations;
-        if (status != null) {
-            userReservations = reservationRepository.findByUserId(userId, sortObj);
-            Stream<Reservation> stream = userReservations.stream().filter(r -> r.getStatus() == status);
-            if (futureOnly) {
-                stream = stream.filter(r -> r.getStartTime().isAfter(LocalDateTime.now()));
-            }
-            return stream.limit(size).collect(Collectors.toList());
-        } else {
-            userReservations = reservationRepository.findByUserId(userId, sortObj);
-            Stream<Reservation> stream = userReservations.stream();
-            if (futureOnly) {
-                stream = stream.filter(r -> r.getStartTime().isAfter(LocalDateTime.now()));
-            }
-            return stream.limit(size).collect(Collectors.toList());
-        }
+        validateFilter(filter);
+        filter.setUserId(userId);
+        return findPage(ReservationSpecifications.matching(filter, LocalDateTime.now()), sort, Sort.Direction.ASC, cursor, limit);
     }
 
     public List<Reservation> getReservationsByStatus(ReservationStatus status) {
         return reservationRepository.findByStatus(status);
     }
 
-     public List<Reservation> getUpcomingReservations(int limit) {
-        return reservationRepository.findByStartTimeAfter(LocalDateTime.now(), Sort.by(Sort.Direction.ASC, "startTime"))
-                                    .stream().limit(limit).collect(Collectors.toList());
+    public List<Reservation> getUpcomingReservations(int limit) {
+        Sort sort = Sort.by(Sort.Direction.ASC, "startTime");
+        return reservationRepository.findBy(ReservationSpecifications.startsAfter(LocalDateTime.now()),
+                query -> query.sortBy(sort).limit(limit).all());
     }
-    
+
     public List<Reservation> getMyUpcomingReservations(String userId, int limit) {
         Sort sort = Sort.by(Sort.Direction.ASC, "startTime");
-        return reservationRepository.findUpcomingConfirmedByUserId(userId, LocalDateTime.now(), sort)
-                                    .stream().limit(limit).collect(Collectors.toList());
+        Specification<Reservation> filter = ReservationSpecifications.hasUser(userId)
+                .and(ReservationSpecifications.hasStatus(ReservationStatus.CONFIRMADA))
+                .and(ReservationSpecifications.startsAfter(LocalDateTime.now()));
+        return reservationRepository.findBy(filter, query -> query.sortBy(sort).limit(limit).all());
     }
 
     public List<Reservation> getCurrentReservations() {
@@ -105,47 +113,62 @@ public class ReservationService {
         return reservationRepository.findCurrentReservations(now);
     }
 
-    @Transactional
-    public Reservation createReservation(Reservation reservationInput, UserDetails currentUserDetails) {
-        if (reservationInput.getClassroom() == null || reservationInput.getClassroom().getId() == null) {
-            throw new IllegalArgumentException("ID del aula es requerido para crear una reserva.");
-        }
-        Classroom classroom = classroomRepository.findById(reservationInput.getClassroom().getId())
-            .orElseThrow(() -> new RuntimeException("Aula no encontrada con ID: " + reservationInput.getClassroom().getId()));
-        reservationInput.setClassroom(classroom);
-
+    public Reservation createReservation(ReservationRequestDTO request, UserDetails currentUserDetails) {
         if (!(currentUserDetails instanceof UserDetailsImpl)) {
             throw new IllegalStateException("UserDetails no es del tipo esperado UserDetailsImpl");
         }
         UserDetailsImpl userDetailsImpl = (UserDetailsImpl) currentUserDetails;
-        User userMakingReservation = userDetailsImpl.getUserEntity();
+        boolean isAdmin = userDetailsImpl.getAuthorities().stream()
+                .anyMatch(ga -> ga.getAuthority().equals("ROLE_" + Rol.ADMIN.name()));
+        String userId = isAdmin && request.getUserId() != null && !request.getUserId().isEmpty()
+                ? request.getUserId()
+                : userDetailsImpl.getId();
 
-        if (userMakingReservation == null) {
-             throw new IllegalStateException("No se pudo determinar el usuario para la reserva.");
-        }
-        
-        if (userMakingReservation.getRole() == Rol.ADMIN && reservationInput.getUser() != null && reservationInput.getUser().getId() != null) {
-            User userToAssign = userService.getUserById(reservationInput.getUser().getId());
-            reservationInput.setUser(userToAssign);
-        } else {
-            reservationInput.setUser(userMakingReservation);
-        }
+        validateTimeRange(request.getStartTime(), request.getEndTime());
+        assertNoSeriesConflict(request.getClassroomId(), request.getStartTime(), request.getEndTime(), null);
 
-        boolean isAvailable = classroomRepository.isAvailable(
-                reservationInput.getClassroom().getId(),
-                reservationInput.getStartTime(),
-                reservationInput.getEndTime()
+        // Sin @Transactional: la comprobación y el INSERT son una sola sentencia en autocommit.
+        ReservationJdbcRepository.InsertOutcome outcome = reservationJdbcRepository.insertIfFree(
+                UUID.randomUUID().toString(),
+                request.getClassroomId(),
+                userId,
+                request.getStartTime(),
+                request.getEndTime(),
+                ReservationStatus.PENDIENTE,
+                request.getPurpose()
         );
-
-        if (!isAvailable) {
-            throw new RuntimeException("La sala no está disponible en el horario solicitado: " +
-                reservationInput.getClassroom().getName() + " de " +
-                reservationInput.getStartTime() + " a " + reservationInput.getEndTime());
+        if (!outcome.isClassroomFound()) {
+            throw new ResourceNotFoundException("Aula no encontrada con ID: " + request.getClassroomId());
+        }
+        if (!outcome.isUserFound()) {
+            throw new ResourceNotFoundException("Usuario no encontrado con ID: " + userId);
+        }
+        if (!outcome.isInserted()) {
+            throw new ReservationConflictException("La sala no está disponible en el horario solicitado: de " +
+                request.getStartTime() + " a " + request.getEndTime(),
+                conflictAdvisor.analyze(request.getClassroomId(), request.getStartTime(), request.getEndTime(), null));
         }
 
-        reservationInput.setStatus(ReservationStatus.PENDIENTE);
-        System.out.println("ReservationService: Guardando reserva: " + reservationInput);
-        return reservationRepository.save(reservationInput);
+        ReservationSlot created = new ReservationSlot(
+                outcome.getInsertedId(),
+                request.getClassroomId(),
+                userId,
+                request.getStartTime(),
+                request.getEndTime(),
+                ReservationStatus.PENDIENTE,
+                request.getPurpose()
+        );
+        eventPublisher.publishEvent(new ReservationChangedEvent(null, created));
+        // Referencias sin cargar: bastan para serializar classroomId y userId sin otra consulta.
+        return Reservation.builder()
+                .id(created.getId())
+                .classroom(classroomRepository.getReferenceById(created.getClassroomId()))
+                .user(userRepository.getReferenceById(created.getUserId()))
+                .startTime(created.getStartTime())
+                .endTime(created.getEndTime())
+                .status(created.getStatus())
+                .purpose(created.getPurpose())
+                .build();
     }
 
     @Transactional
@@ -157,8 +180,17 @@ public class ReservationService {
         }
 
         Reservation reservation = getReservationById(id);
+        ReservationSlot before = ReservationSlot.of(reservation);
         if (reservation.getStatus() == ReservationStatus.PENDIENTE &&
             (newStatus == ReservationStatus.CONFIRMADA || newStatus == ReservationStatus.RECHAZADA)) {
+            if (newStatus == ReservationStatus.CONFIRMADA) {
+                bookingLocks.lockUntilTransactionEnds(reservation.getClassroom().getId());
+                if (!availabilityIndex.isAvailable(reservation.getClassroom().getId(), reservation.getStartTime(), reservation.getEndTime(), reservation.getId())) {
+                    throw new ReservationConflictException("No se puede confirmar: la sala ya tiene una reserva confirmada en ese horario.",
+                            conflictAdvisor.analyze(reservation.getClassroom().getId(), reservation.getStartTime(), reservation.getEndTime(), reservation.getId()));
+                }
+                assertNoSeriesConflict(reservation.getClassroom().getId(), reservation.getStartTime(), reservation.getEndTime(), reservation.getId());
+            }
             reservation.setStatus(newStatus);
         } else if (newStatus == ReservationStatus.CANCELADA &&
                    (reservation.getStatus() == ReservationStatus.PENDIENTE || reservation.getStatus() == ReservationStatus.CONFIRMADA)) {
@@ -167,19 +199,20 @@ public class ReservationService {
         else {
             throw new IllegalStateException("Transición de estado no permitida (" + reservation.getStatus() + " -> " + newStatus + ") o estado final inválido para esta acción por un Admin.");
         }
-        return reservationRepository.save(reservation);
+        return saveAndPublish(reservation, before);
     }
 
     @Transactional
     public Reservation updateReservation(String reservationId, Reservation updatedReservationData, UserDetails currentUserDetails) {
         Reservation existingReservation = getReservationById(reservationId);
-        UserDetailsImpl userDetailsImpl = (UserDetailsImpl) currentUserDetails;
-        User userUpdating = userDetailsImpl.getUserEntity();
+        ReservationSlot before = ReservationSlot.of(existingReservation);
+        String previousClassroomId = existingReservation.getClassroom().getId();
+        UserDetailsImpl userUpdating = (UserDetailsImpl) currentUserDetails;
 
-        if (!userUpdating.getRole().equals(Rol.ADMIN) && !Objects.equals(existingReservation.getUser().getId(), userUpdating.getId())) {
+        if (!userUpdating.isAdmin() && !Objects.equals(existingReservation.getUser().getId(), userUpdating.getId())) {
             throw new SecurityException("No tienes permiso para modificar esta reserva.");
         }
-        if (!userUpdating.getRole().equals(Rol.ADMIN) && existingReservation.getStatus() != ReservationStatus.PENDIENTE) {
+        if (!userUpdating.isAdmin() && existingReservation.getStatus() != ReservationStatus.PENDIENTE) {
             throw new IllegalStateException("Solo puedes modificar tus propias reservas si están en estado PENDIENTE.");
         }
 
@@ -187,7 +220,7 @@ public class ReservationService {
         existingReservation.setEndTime(updatedReservationData.getEndTime());
         existingReservation.setPurpose(updatedReservationData.getPurpose());
 
-        if (userUpdating.getRole().equals(Rol.ADMIN)) {
+        if (userUpdating.isAdmin()) {
             if (updatedReservationData.getClassroom() != null && updatedReservationData.getClassroom().getId() != null &&
                 !Objects.equals(existingReservation.getClassroom().getId(), updatedReservationData.getClassroom().getId())) {
                 Classroom newClassroom = classroomRepository.findById(updatedReservationData.getClassroom().getId())
@@ -204,16 +237,20 @@ public class ReservationService {
             }
         }
 
-        boolean isAvailable = classroomRepository.isAvailable(
+        validateTimeRange(existingReservation.getStartTime(), existingReservation.getEndTime());
+        bookingLocks.lockUntilTransactionEnds(previousClassroomId, existingReservation.getClassroom().getId());
+        boolean isAvailable = availabilityIndex.isAvailable(
                 existingReservation.getClassroom().getId(),
                 existingReservation.getStartTime(),
                 existingReservation.getEndTime(),
                 existingReservation.getId()
         );
         if (!isAvailable) {
-            throw new RuntimeException("La sala no está disponible en el nuevo horario solicitado.");
+            throw new ReservationConflictException("La sala no está disponible en el nuevo horario solicitado.",
+                    conflictAdvisor.analyze(existingReservation.getClassroom().getId(), existingReservation.getStartTime(), existingReservation.getEndTime(), existingReservation.getId()));
         }
-        return reservationRepository.save(existingReservation);
+        assertNoSeriesConflict(existingReservation.getClassroom().getId(), existingReservation.getStartTime(), existingReservation.getEndTime(), existingReservation.getId());
+        return saveAndPublish(existingReservation, before);
     }
 
      @Transactional
@@ -222,16 +259,16 @@ public class ReservationService {
         if (!(currentUserDetails instanceof UserDetailsImpl)) {
              throw new IllegalStateException("UserDetails no es del tipo esperado UserDetailsImpl");
         }
-        UserDetailsImpl userDetailsImpl = (UserDetailsImpl) currentUserDetails;
-        User userCancelling = userDetailsImpl.getUserEntity();
+        UserDetailsImpl userCancelling = (UserDetailsImpl) currentUserDetails;
 
-        if (!Objects.equals(reservation.getUser().getId(), userCancelling.getId()) && userCancelling.getRole() != Rol.ADMIN) {
+        if (!Objects.equals(reservation.getUser().getId(), userCancelling.getId()) && !userCancelling.isAdmin()) {
             throw new SecurityException("No tienes permiso para cancelar esta reserva.");
         }
 
         if (reservation.getStatus() == ReservationStatus.PENDIENTE || reservation.getStatus() == ReservationStatus.CONFIRMADA) {
+            ReservationSlot before = ReservationSlot.of(reservation);
             reservation.setStatus(ReservationStatus.CANCELADA);
-            return reservationRepository.save(reservation);
+            return saveAndPublish(reservation, before);
         } else {
             throw new IllegalStateException("Solo se pueden cancelar reservas pendientes o confirmadas. Estado actual: " + reservation.getStatus());
         }
@@ -243,13 +280,80 @@ public class ReservationService {
          if (!(currentUserDetails instanceof UserDetailsImpl)) {
              throw new IllegalStateException("UserDetails no es del tipo esperado UserDetailsImpl");
         }
-        UserDetailsImpl userDetailsImpl = (UserDetailsImpl) currentUserDetails;
-        User userDeleting = userDetailsImpl.getUserEntity();
+        UserDetailsImpl userDeleting = (UserDetailsImpl) currentUserDetails;
 
-        if (userDeleting.getRole() == Rol.ADMIN || Objects.equals(reservation.getUser().getId(), userDeleting.getId())) {
+        if (userDeleting.isAdmin() || Objects.equals(reservation.getUser().getId(), userDeleting.getId())) {
             reservationRepository.deleteById(reservationId);
+            eventPublisher.publishEvent(new ReservationChangedEvent(ReservationSlot.of(reservation), null));
         } else {
             throw new SecurityException("No tienes permiso para eliminar esta reserva.");
         }
     }
+
+    /**
+     * Página ordenada por (campo, id) que empieza después del cursor. Se pide una fila de más
+     * para saber si hay continuación sin contar el total.
+     */
+    private ReservationPageDTO findPage(
+            Specification<Reservation> filter,
+            String sort,
+            Sort.Direction defaultDirection,
+            String cursor,
+            int limit
+    ) {
+        if (limit < 1 || limit > maxPageSize) {
+            throw new InvalidReservationException("El límite debe estar entre 1 y " + maxPageSize + ".");
+        }
+        String field = "startTime";
+        Sort.Direction direction = defaultDirection;
+        if (sort != null && !sort.isBlank()) {
+            String[] sortParams = sort.split(",");
+            field = ReservationCursor.normalizeField(sortParams[0]);
+            if (sortParams.length > 1) {
+                direction = ReservationCursor.parseDirection(sortParams[1]);
+            }
+        }
+        ReservationCursor.validateField(field);
+
+        Specification<Reservation> spec = filter;
+        if (cursor != null && !cursor.isBlank()) {
+            ReservationCursor position = ReservationCursor.decode(cursor, field, direction);
+            spec = spec.and(ReservationSpecifications.after(field, direction, position.getValue(), position.getId()));
+        }
+        List<ReservationSummaryDTO> rows = reservationQueryRepository.findSummaries(spec, field, direction, limit + 1);
+
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            nextCursor = ReservationCursor.after(rows.get(limit - 1), field, direction).encode();
+        }
+        return new ReservationPageDTO(rows, nextCursor);
+    }
+
+    private void validateFilter(ReservationFilterDTO filter) {
+        if (filter.getFrom() != null && filter.getTo() != null && !filter.getTo().isAfter(filter.getFrom())) {
+            throw new InvalidReservationException("El final del rango debe ser posterior al inicio.");
+        }
+    }
+
+    private void validateTimeRange(LocalDateTime startTime, LocalDateTime endTime) {
+        if (startTime == null || endTime == null || !endTime.isAfter(startTime)) {
+            throw new InvalidReservationException("La hora de fin debe ser posterior a la hora de inicio.");
+        }
+    }
+
+    private void assertNoSeriesConflict(String classroomId, LocalDateTime startTime, LocalDateTime endTime, String excludeReservationId) {
+        List<TimeWindow> taken = seriesService.findUnmaterializedWindows(classroomId, startTime, endTime);
+        if (!taken.isEmpty()) {
+            throw new ReservationConflictException("La sala está reservada por una serie de reservas confirmada de " +
+                    taken.get(0).getStart() + " a " + taken.get(0).getEnd() + ".",
+                    conflictAdvisor.analyze(classroomId, startTime, endTime, excludeReservationId));
+        }
+    }
+
+    private Reservation saveAndPublish(Reservation reservation, ReservationSlot before) {
+        Reservation saved = reservationRepository.saveAndFlush(reservation);
+        eventPublisher.publishEvent(new ReservationChangedEvent(before, ReservationSlot.of(saved)));
+        return saved;
+    }
 }
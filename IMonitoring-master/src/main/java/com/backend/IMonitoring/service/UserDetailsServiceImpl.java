@@ -1,8 +1,9 @@
 package com.backend.IMonitoring.service;
 
-import com.backend.IMonitoring.model.User;
-import com.backend.IMonitoring.repository.UserRepository;
+import com.backend.IMonitoring.model.Rol;
+import com.backend.IMonitoring.security.JwtClaims;
 import com.backend.IMonitoring.security.UserDetailsImpl;
+import com.backend.IMonitoring.security.UserPrincipalCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -12,12 +13,25 @@ import org.springframework.stereotype.Service;
 @Service
 @RequiredArgsConstructor
 public class UserDetailsServiceImpl implements UserDetailsService {
-    private final UserRepository userRepository;
+    private final UserPrincipalCache userPrincipalCache;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-        return new UserDetailsImpl(user);
+        return userPrincipalCache.loadByEmail(username);
+    }
+
+    /**
+     * Principal construido solo con los claims de un token verificado. La entidad se carga bajo
+     * demanda si alguien llama a {@link UserDetailsImpl#getUserEntity()}.
+     */
+    public UserDetailsImpl loadUserFromClaims(JwtClaims claims) {
+        String userId = claims.getUserId();
+        return new UserDetailsImpl(
+                userId,
+                claims.getSubject(),
+                claims.getName(),
+                Rol.valueOf(claims.getRole()),
+                () -> userPrincipalCache.loadById(userId).getUserEntity()
+        );
     }
 }
\ No newline at end of file
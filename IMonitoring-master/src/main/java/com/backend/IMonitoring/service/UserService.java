@@ -1,16 +1,24 @@
 package com.backend.IMonitoring.service;
 
+import com.backend.IMonitoring.availability.ReservationChangedEvent;
+import com.backend.IMonitoring.availability.ReservationSlot;
+import com.backend.IMonitoring.dto.UserSummaryDTO;
 import com.backend.IMonitoring.model.User;
 import com.backend.IMonitoring.model.Rol;
 import com.backend.IMonitoring.repository.UserRepository;
+import com.backend.IMonitoring.repository.RefreshTokenRepository;
 import com.backend.IMonitoring.repository.ReservationRepository; 
 import com.backend.IMonitoring.model.Reservation;
+import com.backend.IMonitoring.security.UserChangedEvent;
+import com.backend.IMonitoring.security.UserPrincipalCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -19,9 +27,12 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final ReservationRepository reservationRepository; 
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserPrincipalCache userPrincipalCache;
+    private final RefreshTokenRepository refreshTokenRepository;
 
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public List<UserSummaryDTO> getAllUsers() {
+        return userRepository.findAllSummaries();
     }
 
     public User getUserById(String id) {
@@ -33,8 +44,8 @@ public class UserService {
         return userRepository.findByEmail(email);
     }
 
-    public List<User> getUsersByRole(Rol role) {
-        return userRepository.findByRole(role);
+    public List<UserSummaryDTO> getUsersByRole(Rol role) {
+        return userRepository.findSummariesByRole(role);
     }
 
     @Transactional
@@ -45,12 +56,21 @@ public class UserService {
         if (user.getPassword() != null && !user.getPassword().startsWith("$2a$")) {
              user.setPassword(passwordEncoder.encode(user.getPassword()));
         }
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userPrincipalCache.invalidate(saved.getId(), saved.getEmail());
+        return saved;
     }
 
+    /**
+     * Los cambios de correo, rol o contraseña incrementan {@code tokenVersion}, lo que invalida los
+     * tokens emitidos antes del cambio.
+     */
     @Transactional
     public User updateUser(String id, User userDetails) {
         User user = getUserById(id);
+        String previousEmail = user.getEmail();
+        Rol previousRole = user.getRole();
+        String previousPassword = user.getPassword();
         if (userDetails.getEmail() != null && !user.getEmail().equals(userDetails.getEmail())) {
             Optional<User> existingUserWithNewEmail = userRepository.findByEmail(userDetails.getEmail());
             if (existingUserWithNewEmail.isPresent() && !existingUserWithNewEmail.get().getId().equals(user.getId())) {
@@ -71,7 +91,26 @@ public class UserService {
                 user.setPassword(userDetails.getPassword());
             }
         }
-        return userRepository.save(user);
+        if (!Objects.equals(previousEmail, user.getEmail()) || previousRole != user.getRole()
+                || !Objects.equals(previousPassword, user.getPassword())) {
+            user.setTokenVersion(user.getTokenVersion() + 1);
+        }
+        User saved = userRepository.save(user);
+        userPrincipalCache.invalidate(saved.getId(), saved.getEmail(), previousEmail);
+        eventPublisher.publishEvent(new UserChangedEvent(saved.getId(), saved.getEmail(), previousEmail));
+        return saved;
+    }
+
+    /**
+     * Invalida todos los tokens emitidos hasta ahora para el usuario.
+     */
+    @Transactional
+    public void revokeTokens(String id) {
+        User user = getUserById(id);
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        userRepository.save(user);
+        userPrincipalCache.invalidate(user.getId(), user.getEmail());
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getEmail(), user.getEmail()));
     }
 
     @Transactional
@@ -81,10 +120,14 @@ public class UserService {
         List<Reservation> userReservations = reservationRepository.findByUserId(id);
         if (userReservations != null && !userReservations.isEmpty()) {
             reservationRepository.deleteAll(userReservations);
+            userReservations.forEach(r -> eventPublisher.publishEvent(new ReservationChangedEvent(ReservationSlot.of(r), null)));
 
         }
 
+        refreshTokenRepository.deleteByUserId(userToDelete.getId());
         userRepository.delete(userToDelete);
+        userPrincipalCache.invalidate(userToDelete.getId(), userToDelete.getEmail());
+        eventPublisher.publishEvent(new UserChangedEvent(userToDelete.getId(), null, userToDelete.getEmail()));
     }
 
     public List<Reservation> getUserReservations(String userId) {
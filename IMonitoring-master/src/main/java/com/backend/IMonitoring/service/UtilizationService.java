@@ -0,0 +1,282 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.availability.ClassroomCatalog;
+import com.backend.IMonitoring.availability.ClassroomEntry;
+import com.backend.IMonitoring.availability.ReservationChangedEvent;
+import com.backend.IMonitoring.availability.ReservationSlot;
+import com.backend.IMonitoring.dto.HeatmapCellDTO;
+import com.backend.IMonitoring.dto.UtilizationDTO;
+import com.backend.IMonitoring.exceptions.InvalidReservationException;
+import com.backend.IMonitoring.model.Building;
+import com.backend.IMonitoring.model.ClassroomType;
+import com.backend.IMonitoring.repository.BuildingRepository;
+import com.backend.IMonitoring.repository.UsageRollupRepository;
+import com.backend.IMonitoring.repository.UsageRollupRepository.HourOfWeekUsage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Uso de las aulas a partir de la tabla de agregados por aula y hora. Solo cuentan las reservas
+ * CONFIRMADA, que se confirman, editan o borran siempre dentro de una transacción: los agregados
+ * se actualizan en ella justo antes del commit. La creación en autocommit inserta PENDIENTE y no
+ * genera deltas; si otro cambio llegara sin transacción, el repositorio abre una propia tras el
+ * cambio y la reparación nocturna corrige cualquier desfase. El backfill reconstruye el histórico
+ * por bloques en paralelo. Los informes solo leen agregados.
+ */
+@Service
+public class UtilizationService {
+    public enum GroupBy { CLASSROOM, BUILDING, TYPE }
+
+    private static final double SECONDS_PER_HOUR = 3600.0;
+
+    private final UsageRollupRepository rollupRepository;
+    private final BuildingRepository buildingRepository;
+    private final ClassroomCatalog catalog;
+    private final long maxDays;
+    private final long repairDaysBack;
+    private final long repairDaysAhead;
+
+    public UtilizationService(
+            UsageRollupRepository rollupRepository,
+            BuildingRepository buildingRepository,
+            ClassroomCatalog catalog,
+            @Value("${analytics.max-days:366}") long maxDays,
+            @Value("${analytics.rollup.repair-days-back:7}") long repairDaysBack,
+            @Value("${analytics.rollup.repair-days-ahead:120}") long repairDaysAhead
+    ) {
+        this.rollupRepository = rollupRepository;
+        this.buildingRepository = buildingRepository;
+        this.catalog = catalog;
+        this.maxDays = maxDays;
+        this.repairDaysBack = repairDaysBack;
+        this.repairDaysAhead = repairDaysAhead;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onReservationChanged(ReservationChangedEvent event) {
+        Map<String, Map<LocalDateTime, Integer>> deltas = new HashMap<>();
+        accumulate(deltas, event.getBefore(), -1);
+        accumulate(deltas, event.getAfter(), 1);
+        rollupRepository.addAll(deltas);
+    }
+
+    @Scheduled(cron = "${analytics.rollup.repair-cron:0 30 3 * * *}")
+    public void repairRecent() {
+        LocalDateTime from = LocalDate.now().minusDays(repairDaysBack).atStartOfDay();
+        LocalDateTime to = LocalDate.now().plusDays(repairDaysAhead).atStartOfDay();
+        int rows = rollupRepository.rebuildWindow(from, to, true);
+        System.out.println("UtilizationService: agregados recalculados entre " + from + " y " + to + " (" + rows + " filas).");
+    }
+
+    /**
+     * Reconstruye los agregados de [from, to) dividiendo el rango en bloques de {@code chunkDays}
+     * días que se procesan en paralelo, cada uno en su propia transacción. Cada bloque bloquea sus
+     * días frente a los upserts en vivo, así que puede ejecutarse con la aplicación en servicio.
+     */
+    public int backfill(LocalDateTime from, LocalDateTime to, int chunkDays, int parallelism) {
+        if (from == null) {
+            from = rollupRepository.findEarliestReservationStart();
+            if (from == null) {
+                return 0;
+            }
+        }
+        if (to == null) {
+            to = LocalDate.now().plusDays(repairDaysAhead).atStartOfDay();
+        }
+        if (chunkDays <= 0 || parallelism <= 0) {
+            throw new InvalidReservationException("El tamaño de bloque y el paralelismo deben ser positivos.");
+        }
+        LocalDateTime start = from.truncatedTo(ChronoUnit.DAYS);
+        List<LocalDateTime[]> chunks = new ArrayList<>();
+        for (LocalDateTime chunkStart = start; chunkStart.isBefore(to); chunkStart = chunkStart.plusDays(chunkDays)) {
+            LocalDateTime chunkEnd = chunkStart.plusDays(chunkDays);
+            chunks.add(new LocalDateTime[]{chunkStart, chunkEnd.isBefore(to) ? chunkEnd : to});
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, Math.max(1, chunks.size())));
+        try {
+            List<Future<Integer>> futures = new ArrayList<>(chunks.size());
+            for (LocalDateTime[] chunk : chunks) {
+                futures.add(executor.submit(() -> rollupRepository.rebuildWindow(chunk[0], chunk[1], false)));
+            }
+            int rows = 0;
+            for (Future<Integer> future : futures) {
+                rows += future.get();
+            }
+            System.out.println("UtilizationService: backfill de " + chunks.size() + " bloques entre " + start + " y " + to + " (" + rows + " filas).");
+            return rows;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Backfill interrumpido.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error en el backfill de agregados: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public List<UtilizationDTO> getUtilization(LocalDateTime from, LocalDateTime to, String groupBy, String buildingId, ClassroomType type) {
+        validateRange(from, to);
+        GroupBy grouping = parseGroupBy(groupBy);
+        Map<String, Long> booked = rollupRepository.bookedSecondsByClassroom(from, to);
+        double hours = Duration.between(from, to).getSeconds() / SECONDS_PER_HOUR;
+
+        Function<ClassroomEntry, String> keyOf = switch (grouping) {
+            case CLASSROOM -> ClassroomEntry::getId;
+            case BUILDING -> ClassroomEntry::getBuildingId;
+            case TYPE -> UtilizationService::typeOf;
+        };
+        Map<String, UtilizationDTO> groups = new LinkedHashMap<>();
+        Map<String, Long> bookedByGroup = new HashMap<>();
+        for (ClassroomEntry entry : entriesMatching(buildingId, type)) {
+            String key = keyOf.apply(entry);
+            UtilizationDTO dto = groups.computeIfAbsent(key, k -> UtilizationDTO.builder()
+                    .key(k)
+                    .name(grouping == GroupBy.CLASSROOM ? entry.getName() : null)
+                    .buildingId(grouping != GroupBy.TYPE ? entry.getBuildingId() : null)
+                    .type(grouping != GroupBy.BUILDING ? typeOf(entry) : null)
+                    .build());
+            dto.setClassrooms(dto.getClassrooms() + 1);
+            bookedByGroup.merge(key, booked.getOrDefault(entry.getId(), 0L), Long::sum);
+        }
+        if (grouping == GroupBy.BUILDING) {
+            List<String> buildingIds = groups.keySet().stream().filter(Objects::nonNull).collect(Collectors.toList());
+            buildingRepository.findAllById(buildingIds).forEach(building -> nameGroup(groups, building));
+        }
+
+        List<UtilizationDTO> result = new ArrayList<>(groups.values());
+        for (UtilizationDTO dto : result) {
+            double bookedHours = bookedByGroup.getOrDefault(dto.getKey(), 0L) / SECONDS_PER_HOUR;
+            double availableHours = dto.getClassrooms() * hours;
+            dto.setBookedHours(bookedHours);
+            dto.setAvailableHours(availableHours);
+            dto.setUtilization(availableHours > 0 ? bookedHours / availableHours : 0);
+        }
+        result.sort(Comparator.comparingDouble(UtilizationDTO::getUtilization).reversed()
+                .thenComparing(UtilizationDTO::getKey, Comparator.nullsLast(Comparator.naturalOrder())));
+        return result;
+    }
+
+    public List<UtilizationDTO> getClassroomRanking(
+            LocalDateTime from, LocalDateTime to, String buildingId, ClassroomType type, boolean bottom, int limit) {
+        if (limit <= 0) {
+            throw new InvalidReservationException("El límite debe ser un número positivo.");
+        }
+        List<UtilizationDTO> ranked = getUtilization(from, to, GroupBy.CLASSROOM.name(), buildingId, type);
+        if (bottom) {
+            ranked.sort(Comparator.comparingDouble(UtilizationDTO::getUtilization)
+                    .thenComparing(UtilizationDTO::getKey));
+        }
+        return new ArrayList<>(ranked.subList(0, Math.min(limit, ranked.size())));
+    }
+
+    /**
+     * Matriz día de la semana (1 = lunes) por hora. La capacidad de cada celda es el número de
+     * aulas del filtro por las veces que esa hora de la semana cae dentro del rango.
+     */
+    public List<HeatmapCellDTO> getHeatmap(LocalDateTime from, LocalDateTime to, String buildingId, ClassroomType type) {
+        validateRange(from, to);
+        LocalDateTime start = from.truncatedTo(ChronoUnit.HOURS);
+        int[][] occurrences = new int[7][24];
+        for (LocalDateTime hour = start; hour.isBefore(to); hour = hour.plusHours(1)) {
+            occurrences[hour.getDayOfWeek().getValue() - 1][hour.getHour()]++;
+        }
+        long[][] booked = new long[7][24];
+        for (HourOfWeekUsage usage : rollupRepository.bookedSecondsByHourOfWeek(start, to, buildingId, type)) {
+            booked[usage.getDayOfWeek() - 1][usage.getHour()] = usage.getBookedSeconds();
+        }
+        int classrooms = catalog.matching(type, buildingId, null).cardinality();
+
+        List<HeatmapCellDTO> cells = new ArrayList<>(7 * 24);
+        for (int day = 0; day < 7; day++) {
+            for (int hour = 0; hour < 24; hour++) {
+                double bookedHours = booked[day][hour] / SECONDS_PER_HOUR;
+                double capacity = (double) classrooms * occurrences[day][hour];
+                cells.add(new HeatmapCellDTO(day + 1, hour, bookedHours, capacity > 0 ? bookedHours / capacity : 0));
+            }
+        }
+        return cells;
+    }
+
+    private List<ClassroomEntry> entriesMatching(String buildingId, ClassroomType type) {
+        BitSet mask = catalog.matching(type, buildingId, null);
+        List<ClassroomEntry> entries = new ArrayList<>(mask.cardinality());
+        for (int i = mask.nextSetBit(0); i >= 0; i = mask.nextSetBit(i + 1)) {
+            ClassroomEntry entry = catalog.get(i);
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    private void validateRange(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !to.isAfter(from)) {
+            throw new InvalidReservationException("La fecha de fin debe ser posterior a la fecha de inicio.");
+        }
+        if (Duration.between(from, to).toDays() > maxDays) {
+            throw new InvalidReservationException("El rango no puede superar " + maxDays + " días.");
+        }
+    }
+
+    private static void accumulate(Map<String, Map<LocalDateTime, Integer>> deltas, ReservationSlot slot, int sign) {
+        if (slot == null || !slot.isConfirmed() || slot.getClassroomId() == null) {
+            return;
+        }
+        Map<LocalDateTime, Integer> byHour = deltas.computeIfAbsent(slot.getClassroomId(), id -> new HashMap<>());
+        LocalDateTime hour = slot.getStartTime().truncatedTo(ChronoUnit.HOURS);
+        while (hour.isBefore(slot.getEndTime())) {
+            LocalDateTime next = hour.plusHours(1);
+            LocalDateTime start = slot.getStartTime().isAfter(hour) ? slot.getStartTime() : hour;
+            LocalDateTime end = slot.getEndTime().isBefore(next) ? slot.getEndTime() : next;
+            byHour.merge(hour, sign * (int) Duration.between(start, end).getSeconds(), Integer::sum);
+            byHour.remove(hour, 0);
+            hour = next;
+        }
+    }
+
+    private static void nameGroup(Map<String, UtilizationDTO> groups, Building building) {
+        UtilizationDTO dto = groups.get(building.getId());
+        if (dto != null) {
+            dto.setName(building.getName());
+        }
+    }
+
+    private static String typeOf(ClassroomEntry entry) {
+        return entry.getType() != null ? entry.getType().name() : null;
+    }
+
+    private static GroupBy parseGroupBy(String groupBy) {
+        if (groupBy == null || groupBy.isBlank()) {
+            return GroupBy.CLASSROOM;
+        }
+        try {
+            return GroupBy.valueOf(groupBy.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidReservationException("Agrupación no soportada: " + groupBy + ". Use classroom, building o type.");
+        }
+    }
+}
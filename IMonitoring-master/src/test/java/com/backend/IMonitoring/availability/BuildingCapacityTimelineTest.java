@@ -0,0 +1,170 @@
+package com.backend.IMonitoring.availability;
+
+import com.backend.IMonitoring.model.Building;
+import com.backend.IMonitoring.model.Classroom;
+import com.backend.IMonitoring.model.ClassroomType;
+import com.backend.IMonitoring.model.ReservationStatus;
+import com.backend.IMonitoring.repository.ClassroomRepository;
+import com.backend.IMonitoring.repository.ReservationRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BuildingCapacityTimelineTest {
+    private static final LocalDate DAY = LocalDate.of(2030, 3, 4);
+
+    private final ClassroomRepository classroomRepository = mock(ClassroomRepository.class);
+    private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+    private final ClassroomCatalog catalog = new ClassroomCatalog(classroomRepository);
+    private final ClassroomAvailabilityIndex index = new ClassroomAvailabilityIndex(reservationRepository, classroomRepository);
+
+    private BuildingCapacityTimeline timeline(List<ReservationSlot> confirmed, Classroom... classrooms) {
+        for (Classroom classroom : classrooms) {
+            catalog.onClassroomChanged(new ClassroomChangedEvent(classroom.getId(), classroom));
+        }
+        when(reservationRepository.findSlotsByStatus(ReservationStatus.CONFIRMADA)).thenReturn(confirmed);
+        index.load();
+        return new BuildingCapacityTimeline(index, catalog, 15);
+    }
+
+    @Test
+    void queryAggregatesSeatsAndRoomsOverTheRange() {
+        BuildingCapacityTimeline timeline = timeline(
+                List.of(confirmed("r1", "a", DAY.atTime(9, 0), DAY.atTime(10, 0)),
+                        confirmed("r2", "b", DAY.atTime(9, 30), DAY.atTime(11, 0))),
+                classroom("a", "b1", 20), classroom("b", "b1", 40), classroom("c", "b2", 10));
+
+        BuildingCapacityTimeline.CapacityWindow morning = timeline.query("b1", DAY.atTime(9, 0), DAY.atTime(10, 0));
+        assertEquals(0, morning.getMinFreeSeats());
+        assertEquals(40, morning.getMaxFreeSeats());
+        assertEquals(0, morning.getMinFreeClassrooms());
+        assertEquals(new BitSet(), morning.getFree());
+
+        BuildingCapacityTimeline.CapacityWindow late = timeline.query("b1", DAY.atTime(10, 0), DAY.atTime(11, 0));
+        assertEquals(20, late.getMinFreeSeats());
+        assertEquals(20, late.getMaxFreeSeats());
+        assertEquals(ids("a"), late.getFree());
+
+        BuildingCapacityTimeline.CapacityWindow free = timeline.query("b1", DAY.atTime(11, 0), DAY.atTime(12, 0));
+        assertEquals(60, free.getMinFreeSeats());
+        assertEquals(2, free.getMinFreeClassrooms());
+        assertEquals(ids("a", "b"), free.getFree());
+
+        BuildingCapacityTimeline.CapacityWindow twoDays = timeline.query("b1", DAY.atTime(10, 0), DAY.plusDays(1).atTime(12, 0));
+        assertEquals(20, twoDays.getMinFreeSeats());
+        assertEquals(60, twoDays.getMaxFreeSeats());
+        assertEquals(ids("a"), twoDays.getFree());
+    }
+
+    @Test
+    void freeThroughoutConfirmsPartialEdgeSlotsAgainstTheIndex() {
+        BuildingCapacityTimeline timeline = timeline(
+                List.of(confirmed("r1", "a", DAY.atTime(9, 5), DAY.atTime(9, 10))),
+                classroom("a", "b1", 20), classroom("b", "b1", 40));
+
+        assertEquals(ids("a", "b"), timeline.freeThroughout("b1", DAY.atTime(9, 10), DAY.atTime(9, 20), 0));
+        assertEquals(ids("b"), timeline.freeThroughout("b1", DAY.atTime(9, 0), DAY.atTime(9, 6), 0));
+        assertEquals(ids("b"), timeline.freeThroughout("b1", DAY.atTime(9, 10), DAY.atTime(9, 20), 30));
+        assertEquals(new BitSet(), timeline.freeThroughout("b1", DAY.atTime(9, 10), DAY.atTime(9, 20), 50));
+    }
+
+    @Test
+    void reservationChangesUpdateMaterializedDays() {
+        BuildingCapacityTimeline timeline = timeline(List.of(), classroom("a", "b1", 20), classroom("b", "b1", 40));
+        assertEquals(60, timeline.query("b1", DAY.atTime(9, 0), DAY.atTime(10, 0)).getMinFreeSeats());
+
+        ReservationSlot created = confirmed("r1", "b", DAY.atTime(9, 15), DAY.atTime(9, 45));
+        change(timeline, null, created);
+        BuildingCapacityTimeline.CapacityWindow window = timeline.query("b1", DAY.atTime(9, 0), DAY.atTime(10, 0));
+        assertEquals(20, window.getMinFreeSeats());
+        assertEquals(60, window.getMaxFreeSeats());
+        assertEquals(ids("a"), window.getFree());
+
+        change(timeline, created, null);
+        assertEquals(60, timeline.query("b1", DAY.atTime(9, 0), DAY.atTime(10, 0)).getMinFreeSeats());
+    }
+
+    /**
+     * Contra una comprobación franja a franja en el índice: para rangos alineados a franjas, el
+     * árbol debe dar los mismos asientos mínimos/máximos y el mismo conjunto de aulas libres.
+     */
+    @Test
+    void queryMatchesSlotBySlotIndexLookups() {
+        Random random = new Random(7);
+        List<Classroom> rooms = new ArrayList<>();
+        List<ReservationSlot> confirmed = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            String id = "c" + i;
+            rooms.add(classroom(id, "b1", 10 + random.nextInt(90)));
+            LocalDateTime cursor = DAY.atTime(7, 0);
+            for (int r = 0; r < 6; r++) {
+                cursor = cursor.plusMinutes(5L * random.nextInt(24));
+                LocalDateTime end = cursor.plusMinutes(5L * (1 + random.nextInt(24)));
+                confirmed.add(confirmed(id + "-" + r, id, cursor, end));
+                cursor = end;
+            }
+        }
+        BuildingCapacityTimeline timeline = timeline(confirmed, rooms.toArray(new Classroom[0]));
+
+        for (int q = 0; q < 200; q++) {
+            LocalDateTime start = DAY.atTime(6, 0).plusMinutes(15L * random.nextInt(60));
+            LocalDateTime end = start.plusMinutes(15L * (1 + random.nextInt(16)));
+            BitSet expectedFree = catalog.inBuilding("b1");
+            int minSeats = Integer.MAX_VALUE;
+            int maxSeats = 0;
+            for (LocalDateTime slot = start; slot.isBefore(end); slot = slot.plusMinutes(15)) {
+                int seats = 0;
+                for (Classroom room : rooms) {
+                    if (index.isAvailable(room.getId(), slot, slot.plusMinutes(15))) {
+                        seats += room.getCapacity();
+                    } else {
+                        expectedFree.clear(catalog.get(room.getId()).getIndex());
+                    }
+                }
+                minSeats = Math.min(minSeats, seats);
+                maxSeats = Math.max(maxSeats, seats);
+            }
+            BuildingCapacityTimeline.CapacityWindow window = timeline.query("b1", start, end);
+            assertEquals(minSeats, window.getMinFreeSeats(), start + " - " + end);
+            assertEquals(maxSeats, window.getMaxFreeSeats(), start + " - " + end);
+            assertEquals(expectedFree, window.getFree(), start + " - " + end);
+        }
+    }
+
+    private void change(BuildingCapacityTimeline timeline, ReservationSlot before, ReservationSlot after) {
+        ReservationChangedEvent event = new ReservationChangedEvent(before, after);
+        index.onReservationChanged(event);
+        timeline.onReservationChanged(event);
+    }
+
+    private BitSet ids(String... classroomIds) {
+        BitSet mask = new BitSet();
+        for (String id : classroomIds) {
+            mask.set(catalog.get(id).getIndex());
+        }
+        return mask;
+    }
+
+    private static Classroom classroom(String id, String buildingId, int capacity) {
+        return Classroom.builder()
+                .id(id)
+                .name("Aula " + id)
+                .capacity(capacity)
+                .type(ClassroomType.AULA)
+                .building(Building.builder().id(buildingId).build())
+                .build();
+    }
+
+    private static ReservationSlot confirmed(String id, String classroomId, LocalDateTime start, LocalDateTime end) {
+        return new ReservationSlot(id, classroomId, "u1", start, end, ReservationStatus.CONFIRMADA, null);
+    }
+}
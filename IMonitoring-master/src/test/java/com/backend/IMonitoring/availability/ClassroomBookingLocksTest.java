@@ -0,0 +1,123 @@
+package com.backend.IMonitoring.availability;
+
+import com.backend.IMonitoring.exceptions.ClassroomBusyException;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClassroomBookingLocksTest {
+    private static final int THREADS = 8;
+    private static final long HOLD_MILLIS = 50;
+
+    @Test
+    void lockOutsideTransactionIsRejected() {
+        ClassroomBookingLocks locks = new ClassroomBookingLocks(16, 100);
+        assertThrows(IllegalStateException.class, () -> locks.lockUntilTransactionEnds("a"));
+    }
+
+    @Test
+    void timeoutOnSameClassroomThrowsClassroomBusy() throws Exception {
+        ClassroomBookingLocks locks = new ClassroomBookingLocks(16, 50);
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> holder = executor.submit(() -> inTransaction(() -> {
+                locks.lockUntilTransactionEnds("aula-1");
+                held.countDown();
+                await(release);
+            }));
+            held.await();
+            assertThrows(ClassroomBusyException.class, () -> inTransaction(() -> locks.lockUntilTransactionEnds("aula-1")));
+            release.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+
+            // Liberado al terminar la transacción del primer hilo.
+            inTransaction(() -> locks.lockUntilTransactionEnds("aula-1"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Medida de contención: con aulas distintas los hilos avanzan en paralelo; con la misma aula se
+     * serializan y el tiempo total crece con el número de hilos.
+     */
+    @Test
+    void distinctClassroomsProceedInParallelAndSameClassroomSerializes() throws Exception {
+        ClassroomBookingLocks locks = new ClassroomBookingLocks(1 << 16, 10_000);
+
+        long distinct = timeConcurrentHolds(locks, i -> "aula-" + i);
+        long shared = timeConcurrentHolds(locks, i -> "aula-compartida");
+        System.out.println("ClassroomBookingLocksTest: " + THREADS + " hilos x " + HOLD_MILLIS +
+                " ms -> aulas distintas " + distinct + " ms, misma aula " + shared + " ms");
+
+        assertTrue(shared >= THREADS * HOLD_MILLIS, "la misma aula debe serializar: " + shared + " ms");
+        assertTrue(distinct < shared / 2, "aulas distintas no deben serializar: " + distinct + " ms vs " + shared + " ms");
+    }
+
+    private static long timeConcurrentHolds(ClassroomBookingLocks locks, IntFunction<String> classroomOf) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                String classroomId = classroomOf.apply(i);
+                futures.add(executor.submit(() -> {
+                    await(start);
+                    inTransaction(() -> {
+                        locks.lockUntilTransactionEnds(classroomId);
+                        sleep(HOLD_MILLIS);
+                    });
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void inTransaction(Runnable body) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            body.run();
+        } finally {
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+            synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
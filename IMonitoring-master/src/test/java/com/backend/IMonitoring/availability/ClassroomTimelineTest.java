@@ -0,0 +1,114 @@
+package com.backend.IMonitoring.availability;
+
+import com.backend.IMonitoring.model.ReservationStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClassroomTimelineTest {
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 3, 4, 0, 0);
+
+    @Test
+    void touchingIntervalsDoNotOverlap() {
+        ClassroomTimeline timeline = new ClassroomTimeline();
+        timeline.put(slot("r1", at(10, 0), at(11, 0)));
+
+        assertFalse(timeline.hasOverlap(at(9, 0), at(10, 0), null));
+        assertFalse(timeline.hasOverlap(at(11, 0), at(12, 0), null));
+        assertTrue(timeline.hasOverlap(at(9, 0), at(10, 1), null));
+        assertTrue(timeline.hasOverlap(at(10, 59), at(12, 0), null));
+        assertTrue(timeline.hasOverlap(at(10, 15), at(10, 30), null));
+        assertTrue(timeline.hasOverlap(at(9, 0), at(12, 0), null));
+    }
+
+    @Test
+    void occupiedAtUsesHalfOpenIntervals() {
+        ClassroomTimeline timeline = new ClassroomTimeline();
+        timeline.put(slot("r1", at(10, 0), at(11, 0)));
+
+        assertFalse(timeline.isOccupiedAt(at(9, 59)));
+        assertTrue(timeline.isOccupiedAt(at(10, 0)));
+        assertTrue(timeline.isOccupiedAt(at(10, 59)));
+        assertFalse(timeline.isOccupiedAt(at(11, 0)));
+    }
+
+    @Test
+    void longReservationBeforeTheWindowIsFound() {
+        ClassroomTimeline timeline = new ClassroomTimeline();
+        timeline.put(slot("long", DAY.minusDays(30), at(9, 30)));
+        for (int day = 1; day <= 20; day++) {
+            timeline.put(slot("short-" + day, DAY.minusDays(day + 40), DAY.minusDays(day + 40).plusHours(1)));
+        }
+
+        assertTrue(timeline.hasOverlap(at(9, 0), at(10, 0), null));
+        assertTrue(timeline.isOccupiedAt(at(9, 0)));
+        assertFalse(timeline.hasOverlap(at(9, 30), at(10, 0), null));
+        assertEquals(List.of("long"), ids(timeline.overlapping(at(8, 0), at(12, 0), null)));
+    }
+
+    @Test
+    void overlappingReturnsPreviousAndInnerSlotsInOrder() {
+        ClassroomTimeline timeline = new ClassroomTimeline();
+        timeline.put(slot("r1", at(8, 0), at(9, 30)));
+        timeline.put(slot("r2", at(10, 0), at(11, 0)));
+        timeline.put(slot("r3", at(11, 0), at(12, 0)));
+        timeline.put(slot("r4", at(12, 0), at(13, 0)));
+
+        assertEquals(List.of("r1", "r2", "r3"), ids(timeline.overlapping(at(9, 0), at(12, 0), null)));
+    }
+
+    @Test
+    void excludedReservationIsIgnored() {
+        ClassroomTimeline timeline = new ClassroomTimeline();
+        timeline.put(slot("r1", at(8, 0), at(10, 30)));
+        timeline.put(slot("r2", at(11, 0), at(12, 0)));
+
+        assertFalse(timeline.hasOverlap(at(10, 0), at(10, 30), "r1"));
+        assertTrue(timeline.hasOverlap(at(10, 0), at(11, 30), "r1"));
+        assertEquals(List.of("r2"), ids(timeline.overlapping(at(10, 0), at(11, 30), "r1")));
+    }
+
+    @Test
+    void putReplacesAndRemoveForgets() {
+        ClassroomTimeline timeline = new ClassroomTimeline();
+        timeline.put(slot("r1", at(8, 0), at(9, 0)));
+        timeline.put(slot("r1", at(14, 0), at(15, 0)));
+
+        assertEquals(1, timeline.size());
+        assertFalse(timeline.hasOverlap(at(8, 0), at(9, 0), null));
+        assertTrue(timeline.hasOverlap(at(14, 30), at(16, 0), null));
+
+        assertTrue(timeline.remove("r1"));
+        assertFalse(timeline.remove("r1"));
+        assertTrue(timeline.isEmpty());
+        assertFalse(timeline.isOccupiedAt(at(14, 30)));
+    }
+
+    @Test
+    void emptyOrInvertedRangesNeverOverlap() {
+        ClassroomTimeline timeline = new ClassroomTimeline();
+        timeline.put(slot("r1", at(8, 0), at(9, 0)));
+
+        assertFalse(timeline.hasOverlap(at(8, 30), at(8, 30), null));
+        assertFalse(timeline.hasOverlap(at(9, 0), at(8, 0), null));
+        assertTrue(timeline.overlapping(at(9, 0), at(8, 0), null).isEmpty());
+    }
+
+    private static LocalDateTime at(int hour, int minute) {
+        return DAY.withHour(hour).withMinute(minute);
+    }
+
+    private static ReservationSlot slot(String id, LocalDateTime start, LocalDateTime end) {
+        return new ReservationSlot(id, "aula-1", "user-1", start, end, ReservationStatus.CONFIRMADA, null);
+    }
+
+    private static List<String> ids(List<ReservationSlot> slots) {
+        return slots.stream().map(ReservationSlot::getId).collect(Collectors.toList());
+    }
+}
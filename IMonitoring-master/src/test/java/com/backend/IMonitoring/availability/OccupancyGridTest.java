@@ -0,0 +1,119 @@
+package com.backend.IMonitoring.availability;
+
+import com.backend.IMonitoring.model.Classroom;
+import com.backend.IMonitoring.model.ClassroomType;
+import com.backend.IMonitoring.model.ReservationStatus;
+import com.backend.IMonitoring.repository.ClassroomRepository;
+import com.backend.IMonitoring.repository.ReservationRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OccupancyGridTest {
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private final ClassroomRepository classroomRepository = mock(ClassroomRepository.class);
+    private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+    private final ClassroomCatalog catalog = new ClassroomCatalog(classroomRepository);
+    private final ClassroomAvailabilityIndex index = new ClassroomAvailabilityIndex(reservationRepository, classroomRepository);
+
+    private OccupancyGrid grid(long maxDaysAhead, List<ReservationSlot> confirmed, String... classroomIds) {
+        Arrays.stream(classroomIds).forEach(id -> catalog.onClassroomChanged(new ClassroomChangedEvent(id, classroom(id))));
+        when(reservationRepository.findSlotsByStatus(ReservationStatus.CONFIRMADA)).thenReturn(confirmed);
+        index.load();
+        return new OccupancyGrid(index, catalog, 15, maxDaysAhead);
+    }
+
+    @Test
+    void partiallyOccupiedSlotIsConfirmedAgainstTheIndex() {
+        LocalDate day = TODAY.plusDays(1);
+        OccupancyGrid grid = grid(30, List.of(confirmed("r1", "a", day.atTime(10, 5), day.atTime(10, 10))), "a", "b");
+        int a = catalog.get("a").getIndex();
+
+        assertTrue(grid.occupiedAt(day.atTime(10, 5)).get(a));
+        assertFalse(grid.occupiedAt(day.atTime(10, 10)).get(a));
+        assertTrue(grid.freeThroughout(day.atTime(10, 10), day.atTime(10, 15)).get(a));
+        assertFalse(grid.freeThroughout(day.atTime(10, 0), day.atTime(10, 6)).get(a));
+        assertEquals(2, grid.freeAt(day.atTime(11, 0)).cardinality());
+    }
+
+    @Test
+    void reservationSpanningMidnightMarksBothDays() {
+        LocalDate day = TODAY.plusDays(2);
+        OccupancyGrid grid = grid(30, List.of(confirmed("r1", "a", day.atTime(23, 0), day.plusDays(1).atTime(1, 0))), "a");
+        int a = catalog.get("a").getIndex();
+
+        assertTrue(grid.occupiedAt(day.atTime(23, 30)).get(a));
+        assertTrue(grid.occupiedAt(day.plusDays(1).atTime(0, 30)).get(a));
+        assertFalse(grid.occupiedAt(day.plusDays(1).atTime(1, 0)).get(a));
+        assertFalse(grid.freeThroughout(day.atTime(22, 0), day.plusDays(1).atTime(2, 0)).get(a));
+    }
+
+    @Test
+    void cachedDayIsRefreshedOnReservationChange() {
+        LocalDate day = TODAY.plusDays(3);
+        OccupancyGrid grid = grid(30, List.of(), "a");
+        int a = catalog.get("a").getIndex();
+        assertFalse(grid.occupiedAt(day.atTime(9, 0)).get(a));
+
+        ReservationSlot created = confirmed("r1", "a", day.atTime(9, 0), day.atTime(10, 0));
+        ReservationChangedEvent event = new ReservationChangedEvent(null, created);
+        index.onReservationChanged(event);
+        grid.onReservationChanged(event);
+
+        assertTrue(grid.occupiedAt(day.atTime(9, 30)).get(a));
+        assertFalse(grid.freeThroughout(day.atTime(8, 0), day.atTime(12, 0)).get(a));
+
+        ReservationChangedEvent cancelled = new ReservationChangedEvent(created, null);
+        index.onReservationChanged(cancelled);
+        grid.onReservationChanged(cancelled);
+
+        assertTrue(grid.freeThroughout(day.atTime(8, 0), day.atTime(12, 0)).get(a));
+    }
+
+    @Test
+    void daysOutsideTheHorizonAreAnsweredButNotCached() {
+        LocalDate far = TODAY.plusYears(5);
+        OccupancyGrid grid = grid(30, List.of(confirmed("r1", "a", far.atTime(9, 0), far.atTime(10, 0))), "a");
+        int a = catalog.get("a").getIndex();
+
+        assertTrue(grid.occupiedAt(far.atTime(9, 30)).get(a));
+        assertFalse(grid.freeThroughout(far.atTime(8, 0), far.atTime(12, 0)).get(a));
+        assertTrue(grid.freeAt(TODAY.minusDays(10).atTime(9, 30)).get(a));
+        assertEquals(0, grid.cachedDays());
+
+        grid.occupiedAt(TODAY.plusDays(30).atTime(9, 0));
+        grid.freeThroughout(TODAY.atTime(22, 0), TODAY.plusDays(1).atTime(2, 0));
+        assertEquals(3, grid.cachedDays());
+    }
+
+    @Test
+    void removedClassroomIsNeverFree() {
+        LocalDate day = TODAY.plusDays(1);
+        OccupancyGrid grid = grid(30, List.of(), "a", "b");
+        int b = catalog.get("b").getIndex();
+        catalog.onClassroomChanged(new ClassroomChangedEvent("b", null));
+
+        BitSet free = grid.freeThroughout(day.atTime(9, 0), day.atTime(10, 0));
+        assertFalse(free.get(b));
+        assertEquals(1, free.cardinality());
+    }
+
+    private static Classroom classroom(String id) {
+        return Classroom.builder().id(id).name(id).type(ClassroomType.AULA).capacity(30).build();
+    }
+
+    private static ReservationSlot confirmed(String id, String classroomId, LocalDateTime start, LocalDateTime end) {
+        return new ReservationSlot(id, classroomId, "user-1", start, end, ReservationStatus.CONFIRMADA, null);
+    }
+}
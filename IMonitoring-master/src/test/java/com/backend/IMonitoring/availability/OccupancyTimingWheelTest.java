@@ -0,0 +1,148 @@
+package com.backend.IMonitoring.availability;
+
+import com.backend.IMonitoring.model.Building;
+import com.backend.IMonitoring.model.Classroom;
+import com.backend.IMonitoring.model.ClassroomType;
+import com.backend.IMonitoring.model.ReservationStatus;
+import com.backend.IMonitoring.repository.ClassroomRepository;
+import com.backend.IMonitoring.repository.ReservationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OccupancyTimingWheelTest {
+    private static final long TICK_MILLIS = 20;
+    private static final int WHEEL_SIZE = 4;
+
+    private final ClassroomRepository classroomRepository = mock(ClassroomRepository.class);
+    private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final ClassroomCatalog catalog = new ClassroomCatalog(classroomRepository);
+    private final ClassroomAvailabilityIndex index = new ClassroomAvailabilityIndex(reservationRepository, classroomRepository);
+
+    private OccupancyTimingWheel wheel(List<ReservationSlot> confirmed) {
+        catalog.onClassroomChanged(new ClassroomChangedEvent("a", classroom("a", "b1")));
+        catalog.onClassroomChanged(new ClassroomChangedEvent("b", classroom("b", "b2")));
+        when(reservationRepository.findSlotsByStatus(ReservationStatus.CONFIRMADA)).thenReturn(confirmed);
+        index.load();
+        OccupancyTimingWheel wheel = new OccupancyTimingWheel(
+                index, catalog, reservationRepository, eventPublisher, TICK_MILLIS, WHEEL_SIZE, 1);
+        wheel.load();
+        return wheel;
+    }
+
+    /**
+     * La reserva empieza varias vueltas de rueda más tarde (4 casillas de 20 ms = 80 ms por
+     * vuelta): los ticks intermedios pasan por su casilla sin dispararla hasta agotar las vueltas.
+     */
+    @Test
+    void timerFiresOnlyAfterItsRoundsWrap() throws Exception {
+        OccupancyTimingWheel wheel = wheel(List.of());
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = now.plus(400, ChronoUnit.MILLIS);
+        LocalDateTime end = now.plus(700, ChronoUnit.MILLIS);
+        wheel.onReservationChanged(new ReservationChangedEvent(null, confirmed("r1", "a", start, end)));
+
+        while (LocalDateTime.now().isBefore(start.minus(2 * TICK_MILLIS, ChronoUnit.MILLIS))) {
+            wheel.tick();
+            assertEquals(0, wheel.occupiedNow());
+            Thread.sleep(3);
+        }
+
+        sleepUntil(start.plus(2 * TICK_MILLIS, ChronoUnit.MILLIS));
+        wheel.tick();
+        assertEquals(1, wheel.occupiedNow());
+        assertEquals(1, wheel.occupiedNow("b1"));
+        verify(eventPublisher).publishEvent(new ClassroomOccupancyChangedEvent("a", "b1", true));
+
+        sleepUntil(end.plus(2 * TICK_MILLIS, ChronoUnit.MILLIS));
+        wheel.tick();
+        assertEquals(0, wheel.occupiedNow());
+        assertEquals(0, wheel.occupiedNow("b1"));
+        verify(eventPublisher).publishEvent(new ClassroomOccupancyChangedEvent("a", "b1", false));
+    }
+
+    @Test
+    void reservationInProgressAtLoadCountsWithoutEvent() {
+        LocalDateTime now = LocalDateTime.now();
+        OccupancyTimingWheel wheel = wheel(List.of(
+                confirmed("r1", "a", now.minusMinutes(10), now.plusMinutes(10)),
+                confirmed("r2", "b", now.plusMinutes(5), now.plusMinutes(20))));
+
+        assertEquals(1, wheel.occupiedNow());
+        assertEquals(1, wheel.occupiedNow("b1"));
+        assertEquals(0, wheel.occupiedNow("b2"));
+        verify(eventPublisher, never()).publishEvent(any(ClassroomOccupancyChangedEvent.class));
+    }
+
+    @Test
+    void cancelledReservationNeverFires() throws Exception {
+        OccupancyTimingWheel wheel = wheel(List.of());
+        LocalDateTime now = LocalDateTime.now();
+        ReservationSlot slot = confirmed("r1", "a", now.plus(100, ChronoUnit.MILLIS), now.plus(200, ChronoUnit.MILLIS));
+        wheel.onReservationChanged(new ReservationChangedEvent(null, slot));
+        wheel.onReservationChanged(new ReservationChangedEvent(slot, null));
+
+        sleepUntil(slot.getStartTime().plus(2 * TICK_MILLIS, ChronoUnit.MILLIS));
+        wheel.tick();
+        assertEquals(0, wheel.occupiedNow());
+        verify(eventPublisher, never()).publishEvent(any(ClassroomOccupancyChangedEvent.class));
+    }
+
+    @Test
+    void cancellingAnActiveReservationFreesTheClassroom() {
+        LocalDateTime now = LocalDateTime.now();
+        ReservationSlot slot = confirmed("r1", "a", now.minusMinutes(10), now.plusMinutes(10));
+        OccupancyTimingWheel wheel = wheel(List.of(slot));
+        assertEquals(1, wheel.occupiedNow());
+
+        wheel.onReservationChanged(new ReservationChangedEvent(slot, null));
+
+        assertEquals(0, wheel.occupiedNow());
+        verify(eventPublisher).publishEvent(new ClassroomOccupancyChangedEvent("a", "b1", false));
+    }
+
+    @Test
+    void reservationsBeyondTheHorizonAreNotScheduled() {
+        LocalDateTime now = LocalDateTime.now();
+        OccupancyTimingWheel wheel = wheel(List.of());
+        wheel.onReservationChanged(new ReservationChangedEvent(null,
+                confirmed("r1", "a", now.plusHours(2), now.plusHours(3))));
+        wheel.onReservationChanged(new ReservationChangedEvent(null,
+                new ReservationSlot("r2", "b", "u1", now.minusMinutes(1), now.plusMinutes(1), ReservationStatus.PENDIENTE, null)));
+
+        wheel.tick();
+        assertEquals(0, wheel.occupiedNow());
+    }
+
+    private static void sleepUntil(LocalDateTime deadline) throws InterruptedException {
+        long millis = ChronoUnit.MILLIS.between(LocalDateTime.now(), deadline);
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+
+    private static Classroom classroom(String id, String buildingId) {
+        return Classroom.builder()
+                .id(id)
+                .name("Aula " + id)
+                .capacity(30)
+                .type(ClassroomType.AULA)
+                .building(Building.builder().id(buildingId).build())
+                .build();
+    }
+
+    private static ReservationSlot confirmed(String id, String classroomId, LocalDateTime start, LocalDateTime end) {
+        return new ReservationSlot(id, classroomId, "u1", start, end, ReservationStatus.CONFIRMADA, null);
+    }
+}
@@ -0,0 +1,74 @@
+package com.backend.IMonitoring.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TimeWindowTest {
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 3, 4, 0, 0);
+
+    @Test
+    void mergeJoinsOverlappingAndTouchingWindows() {
+        List<TimeWindow> merged = TimeWindow.merge(List.of(
+                window(14, 15),
+                window(9, 10),
+                window(10, 11),
+                window(9, 12),
+                window(12, 30, 13),
+                window(14, 30, 14, 45)));
+
+        assertEquals(List.of(window(9, 12), window(12, 30, 13), window(14, 15)), merged);
+        assertEquals(List.of(), TimeWindow.merge(List.of()));
+    }
+
+    @Test
+    void gapsCoverEverythingNotBusy() {
+        assertEquals(List.of(window(8, 9), window(12, 0, 12, 30), window(13, 14), window(15, 18)),
+                gaps(TimeWindow.merge(List.of(window(9, 12), window(12, 30, 13), window(14, 15))), 8, 18));
+    }
+
+    @Test
+    void gapsAreClippedToTheRange() {
+        List<TimeWindow> busy = List.of(window(7, 9), window(11, 12), window(17, 20));
+
+        assertEquals(List.of(window(9, 11), window(12, 17)), gaps(busy, 8, 18));
+        assertEquals(List.of(window(8, 18)), gaps(List.of(), 8, 18));
+        assertEquals(List.of(), gaps(List.of(window(6, 20)), 8, 18));
+    }
+
+    @Test
+    void gapsToleratesOverlapsInBusy() {
+        assertEquals(List.of(window(8, 9), window(13, 18)),
+                gaps(List.of(window(9, 12), window(10, 11), window(11, 13)), 8, 18));
+    }
+
+    @Test
+    void conflictsKeepsCandidatesThatOverlapBusy() {
+        List<TimeWindow> candidates = List.of(window(8, 9), window(9, 10), window(11, 12), window(12, 13), window(16, 17));
+        List<TimeWindow> busy = List.of(window(9, 30, 11), window(12, 30, 16));
+
+        assertEquals(List.of(window(9, 10), window(12, 13)), TimeWindow.conflicts(candidates, busy));
+    }
+
+    private static List<TimeWindow> gaps(List<TimeWindow> busy, int fromHour, int toHour) {
+        List<TimeWindow> gaps = new ArrayList<>();
+        TimeWindow.gaps(busy, DAY.withHour(fromHour), DAY.withHour(toHour), gaps::add);
+        return gaps;
+    }
+
+    private static TimeWindow window(int startHour, int endHour) {
+        return new TimeWindow(DAY.withHour(startHour), DAY.withHour(endHour));
+    }
+
+    private static TimeWindow window(int startHour, int startMinute, int endHour) {
+        return new TimeWindow(DAY.withHour(startHour).withMinute(startMinute), DAY.withHour(endHour));
+    }
+
+    private static TimeWindow window(int startHour, int startMinute, int endHour, int endMinute) {
+        return new TimeWindow(DAY.withHour(startHour).withMinute(startMinute), DAY.withHour(endHour).withMinute(endMinute));
+    }
+}
@@ -0,0 +1,65 @@
+package com.backend.IMonitoring.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReservationSeriesTest {
+    private static final LocalDate MONDAY = LocalDate.of(2030, 3, 4);
+
+    @Test
+    void weeklySeriesIncludesBothEnds() {
+        ReservationSeries series = series(1, MONDAY.plusWeeks(3), Set.of());
+
+        assertEquals(List.of(MONDAY, MONDAY.plusWeeks(1), MONDAY.plusWeeks(2), MONDAY.plusWeeks(3)),
+                series.occurrenceDates(MONDAY, MONDAY.plusWeeks(10)));
+    }
+
+    @Test
+    void intervalWeeksAndExceptionDatesAreApplied() {
+        ReservationSeries series = series(2, MONDAY.plusWeeks(8), Set.of(MONDAY.plusWeeks(4)));
+
+        assertEquals(List.of(MONDAY, MONDAY.plusWeeks(2), MONDAY.plusWeeks(6), MONDAY.plusWeeks(8)),
+                series.occurrenceDates(MONDAY.minusWeeks(5), MONDAY.plusYears(1)));
+    }
+
+    /**
+     * Una ventana que empieza a mitad de la serie debe respetar la fase del intervalo: con
+     * intervalo de 3 semanas, las sesiones caen en las semanas 0, 3, 6, 9...
+     */
+    @Test
+    void windowStartingMidSeriesKeepsTheIntervalPhase() {
+        ReservationSeries series = series(3, MONDAY.plusWeeks(12), Set.of());
+
+        assertEquals(List.of(MONDAY.plusWeeks(6), MONDAY.plusWeeks(9)),
+                series.occurrenceDates(MONDAY.plusWeeks(4).plusDays(2), MONDAY.plusWeeks(10)));
+        assertEquals(List.of(MONDAY.plusWeeks(3)),
+                series.occurrenceDates(MONDAY.plusWeeks(3), MONDAY.plusWeeks(3)));
+        assertEquals(List.of(), series.occurrenceDates(MONDAY.plusWeeks(3).plusDays(1), MONDAY.plusWeeks(5)));
+    }
+
+    @Test
+    void windowOutsideTheSeriesIsEmpty() {
+        ReservationSeries series = series(1, MONDAY.plusWeeks(3), Set.of());
+
+        assertEquals(List.of(), series.occurrenceDates(MONDAY.minusWeeks(4), MONDAY.minusDays(1)));
+        assertEquals(List.of(), series.occurrenceDates(MONDAY.plusWeeks(3).plusDays(1), MONDAY.plusWeeks(8)));
+    }
+
+    private static ReservationSeries series(int intervalWeeks, LocalDate untilDate, Set<LocalDate> exceptions) {
+        return ReservationSeries.builder()
+                .firstDate(MONDAY)
+                .untilDate(untilDate)
+                .startTime(LocalTime.of(10, 0))
+                .endTime(LocalTime.of(12, 0))
+                .intervalWeeks(intervalWeeks)
+                .exceptionDates(exceptions)
+                .status(ReservationStatus.CONFIRMADA)
+                .build();
+    }
+}
@@ -0,0 +1,337 @@
+package com.backend.IMonitoring.repository;
+
+import com.backend.IMonitoring.dto.ReservationSummaryDTO;
+import com.backend.IMonitoring.model.Building;
+import com.backend.IMonitoring.model.Classroom;
+import com.backend.IMonitoring.model.RefreshToken;
+import com.backend.IMonitoring.model.Reservation;
+import com.backend.IMonitoring.model.ReservationSeries;
+import com.backend.IMonitoring.model.ReservationStatus;
+import com.backend.IMonitoring.model.RevokedToken;
+import com.backend.IMonitoring.model.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sentencias y tamaño de respuesta de un listado de reservas, antes y después de servirlo con
+ * {@link ReservationSummaryDTO}. Hibernate trabaja sobre un JDBC en memoria que devuelve una página
+ * de {@link #PAGE} reservas repartidas entre {@link #CLASSROOMS} aulas y {@link #USERS} usuarios, y
+ * las sentencias se cuentan con las estadísticas de Hibernate.
+ */
+class ReservationListingStatementsTest {
+    private static final int PAGE = 100;
+    private static final int CLASSROOMS = 20;
+    private static final int USERS = 40;
+    private static final LocalDateTime START = LocalDateTime.of(2030, 3, 4, 8, 0);
+    private static final Pattern TABLE_ALIAS = Pattern.compile("(?:from|join) (\\w+) (\\w+)");
+
+    private final SessionFactory sessionFactory = sessionFactory();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @AfterEach
+    void close() {
+        sessionFactory.close();
+    }
+
+    @Test
+    void summaryPageIsOneStatementAndSerializesWithoutFurtherLoads() throws JsonProcessingException {
+        ReservationQueryRepository repository = new ReservationQueryRepository();
+        List<ReservationSummaryDTO> page = sessionFactory.fromSession(session -> {
+            ReflectionTestUtils.setField(repository, "entityManager", session);
+            return repository.findSummaries(ReservationSpecifications.all(), "startTime", Sort.Direction.DESC, PAGE);
+        });
+        // Con la sesión ya cerrada: cualquier asociación perezosa fallaría al serializar.
+        String json = objectMapper.writeValueAsString(page);
+
+        assertEquals(1, sessionFactory.getStatistics().getPrepareStatementCount());
+        assertEquals(0, sessionFactory.getStatistics().getEntityLoadCount());
+        assertEquals(PAGE, page.size());
+        assertEquals("Aula c3", page.get(3).getClassroomName());
+        assertEquals("Usuario u3", page.get(3).getUserName());
+        assertEquals("b1", page.get(3).getBuildingId());
+        assertFalse(json.contains("password") || json.contains("email"), json);
+    }
+
+    /**
+     * Antes las asociaciones eran EAGER y la consulta no las traía con join: Hibernate lanzaba
+     * después una SELECT por cada aula y cada usuario distintos de la página. Aquí se reproducen
+     * inicializándolas a mano.
+     */
+    @Test
+    void entityPageNeededOneSelectPerClassroomAndUser() {
+        sessionFactory.inSession(session -> entityPage(session).forEach(reservation -> {
+            Hibernate.initialize(reservation.getClassroom());
+            Hibernate.initialize(reservation.getUser());
+        }));
+
+        assertEquals(1 + CLASSROOMS + USERS, sessionFactory.getStatistics().getPrepareStatementCount());
+    }
+
+    @Test
+    void serializingReservationEntitiesDoesNotInitializeTheirAssociations() throws JsonProcessingException {
+        List<Reservation> page = sessionFactory.fromSession(session -> {
+            List<Reservation> rows = entityPage(session);
+            try {
+                objectMapper.writeValueAsBytes(rows);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+            return rows;
+        });
+
+        assertEquals(1, sessionFactory.getStatistics().getPrepareStatementCount());
+        assertFalse(Hibernate.isInitialized(page.get(0).getClassroom()));
+        assertFalse(Hibernate.isInitialized(page.get(0).getUser()));
+        assertTrue(objectMapper.writeValueAsString(page.get(0)).contains("\"classroomId\":\"c0\""));
+    }
+
+    /**
+     * Para mostrar nombres de aula y usuario, la página de entidades obligaba a pedir además cada
+     * aula y cada usuario. Los resúmenes repiten los nombres en cada fila, así que ocupan más o menos
+     * lo mismo que la página y sus referencias juntas, pero en una sola respuesta.
+     */
+    @Test
+    void summaryPageCostsAboutTheEntitiesPlusTheirReferences() throws JsonProcessingException {
+        List<ReservationSummaryDTO> summaries = new ArrayList<>();
+        List<Reservation> entities = new ArrayList<>();
+        Map<String, Classroom> classrooms = new HashMap<>();
+        Map<String, User> users = new HashMap<>();
+        for (int i = 0; i < PAGE; i++) {
+            Classroom classroom = classrooms.computeIfAbsent(classroomId(i), id -> Classroom.builder()
+                    .id(id).name((String) classroomColumn(id, "name")).capacity(30)
+                    .resources((String) classroomColumn(id, "resources"))
+                    .building(Building.builder().id("b1").build()).build());
+            User user = users.computeIfAbsent(userId(i), id -> User.builder()
+                    .id(id).name((String) userColumn(id, "name")).email((String) userColumn(id, "email")).build());
+            Reservation reservation = Reservation.builder()
+                    .id("r" + i).classroom(classroom).user(user)
+                    .startTime(START.plusHours(i)).endTime(START.plusHours(i + 1))
+                    .status(ReservationStatus.CONFIRMADA).purpose("Clase de prácticas")
+                    .build();
+            entities.add(reservation);
+            summaries.add(new ReservationSummaryDTO(reservation.getId(), classroom.getId(), classroom.getName(), "b1",
+                    user.getId(), user.getName(), reservation.getStartTime(), reservation.getEndTime(),
+                    reservation.getStatus(), reservation.getPurpose(), null));
+        }
+
+        int summaryBytes = objectMapper.writeValueAsBytes(summaries).length;
+        int entityBytes = objectMapper.writeValueAsBytes(entities).length;
+        int referenceBytes = objectMapper.writeValueAsBytes(classrooms.values()).length
+                + objectMapper.writeValueAsBytes(users.values()).length;
+
+        assertTrue(summaryBytes * 10 < (entityBytes + referenceBytes) * 11,
+                summaryBytes + " B vs " + entityBytes + " B + " + referenceBytes + " B");
+    }
+
+    /**
+     * Lo que hacía {@code reservationRepository.findBy(spec, ...)} antes de los resúmenes: la página
+     * de entidades ordenada por inicio e id.
+     */
+    private static List<Reservation> entityPage(Session session) {
+        CriteriaBuilder cb = session.getCriteriaBuilder();
+        CriteriaQuery<Reservation> query = cb.createQuery(Reservation.class);
+        Root<Reservation> root = query.from(Reservation.class);
+        query.orderBy(cb.desc(root.get("startTime")), cb.desc(root.get("id")));
+        return session.createQuery(query).setMaxResults(PAGE).getResultList();
+    }
+
+    private static String classroomId(int row) {
+        return "c" + row % CLASSROOMS;
+    }
+
+    private static String userId(int row) {
+        return "u" + row % USERS;
+    }
+
+    private static Object reservationColumn(int row, String column) {
+        return switch (column) {
+            case "id" -> "r" + row;
+            case "classroom_id" -> classroomId(row);
+            case "user_id" -> userId(row);
+            case "start_time" -> START.plusHours(row);
+            case "end_time" -> START.plusHours(row + 1);
+            case "status" -> "CONFIRMADA";
+            case "purpose" -> "Clase de prácticas";
+            default -> null;
+        };
+    }
+
+    private static Object classroomColumn(String id, String column) {
+        return switch (column) {
+            case "id" -> id;
+            case "name" -> "Aula " + id;
+            case "building_id" -> "b1";
+            case "capacity" -> 30;
+            case "type" -> "AULA";
+            case "resources" -> "Proyector, Pizarra digital";
+            default -> null;
+        };
+    }
+
+    private static Object userColumn(String id, String column) {
+        return switch (column) {
+            case "id" -> id;
+            case "name" -> "Usuario " + id;
+            case "email" -> id + "@universidad.es";
+            case "password" -> "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z2XmqW3Qb6tJ6lVZ2e5lK2yW";
+            case "role" -> "PROFESOR";
+            case "token_version" -> 0;
+            default -> null;
+        };
+    }
+
+    private static SessionFactory sessionFactory() {
+        Configuration configuration = new Configuration();
+        for (Class<?> entity : List.of(Reservation.class, Classroom.class, Building.class, User.class,
+                ReservationSeries.class, RefreshToken.class, RevokedToken.class)) {
+            configuration.addAnnotatedClass(entity);
+        }
+        configuration.setImplicitNamingStrategy(new SpringImplicitNamingStrategy());
+        configuration.setPhysicalNamingStrategy(new CamelCaseToUnderscoresNamingStrategy());
+        configuration.setProperty("jakarta.persistence.database-product-name", "PostgreSQL");
+        configuration.setProperty("jakarta.persistence.database-major-version", "16");
+        configuration.setProperty("hibernate.boot.allow_jdbc_metadata_access", "false");
+        configuration.setProperty("hibernate.generate_statistics", "true");
+        configuration.getProperties().put("hibernate.connection.datasource", jdbc(DataSource.class, null));
+        return configuration.buildSessionFactory();
+    }
+
+    /**
+     * JDBC en memoria. Una SELECT por id de una sola tabla devuelve esa fila; cualquier otra,
+     * {@link #PAGE} reservas con el aula y el usuario de cada una para las tablas unidas. Los
+     * valores se eligen por la columna de cada posición de la lista del SELECT.
+     */
+    private static <T> T jdbc(Class<T> type, Statement statement) {
+        return type.cast(Proxy.newProxyInstance(ReservationListingStatementsTest.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (type == Connection.class && name.equals("prepareStatement")) {
+                        return jdbc(PreparedStatement.class, new Statement((String) args[0]));
+                    }
+                    if (type == PreparedStatement.class && name.startsWith("set") && args != null && args.length >= 2
+                            && args[0] instanceof Integer) {
+                        statement.parameters.put((Integer) args[0], args[1]);
+                        return null;
+                    }
+                    if (type == PreparedStatement.class && name.equals("executeQuery")) {
+                        return jdbc(ResultSet.class, statement);
+                    }
+                    if (type == ResultSet.class) {
+                        switch (name) {
+                            case "next":
+                                return ++statement.row < statement.rows();
+                            case "wasNull":
+                                return statement.lastValue == null;
+                            case "getString":
+                            case "getInt":
+                            case "getTimestamp":
+                            case "getObject":
+                                return statement.read((Integer) args[0], method.getReturnType(),
+                                        args.length > 1 && args[1] instanceof Class ? (Class<?>) args[1] : null);
+                            default:
+                                break;
+                        }
+                    }
+                    Class<?> returned = method.getReturnType();
+                    if (returned == Connection.class) {
+                        return jdbc(Connection.class, null);
+                    }
+                    if (name.equals("getAutoCommit")) {
+                        return true;
+                    }
+                    if (returned == boolean.class) {
+                        return false;
+                    }
+                    if (returned == int.class) {
+                        return 0;
+                    }
+                    if (returned == long.class) {
+                        return 0L;
+                    }
+                    return null;
+                }));
+    }
+
+    private static final class Statement {
+        private final List<String[]> columns = new ArrayList<>();
+        private final Map<Integer, Object> parameters = new HashMap<>();
+        private final boolean byId;
+        private int row = -1;
+        private Object lastValue;
+
+        private Statement(String sql) {
+            Map<String, String> tables = new HashMap<>();
+            Matcher matcher = TABLE_ALIAS.matcher(sql);
+            while (matcher.find()) {
+                tables.put(matcher.group(2), matcher.group(1));
+            }
+            String selectList = sql.substring("select ".length(), sql.indexOf(" from "));
+            for (String column : selectList.split(",")) {
+                String[] parts = column.trim().split("\\.");
+                columns.add(new String[]{tables.get(parts[0]), parts[1]});
+            }
+            Set<String> distinctTables = new LinkedHashSet<>(tables.values());
+            byId = distinctTables.size() == 1 && sql.endsWith(".id=?");
+        }
+
+        private int rows() {
+            return byId ? 1 : PAGE;
+        }
+
+        private Object read(int position, Class<?> returned, Class<?> requested) {
+            String[] column = columns.get(position - 1);
+            Object value = switch (column[0]) {
+                case "reservation" -> reservationColumn(row, column[1]);
+                case "classroom" -> classroomColumn(byId ? (String) parameters.get(1) : classroomId(row), column[1]);
+                case "users" -> userColumn(byId ? (String) parameters.get(1) : userId(row), column[1]);
+                default -> throw new IllegalStateException("Tabla no prevista: " + Arrays.toString(column));
+            };
+            lastValue = value;
+            if (returned == int.class) {
+                return value != null ? ((Number) value).intValue() : 0;
+            }
+            if (value instanceof LocalDateTime && (returned == Timestamp.class || requested == Timestamp.class)) {
+                return Timestamp.valueOf((LocalDateTime) value);
+            }
+            if (returned == String.class && value != null) {
+                return value.toString();
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.backend.IMonitoring.repository;
+
+import com.backend.IMonitoring.dto.ReservationFilterDTO;
+import com.backend.IMonitoring.model.ReservationStatus;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hace EXPLAIN del SQL que Hibernate genera para los listados ({@link ReservationQueryRepository}
+ * con {@link ReservationSpecifications}), capturado con un StatementInspector, y comprueba que usa
+ * los índices compuestos de {@code reservation}. Necesita un PostgreSQL real: solo se ejecuta si
+ * {@code SPRING_DATASOURCE_URL} apunta a uno. Con {@code enable_seqscan} desactivado el plan no
+ * depende del volumen de datos de la base de pruebas.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=update",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.backend.IMonitoring.repository.ReservationQueryPlanTest$CapturingInspector",
+        "jwt.secret-key=MDEyMzQ1Njc4OWFiY2RlZjAxMjM0NTY3ODlhYmNkZWY="
+})
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = "jdbc:postgresql:.*")
+class ReservationQueryPlanTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 3, 4, 12, 0);
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private ReservationQueryRepository queryRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    public static class CapturingInspector implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @Test
+    void userFilterUsesTheUserIndex() {
+        String sql = summariesSql(ReservationFilterDTO.builder()
+                .userId("u1").status(ReservationStatus.CONFIRMADA).futureOnly(true).build());
+
+        assertPlanUses("idx_reservation_user_status_start", sql, "'u1'", "'CONFIRMADA'", timestamp(NOW), "51");
+    }
+
+    @Test
+    void classroomFilterUsesTheClassroomIndex() {
+        String sql = summariesSql(ReservationFilterDTO.builder()
+                .classroomId("a").status(ReservationStatus.PENDIENTE).from(NOW).to(NOW.plusDays(7)).build());
+
+        assertPlanUses("idx_reservation_classroom_status_start", sql,
+                "'a'", "'PENDIENTE'", timestamp(NOW.plusDays(7)), timestamp(NOW), "51");
+    }
+
+    @Test
+    void buildingAndStatusFilterUsesTheStatusIndex() {
+        String sql = summariesSql(ReservationFilterDTO.builder()
+                .status(ReservationStatus.CONFIRMADA).buildingId("b1").futureOnly(true).build());
+
+        assertPlanUses("idx_reservation_status_start", sql, "'CONFIRMADA'", "'b1'", timestamp(NOW), "51");
+    }
+
+    private String summariesSql(ReservationFilterDTO filter) {
+        STATEMENTS.clear();
+        queryRepository.findSummaries(ReservationSpecifications.matching(filter, NOW), "startTime", Sort.Direction.DESC, 51);
+        List<String> selects = STATEMENTS.stream().filter(sql -> sql.startsWith("select")).collect(Collectors.toList());
+        assertEquals(1, selects.size(), selects.toString());
+        return selects.get(0);
+    }
+
+    /**
+     * Prepara la sentencia con sus parámetros numerados y hace EXPLAIN EXECUTE con los literales en
+     * el orden en que aparecen en el SQL generado.
+     */
+    private void assertPlanUses(String index, String sql, String... literals) {
+        String[] parts = sql.split("\\?", -1);
+        assertEquals(literals.length, parts.length - 1, sql);
+        StringBuilder numbered = new StringBuilder(parts[0]);
+        for (int i = 1; i < parts.length; i++) {
+            numbered.append('$').append(i).append(parts[i]);
+        }
+        String plan = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+            jdbcTemplate.execute("PREPARE reservation_plan AS " + numbered);
+            try {
+                return String.join("\n", jdbcTemplate.queryForList(
+                        "EXPLAIN EXECUTE reservation_plan(" + String.join(", ", literals) + ")", String.class));
+            } finally {
+                jdbcTemplate.execute("DEALLOCATE reservation_plan");
+            }
+        });
+        assertTrue(plan.contains(index), sql + "\n" + plan);
+    }
+
+    private static String timestamp(LocalDateTime value) {
+        return "'" + value.toString().replace('T', ' ') + "'";
+    }
+}
@@ -0,0 +1,216 @@
+package com.backend.IMonitoring.repository;
+
+import com.backend.IMonitoring.dto.ReservationFilterDTO;
+import com.backend.IMonitoring.model.Building;
+import com.backend.IMonitoring.model.Classroom;
+import com.backend.IMonitoring.model.RefreshToken;
+import com.backend.IMonitoring.model.Reservation;
+import com.backend.IMonitoring.model.ReservationSeries;
+import com.backend.IMonitoring.model.ReservationStatus;
+import com.backend.IMonitoring.model.RevokedToken;
+import com.backend.IMonitoring.model.User;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Genera con Hibernate (dialecto PostgreSQL, nombres como en Spring Boot) el SQL real de los
+ * listados y comprueba que el WHERE empieza por las columnas de un índice compuesto de
+ * {@code reservation}. La conexión es un stub que devuelve resultados vacíos: no hace falta base
+ * de datos. {@link ReservationQueryPlanTest} hace EXPLAIN de este mismo SQL contra PostgreSQL.
+ */
+class ReservationQuerySqlTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 3, 4, 12, 0);
+    private static final Pattern PREDICATE = Pattern.compile("r1_0\\.(\\w+)\\s*(=|<|>|<=|>=)\\s*\\?");
+
+    private final List<String> statements = new ArrayList<>();
+    private final SessionFactory sessionFactory = sessionFactory(statements);
+
+    @AfterEach
+    void close() {
+        sessionFactory.close();
+    }
+
+    @Test
+    void userFilterUsesTheUserIndex() {
+        String sql = summariesSql(ReservationFilterDTO.builder().userId("u1").status(ReservationStatus.CONFIRMADA).futureOnly(true).build());
+
+        assertEquals(3, matchedColumns("idx_reservation_user_status_start", sql), sql);
+    }
+
+    @Test
+    void classroomFilterUsesTheClassroomIndex() {
+        String sql = summariesSql(ReservationFilterDTO.builder()
+                .classroomId("a").status(ReservationStatus.PENDIENTE).from(NOW).to(NOW.plusDays(7)).build());
+
+        assertEquals(3, matchedColumns("idx_reservation_classroom_status_start", sql), sql);
+    }
+
+    @Test
+    void statusFilterUsesTheStatusIndex() {
+        String sql = summariesSql(ReservationFilterDTO.builder().status(ReservationStatus.CONFIRMADA).futureOnly(true).build());
+
+        assertEquals(2, matchedColumns("idx_reservation_status_start", sql), sql);
+    }
+
+    /**
+     * El filtro por edificio se resuelve con la columna building_id del join a classroom que ya
+     * hace el listado, sin un segundo join ni uno a building.
+     */
+    @Test
+    void buildingFilterReusesTheClassroomJoin() {
+        String sql = summariesSql(ReservationFilterDTO.builder().buildingId("b1").status(ReservationStatus.CONFIRMADA).build());
+
+        assertEquals(1, count(sql, " join classroom "), sql);
+        assertEquals(0, count(sql, " join building "), sql);
+        assertTrue(sql.contains(".building_id=?"), sql);
+        assertEquals(1, matchedColumns("idx_reservation_status_start", sql), sql);
+    }
+
+    @Test
+    void keysetPageStartsFromTheStartIndex() {
+        sessionFactory.inSession(session -> {
+            ReservationQueryRepository repository = repository(session);
+            repository.findSummaries(ReservationSpecifications.all()
+                            .and(ReservationSpecifications.after("startTime", Sort.Direction.ASC, NOW, "r1")),
+                    "startTime", Sort.Direction.ASC, 51);
+        });
+        String sql = lastSelect();
+
+        // 7 y 1 son start_time e id en la lista del SELECT: el mismo orden que idx_reservation_start_id.
+        assertTrue(sql.contains("r1_0.start_time>? or r1_0.start_time=? and r1_0.id>?"), sql);
+        assertTrue(sql.contains(" order by 7,1 "), sql);
+        assertEquals(List.of("start_time", "id"), indexColumns("idx_reservation_start_id"));
+    }
+
+    private String summariesSql(ReservationFilterDTO filter) {
+        sessionFactory.inSession(session -> repository(session)
+                .findSummaries(ReservationSpecifications.matching(filter, NOW), "startTime", Sort.Direction.DESC, 51));
+        return lastSelect();
+    }
+
+    private String lastSelect() {
+        for (int i = statements.size() - 1; i >= 0; i--) {
+            if (statements.get(i).startsWith("select")) {
+                return statements.get(i);
+            }
+        }
+        throw new AssertionError("No se generó ninguna consulta: " + statements);
+    }
+
+    private static ReservationQueryRepository repository(Object entityManager) {
+        ReservationQueryRepository repository = new ReservationQueryRepository();
+        ReflectionTestUtils.setField(repository, "entityManager", entityManager);
+        return repository;
+    }
+
+    /**
+     * Columnas iniciales del índice que restringe el WHERE: todas por igualdad salvo, como mucho,
+     * una última por rango (lo que un B-tree puede usar como prefijo).
+     */
+    static int matchedColumns(String indexName, String sql) {
+        Set<String> equalities = new LinkedHashSet<>();
+        Set<String> ranges = new LinkedHashSet<>();
+        Matcher matcher = PREDICATE.matcher(sql.substring(sql.indexOf(" where ")));
+        while (matcher.find()) {
+            (matcher.group(2).equals("=") ? equalities : ranges).add(matcher.group(1));
+        }
+        int matched = 0;
+        for (String column : indexColumns(indexName)) {
+            if (equalities.contains(column)) {
+                matched++;
+            } else {
+                return ranges.contains(column) ? matched + 1 : matched;
+            }
+        }
+        return matched;
+    }
+
+    private static List<String> indexColumns(String indexName) {
+        for (Index index : Reservation.class.getAnnotation(Table.class).indexes()) {
+            if (index.name().equals(indexName)) {
+                return Arrays.stream(index.columnList().split(",")).map(String::trim).toList();
+            }
+        }
+        throw new IllegalArgumentException("Índice desconocido: " + indexName);
+    }
+
+    private static int count(String text, String fragment) {
+        int count = 0;
+        for (int i = text.indexOf(fragment); i >= 0; i = text.indexOf(fragment, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    private static SessionFactory sessionFactory(List<String> statements) {
+        Configuration configuration = new Configuration();
+        for (Class<?> entity : List.of(Reservation.class, Classroom.class, Building.class, User.class,
+                ReservationSeries.class, RefreshToken.class, RevokedToken.class)) {
+            configuration.addAnnotatedClass(entity);
+        }
+        configuration.setImplicitNamingStrategy(new SpringImplicitNamingStrategy());
+        configuration.setPhysicalNamingStrategy(new CamelCaseToUnderscoresNamingStrategy());
+        configuration.setProperty("jakarta.persistence.database-product-name", "PostgreSQL");
+        configuration.setProperty("jakarta.persistence.database-major-version", "16");
+        configuration.setProperty("hibernate.boot.allow_jdbc_metadata_access", "false");
+        configuration.getProperties().put("hibernate.connection.datasource", stub(DataSource.class));
+        configuration.getProperties().put("hibernate.session_factory.statement_inspector", (StatementInspector) sql -> {
+            statements.add(sql);
+            return sql;
+        });
+        return configuration.buildSessionFactory();
+    }
+
+    /**
+     * JDBC mínimo: la fuente da conexiones, las conexiones sentencias y las sentencias resultados
+     * vacíos; el resto de llamadas devuelve el valor por defecto de su tipo.
+     */
+    private static <T> T stub(Class<T> type) {
+        return type.cast(Proxy.newProxyInstance(ReservationQuerySqlTest.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    Class<?> returned = method.getReturnType();
+                    if (returned == Connection.class || returned == PreparedStatement.class || returned == ResultSet.class) {
+                        return stub(returned);
+                    }
+                    if (method.getName().equals("getAutoCommit")) {
+                        return true;
+                    }
+                    if (returned == boolean.class) {
+                        return false;
+                    }
+                    if (returned == int.class) {
+                        return 0;
+                    }
+                    if (returned == long.class) {
+                        return 0L;
+                    }
+                    return null;
+                }));
+    }
+}
@@ -0,0 +1,149 @@
+package com.backend.IMonitoring.repository;
+
+import com.backend.IMonitoring.dto.ReservationFilterDTO;
+import com.backend.IMonitoring.model.Reservation;
+import com.backend.IMonitoring.model.ReservationStatus;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Evalúa las especificaciones contra un CriteriaBuilder simbólico que convierte cada predicado en
+ * texto, de modo que se puede comprobar qué condiciones llegan al WHERE sin base de datos.
+ */
+class ReservationSpecificationsTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 3, 4, 12, 0);
+
+    @Test
+    void everyPresentFilterIsCombined() {
+        ReservationFilterDTO filter = ReservationFilterDTO.builder()
+                .classroomId("a")
+                .userId("u1")
+                .status(ReservationStatus.CONFIRMADA)
+                .buildingId("b1")
+                .from(NOW.minusDays(1))
+                .to(NOW.plusDays(1))
+                .futureOnly(true)
+                .build();
+
+        assertEquals(List.of(
+                "classroom.id = a",
+                "user.id = u1",
+                "status = CONFIRMADA",
+                "classroom.building.id = b1",
+                "startTime < " + NOW.plusDays(1),
+                "endTime > " + NOW.minusDays(1),
+                "startTime > " + NOW), conjuncts(ReservationSpecifications.matching(filter, NOW)));
+    }
+
+    @Test
+    void statusDoesNotHideClassroomAndUser() {
+        ReservationFilterDTO filter = ReservationFilterDTO.builder()
+                .classroomId("a")
+                .userId("u1")
+                .status(ReservationStatus.PENDIENTE)
+                .build();
+
+        assertEquals(List.of("classroom.id = a", "user.id = u1", "status = PENDIENTE"),
+                conjuncts(ReservationSpecifications.matching(filter, NOW)));
+    }
+
+    @Test
+    void absentFiltersDoNotRestrict() {
+        assertEquals(List.of(), conjuncts(ReservationSpecifications.matching(new ReservationFilterDTO(), NOW)));
+        assertEquals(List.of("endTime > " + NOW),
+                conjuncts(ReservationSpecifications.overlapping(NOW, null)));
+        assertEquals(List.of("startTime < " + NOW),
+                conjuncts(ReservationSpecifications.overlapping(null, NOW)));
+    }
+
+    @Test
+    void keysetPredicateBreaksTiesById() {
+        assertEquals(List.of("(startTime > " + NOW + " OR (startTime = " + NOW + " AND id > r1))"),
+                conjuncts(ReservationSpecifications.after("startTime", Sort.Direction.ASC, NOW, "r1")));
+        assertEquals(List.of("(startTime < " + NOW + " OR (startTime = " + NOW + " AND id < r1))"),
+                conjuncts(ReservationSpecifications.after("startTime", Sort.Direction.DESC, NOW, "r1")));
+    }
+
+    private static List<String> conjuncts(Specification<Reservation> specification) {
+        Predicate predicate = specification.toPredicate(root(), null, criteriaBuilder());
+        List<String> parts = new ArrayList<>();
+        if (predicate != null) {
+            flatten(predicate.toString(), parts);
+        }
+        return parts;
+    }
+
+    private static void flatten(String text, List<String> parts) {
+        for (String part : text.split(" && ")) {
+            if (!part.equals("TRUE")) {
+                parts.add(part);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Root<Reservation> root() {
+        return (Root<Reservation>) path(Root.class, null);
+    }
+
+    private static Object path(Class<?> type, String name) {
+        return Proxy.newProxyInstance(ReservationSpecificationsTest.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "get" -> path(Path.class, name == null ? (String) args[0] : name + "." + args[0]);
+                    case "toString" -> name;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static Predicate predicate(String text) {
+        return (Predicate) Proxy.newProxyInstance(ReservationSpecificationsTest.class.getClassLoader(),
+                new Class<?>[]{Predicate.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "toString" -> text;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static CriteriaBuilder criteriaBuilder() {
+        return (CriteriaBuilder) Proxy.newProxyInstance(ReservationSpecificationsTest.class.getClassLoader(),
+                new Class<?>[]{CriteriaBuilder.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "conjunction" -> predicate("TRUE");
+                    case "equal" -> predicate(args[0] + " = " + args[1]);
+                    case "lessThan" -> predicate(args[0] + " < " + args[1]);
+                    case "greaterThan" -> predicate(args[0] + " > " + args[1]);
+                    case "and" -> predicate(join(args, " && "));
+                    case "or" -> predicate("(" + join(args, " OR ") + ")");
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * Los AND anidados dentro de un OR se muestran entre paréntesis; los de primer nivel se aplanan.
+     */
+    private static String join(Object[] args, String separator) {
+        Object[] operands = args.length == 1 && args[0] instanceof Object[] array ? array : args;
+        List<String> texts = new ArrayList<>();
+        for (Object operand : operands) {
+            String text = operand.toString();
+            texts.add(separator.equals(" OR ") && text.contains(" && ") ? "(" + text.replace(" && ", " AND ") + ")" : text);
+        }
+        return String.join(separator, texts);
+    }
+}
@@ -0,0 +1,98 @@
+package com.backend.IMonitoring.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    @Test
+    void insertedValuesAreAlwaysReported() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            values.add(UUID.randomUUID().toString());
+        }
+        values.forEach(filter::put);
+
+        for (String value : values) {
+            assertTrue(filter.mightContain(value), value);
+        }
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+
+        assertFalse(filter.mightContain("jti"));
+        assertFalse(filter.mightContain(""));
+    }
+
+    /**
+     * Con el número de inserciones previsto, la tasa de falsos positivos medida sobre 100.000
+     * valores ausentes debe quedar cerca de la configurada.
+     */
+    @Test
+    void falsePositiveRateStaysNearTheTarget() {
+        int expected = 20_000;
+        double target = 0.01;
+        BloomFilter filter = new BloomFilter(expected, target);
+        for (int i = 0; i < expected; i++) {
+            filter.put(UUID.randomUUID().toString());
+        }
+
+        int probes = 100_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+        double rate = falsePositives / (double) probes;
+        System.out.println("BloomFilterTest: tasa de falsos positivos " + String.format("%.4f", rate) + " (objetivo " + target + ")");
+        assertTrue(rate < 2 * target, "tasa " + rate);
+    }
+
+    @Test
+    void concurrentInsertionsAreNotLost() throws Exception {
+        BloomFilter filter = new BloomFilter(40_000, 0.01);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    List<String> inserted = new ArrayList<>();
+                    for (int i = 0; i < 10_000; i++) {
+                        String value = UUID.randomUUID().toString();
+                        filter.put(value);
+                        inserted.add(value);
+                    }
+                    return inserted;
+                }));
+            }
+            for (Future<List<String>> future : futures) {
+                for (String value : future.get()) {
+                    assertTrue(filter.mightContain(value), value);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void invalidParametersAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1));
+    }
+}
@@ -0,0 +1,112 @@
+package com.backend.IMonitoring.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExpiringLruCacheTest {
+    private final MutableClock clock = new MutableClock(Instant.parse("2030-03-04T10:00:00Z"));
+
+    @Test
+    void leastRecentlyUsedEntryIsEvictedFirst() {
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(2, clock);
+        cache.put("a", "A", later(60));
+        cache.put("b", "B", later(60));
+        assertEquals("A", cache.get("a"));
+
+        cache.put("c", "C", later(60));
+
+        assertNull(cache.get("b"));
+        assertEquals("A", cache.get("a"));
+        assertEquals("C", cache.get("c"));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    void entriesExpireAtTheirOwnInstant() {
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(10, clock);
+        cache.put("short", "S", later(10));
+        cache.put("long", "L", later(60));
+
+        clock.advance(Duration.ofSeconds(9));
+        assertEquals("S", cache.get("short"));
+
+        clock.advance(Duration.ofSeconds(1));
+        assertNull(cache.get("short"));
+        assertEquals("L", cache.get("long"));
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    void alreadyExpiredValuesAreNotStored() {
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(10, clock);
+        cache.put("past", "P", later(-1));
+        cache.put("now", "N", later(0));
+
+        assertEquals(0, cache.size());
+        assertNull(cache.get("past"));
+    }
+
+    @Test
+    void countsHitsAndMissesAndSupportsInvalidation() {
+        ExpiringLruCache<String, String> cache = new ExpiringLruCache<>(10, clock);
+        cache.put("a", "A", later(60));
+        cache.put("b", "B", later(60));
+        cache.get("a");
+        cache.get("missing");
+        cache.remove("a");
+        cache.get("a");
+
+        assertEquals(1, cache.hitCount());
+        assertEquals(2, cache.missCount());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void nonPositiveSizeIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new ExpiringLruCache<String, String>(0, clock));
+    }
+
+    private Instant later(long seconds) {
+        return clock.instant().plusSeconds(seconds);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.dto.AuthRequest;
+import com.backend.IMonitoring.dto.AuthResponse;
+import com.backend.IMonitoring.model.Rol;
+import com.backend.IMonitoring.model.User;
+import com.backend.IMonitoring.repository.UserRepository;
+import com.backend.IMonitoring.security.TokenRevocationList;
+import com.backend.IMonitoring.security.UserDetailsImpl;
+import com.backend.IMonitoring.security.UserPrincipalCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AuthServiceTest {
+    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+    private final User user = User.builder().id("u1").email("ana@example.com").name("Ana").role(Rol.ESTUDIANTE)
+            .password(passwordEncoder.encode("secreto")).build();
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final UserPrincipalCache principalCache = new UserPrincipalCache(userRepository, new SimpleMeterRegistry(), 300, 100);
+    private final JwtService jwtService = mock(JwtService.class);
+    private final RefreshTokenService refreshTokenService = mock(RefreshTokenService.class);
+    private final AuthService service = new AuthService(userRepository, passwordEncoder, jwtService,
+            new ProviderManager(provider()), principalCache, mock(TokenRevocationList.class), refreshTokenService);
+
+    private DaoAuthenticationProvider provider() {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(principalCache::loadByEmail);
+        provider.setPasswordEncoder(passwordEncoder);
+        return provider;
+    }
+
+    @Test
+    void loginUsesTheAuthenticatedPrincipalInsteadOfReloadingTheUser() {
+        when(userRepository.findByEmail("ana@example.com")).thenReturn(Optional.of(user));
+        when(jwtService.generateToken(any(UserDetailsImpl.class))).thenReturn("access");
+        when(refreshTokenService.issue(user)).thenReturn("refresh");
+
+        AuthResponse first = service.authenticate(new AuthRequest("ana@example.com", "secreto"));
+        AuthResponse second = service.authenticate(new AuthRequest("ana@example.com", "secreto"));
+
+        assertEquals("access", first.getToken());
+        assertEquals("refresh", second.getRefreshToken());
+        // Una sola lectura: la del primer login al llenar la caché de principales.
+        verify(userRepository, times(1)).findByEmail("ana@example.com");
+        verify(jwtService, times(2)).generateToken(argThat(principal -> principal.getUsername().equals("ana@example.com")));
+    }
+
+    @Test
+    void wrongPasswordIssuesNoTokens() {
+        when(userRepository.findByEmail("ana@example.com")).thenReturn(Optional.of(user));
+
+        assertThrows(BadCredentialsException.class,
+                () -> service.authenticate(new AuthRequest("ana@example.com", "otro")));
+        verify(refreshTokenService, never()).issue(any(User.class));
+    }
+}
@@ -0,0 +1,265 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.availability.BuildingCapacityTimeline;
+import com.backend.IMonitoring.availability.ClassroomAvailabilityIndex;
+import com.backend.IMonitoring.availability.ClassroomCatalog;
+import com.backend.IMonitoring.availability.ClassroomChangedEvent;
+import com.backend.IMonitoring.availability.OccupancyGrid;
+import com.backend.IMonitoring.availability.OccupancyTimingWheel;
+import com.backend.IMonitoring.dto.BuildingDTO;
+import com.backend.IMonitoring.model.Building;
+import com.backend.IMonitoring.model.Classroom;
+import com.backend.IMonitoring.model.ClassroomType;
+import com.backend.IMonitoring.model.Reservation;
+import com.backend.IMonitoring.model.ReservationStatus;
+import com.backend.IMonitoring.repository.BuildingRepository;
+import com.backend.IMonitoring.repository.ClassroomRepository;
+import com.backend.IMonitoring.repository.ReservationRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Listados de edificios con el volumen del campus (50 edificios, 2.000 aulas y 500.000 reservas en
+ * memoria). Las colecciones de las entidades cuentan sus accesos: el listado no debe tocarlas, igual
+ * que sin open-in-view no podría cargarlas de forma perezosa.
+ */
+class BuildingServiceTest {
+    private static final int BUILDINGS = 50;
+    private static final int CLASSROOMS_PER_BUILDING = 40;
+    private static final int RESERVATIONS_PER_CLASSROOM = 250;
+    private static final LocalDate DAY = LocalDate.of(2030, 3, 4);
+
+    private final BuildingRepository buildingRepository = mock(BuildingRepository.class);
+    private final ClassroomRepository classroomRepository = mock(ClassroomRepository.class);
+    private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+    private final ClassroomCatalog catalog = new ClassroomCatalog(classroomRepository);
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final AtomicInteger collectionAccesses = new AtomicInteger();
+
+    private BuildingService service(List<Building> buildings) {
+        for (Building building : buildings) {
+            for (Classroom classroom : building.getClassrooms()) {
+                catalog.onClassroomChanged(new ClassroomChangedEvent(classroom.getId(), classroom));
+            }
+        }
+        collectionAccesses.set(0);
+        when(buildingRepository.findAll(any(Sort.class))).thenReturn(buildings);
+        ClassroomAvailabilityIndex index = new ClassroomAvailabilityIndex(reservationRepository, classroomRepository);
+        ClassroomService classroomService = new ClassroomService(
+                classroomRepository,
+                buildingRepository,
+                reservationRepository,
+                index,
+                catalog,
+                new OccupancyGrid(index, catalog, 15, 62),
+                mock(OccupancyTimingWheel.class),
+                mock(BuildingCapacityTimeline.class),
+                mock(ReservationSeriesService.class),
+                mock(ApplicationEventPublisher.class));
+        return new BuildingService(buildingRepository, classroomRepository, classroomService, catalog,
+                mock(BuildingCapacityTimeline.class));
+    }
+
+    @Test
+    void listingReportsCountsWithoutTouchingEntityCollections() throws Exception {
+        BuildingService service = service(campus(3, 4, 5));
+
+        List<BuildingDTO> buildings = service.getAllBuildings(false);
+        String json = objectMapper.writeValueAsString(buildings);
+
+        assertEquals(3, buildings.size());
+        assertTrue(buildings.stream().allMatch(b -> b.getClassroomCount() == 4 && b.getClassrooms() == null));
+        assertFalse(json.contains("classrooms"), json);
+        assertEquals(0, collectionAccesses.get());
+        verifyNoInteractions(classroomRepository, reservationRepository);
+    }
+
+    @Test
+    void expandedListingIsBuiltFromTheCatalog() throws Exception {
+        BuildingService service = service(campus(2, 3, 5));
+
+        List<BuildingDTO> buildings = service.getAllBuildings(true);
+        String json = objectMapper.writeValueAsString(buildings);
+
+        assertEquals(3, buildings.get(0).getClassrooms().size());
+        assertEquals(List.of("b0-c0", "b0-c1", "b0-c2"),
+                buildings.get(0).getClassrooms().stream().map(c -> c.getName()).toList());
+        assertFalse(json.contains("reservations"), json);
+        assertEquals(0, collectionAccesses.get());
+        verifyNoInteractions(classroomRepository, reservationRepository);
+    }
+
+    @Test
+    void entitiesNeverSerializeTheirCollections() throws Exception {
+        Building building = campus(1, 2, 3).get(0);
+
+        String json = objectMapper.writeValueAsString(building);
+
+        assertFalse(json.contains("classrooms"), json);
+        assertFalse(json.contains("reservations"), json);
+        assertEquals(0, collectionAccesses.get());
+        assertNull(objectMapper.readTree(objectMapper.writeValueAsString(building.getClassrooms().get(0))).get("building"));
+    }
+
+    /**
+     * Compara el listado ligero (y con ?expand=classrooms) con el grafo anidado que se serializaba
+     * antes, reconstruido aquí volviendo a exponer las colecciones.
+     */
+    @Test
+    void slimListingAgainstNestedGraph() throws Exception {
+        List<Building> buildings = campus(BUILDINGS, CLASSROOMS_PER_BUILDING, RESERVATIONS_PER_CLASSROOM);
+        BuildingService service = service(buildings);
+        ObjectMapper nestedMapper = Jackson2ObjectMapperBuilder.json()
+                .annotationIntrospector(new NestedGraphIntrospector())
+                .build();
+
+        long[] slimBytes = new long[1];
+        long[] expandedBytes = new long[1];
+        long[] nestedBytes = new long[1];
+        double slimMillis = medianMillis(() -> slimBytes[0] = size(objectMapper, service.getAllBuildings(false)));
+        double expandedMillis = medianMillis(() -> expandedBytes[0] = size(objectMapper, service.getAllBuildings(true)));
+        assertEquals(0, collectionAccesses.get());
+        double nestedMillis = medianMillis(() -> nestedBytes[0] = size(nestedMapper, buildings));
+
+        System.out.println("BuildingServiceTest: " + BUILDINGS + " edificios, " + BUILDINGS * CLASSROOMS_PER_BUILDING +
+                " aulas, " + BUILDINGS * CLASSROOMS_PER_BUILDING * RESERVATIONS_PER_CLASSROOM + " reservas: " +
+                "ligero " + slimBytes[0] + " B en " + String.format("%.1f", slimMillis) + " ms, " +
+                "expand=classrooms " + expandedBytes[0] + " B en " + String.format("%.1f", expandedMillis) + " ms, " +
+                "grafo anidado " + nestedBytes[0] + " B en " + String.format("%.1f", nestedMillis) + " ms");
+        assertTrue(slimBytes[0] * 1000 < nestedBytes[0], slimBytes[0] + " B vs " + nestedBytes[0] + " B");
+        assertTrue(expandedBytes[0] * 50 < nestedBytes[0], expandedBytes[0] + " B vs " + nestedBytes[0] + " B");
+        assertTrue(expandedMillis < nestedMillis, expandedMillis + " ms vs " + nestedMillis + " ms");
+    }
+
+    private List<Building> campus(int buildings, int classroomsPerBuilding, int reservationsPerClassroom) {
+        List<LocalDateTime> starts = new ArrayList<>();
+        for (int r = 0; r < reservationsPerClassroom; r++) {
+            starts.add(DAY.plusDays(r / 10).atTime(8 + r % 10, 0));
+        }
+        List<Building> result = new ArrayList<>();
+        for (int b = 0; b < buildings; b++) {
+            Building building = Building.builder().id("b" + b).name("Edificio " + b).location("Campus").build();
+            List<Classroom> classrooms = new ArrayList<>();
+            for (int c = 0; c < classroomsPerBuilding; c++) {
+                Classroom classroom = Classroom.builder()
+                        .id(building.getId() + "-c" + c)
+                        .name(building.getId() + "-c" + c)
+                        .capacity(20 + c)
+                        .type(ClassroomType.AULA)
+                        .resources("Proyector")
+                        .building(building)
+                        .build();
+                Reservation[] reservations = new Reservation[reservationsPerClassroom];
+                for (int r = 0; r < reservationsPerClassroom; r++) {
+                    reservations[r] = Reservation.builder()
+                            .id(classroom.getId() + "-r" + r)
+                            .classroom(classroom)
+                            .startTime(starts.get(r))
+                            .endTime(starts.get(r).plusMinutes(50))
+                            .status(ReservationStatus.CONFIRMADA)
+                            .purpose("Clase")
+                            .build();
+                }
+                classroom.setReservations(tracked(Arrays.asList(reservations)));
+                classrooms.add(classroom);
+            }
+            building.setClassrooms(tracked(classrooms));
+            result.add(building);
+        }
+        return result;
+    }
+
+    /**
+     * Envoltorio que cuenta cada acceso, como lo haría una colección perezosa al inicializarse.
+     */
+    private <T> List<T> tracked(List<T> delegate) {
+        return new AbstractList<>() {
+            @Override
+            public T get(int i) {
+                collectionAccesses.incrementAndGet();
+                return delegate.get(i);
+            }
+
+            @Override
+            public int size() {
+                collectionAccesses.incrementAndGet();
+                return delegate.size();
+            }
+        };
+    }
+
+    private static long size(ObjectMapper mapper, Object value) {
+        CountingOutputStream out = new CountingOutputStream();
+        try {
+            mapper.writeValue(out, value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.count;
+    }
+
+    private static double medianMillis(Runnable run) {
+        double[] samples = new double[5];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            run.run();
+            samples[i] = (System.nanoTime() - start) / 1e6;
+        }
+        Arrays.sort(samples);
+        return samples[samples.length / 2];
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    /**
+     * Vuelve a exponer Building.classrooms y Classroom.reservations, como el antiguo
+     * {@code @JsonManagedReference}; los punteros de vuelta siguen ignorados.
+     */
+    private static final class NestedGraphIntrospector extends JacksonAnnotationIntrospector {
+        @Override
+        public boolean hasIgnoreMarker(AnnotatedMember member) {
+            // Lombok copia @JsonIgnore al getter y al setter: hay que liberar los tres miembros.
+            String name = member.getName().replaceFirst("^[gs]et", "");
+            if (name.equalsIgnoreCase("classrooms") || name.equalsIgnoreCase("reservations")) {
+                return false;
+            }
+            return super.hasIgnoreMarker(member);
+        }
+    }
+}
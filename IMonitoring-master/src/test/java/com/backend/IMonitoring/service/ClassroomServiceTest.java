@@ -0,0 +1,357 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.availability.BuildingCapacityTimeline;
+import com.backend.IMonitoring.availability.ClassroomAvailabilityIndex;
+import com.backend.IMonitoring.availability.ClassroomCatalog;
+import com.backend.IMonitoring.availability.ClassroomChangedEvent;
+import com.backend.IMonitoring.availability.OccupancyGrid;
+import com.backend.IMonitoring.availability.OccupancyTimingWheel;
+import com.backend.IMonitoring.availability.ReservationSlot;
+import com.backend.IMonitoring.availability.TimeWindow;
+import com.backend.IMonitoring.dto.AvailabilityRequest;
+import com.backend.IMonitoring.dto.ClassroomDTO;
+import com.backend.IMonitoring.dto.FreeSlotDTO;
+import com.backend.IMonitoring.exceptions.InvalidReservationException;
+import com.backend.IMonitoring.exceptions.ResourceNotFoundException;
+import com.backend.IMonitoring.model.Building;
+import com.backend.IMonitoring.model.Classroom;
+import com.backend.IMonitoring.model.ClassroomType;
+import com.backend.IMonitoring.model.Reservation;
+import com.backend.IMonitoring.model.ReservationStatus;
+import com.backend.IMonitoring.repository.BuildingRepository;
+import com.backend.IMonitoring.repository.ClassroomRepository;
+import com.backend.IMonitoring.repository.ReservationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ClassroomServiceTest {
+    private static final LocalDate DAY = LocalDate.of(2030, 3, 4);
+
+    private final ClassroomRepository classroomRepository = mock(ClassroomRepository.class);
+    private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+    private final ClassroomCatalog catalog = new ClassroomCatalog(classroomRepository);
+    private final ClassroomAvailabilityIndex index = new ClassroomAvailabilityIndex(reservationRepository, classroomRepository);
+    private final OccupancyGrid grid = new OccupancyGrid(index, catalog, 15, 36_500);
+    private final ReservationSeriesService seriesService = mock(ReservationSeriesService.class);
+
+    private ClassroomService service(List<ReservationSlot> confirmed, Classroom... classrooms) {
+        Arrays.stream(classrooms).forEach(c -> catalog.onClassroomChanged(new ClassroomChangedEvent(c.getId(), c)));
+        when(reservationRepository.findSlotsByStatus(ReservationStatus.CONFIRMADA)).thenReturn(confirmed);
+        index.load();
+        ClassroomService service = new ClassroomService(
+                classroomRepository,
+                mock(BuildingRepository.class),
+                reservationRepository,
+                index,
+                catalog,
+                grid,
+                mock(OccupancyTimingWheel.class),
+                mock(BuildingCapacityTimeline.class),
+                seriesService,
+                mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(service, "freeSlotsMaxDays", 366L);
+        ReflectionTestUtils.setField(service, "searchMaxDays", 31L);
+        return service;
+    }
+
+    /**
+     * Servicio con un índice sin cargar: las consultas van al repositorio, que responde filtrando
+     * {@code confirmed} como lo haría la consulta nativa.
+     */
+    private ClassroomService unindexedService(List<ReservationSlot> confirmed, Classroom... classrooms) {
+        Arrays.stream(classrooms).forEach(c -> catalog.onClassroomChanged(new ClassroomChangedEvent(c.getId(), c)));
+        when(reservationRepository.findByClassroomIdAndDateTimeRange(anyString(), any(), any())).thenAnswer(invocation -> {
+            String classroomId = invocation.getArgument(0);
+            LocalDateTime start = invocation.getArgument(1);
+            LocalDateTime end = invocation.getArgument(2);
+            return confirmed.stream()
+                    .filter(slot -> slot.getClassroomId().equals(classroomId) && slot.overlaps(start, end))
+                    .map(slot -> Reservation.builder()
+                            .id(slot.getId())
+                            .classroom(Classroom.builder().id(slot.getClassroomId()).build())
+                            .startTime(slot.getStartTime())
+                            .endTime(slot.getEndTime())
+                            .status(ReservationStatus.CONFIRMADA)
+                            .build())
+                    .collect(Collectors.toList());
+        });
+        ClassroomService service = new ClassroomService(
+                classroomRepository,
+                mock(BuildingRepository.class),
+                reservationRepository,
+                new ClassroomAvailabilityIndex(reservationRepository, classroomRepository),
+                catalog,
+                grid,
+                mock(OccupancyTimingWheel.class),
+                mock(BuildingCapacityTimeline.class),
+                seriesService,
+                mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(service, "freeSlotsMaxDays", 366L);
+        ReflectionTestUtils.setField(service, "searchMaxDays", 31L);
+        return service;
+    }
+
+    private static double medianMillis(Runnable action) {
+        int runs = 30;
+        long[] nanos = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long begin = System.nanoTime();
+            action.run();
+            nanos[i] = System.nanoTime() - begin;
+        }
+        Arrays.sort(nanos);
+        return nanos[runs / 2] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Test
+    void searchAvailableRanksPreferredBuildingThenSmallestFit() {
+        ClassroomService service = service(
+                List.of(confirmed("r1", "busy", DAY.atTime(9, 0), DAY.atTime(11, 0))),
+                classroom("busy", "b1", 30, "proyector"),
+                classroom("big", "b2", 100, "proyector"),
+                classroom("small", "b2", 35, "proyector, pizarra"),
+                classroom("near", "b1", 60, "Proyector"),
+                classroom("tiny", "b1", 10, "proyector"));
+
+        List<ClassroomDTO> result = service.searchAvailable(
+                DAY.atTime(10, 0), DAY.atTime(12, 0), 30, ClassroomType.AULA, "b1", List.of("proyector"));
+
+        assertEquals(List.of("near", "small", "big"), result.stream().map(ClassroomDTO::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void searchAvailableTreatsTouchingReservationsAsFree() {
+        ClassroomService service = service(
+                List.of(confirmed("r1", "a", DAY.atTime(8, 0), DAY.atTime(10, 0)),
+                        confirmed("r2", "a", DAY.atTime(12, 0), DAY.atTime(13, 0))),
+                classroom("a", "b1", 20, null));
+
+        assertEquals(1, service.searchAvailable(DAY.atTime(10, 0), DAY.atTime(12, 0), null, null, null, null).size());
+        assertEquals(0, service.searchAvailable(DAY.atTime(9, 59), DAY.atTime(12, 0), null, null, null, null).size());
+        assertEquals(0, service.searchAvailable(DAY.atTime(10, 0), DAY.atTime(12, 1), null, null, null, null).size());
+    }
+
+    @Test
+    void searchAvailableRejectsInvalidAndOversizedRanges() {
+        ClassroomService service = service(List.of(), classroom("a", "b1", 20, null));
+
+        assertThrows(InvalidReservationException.class,
+                () -> service.searchAvailable(DAY.atTime(12, 0), DAY.atTime(12, 0), null, null, null, null));
+        assertThrows(InvalidReservationException.class,
+                () -> service.searchAvailable(DAY.atStartOfDay(), DAY.plusDays(31).atStartOfDay(), null, null, null, null));
+        assertThrows(InvalidReservationException.class,
+                () -> service.searchAvailable(DAY.atTime(10, 0), DAY.atTime(11, 0), -1, null, null, null));
+    }
+
+    @Test
+    void findFreeSlotsReturnsGapsClippedToOpeningHours() {
+        ClassroomService service = service(
+                List.of(confirmed("r1", "a", DAY.atTime(9, 0), DAY.atTime(10, 0)),
+                        confirmed("r2", "a", DAY.atTime(10, 0), DAY.atTime(11, 30)),
+                        confirmed("r3", "a", DAY.atTime(12, 0), DAY.atTime(12, 20))),
+                classroom("a", "b1", 20, null));
+
+        List<FreeSlotDTO> slots = service.findFreeSlots(List.of("a"), DAY.atStartOfDay(), DAY.plusDays(2).atStartOfDay(),
+                Duration.ofMinutes(30), LocalTime.of(8, 0), LocalTime.of(14, 0)).collect(Collectors.toList());
+
+        assertEquals(List.of(
+                new FreeSlotDTO("a", DAY.atTime(8, 0), DAY.atTime(9, 0)),
+                new FreeSlotDTO("a", DAY.atTime(11, 30), DAY.atTime(12, 0)),
+                new FreeSlotDTO("a", DAY.atTime(12, 20), DAY.atTime(14, 0)),
+                new FreeSlotDTO("a", DAY.plusDays(1).atTime(8, 0), DAY.plusDays(1).atTime(14, 0))), slots);
+    }
+
+    @Test
+    void findFreeSlotsRejectsInvalidParametersAsBadRequest() {
+        ClassroomService service = service(List.of(), classroom("a", "b1", 20, null));
+        LocalDateTime start = DAY.atStartOfDay();
+
+        assertThrows(InvalidReservationException.class,
+                () -> service.findFreeSlots(List.of(), start, start.plusDays(1), Duration.ZERO, null, null));
+        assertThrows(InvalidReservationException.class,
+                () -> service.findFreeSlots(List.of("a"), start, start, Duration.ZERO, null, null));
+        assertThrows(InvalidReservationException.class,
+                () -> service.findFreeSlots(List.of("a"), start, start.plusDays(367), Duration.ZERO, null, null));
+        assertThrows(InvalidReservationException.class,
+                () -> service.findFreeSlots(List.of("a"), start, start.plusDays(1), Duration.ofMinutes(-1), null, null));
+        assertThrows(InvalidReservationException.class,
+                () -> service.findFreeSlots(List.of("a"), start, start.plusDays(1), Duration.ZERO, LocalTime.NOON, LocalTime.NOON));
+        assertThrows(ResourceNotFoundException.class,
+                () -> service.findFreeSlots(List.of("missing"), start, start.plusDays(1), Duration.ZERO, null, null));
+    }
+
+    @Test
+    void checkAvailabilityBatchHandlesBoundariesAndUnknownClassrooms() {
+        List<ReservationSlot> confirmed = List.of(
+                confirmed("r1", "a", DAY.atTime(9, 0), DAY.atTime(10, 0)),
+                confirmed("r2", "a", DAY.atTime(10, 0), DAY.atTime(11, 0)),
+                confirmed("r3", "a", DAY.atTime(13, 0), DAY.atTime(14, 0)));
+        List<AvailabilityRequest> checks = List.of(
+                new AvailabilityRequest("a", DAY.atTime(11, 0), DAY.atTime(13, 0)),
+                new AvailabilityRequest("a", DAY.atTime(8, 0), DAY.atTime(9, 0)),
+                new AvailabilityRequest("a", DAY.atTime(10, 30), DAY.atTime(10, 45)),
+                new AvailabilityRequest("a", DAY.atTime(8, 0), DAY.atTime(15, 0)),
+                new AvailabilityRequest("a", DAY.atTime(12, 59), DAY.atTime(13, 1)),
+                new AvailabilityRequest("b", DAY.atTime(9, 0), DAY.atTime(10, 0)),
+                new AvailabilityRequest("missing", DAY.atTime(9, 0), DAY.atTime(10, 0)),
+                new AvailabilityRequest("b", DAY.atTime(10, 0), DAY.atTime(9, 0)));
+        boolean[] expected = {true, true, false, false, false, true, false, false};
+        Classroom a = classroom("a", "b1", 20, null);
+        Classroom b = classroom("b", "b1", 20, null);
+
+        assertArrayEquals(expected, service(confirmed, a, b).checkAvailabilityBatch(checks));
+        assertArrayEquals(expected, unindexedService(confirmed, a, b).checkAvailabilityBatch(checks));
+    }
+
+    /**
+     * Una sesión de serie confirmada más allá del horizonte de materialización no está en el índice:
+     * todos los caminos de lectura deben darla por ocupada.
+     */
+    @Test
+    void unmaterializedSeriesSessionsAreBusyOnReadPaths() {
+        Classroom a = classroom("a", "b1", 20, null);
+        Classroom b = classroom("b", "b1", 40, null);
+        TimeWindow session = new TimeWindow(DAY.atTime(10, 0), DAY.atTime(11, 0));
+        when(seriesService.findUnmaterializedWindows(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> session.overlaps(new TimeWindow(invocation.getArgument(0), invocation.getArgument(1)))
+                        ? Map.of("a", List.of(session)) : Map.of());
+        when(seriesService.findUnmaterializedWindows(eq("a"), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> session.overlaps(new TimeWindow(invocation.getArgument(1), invocation.getArgument(2)))
+                        ? List.of(session) : List.of());
+        List<AvailabilityRequest> checks = List.of(
+                new AvailabilityRequest("a", DAY.atTime(10, 30), DAY.atTime(12, 0)),
+                new AvailabilityRequest("a", DAY.atTime(11, 0), DAY.atTime(12, 0)),
+                new AvailabilityRequest("b", DAY.atTime(10, 30), DAY.atTime(12, 0)));
+
+        ClassroomService service = service(List.of(), a, b);
+        assertFalse(service.checkAvailability(new AvailabilityRequest("a", DAY.atTime(9, 30), DAY.atTime(10, 30))));
+        assertTrue(service.checkAvailability(new AvailabilityRequest("a", DAY.atTime(11, 0), DAY.atTime(12, 0))));
+        assertArrayEquals(new boolean[]{false, true, true}, service.checkAvailabilityBatch(checks));
+        assertEquals(List.of("b"), service.searchAvailable(DAY.atTime(9, 0), DAY.atTime(12, 0), null, null, null, null)
+                .stream().map(ClassroomDTO::getId).collect(Collectors.toList()));
+        assertEquals(List.of(
+                new FreeSlotDTO("a", DAY.atTime(8, 0), DAY.atTime(10, 0)),
+                new FreeSlotDTO("a", DAY.atTime(11, 0), DAY.atTime(14, 0))),
+                service.findFreeSlots(List.of("a"), DAY.atTime(8, 0), DAY.atTime(14, 0), Duration.ZERO, null, null)
+                        .collect(Collectors.toList()));
+
+        assertArrayEquals(new boolean[]{false, true, true}, unindexedService(List.of(), a, b).checkAvailabilityBatch(checks));
+    }
+
+    /**
+     * Con el índice sin cargar, el barrido debe coincidir con el índice en memoria y hacer una sola
+     * consulta por aula. Se mide además el tiempo de cada camino con 5.000 comprobaciones sobre 200
+     * aulas (el barrido sobre repositorio simulado no incluye la latencia real de la base de datos).
+     */
+    @Test
+    void checkAvailabilityBatchSweepMatchesIndexWithOneQueryPerClassroom() {
+        Random random = new Random(42);
+        List<Classroom> rooms = new ArrayList<>();
+        List<ReservationSlot> confirmed = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String id = "c" + i;
+            rooms.add(classroom(id, "b" + (i % 5), 30, null));
+            LocalDateTime cursor = DAY.atTime(7, 0);
+            for (int r = 0; r < 10; r++) {
+                cursor = cursor.plusMinutes(15L * random.nextInt(6));
+                LocalDateTime end = cursor.plusMinutes(15L * (1 + random.nextInt(6)));
+                confirmed.add(confirmed(id + "-" + r, id, cursor, end));
+                cursor = end;
+            }
+        }
+        List<AvailabilityRequest> checks = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            LocalDateTime start = DAY.atTime(6, 0).plusMinutes(5L * random.nextInt(200));
+            checks.add(new AvailabilityRequest("c" + random.nextInt(200), start, start.plusMinutes(5L * (1 + random.nextInt(24)))));
+        }
+        ClassroomService indexed = service(confirmed, rooms.toArray(new Classroom[0]));
+        ClassroomService unindexed = unindexedService(confirmed, rooms.toArray(new Classroom[0]));
+
+        boolean[] expected = indexed.checkAvailabilityBatch(checks);
+        assertArrayEquals(expected, unindexed.checkAvailabilityBatch(checks));
+        verify(reservationRepository, times(200)).findByClassroomIdAndDateTimeRange(anyString(), any(), any());
+
+        System.out.println("ClassroomServiceTest: " + checks.size() + " comprobaciones, mediana con índice " +
+                String.format("%.3f", medianMillis(() -> indexed.checkAvailabilityBatch(checks))) + " ms, barrido sin índice " +
+                String.format("%.3f", medianMillis(() -> unindexed.checkAvailabilityBatch(checks))) + " ms");
+    }
+
+    /**
+     * Medida de la búsqueda con 2.000 aulas y ocho reservas por aula en el día consultado, con la
+     * rejilla del día ya construida (la primera llamada la materializa).
+     */
+    @Test
+    void searchAvailableOverTwoThousandClassroomsStaysUnderTenMillis() {
+        int classrooms = 2_000;
+        List<Classroom> rooms = new ArrayList<>();
+        List<ReservationSlot> confirmed = new ArrayList<>();
+        for (int i = 0; i < classrooms; i++) {
+            String id = "c" + i;
+            rooms.add(classroom(id, "b" + (i % 20), 10 + (i % 200), i % 3 == 0 ? "proyector" : "pizarra"));
+            for (int h = 0; h < 8; h++) {
+                LocalDateTime start = DAY.atTime(8 + h, (i % 4) * 15);
+                confirmed.add(confirmed(id + "-" + h, id, start, start.plusMinutes(30)));
+            }
+        }
+        ClassroomService service = service(confirmed, rooms.toArray(new Classroom[0]));
+
+        LocalDateTime start = DAY.atTime(10, 40);
+        LocalDateTime end = DAY.atTime(11, 50);
+        for (int i = 0; i < 50; i++) {
+            service.searchAvailable(start, end, 20, null, "b3", List.of("proyector"));
+        }
+        int runs = 200;
+        long[] nanos = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long begin = System.nanoTime();
+            service.searchAvailable(start, end, 20, null, "b3", List.of("proyector"));
+            nanos[i] = System.nanoTime() - begin;
+        }
+        Arrays.sort(nanos);
+        double medianMillis = nanos[runs / 2] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        System.out.println("ClassroomServiceTest: searchAvailable con " + classrooms + " aulas, mediana " +
+                String.format("%.3f", medianMillis) + " ms");
+        assertTrue(medianMillis < 10, "mediana " + medianMillis + " ms");
+    }
+
+    static Classroom classroom(String id, String buildingId, int capacity, String resources) {
+        return Classroom.builder()
+                .id(id)
+                .name("Aula " + id)
+                .capacity(capacity)
+                .type(ClassroomType.AULA)
+                .resources(resources)
+                .building(Building.builder().id(buildingId).build())
+                .build();
+    }
+
+    static ReservationSlot confirmed(String id, String classroomId, LocalDateTime start, LocalDateTime end) {
+        return new ReservationSlot(id, classroomId, "u1", start, end, ReservationStatus.CONFIRMADA, null);
+    }
+}
@@ -0,0 +1,110 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.security.JwtClaims;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtServiceTest {
+    private static final String SECRET = Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+    private static final String OTHER_SECRET = Base64.getEncoder().encodeToString("fedcba9876543210fedcba9876543210".getBytes());
+
+    private final UserDetails user = User.withUsername("ana@example.com").password("x").roles("ESTUDIANTE").build();
+
+    @Test
+    void generatedTokenVerifiesWithItsClaims() {
+        JwtService jwtService = new JwtService(SECRET, 60_000, 100);
+        String token = jwtService.generateToken(Map.of("userId", "u1", "ver", 3, "authorities", List.of("ROLE_ESTUDIANTE")), user);
+
+        JwtClaims claims = jwtService.verify(token);
+
+        assertNotNull(claims);
+        assertEquals("ana@example.com", claims.getSubject());
+        assertEquals("u1", claims.getUserId());
+        assertEquals(3, claims.getTokenVersion());
+        assertEquals(List.of("ROLE_ESTUDIANTE"), claims.getAuthorities());
+        assertTrue(jwtService.isTokenValid(token, user));
+        assertEquals("ana@example.com", jwtService.extractUsername(token));
+    }
+
+    @Test
+    void repeatedVerificationIsServedFromTheCache() {
+        JwtService jwtService = new JwtService(SECRET, 60_000, 100);
+        String token = jwtService.generateToken(Map.of(), user);
+
+        assertSame(jwtService.verify(token), jwtService.verify(token));
+    }
+
+    @Test
+    void tamperedExpiredAndForeignTokensAreRejected() {
+        JwtService jwtService = new JwtService(SECRET, 60_000, 100);
+        String token = jwtService.generateToken(Map.of(), user);
+        String[] parts = token.split("\\.");
+        String tampered = parts[0] + "." + parts[1] + "." + (parts[2].charAt(0) == 'A' ? 'B' : 'A') + parts[2].substring(1);
+
+        assertNull(jwtService.verify(tampered));
+        assertNull(jwtService.verify(new JwtService(SECRET, -1_000, 100).generateToken(Map.of(), user)));
+        assertNull(jwtService.verify(new JwtService(OTHER_SECRET, 60_000, 100).generateToken(Map.of(), user)));
+        assertNull(jwtService.verify("no-es-un-jwt"));
+        assertNull(jwtService.verify(""));
+        assertFalse(jwtService.isTokenValid(tampered, user));
+    }
+
+    @Test
+    void shortOrMalformedSecretFailsAtConstruction() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new JwtService(Base64.getEncoder().encodeToString("corta".getBytes()), 60_000, 100));
+        assertThrows(RuntimeException.class, () -> new JwtService("%%%", 60_000, 100));
+    }
+
+    /**
+     * Medida: verificación completa (firma HMAC + parseo) frente a la respuesta desde la caché de
+     * tokens ya verificados, con 2.000 tokens distintos.
+     */
+    @Test
+    void cachedVerificationIsCheaperThanParsing() {
+        int tokens = 2_000;
+        String[] issued = new String[tokens];
+        JwtService issuer = new JwtService(SECRET, 60_000, tokens);
+        for (int i = 0; i < tokens; i++) {
+            issued[i] = issuer.generateToken(Map.of("userId", "u" + i), user);
+        }
+
+        long[] parseNanos = new long[5];
+        long[] cachedNanos = new long[5];
+        for (int run = 0; run < parseNanos.length; run++) {
+            JwtService jwtService = new JwtService(SECRET, 60_000, tokens);
+            long begin = System.nanoTime();
+            for (String token : issued) {
+                jwtService.verify(token);
+            }
+            parseNanos[run] = System.nanoTime() - begin;
+            begin = System.nanoTime();
+            for (String token : issued) {
+                jwtService.verify(token);
+            }
+            cachedNanos[run] = System.nanoTime() - begin;
+        }
+        Arrays.sort(parseNanos);
+        Arrays.sort(cachedNanos);
+        double parseMicros = parseNanos[2] / (double) tokens / TimeUnit.MICROSECONDS.toNanos(1);
+        double cachedMicros = cachedNanos[2] / (double) tokens / TimeUnit.MICROSECONDS.toNanos(1);
+        System.out.println("JwtServiceTest: verificación completa " + String.format("%.2f", parseMicros) +
+                " us/token, desde caché " + String.format("%.2f", cachedMicros) + " us/token");
+        assertTrue(cachedMicros < parseMicros, cachedMicros + " >= " + parseMicros);
+    }
+}
@@ -0,0 +1,189 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.availability.ClassroomCatalog;
+import com.backend.IMonitoring.availability.ClassroomChangedEvent;
+import com.backend.IMonitoring.availability.ClassroomOccupancyChangedEvent;
+import com.backend.IMonitoring.availability.ReservationChangedEvent;
+import com.backend.IMonitoring.availability.ReservationSlot;
+import com.backend.IMonitoring.model.Classroom;
+import com.backend.IMonitoring.model.ReservationStatus;
+import com.backend.IMonitoring.repository.ClassroomRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.backend.IMonitoring.service.ClassroomServiceTest.classroom;
+import static com.backend.IMonitoring.service.ClassroomServiceTest.confirmed;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class OccupancyStreamServiceTest {
+    private static final LocalDate DAY = LocalDate.of(2030, 3, 4);
+
+    private final ClassroomCatalog catalog = new ClassroomCatalog(mock(ClassroomRepository.class));
+    // Como el ObjectMapper de Spring Boot: fechas en ISO-8601.
+    private final ObjectMapper objectMapper = spy(Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build());
+    private final OccupancyStreamService service = new OccupancyStreamService(catalog, objectMapper, 60_000, 2);
+
+    @AfterEach
+    void stop() {
+        service.stop();
+    }
+
+    @Test
+    void eachEventIsSerializedOnceAndSentToEverySubscriber() throws Exception {
+        StubEmitter first = subscribe(null);
+        StubEmitter second = subscribe(null);
+
+        service.onOccupancyChanged(new ClassroomOccupancyChangedEvent("a", "b1", true));
+
+        for (StubEmitter emitter : new StubEmitter[]{first, second}) {
+            String event = emitter.next();
+            assertTrue(event.contains("event:OCCUPANCY"), event);
+            assertTrue(event.contains("\"classroomId\":\"a\"") && event.contains("\"occupied\":true"), event);
+        }
+        verify(objectMapper, times(1)).writeValueAsString(any());
+    }
+
+    @Test
+    void subscribersOnlyReceiveTheirBuilding() throws Exception {
+        StubEmitter b1 = subscribe("b1");
+        StubEmitter b2 = subscribe("b2");
+        StubEmitter all = subscribe(" ");
+
+        service.onOccupancyChanged(new ClassroomOccupancyChangedEvent("a", "b1", true));
+        service.onOccupancyChanged(new ClassroomOccupancyChangedEvent("c", "b2", false));
+
+        assertTrue(b1.next().contains("\"classroomId\":\"a\""));
+        assertTrue(b2.next().contains("\"classroomId\":\"c\""));
+        assertTrue(all.next().contains("\"classroomId\":\"a\""));
+        assertTrue(all.next().contains("\"classroomId\":\"c\""));
+        assertTrue(b1.nothingElse());
+        assertTrue(b2.nothingElse());
+    }
+
+    /**
+     * La cola de cada suscriptor admite dos eventos: con el envío bloqueado, el cuarto ya no cabe
+     * y se cierra esa conexión sin retrasar a los demás.
+     */
+    @Test
+    void slowSubscriberIsDroppedWhenItsQueueFills() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        StubEmitter slow = subscribe(null, release);
+        StubEmitter fast = subscribe(null);
+
+        for (int i = 0; i < 4; i++) {
+            service.onOccupancyChanged(new ClassroomOccupancyChangedEvent("a" + i, "b1", true));
+        }
+
+        assertTrue(slow.completed);
+        assertEquals(1, service.subscriberCount());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(fast.next().contains("\"classroomId\":\"a" + i + "\""));
+        }
+        release.countDown();
+        service.onOccupancyChanged(new ClassroomOccupancyChangedEvent("late", "b1", true));
+        assertTrue(fast.next().contains("\"classroomId\":\"late\""));
+        assertFalse(slow.received.stream().anyMatch(event -> event.contains("\"classroomId\":\"late\"")));
+    }
+
+    @Test
+    void confirmedReservationsOnlyPublishWhenTheirWindowChanges() throws Exception {
+        Classroom classroom = classroom("a", "b1", 30, null);
+        catalog.onClassroomChanged(new ClassroomChangedEvent(classroom.getId(), classroom));
+        StubEmitter emitter = subscribe(null);
+        ReservationSlot original = confirmed("r1", "a", DAY.atTime(10, 0), DAY.atTime(11, 0));
+        ReservationSlot renamed = new ReservationSlot("r1", "a", "u1", DAY.atTime(10, 0), DAY.atTime(11, 0),
+                ReservationStatus.CONFIRMADA, "Otra descripción");
+        ReservationSlot moved = confirmed("r1", "a", DAY.atTime(11, 0), DAY.atTime(12, 0));
+
+        service.onReservationChanged(new ReservationChangedEvent(original, renamed));
+        service.onReservationChanged(new ReservationChangedEvent(renamed, moved));
+
+        String freed = emitter.next();
+        String taken = emitter.next();
+        assertTrue(freed.contains("event:SCHEDULE") && freed.contains("\"occupied\":false")
+                && freed.contains("\"startTime\":\"2030-03-04T10:00:00\"") && freed.contains("\"buildingId\":\"b1\""), freed);
+        assertTrue(taken.contains("\"occupied\":true") && taken.contains("\"startTime\":\"2030-03-04T11:00:00\""), taken);
+        assertTrue(emitter.nothingElse());
+    }
+
+    private StubEmitter subscribe(String buildingId) {
+        return subscribe(buildingId, null);
+    }
+
+    private StubEmitter subscribe(String buildingId, CountDownLatch release) {
+        StubEmitter emitter = new StubEmitter(release);
+        service.register(emitter, buildingId);
+        return emitter;
+    }
+
+    /**
+     * Guarda el texto de cada evento enviado; con {@code release} cada envío espera a que se abra.
+     */
+    private static final class StubEmitter extends SseEmitter {
+        private final BlockingQueue<String> received = new LinkedBlockingQueue<>();
+        private final CountDownLatch release;
+        private volatile boolean completed;
+
+        private StubEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            received.add(builder.build().stream()
+                    .map(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .map(String::valueOf)
+                    .collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        @Override
+        public void completeWithError(Throwable error) {
+            completed = true;
+        }
+
+        private String next() throws InterruptedException {
+            String event = received.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event, "No llegó ningún evento");
+            return event;
+        }
+
+        private boolean nothingElse() throws InterruptedException {
+            return received.poll(200, TimeUnit.MILLISECONDS) == null;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.exceptions.InvalidRefreshTokenException;
+import com.backend.IMonitoring.model.RefreshToken;
+import com.backend.IMonitoring.model.Rol;
+import com.backend.IMonitoring.model.User;
+import com.backend.IMonitoring.repository.RefreshTokenRepository;
+import com.backend.IMonitoring.security.TokenDigests;
+import com.backend.IMonitoring.security.UserDetailsImpl;
+import com.backend.IMonitoring.security.UserPrincipalCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenServiceTest {
+    private final Map<String, RefreshToken> tokensByHash = new ConcurrentHashMap<>();
+    private final RefreshTokenRepository repository = inMemoryRepository(tokensByHash);
+    private final UserPrincipalCache principalCache = mock(UserPrincipalCache.class);
+    private final RefreshTokenService service = new RefreshTokenService(repository, principalCache, 14);
+    private final User user = User.builder().id("u1").email("ana@example.com").name("Ana").role(Rol.ESTUDIANTE).tokenVersion(2).build();
+
+    @Test
+    void rotationRevokesTheUsedTokenAndIssuesOneInTheSameFamily() {
+        when(principalCache.loadById("u1")).thenReturn(new UserDetailsImpl(user));
+        String first = service.issue(user);
+
+        RefreshTokenService.Rotation rotation = service.rotate(first);
+
+        assertEquals("u1", rotation.getPrincipal().getId());
+        assertNotEquals(first, rotation.getRefreshToken());
+        RefreshToken used = stored(first);
+        RefreshToken next = stored(rotation.getRefreshToken());
+        assertNotNull(used.getRevokedAt());
+        assertNull(next.getRevokedAt());
+        assertEquals(used.getFamilyId(), next.getFamilyId());
+        assertEquals(2, next.getTokenVersion());
+        assertSame(rotation.getPrincipal(), service.rotate(rotation.getRefreshToken()).getPrincipal());
+    }
+
+    @Test
+    void reusingARotatedTokenRevokesTheWholeFamily() {
+        when(principalCache.loadById("u1")).thenReturn(new UserDetailsImpl(user));
+        String first = service.issue(user);
+        String second = service.rotate(first).getRefreshToken();
+        String otherSession = service.issue(user);
+
+        assertThrows(InvalidRefreshTokenException.class, () -> service.rotate(first));
+
+        assertNotNull(stored(second).getRevokedAt());
+        assertThrows(InvalidRefreshTokenException.class, () -> service.rotate(second));
+        assertNull(stored(otherSession).getRevokedAt());
+        assertNotNull(service.rotate(otherSession).getRefreshToken());
+    }
+
+    @Test
+    void bumpedTokenVersionInvalidatesTheFamily() {
+        String token = service.issue(user);
+        User bumped = User.builder().id("u1").email("ana@example.com").role(Rol.ESTUDIANTE).tokenVersion(3).build();
+        when(principalCache.loadById("u1")).thenReturn(new UserDetailsImpl(bumped));
+
+        assertThrows(InvalidRefreshTokenException.class, () -> service.rotate(token));
+        assertNotNull(stored(token).getRevokedAt());
+    }
+
+    @Test
+    void unknownExpiredAndOrphanTokensAreRejected() {
+        assertThrows(InvalidRefreshTokenException.class, () -> service.rotate(null));
+        assertThrows(InvalidRefreshTokenException.class, () -> service.rotate("desconocido"));
+
+        String expired = service.issue(user);
+        stored(expired).setExpiresAt(LocalDateTime.now().minusSeconds(1));
+        assertThrows(InvalidRefreshTokenException.class, () -> service.rotate(expired));
+
+        String orphan = service.issue(user);
+        when(principalCache.loadById("u1")).thenThrow(new UsernameNotFoundException("u1"));
+        assertThrows(InvalidRefreshTokenException.class, () -> service.rotate(orphan));
+        assertNotNull(stored(orphan).getRevokedAt());
+    }
+
+    @Test
+    void logoutRevokesTheFamily() {
+        when(principalCache.loadById("u1")).thenReturn(new UserDetailsImpl(user));
+        String first = service.issue(user);
+        String second = service.rotate(first).getRefreshToken();
+
+        service.revoke(second);
+
+        assertThrows(InvalidRefreshTokenException.class, () -> service.rotate(second));
+    }
+
+    /**
+     * Medida: renovar con refresh token (SHA-256 + búsqueda por hash) frente a comprobar la
+     * contraseña con BCrypt como en el login. El repositorio es en memoria, así que la cifra de la
+     * renovación no incluye el viaje a la base de datos.
+     */
+    @Test
+    void refreshIsCheaperThanPasswordLogin() {
+        when(principalCache.loadById("u1")).thenReturn(new UserDetailsImpl(user));
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+        String hash = encoder.encode("secreto");
+
+        String token = service.issue(user);
+        for (int i = 0; i < 200; i++) {
+            token = service.rotate(token).getRefreshToken();
+        }
+        int rotations = 2_000;
+        long begin = System.nanoTime();
+        for (int i = 0; i < rotations; i++) {
+            token = service.rotate(token).getRefreshToken();
+        }
+        double refreshMicros = (System.nanoTime() - begin) / (double) rotations / TimeUnit.MICROSECONDS.toNanos(1);
+
+        int logins = 10;
+        begin = System.nanoTime();
+        for (int i = 0; i < logins; i++) {
+            assertTrue(encoder.matches("secreto", hash));
+        }
+        double loginMicros = (System.nanoTime() - begin) / (double) logins / TimeUnit.MICROSECONDS.toNanos(1);
+
+        System.out.println("RefreshTokenServiceTest: renovación " + String.format("%.1f", refreshMicros) +
+                " us, BCrypt " + String.format("%.1f", loginMicros) + " us");
+        assertTrue(refreshMicros * 10 < loginMicros, refreshMicros + " us frente a " + loginMicros + " us");
+    }
+
+    private RefreshToken stored(String rawToken) {
+        return tokensByHash.get(TokenDigests.sha256(rawToken));
+    }
+
+    private static RefreshTokenRepository inMemoryRepository(Map<String, RefreshToken> tokensByHash) {
+        RefreshTokenRepository repository = mock(RefreshTokenRepository.class);
+        when(repository.save(any(RefreshToken.class))).thenAnswer(invocation -> {
+            RefreshToken token = invocation.getArgument(0);
+            tokensByHash.put(token.getTokenHash(), token);
+            return token;
+        });
+        when(repository.findByTokenHash(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(tokensByHash.get(invocation.<String>getArgument(0))));
+        when(repository.revokeFamily(anyString(), any(LocalDateTime.class))).thenAnswer(invocation -> {
+            String familyId = invocation.getArgument(0);
+            LocalDateTime now = invocation.getArgument(1);
+            int revoked = 0;
+            for (RefreshToken token : tokensByHash.values()) {
+                if (token.getFamilyId().equals(familyId) && token.getRevokedAt() == null) {
+                    token.setRevokedAt(now);
+                    revoked++;
+                }
+            }
+            return revoked;
+        });
+        return repository;
+    }
+}
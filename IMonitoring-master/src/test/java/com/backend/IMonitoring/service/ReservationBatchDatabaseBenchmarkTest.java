@@ -0,0 +1,133 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.availability.ClassroomChangedEvent;
+import com.backend.IMonitoring.dto.ReservationBatchItemResultDTO;
+import com.backend.IMonitoring.dto.ReservationBatchItemResultDTO.Outcome;
+import com.backend.IMonitoring.dto.ReservationBatchRequestDTO;
+import com.backend.IMonitoring.dto.ReservationRequestDTO;
+import com.backend.IMonitoring.model.Building;
+import com.backend.IMonitoring.model.Classroom;
+import com.backend.IMonitoring.model.ClassroomType;
+import com.backend.IMonitoring.model.Rol;
+import com.backend.IMonitoring.model.User;
+import com.backend.IMonitoring.repository.BuildingRepository;
+import com.backend.IMonitoring.repository.ClassroomRepository;
+import com.backend.IMonitoring.repository.UserRepository;
+import com.backend.IMonitoring.security.UserDetailsImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara 10.000 altas individuales ({@link ReservationService#createReservation}, una sentencia
+ * y un commit por reserva) con un único lote de 10.000 ({@link ReservationBatchService}). Necesita
+ * un PostgreSQL real: solo se ejecuta si {@code SPRING_DATASOURCE_URL} apunta a uno (junto con
+ * {@code SPRING_DATASOURCE_USERNAME}/{@code SPRING_DATASOURCE_PASSWORD}). Los datos que crea se
+ * borran al terminar.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=update",
+        "jwt.secret-key=MDEyMzQ1Njc4OWFiY2RlZjAxMjM0NTY3ODlhYmNkZWY="
+})
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = "jdbc:postgresql:.*")
+class ReservationBatchDatabaseBenchmarkTest {
+    private static final int RESERVATIONS = 10_000;
+    private static final int CLASSROOMS = 100;
+
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private ReservationBatchService batchService;
+    @Autowired
+    private BuildingRepository buildingRepository;
+    @Autowired
+    private ClassroomRepository classroomRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Building building;
+    private User admin;
+    private final List<Classroom> classrooms = new ArrayList<>();
+
+    @BeforeEach
+    void createFixtures() {
+        String suffix = UUID.randomUUID().toString();
+        building = buildingRepository.save(Building.builder().name("bench-" + suffix).build());
+        admin = userRepository.save(User.builder()
+                .name("Bench").email("bench-" + suffix + "@example.com").password("x").role(Rol.ADMIN).build());
+        for (int i = 0; i < 2 * CLASSROOMS; i++) {
+            Classroom classroom = classroomRepository.save(Classroom.builder()
+                    .name("bench-" + i).capacity(30).type(ClassroomType.AULA).building(building).build());
+            eventPublisher.publishEvent(new ClassroomChangedEvent(classroom.getId(), classroom));
+            classrooms.add(classroom);
+        }
+    }
+
+    @AfterEach
+    void deleteFixtures() {
+        for (Classroom classroom : classrooms) {
+            jdbcTemplate.update("DELETE FROM reservation WHERE classroom_id = ?", classroom.getId());
+            classroomRepository.deleteById(classroom.getId());
+            eventPublisher.publishEvent(new ClassroomChangedEvent(classroom.getId(), null));
+        }
+        userRepository.deleteById(admin.getId());
+        buildingRepository.deleteById(building.getId());
+    }
+
+    @Test
+    void batchInsertIsFasterThanIndividualInserts() {
+        UserDetailsImpl principal = new UserDetailsImpl(admin);
+        LocalDateTime base = LocalDate.now().plusYears(5).atTime(0, 0);
+
+        long begin = System.nanoTime();
+        for (int i = 0; i < RESERVATIONS; i++) {
+            reservationService.createReservation(item(classrooms.get(i % CLASSROOMS), base.plusHours(i / CLASSROOMS)), principal);
+        }
+        double individualMillis = (System.nanoTime() - begin) / 1e6;
+
+        List<ReservationRequestDTO> items = new ArrayList<>(RESERVATIONS);
+        for (int i = 0; i < RESERVATIONS; i++) {
+            items.add(item(classrooms.get(CLASSROOMS + i % CLASSROOMS), base.plusHours(i / CLASSROOMS)));
+        }
+        begin = System.nanoTime();
+        List<ReservationBatchItemResultDTO> results = batchService.createBatch(
+                ReservationBatchRequestDTO.builder().reservations(items).confirm(false).build(), principal);
+        double batchMillis = (System.nanoTime() - begin) / 1e6;
+
+        assertTrue(results.stream().allMatch(r -> r.getOutcome() == Outcome.CREADA));
+        Integer stored = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM reservation r JOIN classroom c ON c.id = r.classroom_id WHERE c.building_id = ?",
+                Integer.class, building.getId());
+        assertEquals(2 * RESERVATIONS, stored);
+        System.out.println("ReservationBatchDatabaseBenchmarkTest: " + RESERVATIONS + " altas individuales " +
+                String.format("%.0f", individualMillis) + " ms, un lote " + String.format("%.0f", batchMillis) + " ms");
+        assertTrue(batchMillis < individualMillis, batchMillis + " ms >= " + individualMillis + " ms");
+    }
+
+    private static ReservationRequestDTO item(Classroom classroom, LocalDateTime start) {
+        return ReservationRequestDTO.builder()
+                .classroomId(classroom.getId())
+                .startTime(start)
+                .endTime(start.plusMinutes(50))
+                .purpose("benchmark")
+                .build();
+    }
+}
@@ -0,0 +1,244 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.availability.ClassroomAvailabilityIndex;
+import com.backend.IMonitoring.availability.ClassroomBookingLocks;
+import com.backend.IMonitoring.availability.ClassroomCatalog;
+import com.backend.IMonitoring.availability.ClassroomChangedEvent;
+import com.backend.IMonitoring.availability.ReservationChangedEvent;
+import com.backend.IMonitoring.availability.ReservationSlot;
+import com.backend.IMonitoring.availability.TimeWindow;
+import com.backend.IMonitoring.dto.ReservationBatchItemResultDTO;
+import com.backend.IMonitoring.dto.ReservationBatchItemResultDTO.Outcome;
+import com.backend.IMonitoring.dto.ReservationBatchRequestDTO;
+import com.backend.IMonitoring.dto.ReservationRequestDTO;
+import com.backend.IMonitoring.model.Classroom;
+import com.backend.IMonitoring.model.Reservation;
+import com.backend.IMonitoring.model.ReservationStatus;
+import com.backend.IMonitoring.model.Rol;
+import com.backend.IMonitoring.model.User;
+import com.backend.IMonitoring.repository.ClassroomRepository;
+import com.backend.IMonitoring.repository.ReservationRepository;
+import com.backend.IMonitoring.repository.UserRepository;
+import com.backend.IMonitoring.security.UserDetailsImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.backend.IMonitoring.service.ClassroomServiceTest.classroom;
+import static com.backend.IMonitoring.service.ClassroomServiceTest.confirmed;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReservationBatchServiceTest {
+    private static final LocalDate DAY = LocalDate.of(2030, 3, 4);
+
+    private final ClassroomRepository classroomRepository = mock(ClassroomRepository.class);
+    private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ReservationSeriesService seriesService = mock(ReservationSeriesService.class);
+    private final ClassroomBookingLocks bookingLocks = mock(ClassroomBookingLocks.class);
+    private ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private EntityManager entityManager = mock(EntityManager.class);
+    private final ClassroomCatalog catalog = new ClassroomCatalog(classroomRepository);
+    private final ClassroomAvailabilityIndex index = new ClassroomAvailabilityIndex(reservationRepository, classroomRepository);
+    private final UserDetailsImpl admin = new UserDetailsImpl(User.builder().id("admin").email("admin@example.com").role(Rol.ADMIN).build());
+
+    private ReservationBatchService service(int batchSize, List<ReservationSlot> confirmed, Classroom... classrooms) {
+        for (Classroom classroom : classrooms) {
+            catalog.onClassroomChanged(new ClassroomChangedEvent(classroom.getId(), classroom));
+        }
+        when(reservationRepository.findSlotsByStatus(ReservationStatus.CONFIRMADA)).thenReturn(confirmed);
+        index.load();
+        when(userRepository.findAllById(anyIterable())).thenReturn(List.of(
+                User.builder().id("admin").build(), User.builder().id("u1").build()));
+        when(seriesService.findUnmaterializedWindows(anyString(), any(), any())).thenReturn(new ArrayList<>());
+        when(entityManager.getReference(eq(Classroom.class), any()))
+                .thenAnswer(invocation -> Classroom.builder().id(invocation.getArgument(1)).build());
+        when(entityManager.getReference(eq(User.class), any()))
+                .thenAnswer(invocation -> User.builder().id(invocation.getArgument(1)).build());
+        doAnswer(invocation -> {
+            invocation.<Reservation>getArgument(0).setId(UUID.randomUUID().toString());
+            return null;
+        }).when(entityManager).persist(any(Reservation.class));
+
+        ReservationBatchService service = new ReservationBatchService(
+                userRepository, catalog, index, bookingLocks, seriesService, eventPublisher);
+        ReflectionTestUtils.setField(service, "entityManager", entityManager);
+        ReflectionTestUtils.setField(service, "batchSize", batchSize);
+        return service;
+    }
+
+    @Test
+    void eachItemGetsItsOwnOutcomeInRequestOrder() {
+        ReservationBatchService service = service(100,
+                List.of(confirmed("r1", "a", DAY.atTime(9, 0), DAY.atTime(10, 0))),
+                classroom("a", "b1", 20, null), classroom("b", "b1", 20, null));
+        when(seriesService.findUnmaterializedWindows(eq("b"), any(), any()))
+                .thenReturn(new ArrayList<>(List.of(new TimeWindow(DAY.atTime(15, 0), DAY.atTime(16, 0)))));
+
+        List<ReservationBatchItemResultDTO> results = service.createBatch(request(true,
+                item("a", DAY.atTime(10, 0), DAY.atTime(11, 0), null),
+                item("a", DAY.atTime(9, 30), DAY.atTime(10, 30), null),
+                item("a", DAY.atTime(10, 30), DAY.atTime(12, 0), null),
+                item("a", DAY.atTime(11, 0), DAY.atTime(12, 0), "u1"),
+                item("b", DAY.atTime(15, 30), DAY.atTime(16, 30), null),
+                item("missing", DAY.atTime(9, 0), DAY.atTime(10, 0), null),
+                item("b", DAY.atTime(10, 0), DAY.atTime(10, 0), null),
+                item("b", DAY.atTime(10, 0), DAY.atTime(11, 0), "nadie")), admin);
+
+        assertEquals(List.of(Outcome.CREADA, Outcome.CONFLICTO, Outcome.CONFLICTO, Outcome.CREADA,
+                Outcome.CONFLICTO, Outcome.INVALIDA, Outcome.INVALIDA, Outcome.INVALIDA),
+                results.stream().map(ReservationBatchItemResultDTO::getOutcome).collect(Collectors.toList()));
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+        }
+        assertNotNull(results.get(0).getReservationId());
+        verify(bookingLocks).lockUntilTransactionEnds("a", "b");
+    }
+
+    @Test
+    void acceptedItemsArePersistedInFlushedBatchesAndPublishedOnce() {
+        ReservationBatchService service = service(2, List.of(), classroom("a", "b1", 20, null));
+        ReservationRequestDTO[] items = new ReservationRequestDTO[5];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = item("a", DAY.atTime(8 + i, 0), DAY.atTime(9 + i, 0), null);
+        }
+
+        List<ReservationBatchItemResultDTO> results = service.createBatch(request(false, items), admin);
+
+        assertTrue(results.stream().allMatch(r -> r.getOutcome() == Outcome.CREADA));
+        ArgumentCaptor<Reservation> persisted = ArgumentCaptor.forClass(Reservation.class);
+        verify(entityManager, times(5)).persist(persisted.capture());
+        assertTrue(persisted.getAllValues().stream().allMatch(r -> r.getStatus() == ReservationStatus.PENDIENTE));
+        assertEquals("admin", persisted.getAllValues().get(0).getUser().getId());
+        verify(entityManager, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+        verify(eventPublisher, times(5)).publishEvent(any(ReservationChangedEvent.class));
+    }
+
+    @Test
+    void incompleteItemsAreReportedWithoutRejectingTheBatch() {
+        ReservationBatchService service = service(100, List.of(), classroom("a", "b1", 20, null));
+
+        List<ReservationBatchItemResultDTO> results = service.createBatch(request(false,
+                item("a", null, DAY.atTime(10, 0), null),
+                item("a", DAY.atTime(10, 0), DAY.atTime(11, 0), null),
+                item(" ", DAY.atTime(10, 0), DAY.atTime(11, 0), null),
+                null), admin);
+
+        assertEquals(List.of(Outcome.INVALIDA, Outcome.CREADA, Outcome.INVALIDA, Outcome.INVALIDA),
+                results.stream().map(ReservationBatchItemResultDTO::getOutcome).collect(Collectors.toList()));
+        assertEquals("Faltan datos obligatorios (aula, inicio o fin).", results.get(0).getMessage());
+    }
+
+    /**
+     * La validación del controlador (@Valid) solo comprueba el tamaño del lote; los campos de cada
+     * reserva se validan en el servicio.
+     */
+    @Test
+    void beanValidationOnlyChecksTheBatchSize() {
+        try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
+            Validator validator = factory.getValidator();
+
+            assertTrue(validator.validate(request(false,
+                    item("a", null, DAY.atTime(10, 0), null),
+                    item("a", DAY.atTime(10, 0), DAY.atTime(11, 0), null))).isEmpty());
+            assertEquals(1, validator.validate(request(false)).size());
+        }
+    }
+
+    /**
+     * Medida de la parte en memoria del lote (validación, orden, barrido y construcción de
+     * entidades) con 10.000 reservas repartidas en 500 aulas; la escritura JDBC no se incluye.
+     */
+    @Test
+    void tenThousandItemBatchIsSweptInMemory() {
+        List<Classroom> rooms = new ArrayList<>();
+        List<ReservationSlot> confirmed = new ArrayList<>();
+        List<ReservationRequestDTO> items = new ArrayList<>();
+        for (int c = 0; c < 500; c++) {
+            String id = "c" + c;
+            rooms.add(classroom(id, "b" + (c % 10), 30, null));
+            confirmed.add(confirmed(id + "-ocupada", id, DAY.atTime(8, 0), DAY.atTime(9, 0)));
+            for (int h = 0; h < 20; h++) {
+                LocalDateTime start = DAY.plusDays(h / 10).atTime(8 + (h % 10), 0);
+                items.add(item(id, start, start.plusMinutes(50), null));
+            }
+        }
+        ReservationBatchService service = service(100, confirmed, rooms.toArray(new Classroom[0]));
+        // Sin mocks en el camino de cada reserva: Mockito captura una traza por llamada y dominaría la medida.
+        ReflectionTestUtils.setField(service, "entityManager", plainEntityManager());
+        ReflectionTestUtils.setField(service, "eventPublisher", (ApplicationEventPublisher) event -> { });
+
+        ReservationBatchRequestDTO request = request(true, items.toArray(new ReservationRequestDTO[0]));
+        List<ReservationBatchItemResultDTO> results = null;
+        long[] nanos = new long[5];
+        for (int run = 0; run < nanos.length; run++) {
+            long begin = System.nanoTime();
+            results = service.createBatch(request, admin);
+            nanos[run] = System.nanoTime() - begin;
+        }
+        Arrays.sort(nanos);
+        double millis = nanos[nanos.length / 2] / 1e6;
+
+        long conflicts = results.stream().filter(r -> r.getOutcome() == Outcome.CONFLICTO).count();
+        assertEquals(500, conflicts);
+        assertEquals(Set.of(Outcome.CREADA, Outcome.CONFLICTO),
+                results.stream().map(ReservationBatchItemResultDTO::getOutcome).collect(Collectors.toSet()));
+        System.out.println("ReservationBatchServiceTest: lote de " + items.size() + " reservas, mediana " +
+                String.format("%.1f", millis) + " ms (sin JDBC)");
+    }
+
+    private static EntityManager plainEntityManager() {
+        return (EntityManager) Proxy.newProxyInstance(EntityManager.class.getClassLoader(), new Class<?>[]{EntityManager.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getReference":
+                            return args[0] == Classroom.class
+                                    ? Classroom.builder().id((String) args[1]).build()
+                                    : User.builder().id((String) args[1]).build();
+                        case "persist":
+                            ((Reservation) args[0]).setId(UUID.randomUUID().toString());
+                            return null;
+                        case "flush":
+                        case "clear":
+                            return null;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static ReservationBatchRequestDTO request(boolean confirm, ReservationRequestDTO... items) {
+        return ReservationBatchRequestDTO.builder().reservations(Arrays.asList(items)).confirm(confirm).build();
+    }
+
+    private static ReservationRequestDTO item(String classroomId, LocalDateTime start, LocalDateTime end, String userId) {
+        return ReservationRequestDTO.builder().classroomId(classroomId).userId(userId).startTime(start).endTime(end).build();
+    }
+}
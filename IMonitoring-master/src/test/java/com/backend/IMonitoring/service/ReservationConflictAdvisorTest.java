@@ -0,0 +1,162 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.availability.ClassroomAvailabilityIndex;
+import com.backend.IMonitoring.availability.ClassroomCatalog;
+import com.backend.IMonitoring.availability.ClassroomChangedEvent;
+import com.backend.IMonitoring.availability.ReservationSlot;
+import com.backend.IMonitoring.availability.TimeWindow;
+import com.backend.IMonitoring.dto.ClassroomDTO;
+import com.backend.IMonitoring.dto.ReservationConflictDTO;
+import com.backend.IMonitoring.model.Classroom;
+import com.backend.IMonitoring.model.ClassroomType;
+import com.backend.IMonitoring.model.ReservationStatus;
+import com.backend.IMonitoring.repository.ClassroomRepository;
+import com.backend.IMonitoring.repository.ReservationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.backend.IMonitoring.service.ClassroomServiceTest.classroom;
+import static com.backend.IMonitoring.service.ClassroomServiceTest.confirmed;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReservationConflictAdvisorTest {
+    private static final LocalDate DAY = LocalDate.of(2030, 3, 4);
+
+    private final ClassroomRepository classroomRepository = mock(ClassroomRepository.class);
+    private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+    private final ClassroomCatalog catalog = new ClassroomCatalog(classroomRepository);
+    private final ClassroomAvailabilityIndex index = new ClassroomAvailabilityIndex(reservationRepository, classroomRepository);
+    private final ClassroomService classroomService = mock(ClassroomService.class);
+    private final ReservationSeriesService seriesService = mock(ReservationSeriesService.class);
+
+    private ReservationConflictAdvisor advisor(int maxSuggestions, List<ReservationSlot> confirmed, Classroom... classrooms) {
+        for (Classroom classroom : classrooms) {
+            catalog.onClassroomChanged(new ClassroomChangedEvent(classroom.getId(), classroom));
+        }
+        when(reservationRepository.findSlotsByStatus(ReservationStatus.CONFIRMADA)).thenReturn(confirmed);
+        index.load();
+        ReservationConflictAdvisor advisor = new ReservationConflictAdvisor(index, catalog, classroomService, seriesService);
+        ReflectionTestUtils.setField(advisor, "searchHours", 24L);
+        ReflectionTestUtils.setField(advisor, "maxSuggestions", maxSuggestions);
+        ReflectionTestUtils.setField(advisor, "maxAlternatives", 5);
+        ReflectionTestUtils.setField(advisor, "searchMaxDays", 31L);
+        return advisor;
+    }
+
+    /**
+     * Día con huecos de 30 min (demasiado corto), 2 h antes y 1 h 30 después de la petición de 1 h:
+     * solo se sugieren los huecos donde cabe, del más cercano al más lejano.
+     */
+    @Test
+    void suggestionsFitTheLengthAndAreOrderedByDistance() {
+        ReservationConflictAdvisor advisor = advisor(10, List.of(
+                confirmed("r1", "a", DAY.minusDays(1).atTime(0, 0), DAY.atTime(7, 0)),
+                confirmed("r2", "a", DAY.atTime(9, 0), DAY.atTime(9, 30)),
+                confirmed("r3", "a", DAY.atTime(10, 0), DAY.atTime(12, 0)),
+                confirmed("r4", "a", DAY.atTime(13, 30), DAY.plusDays(2).atTime(0, 0))),
+                classroom("a", "b1", 20, null));
+
+        ReservationConflictDTO conflict = advisor.analyze("a", DAY.atTime(10, 30), DAY.atTime(11, 30), null);
+
+        assertEquals(List.of(new TimeWindow(DAY.atTime(10, 0), DAY.atTime(12, 0))), conflict.getConflicts());
+        assertEquals(List.of(
+                new TimeWindow(DAY.atTime(12, 0), DAY.atTime(13, 0)),
+                new TimeWindow(DAY.atTime(8, 0), DAY.atTime(9, 0))), conflict.getSuggestedSlots());
+    }
+
+    @Test
+    void suggestionsAreLimited() {
+        ReservationConflictAdvisor advisor = advisor(2, List.of(
+                confirmed("r1", "a", DAY.atTime(8, 0), DAY.atTime(9, 0)),
+                confirmed("r2", "a", DAY.atTime(10, 0), DAY.atTime(11, 0)),
+                confirmed("r3", "a", DAY.atTime(12, 0), DAY.atTime(13, 0)),
+                confirmed("r4", "a", DAY.atTime(14, 0), DAY.atTime(15, 0))),
+                classroom("a", "b1", 20, null));
+
+        ReservationConflictDTO conflict = advisor.analyze("a", DAY.atTime(10, 0), DAY.atTime(11, 0), null);
+
+        assertEquals(List.of(
+                new TimeWindow(DAY.atTime(9, 0), DAY.atTime(10, 0)),
+                new TimeWindow(DAY.atTime(11, 0), DAY.atTime(12, 0))), conflict.getSuggestedSlots());
+    }
+
+    @Test
+    void excludedReservationIsNeitherConflictNorBusy() {
+        ReservationConflictAdvisor advisor = advisor(1, List.of(
+                confirmed("r1", "a", DAY.atTime(9, 0), DAY.atTime(11, 0)),
+                confirmed("r2", "a", DAY.atTime(10, 30), DAY.atTime(12, 0))),
+                classroom("a", "b1", 20, null));
+
+        ReservationConflictDTO conflict = advisor.analyze("a", DAY.atTime(10, 0), DAY.atTime(11, 0), "r1");
+
+        assertEquals(List.of(new TimeWindow(DAY.atTime(10, 30), DAY.atTime(12, 0))), conflict.getConflicts());
+        assertEquals(List.of(new TimeWindow(DAY.atTime(9, 30), DAY.atTime(10, 30))), conflict.getSuggestedSlots());
+    }
+
+    @Test
+    void unmaterializedSeriesSessionsAreConflictsAndBusy() {
+        ReservationConflictAdvisor advisor = advisor(1, List.of(), classroom("a", "b1", 20, null));
+        TimeWindow session = new TimeWindow(DAY.atTime(10, 0), DAY.atTime(12, 0));
+        when(seriesService.findUnmaterializedWindows(eq("a"), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(session));
+
+        ReservationConflictDTO conflict = advisor.analyze("a", DAY.atTime(11, 0), DAY.atTime(12, 0), null);
+
+        assertEquals(List.of(session), conflict.getConflicts());
+        assertEquals(List.of(new TimeWindow(DAY.atTime(12, 0), DAY.atTime(13, 0))), conflict.getSuggestedSlots());
+    }
+
+    /**
+     * Sin recortar a "ahora", la hora anterior a la petición (ya pasada) sería la mejor sugerencia;
+     * el único hueco futuro antes de la petición dura 30 min y no cabe.
+     */
+    @Test
+    void pastSlotsAreNeverSuggested() {
+        LocalDateTime start = LocalDateTime.now().plusMinutes(30);
+        ReservationConflictAdvisor advisor = advisor(10, List.of(
+                confirmed("r1", "a", start, start.plusHours(1)),
+                confirmed("r2", "a", start.plusHours(1), start.plusHours(30))),
+                classroom("a", "b1", 20, null));
+
+        assertEquals(List.of(), advisor.analyze("a", start, start.plusHours(1), null).getSuggestedSlots());
+    }
+
+    @Test
+    void alternativesComeFromSearchWithoutTheRequestedClassroom() {
+        ReservationConflictAdvisor advisor = advisor(3, List.of(), classroom("a", "b1", 20, null));
+        when(classroomService.searchAvailable(any(), any(), eq(20), eq(ClassroomType.AULA), eq("b1"), any()))
+                .thenReturn(List.of(dto("a"), dto("b"), dto("c")));
+
+        ReservationConflictDTO conflict = advisor.analyze("a", DAY.atTime(10, 0), DAY.atTime(11, 0), null);
+
+        assertEquals(List.of("b", "c"),
+                conflict.getAlternativeClassrooms().stream().map(ClassroomDTO::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    void rangesBeyondTheSearchLimitGetNoAlternatives() {
+        ReservationConflictAdvisor advisor = advisor(3, List.of(), classroom("a", "b1", 20, null));
+
+        ReservationConflictDTO conflict = advisor.analyze("a", DAY.atStartOfDay(), DAY.plusDays(40).atStartOfDay(), null);
+
+        assertTrue(conflict.getAlternativeClassrooms().isEmpty());
+        verify(classroomService, never()).searchAvailable(any(), any(), anyInt(), any(), any(), any());
+    }
+
+    private static ClassroomDTO dto(String id) {
+        return ClassroomDTO.builder().id(id).name(id).capacity(20).type(ClassroomType.AULA).buildingId("b1").build();
+    }
+}
@@ -0,0 +1,144 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.availability.ClassroomAvailabilityIndex;
+import com.backend.IMonitoring.availability.ClassroomBookingLocks;
+import com.backend.IMonitoring.dto.ReservationPageDTO;
+import com.backend.IMonitoring.dto.ReservationSummaryDTO;
+import com.backend.IMonitoring.exceptions.InvalidReservationException;
+import com.backend.IMonitoring.model.ReservationStatus;
+import com.backend.IMonitoring.repository.ClassroomRepository;
+import com.backend.IMonitoring.repository.ReservationJdbcRepository;
+import com.backend.IMonitoring.repository.ReservationQueryRepository;
+import com.backend.IMonitoring.repository.ReservationRepository;
+import com.backend.IMonitoring.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReservationCursorTest {
+    private static final LocalDateTime START = LocalDateTime.of(2030, 3, 4, 9, 30, 15);
+
+    @Test
+    void encodedCursorDecodesToTheSamePosition() {
+        ReservationCursor cursor = new ReservationCursor("startTime", Sort.Direction.DESC, START, "r-42");
+
+        assertEquals(cursor, ReservationCursor.decode(cursor.encode(), "startTime", Sort.Direction.DESC));
+    }
+
+    @Test
+    void cursorAfterLastRowUsesTheSortField() {
+        ReservationSummaryDTO last = summary("r-7", START);
+
+        assertEquals(START, ReservationCursor.after(last, "startTime", Sort.Direction.ASC).getValue());
+        assertEquals(START.plusHours(1), ReservationCursor.after(last, "endTime", Sort.Direction.ASC).getValue());
+        assertEquals("r-7", ReservationCursor.after(last, "endTime", Sort.Direction.ASC).getId());
+    }
+
+    @Test
+    void idsContainingTheSeparatorSurviveTheRoundTrip() {
+        ReservationCursor cursor = new ReservationCursor("endTime", Sort.Direction.ASC, START, "a|b|c");
+
+        assertEquals("a|b|c", ReservationCursor.decode(cursor.encode(), "endTime", Sort.Direction.ASC).getId());
+    }
+
+    @Test
+    void cursorIsOnlyValidForTheSameOrder() {
+        String token = new ReservationCursor("startTime", Sort.Direction.ASC, START, "r1").encode();
+
+        assertThrows(InvalidReservationException.class, () -> ReservationCursor.decode(token, "endTime", Sort.Direction.ASC));
+        assertThrows(InvalidReservationException.class, () -> ReservationCursor.decode(token, "startTime", Sort.Direction.DESC));
+    }
+
+    @Test
+    void malformedCursorsAreBadRequests() {
+        String badDate = Base64.getUrlEncoder().encodeToString("startTime|ASC|ayer|r1".getBytes(StandardCharsets.UTF_8));
+        String missingParts = Base64.getUrlEncoder().encodeToString("startTime|ASC".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(InvalidReservationException.class, () -> ReservationCursor.decode("%%%", "startTime", Sort.Direction.ASC));
+        assertThrows(InvalidReservationException.class, () -> ReservationCursor.decode(badDate, "startTime", Sort.Direction.ASC));
+        assertThrows(InvalidReservationException.class, () -> ReservationCursor.decode(missingParts, "startTime", Sort.Direction.ASC));
+    }
+
+    @Test
+    void sortParametersAreNormalizedAndValidated() {
+        assertEquals("startTime", ReservationCursor.normalizeField(null));
+        assertEquals("endTime", ReservationCursor.normalizeField(" endTime "));
+        assertEquals(Sort.Direction.ASC, ReservationCursor.parseDirection(""));
+        assertEquals(Sort.Direction.DESC, ReservationCursor.parseDirection("desc"));
+        assertThrows(InvalidReservationException.class, () -> ReservationCursor.parseDirection("sideways"));
+        assertThrows(InvalidReservationException.class, () -> ReservationCursor.validateField("purpose"));
+    }
+
+    @Test
+    void pageAsksForOneExtraRowAndEmitsCursorOnlyWhenThereIsMore() {
+        ReservationQueryRepository queryRepository = mock(ReservationQueryRepository.class);
+        ReservationService service = service(queryRepository);
+        List<ReservationSummaryDTO> rows = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            rows.add(summary("r" + i, START.plusHours(i)));
+        }
+        when(queryRepository.findSummaries(any(), eq("startTime"), eq(Sort.Direction.DESC), anyInt())).thenReturn(rows);
+
+        ReservationPageDTO page = service.getReservationsByUser("u1", null, null, 3);
+
+        verify(queryRepository).findSummaries(any(), eq("startTime"), eq(Sort.Direction.DESC), eq(4));
+        assertEquals(3, page.getItems().size());
+        ReservationCursor next = ReservationCursor.decode(page.getNextCursor(), "startTime", Sort.Direction.DESC);
+        assertEquals("r2", next.getId());
+        assertEquals(START.plusHours(2), next.getValue());
+
+        when(queryRepository.findSummaries(any(), eq("endTime"), eq(Sort.Direction.ASC), anyInt())).thenReturn(rows.subList(0, 2));
+        ReservationPageDTO last = service.getReservationsByUser("u1", "endTime,asc", null, 3);
+        assertEquals(2, last.getItems().size());
+        assertNull(last.getNextCursor());
+    }
+
+    @Test
+    void pageRejectsOutOfRangeLimitsAndForeignCursors() {
+        ReservationService service = service(mock(ReservationQueryRepository.class));
+        String ascending = new ReservationCursor("startTime", Sort.Direction.ASC, START, "r1").encode();
+
+        assertThrows(InvalidReservationException.class, () -> service.getReservationsByUser("u1", null, null, 0));
+        assertThrows(InvalidReservationException.class, () -> service.getReservationsByUser("u1", null, null, 501));
+        assertThrows(InvalidReservationException.class, () -> service.getReservationsByUser("u1", null, ascending, 10));
+    }
+
+    private static ReservationService service(ReservationQueryRepository queryRepository) {
+        ReservationService service = new ReservationService(
+                mock(ReservationRepository.class),
+                mock(ReservationJdbcRepository.class),
+                queryRepository,
+                mock(ClassroomRepository.class),
+                mock(UserRepository.class),
+                mock(UserService.class),
+                mock(ClassroomAvailabilityIndex.class),
+                mock(ClassroomBookingLocks.class),
+                mock(ReservationConflictAdvisor.class),
+                mock(ReservationSeriesService.class),
+                mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(service, "maxPageSize", 500);
+        return service;
+    }
+
+    private static ReservationSummaryDTO summary(String id, LocalDateTime start) {
+        return new ReservationSummaryDTO(id, "a", "Aula a", "b1", "u1", "Ana", start, start.plusHours(1),
+                ReservationStatus.CONFIRMADA, null, null);
+    }
+}
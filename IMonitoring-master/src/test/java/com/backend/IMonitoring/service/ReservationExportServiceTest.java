@@ -0,0 +1,34 @@
+package com.backend.IMonitoring.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReservationExportServiceTest {
+
+    @Test
+    void formulaPrefixesAreNeutralized() {
+        assertEquals("\"'=HYPERLINK(\"\"x\"\")\"", ReservationExportService.csvField("=HYPERLINK(\"x\")"));
+        assertEquals("'+1", ReservationExportService.csvField("+1"));
+        assertEquals("'-2+3", ReservationExportService.csvField("-2+3"));
+        assertEquals("'@SUM(A1)", ReservationExportService.csvField("@SUM(A1)"));
+        assertEquals("'\tx", ReservationExportService.csvField("\tx"));
+    }
+
+    @Test
+    void neutralizedFieldIsStillQuotedWhenNeeded() {
+        assertEquals("\"'=1,2\"", ReservationExportService.csvField("=1,2"));
+    }
+
+    @Test
+    void plainValuesAreUnchanged() {
+        assertEquals("", ReservationExportService.csvField(null));
+        assertEquals("", ReservationExportService.csvField(""));
+        assertEquals("Clase de álgebra", ReservationExportService.csvField("Clase de álgebra"));
+        assertEquals("a=b", ReservationExportService.csvField("a=b"));
+        assertEquals("2030-03-04T10:00", ReservationExportService.csvField(LocalDateTime.of(2030, 3, 4, 10, 0)));
+        assertEquals("\"di \"\"hola\"\"\"", ReservationExportService.csvField("di \"hola\""));
+    }
+}
@@ -0,0 +1,199 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.availability.ClassroomAvailabilityIndex;
+import com.backend.IMonitoring.availability.ClassroomBookingLocks;
+import com.backend.IMonitoring.availability.ReservationSlot;
+import com.backend.IMonitoring.availability.TimeWindow;
+import com.backend.IMonitoring.dto.ReservationSeriesRequestDTO;
+import com.backend.IMonitoring.exceptions.ReservationConflictException;
+import com.backend.IMonitoring.model.Classroom;
+import com.backend.IMonitoring.model.Reservation;
+import com.backend.IMonitoring.model.ReservationSeries;
+import com.backend.IMonitoring.model.ReservationStatus;
+import com.backend.IMonitoring.model.Rol;
+import com.backend.IMonitoring.model.User;
+import com.backend.IMonitoring.repository.ClassroomRepository;
+import com.backend.IMonitoring.repository.ReservationRepository;
+import com.backend.IMonitoring.repository.ReservationSeriesRepository;
+import com.backend.IMonitoring.repository.UserRepository;
+import com.backend.IMonitoring.security.UserDetailsImpl;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static com.backend.IMonitoring.service.ClassroomServiceTest.confirmed;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReservationSeriesServiceTest {
+    private static final LocalDate MONDAY = LocalDate.now().plusWeeks(1).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+    private static final LocalTime TEN = LocalTime.of(10, 0);
+    private static final LocalTime NOON = LocalTime.of(12, 0);
+
+    private final ReservationSeriesRepository seriesRepository = mock(ReservationSeriesRepository.class);
+    private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+    private final ClassroomRepository classroomRepository = mock(ClassroomRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ClassroomAvailabilityIndex index = new ClassroomAvailabilityIndex(reservationRepository, classroomRepository);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final UserDetailsImpl user = new UserDetailsImpl(User.builder().id("u1").email("u1@example.com").role(Rol.PROFESOR).build());
+
+    private ReservationSeriesService service(List<ReservationSlot> confirmed) {
+        when(reservationRepository.findSlotsByStatus(ReservationStatus.CONFIRMADA)).thenReturn(confirmed);
+        index.load();
+        when(classroomRepository.existsById(anyString())).thenReturn(true);
+        when(userRepository.existsById(anyString())).thenReturn(true);
+        when(classroomRepository.getReferenceById(anyString()))
+                .thenAnswer(invocation -> Classroom.builder().id(invocation.getArgument(0)).build());
+        when(userRepository.getReferenceById(anyString()))
+                .thenAnswer(invocation -> User.builder().id(invocation.getArgument(0)).build());
+        when(seriesRepository.save(any(ReservationSeries.class))).thenAnswer(invocation -> {
+            ReservationSeries series = invocation.getArgument(0);
+            if (series.getId() == null) {
+                series.setId("nueva");
+            }
+            return series;
+        });
+        when(reservationRepository.saveAllAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        ReservationSeriesService service = new ReservationSeriesService(seriesRepository, reservationRepository,
+                classroomRepository, userRepository, index, mock(ClassroomBookingLocks.class),
+                mock(ApplicationEventPublisher.class), transactionTemplate);
+        ReflectionTestUtils.setField(service, "materializeWeeks", 4);
+        ReflectionTestUtils.setField(service, "maxOccurrenceDays", 366L);
+        return service;
+    }
+
+    @Test
+    void seriesClashingWithAConfirmedReservationIsRejected() {
+        ReservationSeriesService service = service(List.of(
+                confirmed("r1", "a", MONDAY.plusWeeks(2).atTime(11, 0), MONDAY.plusWeeks(2).atTime(13, 0))));
+
+        ReservationConflictException e = assertThrows(ReservationConflictException.class,
+                () -> service.createSeries(request(MONDAY, MONDAY.plusWeeks(5), 1, Set.of()), user));
+        assertTrue(e.getMessage().contains("1 sesiones: " + MONDAY.plusWeeks(2)), e.getMessage());
+        verify(seriesRepository, never()).save(any());
+    }
+
+    @Test
+    void sweepIgnoresTouchingReservationsAndSkippedWeeks() {
+        ReservationSeriesService service = service(List.of(
+                confirmed("r1", "a", MONDAY.atTime(8, 0), MONDAY.atTime(10, 0)),
+                confirmed("r2", "a", MONDAY.plusWeeks(1).atTime(10, 0), MONDAY.plusWeeks(1).atTime(11, 0)),
+                confirmed("r3", "a", MONDAY.plusWeeks(2).atTime(12, 0), MONDAY.plusWeeks(2).atTime(13, 0)),
+                confirmed("r4", "a", MONDAY.plusWeeks(4).atTime(10, 0), MONDAY.plusWeeks(4).atTime(11, 0))));
+
+        ReservationSeries series = service.createSeries(request(MONDAY, MONDAY.plusWeeks(4), 2, Set.of(MONDAY.plusWeeks(4))), user);
+
+        assertEquals(ReservationStatus.PENDIENTE, series.getStatus());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Reservation>> saved = ArgumentCaptor.forClass(List.class);
+        verify(reservationRepository).saveAllAndFlush(saved.capture());
+        assertEquals(List.of(MONDAY.atTime(TEN), MONDAY.plusWeeks(2).atTime(TEN)),
+                saved.getValue().stream().map(Reservation::getStartTime).collect(Collectors.toList()));
+    }
+
+    @Test
+    void sweepSeesSessionsOfOtherConfirmedSeries() {
+        ReservationSeriesService service = service(List.of());
+        ReservationSeries other = confirmedSeries("otra", MONDAY.plusWeeks(3), MONDAY.plusWeeks(10), LocalTime.of(11, 30), LocalTime.of(12, 30));
+        when(seriesRepository.findActiveInRange(eq("a"), anyCollection(), any(), any())).thenReturn(List.of(other));
+
+        assertThrows(ReservationConflictException.class,
+                () -> service.createSeries(request(MONDAY, MONDAY.plusWeeks(20), 1, Set.of()), user));
+    }
+
+    @Test
+    void unmaterializedWindowsStartAfterTheMaterializedHorizon() {
+        ReservationSeriesService service = service(List.of());
+        ReservationSeries series = confirmedSeries("s1", MONDAY, MONDAY.plusWeeks(10), TEN, NOON);
+        series.setMaterializedUntil(MONDAY.plusWeeks(3));
+        when(seriesRepository.findActiveInRange(eq("a"), anyCollection(), any(), any())).thenReturn(List.of(series));
+        when(seriesRepository.findUnmaterializedInRange(anyCollection(), any(), any())).thenReturn(List.of(series));
+
+        List<TimeWindow> windows = service.findUnmaterializedWindows("a", MONDAY.atStartOfDay(), MONDAY.plusWeeks(5).atTime(11, 0));
+
+        assertEquals(List.of(
+                new TimeWindow(MONDAY.plusWeeks(4).atTime(TEN), MONDAY.plusWeeks(4).atTime(NOON)),
+                new TimeWindow(MONDAY.plusWeeks(5).atTime(TEN), MONDAY.plusWeeks(5).atTime(NOON))), windows);
+        assertEquals(Map.of("a", windows),
+                service.findUnmaterializedWindows(MONDAY.atStartOfDay(), MONDAY.plusWeeks(5).atTime(11, 0)));
+        assertEquals(List.of(), service.findUnmaterializedWindows("a", MONDAY.plusWeeks(5).atTime(NOON), MONDAY.plusWeeks(6).atTime(TEN)));
+    }
+
+    /**
+     * Si una sesión de una serie confirmada choca al materializarse (p. ej. una reserva creada desde
+     * otra instancia) se guarda como PENDIENTE y las demás siguen confirmadas.
+     */
+    @Test
+    void clashingSessionIsMaterializedAsPending() {
+        ReservationSeriesService service = service(List.of(
+                confirmed("r1", "a", MONDAY.plusWeeks(1).atTime(11, 0), MONDAY.plusWeeks(1).atTime(11, 30))));
+        ReservationSeries series = confirmedSeries("s1", MONDAY, MONDAY.plusWeeks(2), TEN, NOON);
+        when(seriesRepository.findPendingMaterialization(anyCollection())).thenReturn(List.of(series));
+        when(seriesRepository.findById("s1")).thenReturn(Optional.of(series));
+
+        service.materializeUpcomingOccurrences();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Reservation>> saved = ArgumentCaptor.forClass(List.class);
+        verify(reservationRepository).saveAllAndFlush(saved.capture());
+        assertEquals(List.of(ReservationStatus.CONFIRMADA, ReservationStatus.PENDIENTE, ReservationStatus.CONFIRMADA),
+                saved.getValue().stream().map(Reservation::getStatus).collect(Collectors.toList()));
+        assertTrue(saved.getValue().stream().allMatch(r -> "s1".equals(r.getSeriesId())));
+        assertEquals(MONDAY.plusWeeks(2), series.getMaterializedUntil());
+    }
+
+    private static ReservationSeriesRequestDTO request(LocalDate first, LocalDate until, int intervalWeeks, Set<LocalDate> exceptions) {
+        return ReservationSeriesRequestDTO.builder()
+                .classroomId("a")
+                .firstDate(first)
+                .untilDate(until)
+                .startTime(TEN)
+                .endTime(NOON)
+                .intervalWeeks(intervalWeeks)
+                .exceptionDates(exceptions)
+                .build();
+    }
+
+    private static ReservationSeries confirmedSeries(String id, LocalDate first, LocalDate until, LocalTime start, LocalTime end) {
+        return ReservationSeries.builder()
+                .id(id)
+                .classroom(Classroom.builder().id("a").build())
+                .user(User.builder().id("u2").build())
+                .firstDate(first)
+                .untilDate(until)
+                .startTime(start)
+                .endTime(end)
+                .intervalWeeks(1)
+                .status(ReservationStatus.CONFIRMADA)
+                .build();
+    }
+}
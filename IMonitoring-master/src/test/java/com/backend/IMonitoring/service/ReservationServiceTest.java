@@ -0,0 +1,65 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.availability.ClassroomAvailabilityIndex;
+import com.backend.IMonitoring.availability.ClassroomBookingLocks;
+import com.backend.IMonitoring.availability.TimeWindow;
+import com.backend.IMonitoring.dto.ReservationConflictDTO;
+import com.backend.IMonitoring.dto.ReservationRequestDTO;
+import com.backend.IMonitoring.exceptions.ReservationConflictException;
+import com.backend.IMonitoring.model.Rol;
+import com.backend.IMonitoring.model.User;
+import com.backend.IMonitoring.repository.ClassroomRepository;
+import com.backend.IMonitoring.repository.ReservationJdbcRepository;
+import com.backend.IMonitoring.repository.ReservationQueryRepository;
+import com.backend.IMonitoring.repository.ReservationRepository;
+import com.backend.IMonitoring.repository.UserRepository;
+import com.backend.IMonitoring.security.UserDetailsImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ReservationServiceTest {
+    private static final LocalDate DAY = LocalDate.of(2030, 3, 4);
+
+    private final ReservationJdbcRepository jdbcRepository = mock(ReservationJdbcRepository.class);
+    private final ReservationConflictAdvisor conflictAdvisor = mock(ReservationConflictAdvisor.class);
+    private final ReservationSeriesService seriesService = mock(ReservationSeriesService.class);
+
+    @Test
+    void seriesClashCarriesConflictDetails() {
+        ReservationService service = new ReservationService(
+                mock(ReservationRepository.class),
+                jdbcRepository,
+                mock(ReservationQueryRepository.class),
+                mock(ClassroomRepository.class),
+                mock(UserRepository.class),
+                mock(UserService.class),
+                mock(ClassroomAvailabilityIndex.class),
+                mock(ClassroomBookingLocks.class),
+                conflictAdvisor,
+                seriesService,
+                mock(ApplicationEventPublisher.class));
+        LocalDateTime start = DAY.atTime(10, 0);
+        LocalDateTime end = DAY.atTime(11, 0);
+        TimeWindow session = new TimeWindow(start, DAY.atTime(12, 0));
+        ReservationConflictDTO details = new ReservationConflictDTO("a", start, end, List.of(session), List.of(), List.of());
+        when(seriesService.findUnmaterializedWindows("a", start, end)).thenReturn(List.of(session));
+        when(conflictAdvisor.analyze("a", start, end, null)).thenReturn(details);
+        UserDetailsImpl user = new UserDetailsImpl(User.builder().id("u1").email("u1@example.com").role(Rol.PROFESOR).build());
+
+        ReservationConflictException e = assertThrows(ReservationConflictException.class, () -> service.createReservation(
+                ReservationRequestDTO.builder().classroomId("a").startTime(start).endTime(end).build(), user));
+
+        assertSame(details, e.getDetails());
+        verifyNoInteractions(jdbcRepository);
+    }
+}
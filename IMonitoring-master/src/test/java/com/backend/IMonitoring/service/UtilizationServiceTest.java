@@ -0,0 +1,118 @@
+package com.backend.IMonitoring.service;
+
+import com.backend.IMonitoring.availability.ClassroomCatalog;
+import com.backend.IMonitoring.availability.ClassroomChangedEvent;
+import com.backend.IMonitoring.availability.ReservationChangedEvent;
+import com.backend.IMonitoring.availability.ReservationSlot;
+import com.backend.IMonitoring.dto.HeatmapCellDTO;
+import com.backend.IMonitoring.model.Classroom;
+import com.backend.IMonitoring.model.ReservationStatus;
+import com.backend.IMonitoring.repository.BuildingRepository;
+import com.backend.IMonitoring.repository.ClassroomRepository;
+import com.backend.IMonitoring.repository.UsageRollupRepository;
+import com.backend.IMonitoring.repository.UsageRollupRepository.HourOfWeekUsage;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static com.backend.IMonitoring.service.ClassroomServiceTest.classroom;
+import static com.backend.IMonitoring.service.ClassroomServiceTest.confirmed;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UtilizationServiceTest {
+    private static final LocalDate MONDAY = LocalDate.of(2030, 3, 4);
+
+    private final UsageRollupRepository rollupRepository = mock(UsageRollupRepository.class);
+    private final ClassroomCatalog catalog = new ClassroomCatalog(mock(ClassroomRepository.class));
+    private final UtilizationService service = new UtilizationService(
+            rollupRepository, mock(BuildingRepository.class), catalog, 366, 7, 120);
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Map<LocalDateTime, Integer>> deltasFor(ReservationSlot before, ReservationSlot after) {
+        service.onReservationChanged(new ReservationChangedEvent(before, after));
+        ArgumentCaptor<Map<String, Map<LocalDateTime, Integer>>> deltas = ArgumentCaptor.forClass(Map.class);
+        verify(rollupRepository).addAll(deltas.capture());
+        return deltas.getValue();
+    }
+
+    @Test
+    void partialHoursAreSplitIntoTheirSeconds() {
+        Map<String, Map<LocalDateTime, Integer>> deltas = deltasFor(null,
+                confirmed("r1", "a", MONDAY.atTime(10, 15), MONDAY.atTime(12, 30)));
+
+        assertEquals(Map.of(
+                MONDAY.atTime(10, 0), 45 * 60,
+                MONDAY.atTime(11, 0), 3600,
+                MONDAY.atTime(12, 0), 30 * 60), deltas.get("a"));
+    }
+
+    @Test
+    void unchangedHoursCancelOutWhenAReservationIsEdited() {
+        Map<String, Map<LocalDateTime, Integer>> deltas = deltasFor(
+                confirmed("r1", "a", MONDAY.atTime(10, 0), MONDAY.atTime(11, 30)),
+                confirmed("r1", "a", MONDAY.atTime(10, 0), MONDAY.atTime(12, 0)));
+
+        assertEquals(Map.of(MONDAY.atTime(11, 0), 30 * 60), deltas.get("a"));
+    }
+
+    @Test
+    void movingToAnotherClassroomSubtractsFromTheOldOne() {
+        Map<String, Map<LocalDateTime, Integer>> deltas = deltasFor(
+                confirmed("r1", "a", MONDAY.atTime(9, 0), MONDAY.atTime(10, 0)),
+                confirmed("r1", "b", MONDAY.atTime(9, 0), MONDAY.atTime(10, 0)));
+
+        assertEquals(Map.of(MONDAY.atTime(9, 0), -3600), deltas.get("a"));
+        assertEquals(Map.of(MONDAY.atTime(9, 0), 3600), deltas.get("b"));
+    }
+
+    @Test
+    void onlyConfirmedReservationsCount() {
+        ReservationSlot pending = new ReservationSlot("r1", "a", "u1",
+                MONDAY.atTime(9, 0), MONDAY.atTime(10, 0), ReservationStatus.PENDIENTE, null);
+
+        assertTrue(deltasFor(null, pending).isEmpty());
+    }
+
+    /**
+     * De lunes 09:30 al lunes siguiente a las 10:00: la hora 9 del lunes cae dos veces en el rango
+     * (la primera se cuenta entera) y la hora 10 una sola, igual que cualquier hora del miércoles.
+     * Solo cuentan las aulas del edificio.
+     */
+    @Test
+    void heatmapCapacityIsClassroomsTimesOccurrencesOfEachHour() {
+        for (Classroom classroom : List.of(classroom("a", "b1", 30, null), classroom("b", "b1", 30, null),
+                classroom("c", "b2", 30, null))) {
+            catalog.onClassroomChanged(new ClassroomChangedEvent(classroom.getId(), classroom));
+        }
+        LocalDateTime from = MONDAY.atTime(9, 30);
+        LocalDateTime to = MONDAY.plusDays(7).atTime(10, 0);
+        when(rollupRepository.bookedSecondsByHourOfWeek(MONDAY.atTime(9, 0), to, "b1", null)).thenReturn(List.of(
+                new HourOfWeekUsage(1, 9, 2 * 3600),
+                new HourOfWeekUsage(1, 10, 3600),
+                new HourOfWeekUsage(3, 14, 90 * 60)));
+
+        List<HeatmapCellDTO> cells = service.getHeatmap(from, to, "b1", null);
+
+        assertEquals(7 * 24, cells.size());
+        assertCell(cells, 1, 9, 2, 0.5);
+        assertCell(cells, 1, 10, 1, 0.5);
+        assertCell(cells, 3, 14, 1.5, 0.75);
+        assertCell(cells, 7, 3, 0, 0);
+    }
+
+    private static void assertCell(List<HeatmapCellDTO> cells, int dayOfWeek, int hour, double bookedHours, double utilization) {
+        HeatmapCellDTO cell = cells.get((dayOfWeek - 1) * 24 + hour);
+        assertEquals(dayOfWeek, cell.getDayOfWeek());
+        assertEquals(hour, cell.getHour());
+        assertEquals(bookedHours, cell.getBookedHours(), 1e-9);
+        assertEquals(utilization, cell.getUtilization(), 1e-9);
+    }
+}
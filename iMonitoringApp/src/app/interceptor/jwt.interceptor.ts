@@ -1,7 +1,7 @@
 
-import { HttpInterceptorFn, HttpRequest, HttpHandlerFn, HttpEvent } from '@angular/common/http';
+import { HttpInterceptorFn, HttpRequest, HttpHandlerFn, HttpEvent, HttpErrorResponse } from '@angular/common/http';
 import { inject } from '@angular/core';
-import { Observable, from, switchMap } from 'rxjs';
+import { Observable, from, switchMap, catchError, throwError } from 'rxjs';
 import { AuthService } from '../services/auth.service'; 
 import { environment } from '../../environments/environment';
 
@@ -9,15 +9,30 @@ export const jwtInterceptorFn: HttpInterceptorFn = (req, next) => {
     const authService = inject(AuthService);
     const apiUrl = environment.apiUrl;
     const isApiUrl = req.url.startsWith(apiUrl);
-    const isAuthPath = req.url.includes('/auth/register') || req.url.includes('/auth/authenticate');
+    const isAuthPath = req.url.includes('/auth/register') || req.url.includes('/auth/authenticate')
+        || req.url.includes('/auth/refresh');
 
     if (isApiUrl && !isAuthPath) {
         return from(authService.getToken()).pipe(
             switchMap(token => {
-                if (token) {
-                    req = req.clone({ setHeaders: { Authorization: `Bearer ${token}` } });
-                }
-                return next(req);
+                const authReq = token ? req.clone({ setHeaders: { Authorization: `Bearer ${token}` } }) : req;
+                return next(authReq).pipe(
+                    catchError((error: HttpErrorResponse) => {
+                        // Access token caducado: se renueva una vez con el refresh token y se reintenta.
+                        if (error.status !== 401 || !token || req.url.includes('/auth/')) {
+                            return throwError(() => error);
+                        }
+                        return from(authService.refreshAccessToken()).pipe(
+                            switchMap(newToken => {
+                                if (!newToken) {
+                                    authService.logout();
+                                    return throwError(() => error);
+                                }
+                                return next(req.clone({ setHeaders: { Authorization: `Bearer ${newToken}` } }));
+                            })
+                        );
+                    })
+                );
             })
         );
     }
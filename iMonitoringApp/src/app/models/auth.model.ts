@@ -8,6 +8,8 @@
 
     export interface AuthResponse {
       token: string;
+      refreshToken?: string;
+      expiresIn?: number;
     }
 
     export interface RegisterRequest {
@@ -12,12 +12,16 @@ export interface Reservation {
   id?: string;
   classroomId: string;
   classroom?: Classroom;
+  classroomName?: string;
+  buildingId?: string;
   userId: string;
   user?: User;
+  userName?: string;
   startTime: string;
   endTime: string;
   status: ReservationStatus;
   purpose?: string;
+  seriesId?: string;
   createdAt?: string;
   updatedAt?: string;
 }
\ No newline at end of file
@@ -1,7 +1,7 @@
 import { Injectable } from '@angular/core';
 import { HttpClient, HttpErrorResponse } from '@angular/common/http';
 import { Storage } from '@ionic/storage-angular';
-import { Observable, BehaviorSubject, throwError } from 'rxjs';
+import { Observable, BehaviorSubject, throwError, firstValueFrom } from 'rxjs';
 import { tap, catchError } from 'rxjs/operators';
 import { environment } from '../../environments/environment';
 import { AuthRequest, AuthResponse, RegisterRequest } from '../models/auth.model';
@@ -10,6 +10,7 @@ import { User } from '../models/user.model';
 import { NavController } from '@ionic/angular';
 
 const TOKEN_KEY = 'auth-token'; 
+const REFRESH_KEY = 'auth-refresh-token';
 
 declare var atob: any; 
 
@@ -24,6 +25,7 @@ export class AuthService {
   public currentUserRole = new BehaviorSubject<Rol | null>(null);
   public currentUser = new BehaviorSubject<User | null>(null);
   private currentToken = new BehaviorSubject<string | null>(null);
+  private refreshInFlight: Promise<string | null> | null = null;
 
   constructor(
     private http: HttpClient,
@@ -142,8 +144,7 @@ export class AuthService {
     return this.http.post<AuthResponse>(`${this.apiUrl}/register`, data).pipe(
       tap(async (res) => {
         if (res && res.token && this._storage) {
-          await this._storage.set(TOKEN_KEY, res.token);
-          this.processToken(res.token);
+          await this.storeSession(res);
         }
       }),
       catchError(this.handleAuthError)
@@ -154,8 +155,7 @@ export class AuthService {
     return this.http.post<AuthResponse>(`${this.apiUrl}/authenticate`, credentials).pipe(
       tap(async (res) => {
         if (res && res.token && this._storage) {
-          await this._storage.set(TOKEN_KEY, res.token);
-          this.processToken(res.token); 
+          await this.storeSession(res);
         } else {
           this.setUnauthenticatedState();
         }
@@ -164,9 +164,53 @@ export class AuthService {
     );
   }
 
+  private async storeSession(res: AuthResponse) {
+    if (!this._storage) return;
+    await this._storage.set(TOKEN_KEY, res.token);
+    if (res.refreshToken) {
+      await this._storage.set(REFRESH_KEY, res.refreshToken);
+    }
+    this.processToken(res.token);
+  }
+
+  /**
+   * Canjea el refresh token guardado por un access token nuevo. Las peticiones que fallen a la vez
+   * comparten la misma llamada, porque cada refresh token solo se puede usar una vez.
+   */
+  refreshAccessToken(): Promise<string | null> {
+    if (!this.refreshInFlight) {
+      this.refreshInFlight = this.doRefresh().finally(() => {
+        this.refreshInFlight = null;
+      });
+    }
+    return this.refreshInFlight;
+  }
+
+  private async doRefresh(): Promise<string | null> {
+    if (!this._storage) {
+      await this.initStorage();
+      if (!this._storage) return null;
+    }
+    const refreshToken = await this._storage.get(REFRESH_KEY);
+    if (!refreshToken) return null;
+    try {
+      const res = await firstValueFrom(
+        this.http.post<AuthResponse>(`${this.apiUrl}/refresh`, { refreshToken })
+      );
+      if (res && res.token) {
+        await this.storeSession(res);
+        return res.token;
+      }
+    } catch (error) {
+      console.warn('[AuthService - refreshAccessToken] No se pudo renovar la sesión:', error);
+    }
+    return null;
+  }
+
   async logout() {
     console.log('[AuthService - logout] Iniciando logout...');
     try {
+      await this.revokeCurrentToken();
       await this.clearAuthDataAndSetUnauthenticated();
       setTimeout(() => {
         this.navCtrl.navigateRoot('/login', { animated: true, animationDirection: 'back' });
@@ -181,6 +225,15 @@ export class AuthService {
     }
   }
 
+  private async revokeCurrentToken() {
+    try {
+      const refreshToken = this._storage ? await this._storage.get(REFRESH_KEY) : null;
+      await firstValueFrom(this.http.post<void>(`${this.apiUrl}/logout`, { refreshToken }));
+    } catch (error) {
+      console.warn('[AuthService - logout] No se pudo revocar el token en el servidor:', error);
+    }
+  }
+
   private async clearAuthDataAndSetUnauthenticated() {
     console.log('[AuthService - clearAuthDataAndSetUnauthenticated] Limpiando datos de autenticación...');
     if (!this._storage) {
@@ -196,6 +249,7 @@ export class AuthService {
       const tokenBefore = await this._storage.get(TOKEN_KEY);
       console.log(`[AuthService] Token antes de remover de storage: ${tokenBefore}`);
       await this._storage.remove(TOKEN_KEY);
+      await this._storage.remove(REFRESH_KEY);
       const tokenAfter = await this._storage.get(TOKEN_KEY);
       console.log(`[AuthService] Token después de remover de storage: ${tokenAfter}`);
     } catch (storageError) {
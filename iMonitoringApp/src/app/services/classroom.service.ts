@@ -13,6 +13,12 @@ export interface ClassroomAvailabilitySummaryDTO {
   total: number;
 }
 
+export interface AvailabilityCheck {
+  classroomId: string;
+  startTime: string;
+  endTime: string;
+}
+
 export interface ClassroomRequestData {
   name: string;
   capacity: number;
@@ -21,6 +27,15 @@ export interface ClassroomRequestData {
   buildingId: string;
 }
 
+export interface ClassroomSearchCriteria {
+  startTime: string;
+  endTime: string;
+  minCapacity?: number;
+  type?: ClassroomType;
+  buildingId?: string;
+  resources?: string[];
+}
+
 @Injectable({
   providedIn: 'root'
 })
@@ -83,16 +98,40 @@ export class ClassroomService {
   }
 
   checkClassroomAvailability(classroomId: string, startTimeISO: string, endTimeISO: string): Observable<boolean> {
-    const params = new HttpParams()
-      .set('startTime', startTimeISO)
-      .set('endTime', endTimeISO);
-    return this.http.get<{isAvailable: boolean}>(`${this.apiUrl}/${classroomId}/check-availability`, { params })
+    const body: AvailabilityCheck = { classroomId, startTime: startTimeISO, endTime: endTimeISO };
+    return this.http.post<{isAvailable: boolean}>(`${this.apiUrl}/check-availability`, body)
       .pipe(
         map((response: {isAvailable: boolean}) => response.isAvailable),
         catchError(err => this.handleError(err, `verificar disponibilidad para aula ${classroomId} en rango`))
       );
   }
 
+  checkClassroomAvailabilityBatch(checks: AvailabilityCheck[]): Observable<boolean[]> {
+    return this.http.post<{available: boolean[]}>(`${this.apiUrl}/check-availability/batch`, { checks })
+      .pipe(
+        map(response => response.available),
+        catchError(err => this.handleError(err, 'verificar disponibilidad de varias aulas'))
+      );
+  }
+
+  searchAvailableClassrooms(criteria: ClassroomSearchCriteria): Observable<Classroom[]> {
+    let params = new HttpParams()
+      .set('startTime', criteria.startTime)
+      .set('endTime', criteria.endTime);
+    if (criteria.minCapacity != null) {
+      params = params.set('minCapacity', criteria.minCapacity);
+    }
+    if (criteria.type) {
+      params = params.set('type', criteria.type);
+    }
+    if (criteria.buildingId) {
+      params = params.set('buildingId', criteria.buildingId);
+    }
+    (criteria.resources || []).forEach(resource => params = params.append('resources', resource));
+    return this.http.get<Classroom[]>(`${this.apiUrl}/search`, { params })
+      .pipe(catchError(err => this.handleError(err, 'buscar aulas disponibles')));
+  }
+
    getClassroomsByType(type: ClassroomType): Observable<Classroom[]> {
     return this.http.get<Classroom[]>(`${this.apiUrl}/type/${type}`)
       .pipe(catchError(err => this.handleError(err, `obtener aulas por tipo ${type}`)));